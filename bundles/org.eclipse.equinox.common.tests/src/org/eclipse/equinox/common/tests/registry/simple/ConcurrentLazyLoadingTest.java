@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.common.tests.registry.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.internal.registry.ExtensionRegistry;
+import org.eclipse.core.internal.registry.Handle;
+import org.eclipse.core.internal.registry.RegistryObjectManager;
+import org.eclipse.core.runtime.ContributorFactorySimple;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.junit.Test;
+
+/**
+ * Tests that registry objects loaded lazily from the registry cache by several
+ * threads at once are only created once.
+ */
+public class ConcurrentLazyLoadingTest extends BaseExtensionRegistryRun {
+
+	private static final int EXTENSIONS = 10;
+	private static final int ELEMENTS = 5;
+	private static final int THREADS = 8;
+
+	@Test
+	public void testConcurrentLazyLoading() throws Exception {
+		// start without the contributions cached by a previous run
+		stopRegistry();
+		delete(getStateLocation().append(getClass().getName()).toFile());
+		simpleRegistry = startRegistry();
+
+		IContributor contributor = ContributorFactorySimple.createContributor("ConcurrentLazyLoading"); //$NON-NLS-1$
+		String namespace = contributor.getName();
+		StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><plugin>"); //$NON-NLS-1$
+		xml.append("<extension-point id=\"point\" name=\"Point\"/>"); //$NON-NLS-1$
+		for (int i = 0; i < EXTENSIONS; i++) {
+			xml.append("<extension id=\"extension").append(i).append("\" point=\"").append(namespace) //$NON-NLS-1$ //$NON-NLS-2$
+					.append(".point\">"); //$NON-NLS-1$
+			for (int j = 0; j < ELEMENTS; j++) {
+				// the grandchildren and their children are third level configuration elements
+				xml.append("<element><child><grandchild value=\"").append(i).append('.').append(j) //$NON-NLS-1$
+						.append("\"><leaf value=\"").append(i).append('.').append(j) //$NON-NLS-1$
+						.append("\"/></grandchild></child></element>"); //$NON-NLS-1$
+			}
+			xml.append("</extension>"); //$NON-NLS-1$
+		}
+		xml.append("</plugin>"); //$NON-NLS-1$
+		assertTrue(simpleRegistry.addContribution(
+				new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)), contributor, true,
+				namespace, null, masterToken));
+
+		// the ids of the objects are kept in the registry cache
+		stopRegistry();
+		simpleRegistry = startRegistry();
+		List<Integer> ids = new ArrayList<>();
+		IExtensionPoint point = simpleRegistry.getExtensionPoint(qualifiedName(namespace, "point")); //$NON-NLS-1$
+		assertNotNull(point);
+		for (IExtension extension : point.getExtensions()) {
+			for (IConfigurationElement element : extension.getConfigurationElements()) {
+				IConfigurationElement grandchild = element.getChildren()[0].getChildren()[0];
+				ids.add(((Handle) grandchild).getId());
+				ids.add(((Handle) grandchild.getChildren()[0]).getId());
+			}
+		}
+		assertEquals(EXTENSIONS * ELEMENTS * 2, ids.size());
+
+		// load a grandchild, which also loads its leaf, while other threads load the leaf
+		stopRegistry();
+		simpleRegistry = startRegistry();
+		RegistryObjectManager objectManager = ((ExtensionRegistry) simpleRegistry).getObjectManager();
+		CyclicBarrier start = new CyclicBarrier(THREADS);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<Map<Integer, Object>>> results = new ArrayList<>();
+		try {
+			for (int t = 0; t < THREADS; t++) {
+				List<Integer> order = new ArrayList<>(ids);
+				Collections.shuffle(order, new Random(t));
+				results.add(executor.submit(() -> {
+					Map<Integer, Object> loaded = new HashMap<>();
+					start.await();
+					for (Integer id : order) {
+						loaded.put(id, objectManager.getObject(id.intValue(),
+								RegistryObjectManager.THIRDLEVEL_CONFIGURATION_ELEMENT));
+					}
+					return loaded;
+				}));
+			}
+			Map<Integer, Object> first = results.get(0).get();
+			for (Future<Map<Integer, Object>> result : results) {
+				Map<Integer, Object> loaded = result.get();
+				for (Integer id : ids) {
+					assertNotNull(loaded.get(id));
+					assertSame("Loaded more than one instance of " + id, first.get(id), loaded.get(id)); //$NON-NLS-1$
+					assertSame(first.get(id), objectManager.getObject(id.intValue(),
+							RegistryObjectManager.THIRDLEVEL_CONFIGURATION_ELEMENT));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		point = simpleRegistry.getExtensionPoint(qualifiedName(namespace, "point")); //$NON-NLS-1$
+		IExtension[] extensions = point.getExtensions();
+		assertEquals(EXTENSIONS, extensions.length);
+		for (IExtension extension : extensions) {
+			String i = extension.getSimpleIdentifier().substring("extension".length()); //$NON-NLS-1$
+			IConfigurationElement[] elements = extension.getConfigurationElements();
+			assertEquals(ELEMENTS, elements.length);
+			for (int j = 0; j < ELEMENTS; j++) {
+				IConfigurationElement grandchild = elements[j].getChildren()[0].getChildren()[0];
+				assertEquals(i + '.' + j, grandchild.getAttribute("value")); //$NON-NLS-1$
+				assertEquals(i + '.' + j, grandchild.getChildren()[0].getAttribute("value")); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.common.tests.registry.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.internal.registry.Contribution;
+import org.eclipse.core.internal.registry.ExtensionRegistry;
+import org.eclipse.core.runtime.ContributorFactorySimple;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.junit.Test;
+
+/**
+ * Tests adding a batch of contributions parsed ahead of time, as done when the
+ * registry is populated on startup, while contributors are added and removed
+ * concurrently.
+ */
+public class ContributionBatchTest extends BaseExtensionRegistryRun {
+
+	@Test
+	public void testConcurrentChangesDuringBatch() throws Exception {
+		ExtensionRegistry registry = (ExtensionRegistry) simpleRegistry;
+		IContributor pointContributor = ContributorFactorySimple.createContributor("BatchPoint"); //$NON-NLS-1$
+		IContributor added = ContributorFactorySimple.createContributor("BatchAdded"); //$NON-NLS-1$
+		IContributor removed = ContributorFactorySimple.createContributor("BatchRemoved"); //$NON-NLS-1$
+		String point = qualifiedName(pointContributor.getName(), "point"); //$NON-NLS-1$
+		String removedPoint = qualifiedName(removed.getName(), "point"); //$NON-NLS-1$
+
+		// parse the batch on other threads, like the bundle listener does
+		IContributor[] contributors = new IContributor[] { pointContributor, added, removed };
+		String[] manifests = new String[] { "<extension-point id=\"point\" name=\"Point\"/>", //$NON-NLS-1$
+				getExtension(point, "added"), //$NON-NLS-1$
+				"<extension-point id=\"point\" name=\"Removed Point\"/>" + getExtension(point, "removed") }; //$NON-NLS-1$ //$NON-NLS-2$
+		Contribution[] contributions = new Contribution[contributors.length];
+		ExecutorService executor = Executors.newFixedThreadPool(contributors.length);
+		try {
+			List<Future<Contribution>> parsed = new ArrayList<>();
+			for (int i = 0; i < contributors.length; i++) {
+				final int index = i;
+				parsed.add(executor.submit(() -> registry.parseContribution(getManifest(manifests[index]),
+						contributors[index], false, contributors[index].getName(), null, userToken)));
+			}
+			for (int i = 0; i < contributors.length; i++) {
+				contributions[i] = parsed.get(i).get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		for (Contribution contribution : contributions) {
+			assertNotNull(contribution);
+		}
+
+		// a contributor of the batch is added before the batch
+		assertTrue(simpleRegistry.addContribution(getManifest(getExtension(point, "added")), added, false, //$NON-NLS-1$
+				added.getName(), null, userToken));
+		// and another one is removed before the batch, so it is no longer current
+		registry.addContributions(contributions, new long[contributions.length], i -> contributors[i] != removed);
+
+		IExtensionPoint extensionPoint = simpleRegistry.getExtensionPoint(point);
+		assertNotNull(extensionPoint);
+		IExtension[] extensions = extensionPoint.getExtensions();
+		assertEquals("The contribution added before the batch was added twice", 1, extensions.length); //$NON-NLS-1$
+		assertEquals(added.getName(), extensions[0].getContributor().getName());
+		assertEquals(1, simpleRegistry.getExtensions(added.getName()).length);
+		assertNull("The removed contribution was added", simpleRegistry.getExtensionPoint(removedPoint)); //$NON-NLS-1$
+		assertEquals(0, simpleRegistry.getExtensions(removed.getName()).length);
+		assertFalse(registry.hasContributor(removed));
+
+		// the extension point of the discarded contribution is no longer registered
+		assertTrue(simpleRegistry.addContribution(getManifest(manifests[2]), removed, false, removed.getName(), null,
+				userToken));
+		assertNotNull(simpleRegistry.getExtensionPoint(removedPoint));
+		assertEquals(2, simpleRegistry.getExtensionPoint(point).getExtensions().length);
+	}
+
+	@Test
+	public void testDuplicateExtensionPointInBatch() throws Exception {
+		ExtensionRegistry registry = (ExtensionRegistry) simpleRegistry;
+		IContributor first = ContributorFactorySimple.createContributor("DuplicateFirst"); //$NON-NLS-1$
+		IContributor second = ContributorFactorySimple.createContributor("DuplicateSecond"); //$NON-NLS-1$
+		IContributor[] contributors = new IContributor[] { first, second };
+		// qualified ids keep their namespace in 3.2 manifests, so both declare the same id
+		String manifest = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><?eclipse version=\"3.2\"?><plugin>" //$NON-NLS-1$
+				+ "<extension-point id=\"duplicate.point\" name=\"Point\"/>" //$NON-NLS-1$
+				+ getExtension("duplicate.point", "extension") + "</plugin>"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		// the second contribution is parsed first; the first of the batch still wins
+		Contribution[] contributions = new Contribution[contributors.length];
+		for (int i = contributors.length - 1; i >= 0; i--) {
+			contributions[i] = registry.parseContribution(
+					new ByteArrayInputStream(manifest.getBytes(StandardCharsets.UTF_8)), contributors[i], false,
+					contributors[i].getName(), null, userToken);
+			assertNotNull(contributions[i]);
+		}
+		registry.addContributions(contributions, new long[contributions.length], i -> true);
+
+		IExtensionPoint extensionPoint = simpleRegistry.getExtensionPoint("duplicate.point"); //$NON-NLS-1$
+		assertNotNull(extensionPoint);
+		assertEquals(first.getName(), extensionPoint.getContributor().getName());
+		assertEquals(1, simpleRegistry.getExtensionPoints(first).length);
+		assertEquals(0, simpleRegistry.getExtensionPoints(second).length);
+		// the extensions of both contributions are kept
+		assertEquals(2, extensionPoint.getExtensions().length);
+
+		// the point of a contribution discarded from the batch is left to the next one
+		registry.removeContributor(first, masterToken);
+		registry.removeContributor(second, masterToken);
+		assertNull(simpleRegistry.getExtensionPoint("duplicate.point")); //$NON-NLS-1$
+		for (int i = 0; i < contributors.length; i++) {
+			contributions[i] = registry.parseContribution(
+					new ByteArrayInputStream(manifest.getBytes(StandardCharsets.UTF_8)), contributors[i], false,
+					contributors[i].getName(), null, userToken);
+		}
+		registry.addContributions(contributions, new long[contributions.length], i -> contributors[i] != first);
+		extensionPoint = simpleRegistry.getExtensionPoint("duplicate.point"); //$NON-NLS-1$
+		assertNotNull(extensionPoint);
+		assertEquals(second.getName(), extensionPoint.getContributor().getName());
+		assertEquals(1, extensionPoint.getExtensions().length);
+	}
+
+	private static String getExtension(String point, String id) {
+		return "<extension id=\"" + id + "\" point=\"" + point + "\"><element value=\"" + id //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "\"><child/></element></extension>"; //$NON-NLS-1$
+	}
+
+	private static InputStream getManifest(String content) {
+		String manifest = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><plugin>" + content + "</plugin>"; //$NON-NLS-1$ //$NON-NLS-2$
+		return new ByteArrayInputStream(manifest.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.common.tests.registry.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.core.internal.registry.ExtensionRegistry;
+import org.eclipse.core.internal.registry.IRegistryConstants;
+import org.eclipse.core.internal.registry.TableReader;
+import org.eclipse.core.runtime.ContributorFactorySimple;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.junit.Test;
+
+/**
+ * Tests that the registry cache is read back from memory mapped files when
+ * {@link IRegistryConstants#PROP_MAPPED_CACHE} is set.
+ */
+public class MappedCacheTest extends BaseExtensionRegistryRun {
+
+	private static final int EXTENSIONS = 5;
+	// written as a large string, a string of more than 65535 bytes
+	private static final String LARGE_VALUE = String.join("", Collections.nCopies(10000, "largeé")); //$NON-NLS-1$ //$NON-NLS-2$
+	private static final String VALUE = "value é中"; //$NON-NLS-1$
+
+	@Test
+	public void testMappedCache() throws Exception {
+		String oldMappedValue = System.getProperty(IRegistryConstants.PROP_MAPPED_CACHE);
+		System.setProperty(IRegistryConstants.PROP_MAPPED_CACHE, "true"); //$NON-NLS-1$
+		try {
+			// start without the contributions cached by a previous run
+			stopRegistry();
+			delete(getStateLocation().append(getClass().getName()).toFile());
+			simpleRegistry = startRegistry();
+
+			IContributor contributor = ContributorFactorySimple.createContributor("MappedCache"); //$NON-NLS-1$
+			String namespace = contributor.getName();
+			StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><plugin>"); //$NON-NLS-1$
+			xml.append("<extension-point id=\"point\" name=\"Point\"/>"); //$NON-NLS-1$
+			for (int i = 0; i < EXTENSIONS; i++) {
+				xml.append("<extension id=\"extension").append(i).append("\" name=\"Extension ").append(i) //$NON-NLS-1$ //$NON-NLS-2$
+						.append("\" point=\"").append(namespace).append(".point\">"); //$NON-NLS-1$ //$NON-NLS-2$
+				xml.append("<element index=\"").append(i).append("\" value=\"").append(VALUE).append("\">"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				xml.append("<child large=\"").append(LARGE_VALUE).append("\">"); //$NON-NLS-1$ //$NON-NLS-2$
+				xml.append("<grandchild>").append(VALUE).append("</grandchild>"); //$NON-NLS-1$ //$NON-NLS-2$
+				xml.append("</child></element></extension>"); //$NON-NLS-1$
+			}
+			xml.append("</plugin>"); //$NON-NLS-1$
+			assertTrue(simpleRegistry.addContribution(
+					new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)), contributor, true,
+					namespace, null, masterToken));
+			checkRegistry(namespace);
+
+			// written by the first registry, read back by the second and third
+			for (int i = 0; i < 2; i++) {
+				stopRegistry();
+				simpleRegistry = startRegistry();
+				assertMapped();
+				checkRegistry(namespace);
+			}
+		} finally {
+			if (oldMappedValue == null) {
+				System.clearProperty(IRegistryConstants.PROP_MAPPED_CACHE);
+			} else {
+				System.setProperty(IRegistryConstants.PROP_MAPPED_CACHE, oldMappedValue);
+			}
+		}
+	}
+
+	private void assertMapped() throws Exception {
+		Method getTableReader = ExtensionRegistry.class.getDeclaredMethod("getTableReader"); //$NON-NLS-1$
+		getTableReader.setAccessible(true);
+		Object reader = getTableReader.invoke(simpleRegistry);
+		for (String name : Arrays.asList("mainDataBuffer", "extraDataBuffer")) { //$NON-NLS-1$ //$NON-NLS-2$
+			Field buffer = TableReader.class.getDeclaredField(name);
+			buffer.setAccessible(true);
+			assertNotNull("The registry cache is not mapped: " + name, buffer.get(reader)); //$NON-NLS-1$
+		}
+	}
+
+	private void checkRegistry(String namespace) {
+		IExtensionPoint point = simpleRegistry.getExtensionPoint(qualifiedName(namespace, "point")); //$NON-NLS-1$
+		assertNotNull(point);
+		assertEquals("Point", point.getLabel()); //$NON-NLS-1$
+		IExtension[] extensions = point.getExtensions();
+		assertEquals(EXTENSIONS, extensions.length);
+		for (IExtension extension : extensions) {
+			String i = extension.getSimpleIdentifier().substring("extension".length()); //$NON-NLS-1$
+			assertEquals("Extension " + i, extension.getLabel()); //$NON-NLS-1$
+			assertEquals(namespace, extension.getContributor().getName());
+			IConfigurationElement[] elements = extension.getConfigurationElements();
+			assertEquals(1, elements.length);
+			assertEquals(i, elements[0].getAttribute("index")); //$NON-NLS-1$
+			assertEquals(VALUE, elements[0].getAttribute("value")); //$NON-NLS-1$
+			IConfigurationElement child = elements[0].getChildren("child")[0]; //$NON-NLS-1$
+			assertEquals(LARGE_VALUE, child.getAttribute("large")); //$NON-NLS-1$
+			IConfigurationElement grandchild = child.getChildren("grandchild")[0]; //$NON-NLS-1$
+			assertEquals(VALUE, grandchild.getValue());
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
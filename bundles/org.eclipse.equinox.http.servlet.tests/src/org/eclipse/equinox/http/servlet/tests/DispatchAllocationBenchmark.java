@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.equinox.http.servlet.tests;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.Servlet;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.equinox.http.servlet.testbase.BaseTest;
+import org.eclipse.equinox.http.servlet.tests.util.BaseServlet;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.osgi.service.http.whiteboard.HttpWhiteboardConstants;
+
+/**
+ * Measures the memory allocated by the dispatch pipeline. A servlet includes a
+ * target servlet through a chain of filters many times on the request thread
+ * and reports the bytes allocated by that thread for each include, which covers
+ * the resolution of the dispatch targets, the request and response wrappers
+ * and the filter chain.
+ * <p>
+ * This benchmark is not part of the test suite, run it on demand.
+ */
+public class DispatchAllocationBenchmark extends BaseTest {
+
+	private static final int FILTERS = 5;
+	private static final int WARMUP = 20000;
+	private static final int ITERATIONS = 100000;
+
+	@Test
+	public void benchmark_includeAllocation() throws Exception {
+		Method getThreadAllocatedBytes = getThreadAllocatedBytesMethod();
+
+		Assume.assumeNotNull(getThreadAllocatedBytes);
+
+		final AtomicLong targetCalls = new AtomicLong();
+
+		Servlet benchmarkServlet = new BaseServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest request, HttpServletResponse response)
+					throws ServletException, IOException {
+
+				RequestDispatcher dispatcher = request.getRequestDispatcher("/target/a");
+
+				for (int i = 0; i < WARMUP; i++) {
+					dispatcher.include(request, response);
+				}
+
+				ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+				long threadId = Thread.currentThread().getId();
+
+				try {
+					long before = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId);
+
+					for (int i = 0; i < ITERATIONS; i++) {
+						dispatcher.include(request, response);
+					}
+
+					long after = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId);
+
+					response.getWriter().write(String.valueOf((after - before) / ITERATIONS));
+				} catch (ReflectiveOperationException e) {
+					throw new ServletException(e);
+				}
+			}
+		};
+
+		Servlet targetServlet = new BaseServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest request, HttpServletResponse response) {
+				targetCalls.incrementAndGet();
+			}
+		};
+
+		Dictionary<String, Object> props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/benchmark");
+		registrations.add(getBundleContext().registerService(Servlet.class, benchmarkServlet, props));
+
+		props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/target/*");
+		registrations.add(getBundleContext().registerService(Servlet.class, targetServlet, props));
+
+		for (int i = 0; i < FILTERS; i++) {
+			props = new Hashtable<>();
+			props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_NAME, "F" + i);
+			props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_DISPATCHER,
+					new String[] { DispatcherType.INCLUDE.toString() });
+			props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_PATTERN, "/target/*");
+			registrations.add(getBundleContext().registerService(Filter.class, new TestFilter(), props));
+		}
+
+		String bytesPerInclude = requestAdvisor.request("benchmark");
+
+		System.out.println("Allocated " + bytesPerInclude + " bytes for each include through " + FILTERS
+				+ " filters");
+
+		Assert.assertEquals(WARMUP + ITERATIONS, targetCalls.get());
+		Assert.assertTrue(Long.parseLong(bytesPerInclude) >= 0);
+	}
+
+	private static Method getThreadAllocatedBytesMethod() {
+		try {
+			Class<?> threadMXBeanClass = Class.forName("com.sun.management.ThreadMXBean", false,
+					ClassLoader.getSystemClassLoader());
+
+			if (!threadMXBeanClass.isInstance(ManagementFactory.getThreadMXBean())) {
+				return null;
+			}
+
+			return threadMXBeanClass.getMethod("getThreadAllocatedBytes", long.class);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+}
@@ -46,6 +46,7 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.equinox.http.servlet.dto.ExtendedRuntimeDTO;
 import org.eclipse.equinox.http.servlet.testbase.BaseTest;
 import org.eclipse.equinox.http.servlet.tests.util.BaseServlet;
 import org.eclipse.equinox.http.servlet.tests.util.DispatchResultServlet;
@@ -1708,4 +1709,100 @@ public class DispatchingTest extends BaseTest {
 
 		Assert.assertEquals("/Bug%20497510/a%20b%20c", result);
 	}
+
+	@Test
+	public void test_includeSkipsFiltersOfOtherDispatcherTypes() throws Exception {
+		Servlet servlet1 = new BaseServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest request, HttpServletResponse response)
+					throws ServletException, IOException {
+				request.getRequestDispatcher("/s2/i").include(request, response);
+			}
+		};
+
+		TestFilter requestFilter = new TestFilter() {
+
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+					throws IOException, ServletException {
+
+				response.getWriter().write('r');
+
+				super.doFilter(request, response, chain);
+
+				response.getWriter().write('r');
+			}
+
+		};
+
+		TestFilter includeFilter = new TestFilter() {
+
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+					throws IOException, ServletException {
+
+				response.getWriter().write('i');
+
+				super.doFilter(request, response, chain);
+
+				response.getWriter().write('i');
+			}
+
+		};
+
+		Dictionary<String, Object> props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/s1/*");
+		registrations.add(getBundleContext().registerService(Servlet.class, servlet1, props));
+
+		props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/s2/*");
+		registrations.add(getBundleContext().registerService(Servlet.class, new BaseServlet("s2"), props));
+
+		// the request filter is called first, but it does not apply to the include
+		props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_NAME, "F1");
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_DISPATCHER,
+				new String[] { DispatcherType.REQUEST.toString() });
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_PATTERN, "/*");
+		props.put(Constants.SERVICE_RANKING, 10);
+		registrations.add(getBundleContext().registerService(Filter.class, requestFilter, props));
+
+		props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_NAME, "F2");
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_DISPATCHER,
+				new String[] { DispatcherType.INCLUDE.toString() });
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_PATTERN, "/*");
+		registrations.add(getBundleContext().registerService(Filter.class, includeFilter, props));
+
+		Assert.assertEquals("ris2ir", requestAdvisor.request("s1/a"));
+		Assert.assertTrue(includeFilter.getCalled());
+	}
+
+	@Test
+	public void test_dispatchCacheInvalidatedByRegistration() throws Exception {
+		Dictionary<String, Object> props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_NAME, "S1");
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/dispatchCache/*");
+		registrations.add(getBundleContext().registerService(Servlet.class, new BaseServlet("S1"), props));
+
+		Assert.assertEquals("S1", requestAdvisor.request("dispatchCache/a"));
+
+		ExtendedRuntimeDTO runtimeDTO = (ExtendedRuntimeDTO) getHttpServiceRuntime().getRuntimeDTO();
+		long hitCount = runtimeDTO.dispatchCacheHitCount;
+
+		Assert.assertEquals("S1", requestAdvisor.request("dispatchCache/a"));
+
+		runtimeDTO = (ExtendedRuntimeDTO) getHttpServiceRuntime().getRuntimeDTO();
+		Assert.assertEquals(hitCount + 1, runtimeDTO.dispatchCacheHitCount);
+		Assert.assertTrue(runtimeDTO.dispatchCacheSize > 0);
+
+		props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_NAME, "S2");
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/dispatchCache/a");
+		registrations.add(getBundleContext().registerService(Servlet.class, new BaseServlet("S2"), props));
+
+		Assert.assertEquals("S2", requestAdvisor.request("dispatchCache/a"));
+	}
 }
@@ -16,15 +16,20 @@
  *******************************************************************************/
 package org.eclipse.equinox.http.servlet.tests;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -49,6 +54,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -86,6 +92,7 @@ import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.eclipse.equinox.http.servlet.ExtendedHttpService;
 import org.eclipse.equinox.http.servlet.RangeAwareServletContextHelper;
 import org.eclipse.equinox.http.servlet.context.ContextPathCustomizer;
+import org.eclipse.equinox.http.servlet.dto.ExtendedRuntimeDTO;
 import org.eclipse.equinox.http.servlet.session.HttpSessionInvalidator;
 import org.eclipse.equinox.http.servlet.testbase.BaseTest;
 import org.eclipse.equinox.http.servlet.tests.util.AsyncOutputServlet;
@@ -1967,6 +1974,46 @@ public class ServletTest extends BaseTest {
 		assertEquals("Wrong value.", "test\n", actual);
 	}
 
+	@Test
+	public void test_ResourceGzipEncoding() throws Exception {
+		HttpService extendedHttpService = getHttpService();
+
+		extendedHttpService.registerResources("/gzip", "/org/eclipse/equinox/http/servlet/tests", null);
+
+		Map<String, List<String>> requestHeader = new HashMap<>();
+		requestHeader.put("Accept-Encoding", Collections.singletonList("gzip"));
+
+		Map<String, List<String>> identity = requestAdvisor.request("gzip/resource3.txt", null);
+		Map<String, List<String>> gzip = requestAdvisor.request("gzip/resource3.txt", requestHeader);
+
+		assertEquals("Response Code", Collections.singletonList("200"), identity.get("responseCode"));
+		assertNull("Content-Encoding", identity.get("Content-Encoding"));
+		assertEquals("Content-Length", Collections.singletonList("2751"), identity.get("Content-Length"));
+		assertEquals("Response Code", Collections.singletonList("200"), gzip.get("responseCode"));
+		assertEquals("Content-Encoding", Collections.singletonList("gzip"), gzip.get("Content-Encoding"));
+		assertEquals("Vary", Collections.singletonList("Accept-Encoding"), gzip.get("Vary"));
+		assertTrue("Content-Length", Integer.parseInt(gzip.get("Content-Length").get(0)) < 2751);
+		assertNotEquals("ETag", identity.get("ETag"), gzip.get("ETag"));
+
+		byte[] expected;
+		try (InputStream in = ServletTest.class.getResourceAsStream("resource3.txt")) {
+			expected = in.readAllBytes();
+		}
+
+		// the resource was cached by the first request
+		long hitCount = ((ExtendedRuntimeDTO) getHttpServiceRuntime().getRuntimeDTO()).resourceCacheHitCount;
+
+		byte[] body = requestAdvisor.requestBytes("gzip/resource3.txt", requestHeader);
+
+		assertEquals("Cache hits", hitCount + 1,
+				((ExtendedRuntimeDTO) getHttpServiceRuntime().getRuntimeDTO()).resourceCacheHitCount);
+		byte[] actual;
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			actual = in.readAllBytes();
+		}
+		assertArrayEquals("Decompressed content", expected, actual);
+	}
+
 	@Test
 	public void test_ResourceRangeRequest_Complete() throws Exception {
 		Bundle bundle = installBundle(TEST_BUNDLE_2);
@@ -15,6 +15,7 @@
 package org.eclipse.equinox.http.servlet.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.osgi.service.http.whiteboard.HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_MULTIPART_ENABLED;
 import static org.osgi.service.http.whiteboard.HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_MULTIPART_MAXFILESIZE;
@@ -22,15 +23,21 @@ import static org.osgi.service.http.whiteboard.HttpWhiteboardConstants.HTTP_WHIT
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.servlet.Servlet;
 import javax.servlet.ServletException;
@@ -39,6 +46,9 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 
+import org.eclipse.equinox.http.servlet.StreamingPart;
+import org.eclipse.equinox.http.servlet.StreamingPartIterator;
+import org.eclipse.equinox.http.servlet.StreamingParts;
 import org.eclipse.equinox.http.servlet.testbase.BaseTest;
 import org.junit.Test;
 
@@ -56,6 +66,146 @@ public class TestUpload extends BaseTest {
 		assertEquals(26L, (long) contents.get("text.txt"));
 	}
 
+	@Test
+	public void testStreamingUpload() throws Exception {
+		final CountDownLatch receivedLatch = new CountDownLatch(1);
+		final Map<String, Long> contents = new HashMap<>();
+		final AtomicBoolean partsRejected = new AtomicBoolean();
+
+		final Dictionary<String, Object> servletProps = new Hashtable<>();
+		servletProps.put(HTTP_WHITEBOARD_SERVLET_PATTERN, "/post");
+		servletProps.put(HTTP_WHITEBOARD_SERVLET_MULTIPART_ENABLED, Boolean.TRUE);
+
+		@SuppressWarnings("serial")
+		final Servlet uploadServlet = new HttpServlet() {
+			@Override
+			protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+					throws IOException, ServletException {
+				try {
+					StreamingPartIterator parts = StreamingParts.iterator(req);
+					while (parts.hasNext()) {
+						StreamingPart part = parts.next();
+						ReadableByteChannel channel = part.getChannel();
+						ByteBuffer buffer = ByteBuffer.allocate(8);
+						long size = 0;
+						int read;
+						while ((read = channel.read(buffer)) != -1) {
+							size += read;
+							buffer.clear();
+						}
+						contents.put(part.getName(), size);
+					}
+					try {
+						req.getParts();
+					} catch (IllegalStateException ise) {
+						partsRejected.set(true);
+					}
+					resp.setStatus(201);
+				} finally {
+					receivedLatch.countDown();
+				}
+			}
+		};
+
+		long before = this.getHttpRuntimeChangeCount();
+		registrations.add(getBundleContext().registerService(Servlet.class.getName(), uploadServlet, servletProps));
+		this.waitForRegistration(before);
+
+		postContent(getClass().getResource("resource1.txt"), 201);
+		assertTrue(receivedLatch.await(5, TimeUnit.SECONDS));
+		assertEquals(1, contents.size());
+		assertEquals(26L, (long) contents.get("text.txt"));
+		assertTrue(partsRejected.get());
+	}
+
+	@Test
+	public void testStreamingUploadMultipleParts() throws Exception {
+		final CountDownLatch receivedLatch = new CountDownLatch(1);
+		final List<String> names = new ArrayList<>();
+		final Map<String, String> contents = new HashMap<>();
+
+		final Dictionary<String, Object> servletProps = new Hashtable<>();
+		servletProps.put(HTTP_WHITEBOARD_SERVLET_PATTERN, "/post");
+		servletProps.put(HTTP_WHITEBOARD_SERVLET_MULTIPART_ENABLED, Boolean.TRUE);
+
+		@SuppressWarnings("serial")
+		final Servlet uploadServlet = new HttpServlet() {
+			@Override
+			protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+					throws IOException, ServletException {
+				try {
+					StreamingPartIterator parts = StreamingParts.iterator(req);
+					while (parts.hasNext()) {
+						StreamingPart part = parts.next();
+						names.add(part.getName());
+						// the skipped part is not read before the next part is requested
+						if (!part.getName().equals("skipped")) {
+							contents.put(part.getName(),
+									new String(part.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+						}
+					}
+					resp.setStatus(201);
+				} finally {
+					receivedLatch.countDown();
+				}
+			}
+		};
+
+		long before = this.getHttpRuntimeChangeCount();
+		registrations.add(getBundleContext().registerService(Servlet.class.getName(), uploadServlet, servletProps));
+		this.waitForRegistration(before);
+
+		Map<String, List<Object>> map = new HashMap<>();
+		map.put("method", Arrays.<Object>asList("POST"));
+		map.put("text.txt", Arrays.<Object>asList(getClass().getResource("resource1.txt")));
+		Map<String, Object> formFields = new LinkedHashMap<>();
+		formFields.put("first", "one");
+		formFields.put("skipped", "two");
+		formFields.put("last", "three");
+
+		Map<String, List<String>> result = requestAdvisor.upload("post", map, formFields);
+
+		assertEquals("201", result.get("responseCode").get(0));
+		assertTrue(receivedLatch.await(5, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("first", "skipped", "last", "text.txt"), names);
+		assertEquals("one", contents.get("first"));
+		assertEquals("three", contents.get("last"));
+		assertEquals(26, contents.get("text.txt").length());
+		assertFalse(contents.containsKey("skipped"));
+	}
+
+	@Test
+	public void testStreamingUploadNotMultipartEnabled() throws Exception {
+		final CountDownLatch receivedLatch = new CountDownLatch(1);
+		final AtomicBoolean rejected = new AtomicBoolean();
+
+		final Dictionary<String, Object> servletProps = new Hashtable<>();
+		servletProps.put(HTTP_WHITEBOARD_SERVLET_PATTERN, "/post");
+
+		@SuppressWarnings("serial")
+		final Servlet uploadServlet = new HttpServlet() {
+			@Override
+			protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				try {
+					StreamingParts.iterator(req);
+				} catch (ServletException se) {
+					rejected.set(true);
+				} finally {
+					receivedLatch.countDown();
+				}
+				resp.setStatus(201);
+			}
+		};
+
+		long before = this.getHttpRuntimeChangeCount();
+		registrations.add(getBundleContext().registerService(Servlet.class.getName(), uploadServlet, servletProps));
+		this.waitForRegistration(before);
+
+		postContent(getClass().getResource("resource1.txt"), 201);
+		assertTrue(receivedLatch.await(5, TimeUnit.SECONDS));
+		assertTrue(rejected.get());
+	}
+
 	private void setupUploadServlet(final CountDownLatch receivedLatch, final Map<String, Long> contents) {
 		final Dictionary<String, Object> servletProps = new Hashtable<>();
 		servletProps.put(HTTP_WHITEBOARD_SERVLET_PATTERN, "/post");
@@ -239,6 +239,33 @@ public class ServletRequestAdvisor extends Object {
 		return map;
 	}
 
+	/*
+	 * Requests the value and returns the bytes of the response body as they were
+	 * sent, without decoding them.
+	 */
+	public byte[] requestBytes(String value, Map<String, List<String>> headers) throws IOException {
+		String spec = createUrlSpec(value);
+		log("Requesting " + spec); //$NON-NLS-1$
+		URL url = new URL(spec);
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+
+		connection.setInstanceFollowRedirects(false);
+		connection.setConnectTimeout(timeout);
+		connection.setReadTimeout(timeout);
+
+		if (headers != null) {
+			for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+				for (String entryValue : entry.getValue()) {
+					connection.setRequestProperty(entry.getKey(), entryValue);
+				}
+			}
+		}
+
+		try (InputStream stream = connection.getInputStream()) {
+			return stream.readAllBytes();
+		}
+	}
+
 	public Map<String, List<String>> eventSource(String value, Map<String, List<String>> headers,
 			final EventHandler handler) throws IOException {
 		String spec = createUrlSpec(value);
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.http.servlet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Collection;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * A part of a multipart request which is read directly from the request as it
+ * arrives. Unlike a {@link javax.servlet.http.Part}, its content is not stored
+ * anywhere: it can be read once, and only until the next part is requested.
+ *
+ * @see StreamingParts
+ * @since 1.9
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+@ProviderType
+public interface StreamingPart {
+
+	/**
+	 * @return the name of the form field of this part
+	 */
+	String getName();
+
+	/**
+	 * @return the file name specified by the client, or <code>null</code> if this
+	 *         part is not a file
+	 */
+	String getSubmittedFileName();
+
+	/**
+	 * @return the content type of this part, or <code>null</code> if it was not
+	 *         specified
+	 */
+	String getContentType();
+
+	/**
+	 * @param name the name of the header
+	 * @return the first value of the header, or <code>null</code> if this part
+	 *         has no such header
+	 */
+	String getHeader(String name);
+
+	/**
+	 * @param name the name of the header
+	 * @return the values of the header, empty if this part has no such header
+	 */
+	Collection<String> getHeaders(String name);
+
+	/**
+	 * @return the names of the headers of this part
+	 */
+	Collection<String> getHeaderNames();
+
+	/**
+	 * Returns the stream of the content of this part. Reading the stream reads the
+	 * request, so a client which sends faster than the stream is read is held
+	 * back by the connection.
+	 *
+	 * @return the content of this part, the same stream on every call
+	 * @throws IOException if the content cannot be read, including when it
+	 *                     exceeds the maximum file size of the servlet
+	 */
+	InputStream getInputStream() throws IOException;
+
+	/**
+	 * Returns a channel reading the same content as {@link #getInputStream()}.
+	 *
+	 * @return the content of this part, the same channel on every call
+	 * @throws IOException if the content cannot be read
+	 */
+	ReadableByteChannel getChannel() throws IOException;
+
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.http.servlet;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Iterates over the parts of a multipart request in the order they arrive.
+ * Requesting the next part skips whatever content of the current part was not
+ * read.
+ *
+ * @see StreamingParts
+ * @since 1.9
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+@ProviderType
+public interface StreamingPartIterator {
+
+	/**
+	 * @return whether the request has another part
+	 * @throws IOException if the request cannot be read or is not a valid
+	 *                     multipart request
+	 */
+	boolean hasNext() throws IOException;
+
+	/**
+	 * @return the next part of the request
+	 * @throws IOException            if the request cannot be read or is not a
+	 *                                valid multipart request
+	 * @throws NoSuchElementException if the request has no more parts
+	 */
+	StreamingPart next() throws IOException;
+
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.http.servlet;
+
+import java.io.IOException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import org.eclipse.equinox.http.servlet.internal.servlet.HttpServletRequestWrapperImpl;
+
+/**
+ * Reads the parts of multipart requests without storing them. The parts
+ * returned by {@link HttpServletRequest#getParts()} are stored in memory or in
+ * the multipart location of the servlet before the servlet can read any of
+ * them. A servlet which streams the parts instead reads each part from the
+ * request as it arrives, and can pass uploads on to their destination without
+ * writing them to disk first.
+ * <p>
+ * The servlet must be enabled for multipart requests. The maximum file and
+ * request sizes of the servlet apply to the streamed parts; the file size
+ * threshold and the multipart location do not. The parts of a request are
+ * either streamed or returned by {@link HttpServletRequest#getParts()}, not
+ * both.
+ *
+ * @since 1.9
+ */
+public final class StreamingParts {
+
+	private StreamingParts() {
+		// no instances
+	}
+
+	/**
+	 * Returns an iterator over the parts of the multipart request, in the order
+	 * they arrive.
+	 *
+	 * @param request a multipart request dispatched to a servlet by the Http
+	 *                Service Runtime
+	 * @return the iterator over the parts of the request
+	 * @throws IOException           if the request cannot be read
+	 * @throws ServletException      if the request was not dispatched to a
+	 *                               servlet enabled for multipart requests or is
+	 *                               not a multipart request
+	 * @throws IllegalStateException if the parts of the request were already read
+	 */
+	public static StreamingPartIterator iterator(HttpServletRequest request) throws IOException, ServletException {
+		HttpServletRequestWrapperImpl requestWrapper = HttpServletRequestWrapperImpl.findHttpRuntimeRequest(request);
+
+		if (requestWrapper == null) {
+			throw new ServletException("Not a request dispatched by the Http Service Runtime!"); //$NON-NLS-1$
+		}
+
+		return requestWrapper.getStreamingParts();
+	}
+
+}
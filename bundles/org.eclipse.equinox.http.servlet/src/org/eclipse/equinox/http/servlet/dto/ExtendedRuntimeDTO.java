@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.equinox.http.servlet.dto;
+
+import org.osgi.service.http.runtime.dto.RuntimeDTO;
+
+/**
+ * The runtime DTO returned by the Equinox Http Service Runtime. In addition to
+ * the runtime state it describes the cache of the servlets and filters resolved
+ * for request paths and the cache of the static resources.
+ *
+ * @since 1.1
+ */
+public class ExtendedRuntimeDTO extends RuntimeDTO {
+
+	/**
+	 * The number of requests dispatched from the cache.
+	 */
+	public long dispatchCacheHitCount;
+
+	/**
+	 * The number of requests whose servlet and filters had to be resolved because
+	 * their path was not cached.
+	 */
+	public long dispatchCacheMissCount;
+
+	/**
+	 * The number of request paths in the cache.
+	 */
+	public int dispatchCacheSize;
+
+	/**
+	 * The number of static resources served from the cache.
+	 */
+	public long resourceCacheHitCount;
+
+	/**
+	 * The number of static resources which had to be read because they were not
+	 * cached.
+	 */
+	public long resourceCacheMissCount;
+
+	/**
+	 * The number of bytes held by the cache of the static resources.
+	 */
+	public long resourceCacheSize;
+}
@@ -30,6 +30,7 @@ import javax.servlet.*;
 import javax.servlet.Filter;
 import javax.servlet.http.*;
 import org.eclipse.equinox.http.servlet.context.ContextPathCustomizer;
+import org.eclipse.equinox.http.servlet.dto.ExtendedRuntimeDTO;
 import org.eclipse.equinox.http.servlet.internal.context.*;
 import org.eclipse.equinox.http.servlet.internal.dto.ExtendedErrorPageDTO;
 import org.eclipse.equinox.http.servlet.internal.dto.ExtendedFailedServletContextDTO;
@@ -37,6 +38,7 @@ import org.eclipse.equinox.http.servlet.internal.error.*;
 import org.eclipse.equinox.http.servlet.internal.registration.PreprocessorRegistration;
 import org.eclipse.equinox.http.servlet.internal.servlet.HttpSessionTracker;
 import org.eclipse.equinox.http.servlet.internal.servlet.Match;
+import org.eclipse.equinox.http.servlet.internal.servlet.ResourceCache;
 import org.eclipse.equinox.http.servlet.internal.util.*;
 import org.eclipse.equinox.http.servlet.session.HttpSessionInvalidator;
 import org.osgi.framework.*;
@@ -75,6 +77,10 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		this.targetFilter = "(" + Activator.UNIQUE_SERVICE_ID + "=" + this.attributes.get(Activator.UNIQUE_SERVICE_ID) //$NON-NLS-1$ //$NON-NLS-2$
 				+ ")"; //$NON-NLS-1$
 		this.httpSessionTracker = new HttpSessionTracker(this);
+		this.dispatchTargetsCache = new DispatchTargetsCache(
+				(int) getCacheSize(this.attributes, Const.EQUINOX_HTTP_DISPATCH_CACHE_SIZE, DEFAULT_DISPATCH_CACHE_SIZE));
+		this.resourceCache = new ResourceCache(
+				getCacheSize(this.attributes, Const.EQUINOX_HTTP_RESOURCE_CACHE_SIZE, DEFAULT_RESOURCE_CACHE_SIZE));
 		this.invalidatorReg = trackingContext.registerService(HttpSessionInvalidator.class, this.httpSessionTracker,
 				attributes);
 
@@ -136,6 +142,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 					serviceReference, parentServletContext, this);
 
 			controllerMap.put(serviceReference, contextController);
+			updateContextPaths();
 
 			result.set(contextController);
 		} catch (HttpWhiteboardFailureException hwfe) {
@@ -234,6 +241,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		preprocessorServiceTracker.close();
 
 		controllerMap.clear();
+		updateContextPaths();
 		preprocessorMap.clear();
 		registeredObjects.clear();
 		legacyContextMap.clear();
@@ -259,6 +267,22 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		String queryString = path.getQueryString();
 		String requestURI = path.getRequestURI();
 
+		// the request info must be collected by matching, and only the '/' path
+		// string, without a query string, may dispatch to the context root
+		boolean cacheable = (requestInfoDTO == null)
+				&& (!Const.SLASH.equals(requestURI) || Const.SLASH.equals(pathString));
+		long generation = 0;
+
+		if (cacheable) {
+			DispatchTargets cachedDispatchTargets = dispatchTargetsCache.get(requestURI, queryString);
+
+			if (cachedDispatchTargets != null) {
+				return cachedDispatchTargets;
+			}
+
+			generation = dispatchTargetsCache.getGeneration();
+		}
+
 		// perfect match
 		DispatchTargets dispatchTargets = getDispatchTargets(requestURI, null, queryString, Match.EXACT,
 				requestInfoDTO);
@@ -289,9 +313,35 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 			dispatchTargets = getDispatchTargets(requestURI, null, queryString, Match.CONTEXT_ROOT, requestInfoDTO);
 		}
 
+		if (cacheable && (dispatchTargets != null)) {
+			dispatchTargetsCache.put(requestURI, generation, dispatchTargets);
+		}
+
 		return dispatchTargets;
 	}
 
+	public DispatchTargetsCache getDispatchTargetsCache() {
+		return dispatchTargetsCache;
+	}
+
+	public ResourceCache getResourceCache() {
+		return resourceCache;
+	}
+
+	private static long getCacheSize(Map<String, Object> attributes, String key, long defaultCacheSize) {
+		Object cacheSize = attributes.get(key);
+
+		if (cacheSize != null) {
+			try {
+				return Long.parseLong(String.valueOf(cacheSize));
+			} catch (NumberFormatException nfe) {
+				// use the default
+			}
+		}
+
+		return defaultCacheSize;
+	}
+
 	public HttpSessionTracker getHttpSessionTracker() {
 		return httpSessionTracker;
 	}
@@ -314,7 +364,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 
 	@Override
 	public synchronized RuntimeDTO getRuntimeDTO() {
-		RuntimeDTO runtimeDTO = new RuntimeDTO();
+		ExtendedRuntimeDTO runtimeDTO = new ExtendedRuntimeDTO();
 
 		runtimeDTO.failedErrorPageDTOs = getFailedErrorPageDTOs();
 		runtimeDTO.failedFilterDTOs = getFailedFilterDTOs();
@@ -326,6 +376,12 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		runtimeDTO.preprocessorDTOs = getPreprocessorDTOs();
 		runtimeDTO.serviceDTO = getServiceDTO();
 		runtimeDTO.servletContextDTOs = getServletContextDTOs();
+		runtimeDTO.dispatchCacheHitCount = dispatchTargetsCache.getHitCount();
+		runtimeDTO.dispatchCacheMissCount = dispatchTargetsCache.getMissCount();
+		runtimeDTO.dispatchCacheSize = dispatchTargetsCache.size();
+		runtimeDTO.resourceCacheHitCount = resourceCache.getHitCount();
+		runtimeDTO.resourceCacheMissCount = resourceCache.getMissCount();
+		runtimeDTO.resourceCacheSize = resourceCache.size();
 
 		return runtimeDTO;
 	}
@@ -440,6 +496,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 			}
 			failedServletContextDTOs.remove(serviceReference);
 			controllerMap.remove(serviceReference);
+			updateContextPaths();
 			trackingContext.ungetService(serviceReference);
 		} finally {
 			incrementServiceChangecount();
@@ -447,18 +504,13 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 	}
 
 	Collection<ContextController> getContextControllers(String requestURI) {
+		Map<String, List<ContextController>> currentContextPaths = contextPaths;
 		int pos = requestURI.lastIndexOf('/');
 
 		do {
-			List<ContextController> contextControllers = new ArrayList<>();
+			List<ContextController> contextControllers = currentContextPaths.get(requestURI);
 
-			for (ContextController contextController : controllerMap.values()) {
-				if (contextController.getContextPath().equals(requestURI)) {
-					contextControllers.add(contextController);
-				}
-			}
-
-			if (!contextControllers.isEmpty()) {
+			if (contextControllers != null) {
 				return contextControllers;
 			}
 
@@ -479,6 +531,24 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		return controllerMap.values();
 	}
 
+	private void updateContextPaths() {
+		Map<String, List<ContextController>> newContextPaths = new HashMap<>();
+
+		// keep the controllers of each path in ranking order
+		for (ContextController contextController : controllerMap.values()) {
+			newContextPaths.computeIfAbsent(contextController.getContextPath(), k -> new ArrayList<>())
+					.add(contextController);
+		}
+
+		for (Entry<String, List<ContextController>> entry : newContextPaths.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+
+		contextPaths = newContextPaths;
+
+		dispatchTargetsCache.invalidate();
+	}
+
 	public DispatchTargets getDispatchTargets(String requestURI, String extension, String queryString, Match match,
 			RequestInfoDTO requestInfoDTO) {
 
@@ -1246,6 +1316,11 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 	}
 
 	private String decode(String urlEncoded) {
+		if ((urlEncoded.indexOf('%') == -1) && (urlEncoded.indexOf('+') == -1)) {
+			// nothing to decode
+			return urlEncoded;
+		}
+
 		try {
 			return URLDecoder.decode(urlEncoded, StandardCharsets.UTF_8.name());
 		} catch (UnsupportedEncodingException e) {
@@ -1253,6 +1328,9 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		}
 	}
 
+	private static final int DEFAULT_DISPATCH_CACHE_SIZE = 1024;
+	private static final long DEFAULT_RESOURCE_CACHE_SIZE = 16 * 1024 * 1024;
+
 	private final Map<String, Object> attributes;
 	private final String targetFilter;
 	final ServiceRegistration<ServletContextHelper> defaultContextReg;
@@ -1275,6 +1353,8 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 
 	private final ConcurrentMap<ServiceReference<ServletContextHelper>, ContextController> controllerMap = new ConcurrentSkipListMap<>(
 			Collections.reverseOrder());
+	// the controllers of controllerMap by context path, replaced whenever controllerMap changes
+	private volatile Map<String, List<ContextController>> contextPaths = Collections.emptyMap();
 	private final ConcurrentMap<ServiceReference<Preprocessor>, PreprocessorRegistration> preprocessorMap = new ConcurrentSkipListMap<>(
 			Collections.reverseOrder());
 
@@ -1293,6 +1373,8 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 	private final ServiceTracker<ContextPathCustomizer, ContextPathCustomizer> contextPathAdaptorTracker;
 	private final ContextPathCustomizerHolder contextPathCustomizerHolder;
 	private final HttpSessionTracker httpSessionTracker;
+	private final DispatchTargetsCache dispatchTargetsCache;
+	private final ResourceCache resourceCache;
 	private final ServiceRegistration<HttpSessionInvalidator> invalidatorReg;
 	private final AtomicReference<ServiceRegistration<HttpServiceRuntime>> hsrRegistration = new AtomicReference<>();
 
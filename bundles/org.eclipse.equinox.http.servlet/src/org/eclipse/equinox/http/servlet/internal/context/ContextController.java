@@ -157,7 +157,7 @@ public class ContextController {
 
 		recordErrorPageShadowing(errorPageRegistration);
 
-		endpointRegistrations.add(errorPageRegistration);
+		addEndpointRegistration(errorPageRegistration);
 
 		return errorPageRegistration;
 	}
@@ -259,6 +259,7 @@ public class ContextController {
 		newRegistration.init(filterConfig);
 
 		filterRegistrations.add(newRegistration);
+		httpServiceRuntime.getDispatchTargetsCache().invalidate();
 		return newRegistration;
 	}
 
@@ -355,7 +356,8 @@ public class ContextController {
 
 		Bundle bundle = resourceRef.getBundle();
 		ServletContextHelper curServletContextHelper = getServletContextHelper(bundle);
-		Servlet servlet = new ResourceServlet(prefix, curServletContextHelper, AccessController.getContext());
+		Servlet servlet = new ResourceServlet(prefix, curServletContextHelper, AccessController.getContext(), bundle,
+				httpServiceRuntime.getResourceCache());
 
 		ResourceDTO resourceDTO = new ResourceDTO();
 
@@ -381,7 +383,7 @@ public class ContextController {
 
 		recordEndpointShadowing(resourceRegistration);
 
-		endpointRegistrations.add(resourceRegistration);
+		addEndpointRegistration(resourceRegistration);
 
 		return resourceRegistration;
 	}
@@ -457,7 +459,7 @@ public class ContextController {
 
 		recordEndpointShadowing(servletRegistration);
 
-		endpointRegistrations.add(servletRegistration);
+		addEndpointRegistration(servletRegistration);
 
 		return servletRegistration;
 	}
@@ -567,6 +569,7 @@ public class ContextController {
 		listenerServiceTracker.close();
 
 		endpointRegistrations.clear();
+		updateEndpointRoutes();
 		filterRegistrations.clear();
 		listenerRegistrations.clear();
 		eventListeners.clear();
@@ -676,11 +679,23 @@ public class ContextController {
 		checkShutdown();
 
 		EndpointRegistration<?> endpointRegistration = null;
-		for (EndpointRegistration<?> curEndpointRegistration : endpointRegistrations) {
-			if (curEndpointRegistration.match(servletName, servletPath, pathInfo, extension, match) != null) {
-				endpointRegistration = curEndpointRegistration;
+		if (servletName == null) {
+			// only the registrations routed to the servlet path can match it
+			for (EndpointRegistration<?> curEndpointRegistration : endpointRoutes.getCandidates(servletPath,
+					extension, match)) {
+				if (curEndpointRegistration.match(null, servletPath, pathInfo, extension, match) != null) {
+					endpointRegistration = curEndpointRegistration;
+
+					break;
+				}
+			}
+		} else {
+			for (EndpointRegistration<?> curEndpointRegistration : endpointRegistrations) {
+				if (curEndpointRegistration.match(servletName, servletPath, pathInfo, extension, match) != null) {
+					endpointRegistration = curEndpointRegistration;
 
-				break;
+					break;
+				}
 			}
 		}
 
@@ -739,6 +754,27 @@ public class ContextController {
 		return endpointRegistrations;
 	}
 
+	public void removeEndpointRegistration(EndpointRegistration<?> endpointRegistration) {
+		if (endpointRegistrations.remove(endpointRegistration)) {
+			updateEndpointRoutes();
+		}
+	}
+
+	private void addEndpointRegistration(EndpointRegistration<?> endpointRegistration) {
+		endpointRegistrations.add(endpointRegistration);
+
+		updateEndpointRoutes();
+	}
+
+	private void updateEndpointRoutes() {
+		// serialized so the routes of the latest registrations are published last
+		synchronized (endpointRegistrations) {
+			endpointRoutes = new EndpointRoutes(endpointRegistrations);
+		}
+
+		httpServiceRuntime.getDispatchTargetsCache().invalidate();
+	}
+
 	public EventListeners getEventListeners() {
 		return eventListeners;
 	}
@@ -747,6 +783,12 @@ public class ContextController {
 		return filterRegistrations;
 	}
 
+	public void removeFilterRegistration(FilterRegistration filterRegistration) {
+		if (filterRegistrations.remove(filterRegistration)) {
+			httpServiceRuntime.getDispatchTargetsCache().invalidate();
+		}
+	}
+
 	public String getFullContextPath() {
 		if (fullContextPath != null) {
 			return fullContextPath;
@@ -1383,6 +1425,7 @@ public class ContextController {
 	private volatile String fullContextPath;
 	private final long contextServiceId;
 	private final Set<EndpointRegistration<?>> endpointRegistrations = new ConcurrentSkipListSet<>();
+	private volatile EndpointRoutes endpointRoutes = EndpointRoutes.EMPTY;
 	private final EventListeners eventListeners = new EventListeners();
 	private final Set<FilterRegistration> filterRegistrations = new ConcurrentSkipListSet<>();
 	private final ConcurrentMap<String, HttpSessionAdaptor> activeSessions = new ConcurrentHashMap<>();
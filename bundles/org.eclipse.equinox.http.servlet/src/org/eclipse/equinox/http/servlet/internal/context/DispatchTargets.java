@@ -44,9 +44,20 @@ public class DispatchTargets {
 			List<FilterRegistration> matchingFilterRegistrations, String servletName, String requestURI,
 			String servletPath, String pathInfo, String queryString) {
 
+		// the copies of cached dispatch targets share the list
+		this(contextController, endpointRegistration, Collections.unmodifiableList(matchingFilterRegistrations),
+				getFilterChains(matchingFilterRegistrations), servletName, requestURI, servletPath, pathInfo,
+				queryString);
+	}
+
+	private DispatchTargets(ContextController contextController, EndpointRegistration<?> endpointRegistration,
+			List<FilterRegistration> matchingFilterRegistrations, FilterRegistration[][] filterChains,
+			String servletName, String requestURI, String servletPath, String pathInfo, String queryString) {
+
 		this.contextController = contextController;
 		this.endpointRegistration = endpointRegistration;
 		this.matchingFilterRegistrations = matchingFilterRegistrations;
+		this.filterChains = filterChains;
 		this.servletName = servletName;
 		this.requestURI = requestURI;
 		this.servletPath = (servletPath == null) ? Const.BLANK : servletPath;
@@ -54,6 +65,15 @@ public class DispatchTargets {
 		this.queryString = queryString;
 	}
 
+	/**
+	 * Returns new dispatch targets to the same endpoint and filters for a request
+	 * with the given query string.
+	 */
+	public DispatchTargets copy(String newQueryString) {
+		return new DispatchTargets(contextController, endpointRegistration, matchingFilterRegistrations, filterChains,
+				servletName, requestURI, servletPath, pathInfo, newQueryString);
+	}
+
 	public void addRequestParameters(HttpServletRequest request) {
 		currentRequest = request;
 	}
@@ -135,6 +155,14 @@ public class DispatchTargets {
 		return matchingFilterRegistrations;
 	}
 
+	/**
+	 * Returns the matching filters which apply to the dispatcher type, in the
+	 * order they must be called. The array is shared and must not be modified.
+	 */
+	public FilterRegistration[] getFilterChain(DispatcherType filterDispatcherType) {
+		return filterChains[filterDispatcherType.ordinal()];
+	}
+
 	public Map<String, String[]> getParameterMap() {
 		if ((parameterMap == null) && (currentRequest != null)) {
 			Map<String, String[]> parameterMapCopy = queryStringToParameterMap(queryString);
@@ -183,7 +211,20 @@ public class DispatchTargets {
 	}
 
 	public Map<String, Object> getSpecialOverides() {
-		return specialOverides;
+		Map<String, Object> map = specialOverides;
+
+		if (map == null) {
+			synchronized (this) {
+				map = specialOverides;
+
+				if (map == null) {
+					// only forwards, includes and error dispatches override attributes
+					specialOverides = map = new ConcurrentHashMap<>();
+				}
+			}
+		}
+
+		return map;
 	}
 
 	public void setDispatcherType(DispatcherType dispatcherType) {
@@ -204,6 +245,35 @@ public class DispatchTargets {
 		return value;
 	}
 
+	private static FilterRegistration[][] getFilterChains(List<FilterRegistration> matchingFilterRegistrations) {
+		DispatcherType[] dispatcherTypes = DispatcherType.values();
+		FilterRegistration[][] filterChains = new FilterRegistration[dispatcherTypes.length][];
+
+		if (matchingFilterRegistrations.isEmpty()) {
+			Arrays.fill(filterChains, NO_FILTERS);
+
+			return filterChains;
+		}
+
+		FilterRegistration[] sorted = matchingFilterRegistrations.toArray(NO_FILTERS);
+
+		Arrays.sort(sorted);
+
+		for (DispatcherType filterDispatcherType : dispatcherTypes) {
+			List<FilterRegistration> filterChain = new ArrayList<>(sorted.length);
+
+			for (FilterRegistration filterRegistration : sorted) {
+				if (filterRegistration.appliesTo(filterDispatcherType)) {
+					filterChain.add(filterRegistration);
+				}
+			}
+
+			filterChains[filterDispatcherType.ordinal()] = filterChain.toArray(NO_FILTERS);
+		}
+
+		return filterChains;
+	}
+
 	private static Map<String, String[]> queryStringToParameterMap(String queryString) {
 		if ((queryString == null) || (queryString.length() == 0)) {
 			return new LinkedHashMap<>();
@@ -236,13 +306,18 @@ public class DispatchTargets {
 	private static class RequestAttributeSetter implements Closeable {
 
 		private final ServletRequest servletRequest;
-		private final Map<String, Object> oldValues = new HashMap<>();
+		// only forwards and includes set attributes
+		private Map<String, Object> oldValues;
 
 		public RequestAttributeSetter(ServletRequest servletRequest) {
 			this.servletRequest = servletRequest;
 		}
 
 		public void setAttribute(String name, Object value) {
+			if (oldValues == null) {
+				oldValues = new HashMap<>();
+			}
+
 			oldValues.put(name, servletRequest.getAttribute(name));
 
 			servletRequest.setAttribute(name, value);
@@ -250,6 +325,10 @@ public class DispatchTargets {
 
 		@Override
 		public void close() {
+			if (oldValues == null) {
+				return;
+			}
+
 			for (Map.Entry<String, Object> oldValue : oldValues.entrySet()) {
 				if (oldValue.getValue() == null) {
 					servletRequest.removeAttribute(oldValue.getKey());
@@ -261,19 +340,22 @@ public class DispatchTargets {
 	}
 
 	private static final String SIMPLE_NAME = DispatchTargets.class.getSimpleName();
+	private static final FilterRegistration[] NO_FILTERS = new FilterRegistration[0];
 
 	private final ContextController contextController;
 	private DispatcherType dispatcherType;
 	private final EndpointRegistration<?> endpointRegistration;
 	private volatile HttpServletRequest currentRequest;
 	private final List<FilterRegistration> matchingFilterRegistrations;
+	// the matching filters which apply to each dispatcher type, by ordinal
+	private final FilterRegistration[][] filterChains;
 	private final String pathInfo;
 	private Map<String, String[]> parameterMap;
 	private String queryString;
 	private final String requestURI;
 	private final String servletPath;
 	private final String servletName;
-	private final Map<String, Object> specialOverides = new ConcurrentHashMap<>();
+	private volatile Map<String, Object> specialOverides;
 	private String string;
 
 }
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.equinox.http.servlet.internal.context;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the dispatch targets resolved for request URIs. The
+ * entries of a generation of the registrations are kept in their own table;
+ * {@link #invalidate()} replaces the table whenever a registration is added or
+ * removed, so an entry resolved before the change is never returned after it.
+ * <p>
+ * Lookups never lock or reorder the cache. Once the cache is full the entries
+ * are evicted in approximately least recently used order with the clock
+ * (second chance) algorithm: the entries are kept in insertion order and an
+ * entry which was used since it was last visited is moved to the end instead of
+ * being evicted.
+ * <p>
+ * The cached targets are only used as templates: every lookup returns a new
+ * {@link DispatchTargets} for the current request.
+ */
+public final class DispatchTargetsCache {
+
+	private static final class Entry {
+		final String requestURI;
+		final DispatchTargets dispatchTargets;
+		volatile boolean referenced;
+
+		Entry(String requestURI, DispatchTargets dispatchTargets) {
+			this.requestURI = requestURI;
+			this.dispatchTargets = dispatchTargets;
+		}
+	}
+
+	private static final class Table {
+		final long generation;
+		final Map<String, Entry> entries = new ConcurrentHashMap<>();
+		final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+		// the number of entries in the clock, including replaced entries not yet visited
+		final AtomicInteger clockSize = new AtomicInteger();
+
+		Table(long generation) {
+			this.generation = generation;
+		}
+	}
+
+	private final int maximumSize;
+	private final AtomicReference<Table> table = new AtomicReference<>(new Table(0));
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public DispatchTargetsCache(int maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Returns new dispatch targets for the request URI, or <code>null</code> if
+	 * the request URI is not cached for the current generation.
+	 */
+	public DispatchTargets get(String requestURI, String queryString) {
+		if (maximumSize <= 0) {
+			return null;
+		}
+
+		Entry entry = table.get().entries.get(requestURI);
+
+		if (entry == null) {
+			misses.increment();
+
+			return null;
+		}
+
+		if (!entry.referenced) {
+			entry.referenced = true;
+		}
+
+		hits.increment();
+
+		return entry.dispatchTargets.copy(queryString);
+	}
+
+	/**
+	 * Returns the current generation. It must be read before the dispatch targets
+	 * to {@link #put(String, long, DispatchTargets) put} are resolved.
+	 */
+	public long getGeneration() {
+		return table.get().generation;
+	}
+
+	public void put(String requestURI, long resolvedGeneration, DispatchTargets dispatchTargets) {
+		Table current = table.get();
+
+		if ((maximumSize <= 0) || (resolvedGeneration != current.generation)) {
+			return;
+		}
+
+		Entry entry = new Entry(requestURI, dispatchTargets.copy(null));
+
+		// an entry put after an invalidate only goes to the discarded table
+		current.entries.put(requestURI, entry);
+		current.clock.offer(entry);
+
+		if (current.clockSize.incrementAndGet() > maximumSize) {
+			evict(current);
+		}
+	}
+
+	public void invalidate() {
+		table.updateAndGet(current -> new Table(current.generation + 1));
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public int size() {
+		return table.get().entries.size();
+	}
+
+	private void evict(Table current) {
+		while (current.clockSize.get() > maximumSize) {
+			Entry eldest = current.clock.poll();
+
+			if (eldest == null) {
+				return;
+			}
+
+			if (eldest.referenced && (current.entries.get(eldest.requestURI) == eldest)) {
+				// give it a second chance
+				eldest.referenced = false;
+				current.clock.offer(eldest);
+			} else {
+				current.clockSize.decrementAndGet();
+				current.entries.remove(eldest.requestURI, eldest);
+			}
+		}
+	}
+
+}
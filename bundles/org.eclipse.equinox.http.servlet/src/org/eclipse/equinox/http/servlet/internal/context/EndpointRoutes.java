@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.equinox.http.servlet.internal.context;
+
+import java.util.*;
+import org.eclipse.equinox.http.servlet.internal.registration.EndpointRegistration;
+import org.eclipse.equinox.http.servlet.internal.servlet.Match;
+import org.eclipse.equinox.http.servlet.internal.util.Const;
+
+/**
+ * An immutable index of the endpoint registrations of a context by the path
+ * patterns they are registered with. For a servlet path and a match mode it
+ * returns, in ranking order, the only registrations that can match, so a
+ * request does not have to scan all the registrations of the context. The
+ * candidates must still be confirmed with
+ * {@link EndpointRegistration#match(String, String, String, String, Match)}.
+ * <p>
+ * A new index is built whenever the endpoint registrations of the context
+ * change.
+ */
+final class EndpointRoutes {
+
+	private static final EndpointRegistration<?>[] NONE = new EndpointRegistration<?>[0];
+
+	static final EndpointRoutes EMPTY = new EndpointRoutes(Collections.emptySet());
+
+	// pattern -> registrations
+	private final Map<String, EndpointRegistration<?>[]> exact;
+	// pattern without the trailing "/*" -> registrations
+	private final Map<String, EndpointRegistration<?>[]> prefix;
+	// extension -> pattern without the "/*.extension" -> registrations
+	private final Map<String, Map<String, EndpointRegistration<?>[]>> extension;
+	// registrations of the "/" pattern
+	private final EndpointRegistration<?>[] defaultServlet;
+	// registrations of the "" pattern
+	private final EndpointRegistration<?>[] contextRoot;
+
+	EndpointRoutes(Collection<EndpointRegistration<?>> endpointRegistrations) {
+		Map<String, List<EndpointRegistration<?>>> exactRoutes = new HashMap<>();
+		Map<String, List<EndpointRegistration<?>>> prefixRoutes = new HashMap<>();
+		Map<String, Map<String, List<EndpointRegistration<?>>>> extensionRoutes = new HashMap<>();
+		List<EndpointRegistration<?>> defaultRoutes = new ArrayList<>();
+		List<EndpointRegistration<?>> contextRootRoutes = new ArrayList<>();
+
+		for (EndpointRegistration<?> endpointRegistration : endpointRegistrations) {
+			String[] patterns = endpointRegistration.getPatterns();
+
+			if (patterns == null) {
+				continue;
+			}
+
+			for (String pattern : patterns) {
+				add(exactRoutes, pattern, endpointRegistration);
+
+				if (Const.SLASH.equals(pattern)) {
+					add(defaultRoutes, endpointRegistration);
+				} else if (Const.BLANK.equals(pattern)) {
+					add(contextRootRoutes, endpointRegistration);
+				}
+
+				if (pattern.indexOf(Const.SLASH_STAR_DOT) == 0) {
+					pattern = pattern.substring(1);
+				} else if (pattern.startsWith(Const.SLASH) && pattern.endsWith(Const.SLASH_STAR)) {
+					add(prefixRoutes, pattern.substring(0, pattern.length() - 2), endpointRegistration);
+				}
+
+				int index = pattern.lastIndexOf(Const.STAR_DOT);
+
+				if (index != -1) {
+					String patternPrefix = (index > 0) ? pattern.substring(0, index - 1) : Const.BLANK;
+					String patternExtension = pattern.substring(pattern.lastIndexOf('.') + 1);
+
+					add(extensionRoutes.computeIfAbsent(patternExtension, k -> new HashMap<>()), patternPrefix,
+							endpointRegistration);
+				}
+			}
+		}
+
+		this.exact = freeze(exactRoutes);
+		this.prefix = freeze(prefixRoutes);
+		this.extension = new HashMap<>();
+		for (Map.Entry<String, Map<String, List<EndpointRegistration<?>>>> entry : extensionRoutes.entrySet()) {
+			this.extension.put(entry.getKey(), freeze(entry.getValue()));
+		}
+		this.defaultServlet = defaultRoutes.toArray(NONE);
+		this.contextRoot = contextRootRoutes.toArray(NONE);
+	}
+
+	/**
+	 * Returns the registrations which may match the servlet path in the given
+	 * mode, in ranking order.
+	 */
+	EndpointRegistration<?>[] getCandidates(String servletPath, String requestExtension, Match match) {
+		if (match == Match.EXACT) {
+			return get(exact, servletPath);
+		}
+		if (match == Match.EXTENSION) {
+			// a null extension is matched as "null" by the registrations
+			Map<String, EndpointRegistration<?>[]> byPrefix = extension.get(String.valueOf(requestExtension));
+
+			return (byPrefix == null) ? NONE : get(byPrefix, servletPath);
+		}
+		if (match == Match.REGEX) {
+			return get(prefix, servletPath);
+		}
+		if (match == Match.DEFAULT_SERVLET) {
+			return defaultServlet;
+		}
+		if (match == Match.CONTEXT_ROOT) {
+			return contextRoot;
+		}
+
+		return NONE;
+	}
+
+	private static EndpointRegistration<?>[] get(Map<String, EndpointRegistration<?>[]> routes, String servletPath) {
+		EndpointRegistration<?>[] candidates = (servletPath == null) ? null : routes.get(servletPath);
+
+		return (candidates == null) ? NONE : candidates;
+	}
+
+	private static void add(Map<String, List<EndpointRegistration<?>>> routes, String key,
+			EndpointRegistration<?> endpointRegistration) {
+
+		add(routes.computeIfAbsent(key, k -> new ArrayList<>()), endpointRegistration);
+	}
+
+	private static void add(List<EndpointRegistration<?>> routes, EndpointRegistration<?> endpointRegistration) {
+		// the registrations are added in ranking order, once for each of their patterns
+		if (routes.isEmpty() || (routes.get(routes.size() - 1) != endpointRegistration)) {
+			routes.add(endpointRegistration);
+		}
+	}
+
+	private static Map<String, EndpointRegistration<?>[]> freeze(Map<String, List<EndpointRegistration<?>>> routes) {
+		Map<String, EndpointRegistration<?>[]> frozen = new HashMap<>((int) (routes.size() / 0.75f) + 1);
+
+		for (Map.Entry<String, List<EndpointRegistration<?>>> entry : routes.entrySet()) {
+			frozen.put(entry.getKey(), entry.getValue().toArray(NONE));
+		}
+
+		return frozen;
+	}
+
+}
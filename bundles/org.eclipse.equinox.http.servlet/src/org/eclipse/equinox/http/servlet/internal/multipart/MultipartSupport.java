@@ -19,9 +19,12 @@ import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.Part;
+import org.eclipse.equinox.http.servlet.StreamingPartIterator;
 
 public interface MultipartSupport {
 
 	public List<Part> parseRequest(HttpServletRequest request) throws IOException, ServletException;
 
+	public StreamingPartIterator streamRequest(HttpServletRequest request) throws IOException, ServletException;
+
 }
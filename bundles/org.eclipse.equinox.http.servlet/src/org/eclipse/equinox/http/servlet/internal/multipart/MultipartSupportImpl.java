@@ -26,6 +26,7 @@ import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.disk.DiskFileItem;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.eclipse.equinox.http.servlet.StreamingPartIterator;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.http.runtime.dto.ServletDTO;
@@ -82,17 +83,7 @@ public class MultipartSupportImpl implements MultipartSupport {
 
 	@Override
 	public List<Part> parseRequest(HttpServletRequest request) throws IOException, ServletException {
-		if (upload == null) {
-			throw new IllegalStateException("Servlet was not configured for multipart!"); //$NON-NLS-1$
-		}
-
-		if (!servletDTO.multipartEnabled) {
-			throw new IllegalStateException("No multipart config on " + servletDTO); //$NON-NLS-1$
-		}
-
-		if (!ServletFileUpload.isMultipartContent(request)) {
-			throw new ServletException("Not a multipart request!"); //$NON-NLS-1$
-		}
+		checkRequest(request);
 
 		ArrayList<Part> parts = new ArrayList<>();
 
@@ -109,6 +100,37 @@ public class MultipartSupportImpl implements MultipartSupport {
 		return parts;
 	}
 
+	@Override
+	public StreamingPartIterator streamRequest(HttpServletRequest request) throws IOException, ServletException {
+		// unlike getParts(), streaming reports a servlet without multipart config as a ServletException
+		if ((upload == null) || !servletDTO.multipartEnabled) {
+			throw new ServletException("No multipart config on " + servletDTO); //$NON-NLS-1$
+		}
+
+		checkRequest(request);
+
+		try {
+			// the parts are read from the request as they are iterated, nothing is stored
+			return new MultipartSupportPartIterator(upload.getItemIterator(request));
+		} catch (FileUploadException fue) {
+			throw new IOException(fue);
+		}
+	}
+
+	private void checkRequest(HttpServletRequest request) throws ServletException {
+		if (upload == null) {
+			throw new IllegalStateException("Servlet was not configured for multipart!"); //$NON-NLS-1$
+		}
+
+		if (!servletDTO.multipartEnabled) {
+			throw new IllegalStateException("No multipart config on " + servletDTO); //$NON-NLS-1$
+		}
+
+		if (!ServletFileUpload.isMultipartContent(request)) {
+			throw new ServletException("Not a multipart request!"); //$NON-NLS-1$
+		}
+	}
+
 	private final ServletDTO servletDTO;
 	private final ServletFileUpload upload;
 
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.http.servlet.internal.multipart;
+
+import java.io.IOException;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileUploadException;
+import org.eclipse.equinox.http.servlet.StreamingPart;
+import org.eclipse.equinox.http.servlet.StreamingPartIterator;
+
+public class MultipartSupportPartIterator implements StreamingPartIterator {
+
+	public MultipartSupportPartIterator(FileItemIterator iterator) {
+		this.iterator = iterator;
+	}
+
+	@Override
+	public boolean hasNext() throws IOException {
+		try {
+			return iterator.hasNext();
+		} catch (FileUploadException fue) {
+			throw new IOException(fue);
+		}
+	}
+
+	@Override
+	public StreamingPart next() throws IOException {
+		try {
+			return new MultipartSupportStreamingPart(iterator.next());
+		} catch (FileUploadException fue) {
+			throw new IOException(fue);
+		}
+	}
+
+	private final FileItemIterator iterator;
+
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.http.servlet.internal.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.*;
+import org.apache.commons.fileupload.FileItemHeaders;
+import org.apache.commons.fileupload.FileItemStream;
+import org.eclipse.equinox.http.servlet.StreamingPart;
+
+public class MultipartSupportStreamingPart implements StreamingPart {
+
+	public MultipartSupportStreamingPart(FileItemStream item) {
+		this.item = item;
+		this.headers = item.getHeaders();
+	}
+
+	@Override
+	public String getName() {
+		return item.getFieldName();
+	}
+
+	@Override
+	public String getSubmittedFileName() {
+		return item.getName();
+	}
+
+	@Override
+	public String getContentType() {
+		return item.getContentType();
+	}
+
+	@Override
+	public String getHeader(String name) {
+		if (headers == null) {
+			return null;
+		}
+		return headers.getHeader(name);
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		if (headers == null) {
+			return Collections.emptyList();
+		}
+		return toList(headers.getHeaders(name));
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		if (headers == null) {
+			return Collections.emptyList();
+		}
+		return toList(headers.getHeaderNames());
+	}
+
+	@Override
+	public synchronized InputStream getInputStream() throws IOException {
+		// the item can only be opened once
+		if (inputStream == null) {
+			inputStream = item.openStream();
+		}
+		return inputStream;
+	}
+
+	@Override
+	public synchronized ReadableByteChannel getChannel() throws IOException {
+		if (channel == null) {
+			channel = Channels.newChannel(getInputStream());
+		}
+		return channel;
+	}
+
+	private static List<String> toList(Iterator<String> iterator) {
+		List<String> list = new ArrayList<>();
+		while (iterator.hasNext()) {
+			list.add(iterator.next());
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+	private final FileItemStream item;
+	private final FileItemHeaders headers;
+	private InputStream inputStream;
+	private ReadableByteChannel channel;
+
+}
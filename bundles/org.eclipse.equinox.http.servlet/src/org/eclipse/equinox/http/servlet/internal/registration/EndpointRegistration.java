@@ -59,7 +59,7 @@ public abstract class EndpointRegistration<D extends DTO> extends MatchableRegis
 		try {
 			Thread.currentThread().setContextClassLoader(classLoader);
 
-			contextController.getEndpointRegistrations().remove(this);
+			contextController.removeEndpointRegistration(this);
 			contextController.getHttpServiceRuntime().getRegisteredObjects().remove(this.getT());
 			contextController.ungetServletContextHelper(servletHolder.getBundle());
 
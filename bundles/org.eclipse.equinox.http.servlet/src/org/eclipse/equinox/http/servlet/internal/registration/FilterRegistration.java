@@ -22,7 +22,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.eclipse.equinox.http.servlet.internal.context.ContextController;
 import org.eclipse.equinox.http.servlet.internal.context.ServiceHolder;
-import org.eclipse.equinox.http.servlet.internal.servlet.FilterChainImpl;
 import org.eclipse.equinox.http.servlet.internal.servlet.Match;
 import org.eclipse.equinox.http.servlet.internal.util.Const;
 import org.osgi.framework.FrameworkUtil;
@@ -97,7 +96,7 @@ public class FilterRegistration extends MatchableRegistration<Filter, FilterDTO>
 		try {
 			Thread.currentThread().setContextClassLoader(classLoader);
 			contextController.getHttpServiceRuntime().getRegisteredObjects().remove(this.getT());
-			contextController.getFilterRegistrations().remove(this);
+			contextController.removeFilterRegistration(this);
 			contextController.ungetServletContextHelper(filterHolder.getBundle());
 			super.destroy();
 			getT().destroy();
@@ -108,8 +107,8 @@ public class FilterRegistration extends MatchableRegistration<Filter, FilterDTO>
 		}
 	}
 
-	public boolean appliesTo(FilterChainImpl filterChainImpl) {
-		return (Arrays.binarySearch(getD().dispatcher, filterChainImpl.getDispatcherType().name()) >= 0);
+	public boolean appliesTo(DispatcherType dispatcherType) {
+		return (Arrays.binarySearch(getD().dispatcher, dispatcherType.name()) >= 0);
 	}
 
 	// Delegate the handling of the request to the actual filter
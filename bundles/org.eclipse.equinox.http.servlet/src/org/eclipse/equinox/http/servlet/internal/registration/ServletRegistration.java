@@ -21,6 +21,7 @@ import java.util.*;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.Part;
+import org.eclipse.equinox.http.servlet.StreamingPartIterator;
 import org.eclipse.equinox.http.servlet.internal.context.ContextController;
 import org.eclipse.equinox.http.servlet.internal.context.ServiceHolder;
 import org.eclipse.equinox.http.servlet.internal.multipart.MultipartSupport;
@@ -96,5 +97,13 @@ public class ServletRegistration extends EndpointRegistration<ServletDTO> {
 		return multipartSupport.parseRequest(request);
 	}
 
+	public StreamingPartIterator streamRequest(HttpServletRequest request) throws IOException, ServletException {
+		if (multipartSupport == null) {
+			throw new ServletException("Servlet not configured for multipart!"); //$NON-NLS-1$
+		}
+
+		return multipartSupport.streamRequest(request);
+	}
+
 	private final MultipartSupport multipartSupport;
 }
@@ -15,7 +15,6 @@
 package org.eclipse.equinox.http.servlet.internal.servlet;
 
 import java.io.IOException;
-import java.util.List;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -24,30 +23,30 @@ import org.eclipse.equinox.http.servlet.internal.registration.FilterRegistration
 
 public class FilterChainImpl implements FilterChain {
 
-	private final List<FilterRegistration> matchingFilterRegistrations;
+	private final FilterRegistration[] filterRegistrations;
 	private final EndpointRegistration<?> registration;
 	private final DispatcherType dispatcherType;
-	private final int filterCount;
 	private int filterIndex = 0;
 
-	public FilterChainImpl(List<FilterRegistration> matchingFilterRegistrations, EndpointRegistration<?> registration,
+	/**
+	 * @param filterRegistrations the filters which apply to the dispatcher type,
+	 *                            in the order they must be called
+	 */
+	public FilterChainImpl(FilterRegistration[] filterRegistrations, EndpointRegistration<?> registration,
 			DispatcherType dispatcherType) {
 
-		this.matchingFilterRegistrations = matchingFilterRegistrations;
+		this.filterRegistrations = filterRegistrations;
 		this.dispatcherType = dispatcherType;
 		this.registration = registration;
-		this.filterCount = matchingFilterRegistrations.size();
 	}
 
 	public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
-		if (filterIndex < filterCount) {
-			FilterRegistration filterRegistration = matchingFilterRegistrations.get(filterIndex++);
+		if (filterIndex < filterRegistrations.length) {
+			FilterRegistration filterRegistration = filterRegistrations[filterIndex++];
 
-			if (filterRegistration.appliesTo(this)) {
-				filterRegistration.doFilter((HttpServletRequest) request, (HttpServletResponse) response, this);
+			filterRegistration.doFilter((HttpServletRequest) request, (HttpServletResponse) response, this);
 
-				return;
-			}
+			return;
 		}
 
 		registration.service((HttpServletRequest) request, (HttpServletResponse) response);
@@ -23,6 +23,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.servlet.*;
 import javax.servlet.http.*;
+import org.eclipse.equinox.http.servlet.StreamingPartIterator;
 import org.eclipse.equinox.http.servlet.internal.context.ContextController;
 import org.eclipse.equinox.http.servlet.internal.context.DispatchTargets;
 import org.eclipse.equinox.http.servlet.internal.registration.EndpointRegistration;
@@ -33,9 +34,11 @@ import org.osgi.service.http.HttpContext;
 
 public class HttpServletRequestWrapperImpl extends HttpServletRequestWrapper {
 
-	private final Deque<DispatchTargets> dispatchTargets = new LinkedList<>();
+	// a request is rarely dispatched more than a couple of times
+	private final Deque<DispatchTargets> dispatchTargets = new ArrayDeque<>(4);
 	private final HttpServletRequest request;
 	private List<Part> parts;
+	private boolean partsStreamed;
 	private final Lock lock = new ReentrantLock();
 
 	private static final Set<String> dispatcherAttributes = new HashSet<>();
@@ -457,12 +460,40 @@ public class HttpServletRequestWrapperImpl extends HttpServletRequestWrapper {
 				return parts;
 			}
 
+			if (partsStreamed) {
+				throw new IllegalStateException("The parts of the request were streamed!"); //$NON-NLS-1$
+			}
+
 			return parts = servletRegistration.parseRequest(this);
 		} finally {
 			lock.unlock();
 		}
 	}
 
+	public StreamingPartIterator getStreamingParts() throws IOException, ServletException {
+		org.eclipse.equinox.http.servlet.internal.registration.ServletRegistration servletRegistration = getServletRegistration();
+
+		if (servletRegistration == null) {
+			throw new ServletException("Not a servlet request!"); //$NON-NLS-1$
+		}
+
+		lock.lock();
+
+		try {
+			if ((parts != null) || partsStreamed) {
+				throw new IllegalStateException("The parts of the request were already read!"); //$NON-NLS-1$
+			}
+
+			StreamingPartIterator streamingParts = servletRegistration.streamRequest(this);
+
+			partsStreamed = true;
+
+			return streamingParts;
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	private org.eclipse.equinox.http.servlet.internal.registration.ServletRegistration getServletRegistration() {
 		EndpointRegistration<?> servletRegistration = dispatchTargets.peek().getServletRegistration();
 
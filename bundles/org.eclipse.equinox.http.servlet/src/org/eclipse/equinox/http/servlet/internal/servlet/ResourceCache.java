@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.equinox.http.servlet.internal.servlet;
+
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A cache of the static resources served by the resource servlets, bounded by
+ * the number of bytes it holds. The content of a cached resource and, when the
+ * resource is compressible, its gzip encoding are kept in direct buffers so
+ * they are neither read from the bundle nor compressed again. Resources which
+ * are files are served from the file and only their gzip encoding is cached.
+ * <p>
+ * The resources are cached for the servlet which serves them. Each resource
+ * records the generation of the bundle it was read from and is not returned
+ * once that bundle was updated; all the resources of a servlet are removed when
+ * it is destroyed.
+ */
+public final class ResourceCache {
+
+	static final class Resource {
+		final long generation;
+		final long lastModified;
+		final int contentLength;
+		final String etag;
+		// the content, or null if it is served from the file
+		final ByteBuffer content;
+		final File file;
+		// the gzip encoded content, or null if it is not worth compressing
+		final ByteBuffer gzipContent;
+		final String gzipEtag;
+
+		Resource(long generation, long lastModified, int contentLength, ByteBuffer content, File file,
+				ByteBuffer gzipContent) {
+
+			this.generation = generation;
+			this.lastModified = lastModified;
+			this.contentLength = contentLength;
+			this.etag = "W/\"" + contentLength + "-" + lastModified + "\""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			this.content = content;
+			this.file = file;
+			this.gzipContent = gzipContent;
+			this.gzipEtag = "W/\"" + contentLength + "-" + lastModified + "-gzip\""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+
+		int size() {
+			int size = ENTRY_OVERHEAD;
+
+			if (content != null) {
+				size += content.capacity();
+			}
+			if (gzipContent != null) {
+				size += gzipContent.capacity();
+			}
+
+			return size;
+		}
+
+		boolean isCurrent(long currentGeneration) {
+			if (generation != currentGeneration) {
+				return false;
+			}
+
+			// the file may have changed since it was cached
+			return (file == null) || ((file.lastModified() == lastModified) && (file.length() == contentLength));
+		}
+	}
+
+	private static final class Key {
+		final Object owner;
+		final String url;
+
+		Key(Object owner, String url) {
+			this.owner = owner;
+			this.url = url;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) obj;
+
+			return (owner == other.owner) && url.equals(other.url);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(owner) * 31 + url.hashCode();
+		}
+	}
+
+	// an estimate of the memory taken by a resource besides its content
+	static final int ENTRY_OVERHEAD = 256;
+	// smaller resources gain too little from compression
+	private static final int MINIMUM_COMPRESSIBLE_SIZE = 1024;
+
+	private final long maximumSize;
+	private final long maximumResourceSize;
+	private final LinkedHashMap<Key, Resource> resources = new LinkedHashMap<>(16, 0.75f, true);
+	private long size;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param maximumSize the maximum number of bytes of content to cache, zero or
+	 *                    less disables the cache
+	 */
+	public ResourceCache(long maximumSize) {
+		this.maximumSize = maximumSize;
+		// no single resource may take more than a sixteenth of the cache
+		this.maximumResourceSize = Math.min(maximumSize / 16, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the cached resource, or <code>null</code> if the resource is not
+	 * cached for the current generation of the bundle it is read from.
+	 */
+	Resource get(Object owner, URL url, long generation) {
+		if (maximumSize <= 0) {
+			return null;
+		}
+
+		Key key = new Key(owner, url.toExternalForm());
+		Resource resource;
+
+		synchronized (resources) {
+			resource = resources.get(key);
+		}
+
+		if ((resource == null) || !resource.isCurrent(generation)) {
+			misses.increment();
+
+			return null;
+		}
+
+		hits.increment();
+
+		return resource;
+	}
+
+	/**
+	 * Reads the resource from the connection and caches it. Returns
+	 * <code>null</code> if the resource cannot be cached, in which case the
+	 * connection was not read. A resource which changed while it was read is
+	 * returned as read, but it is not cached.
+	 *
+	 * @param compressible whether the content type of the resource is worth
+	 *                     compressing
+	 */
+	Resource put(Object owner, URL url, long generation, URLConnection connection, boolean compressible)
+			throws IOException {
+
+		if (maximumSize <= 0) {
+			return null;
+		}
+
+		File file = toFile(url);
+		Resource resource;
+		boolean complete = true;
+
+		if (file != null) {
+			long lastModified = file.lastModified();
+			long contentLength = file.length();
+
+			if (contentLength > Integer.MAX_VALUE) {
+				return null;
+			}
+
+			ByteBuffer gzipContent = null;
+
+			if (compressible && (contentLength >= MINIMUM_COMPRESSIBLE_SIZE)
+					&& (contentLength <= maximumResourceSize)) {
+
+				byte[] bytes;
+
+				try (InputStream is = new FileInputStream(file)) {
+					bytes = is.readAllBytes();
+				}
+
+				// the file may have changed while it was read
+				complete = (bytes.length == contentLength);
+
+				if (complete) {
+					gzipContent = compress(bytes);
+				}
+			}
+
+			resource = new Resource(generation, lastModified, (int) contentLength, null, file, gzipContent);
+		} else {
+			long lastModified = connection.getLastModified();
+			int contentLength = connection.getContentLength();
+
+			if ((lastModified <= 0) || (contentLength < 0) || (contentLength > maximumResourceSize)) {
+				return null;
+			}
+
+			byte[] bytes;
+
+			try (InputStream is = connection.getInputStream()) {
+				bytes = is.readNBytes(contentLength);
+			}
+
+			// the resource may have changed while it was read
+			complete = (bytes.length == contentLength);
+
+			ByteBuffer gzipContent = null;
+
+			if (complete && compressible && (contentLength >= MINIMUM_COMPRESSIBLE_SIZE)) {
+				gzipContent = compress(bytes);
+			}
+
+			resource = new Resource(generation, lastModified, bytes.length, toDirectBuffer(bytes), null,
+					gzipContent);
+		}
+
+		if (!complete) {
+			return resource;
+		}
+
+		Key key = new Key(owner, url.toExternalForm());
+
+		synchronized (resources) {
+			Resource previous = resources.put(key, resource);
+
+			if (previous != null) {
+				size -= previous.size();
+			}
+
+			size += resource.size();
+
+			for (Iterator<Resource> iterator = resources.values().iterator(); (size > maximumSize)
+					&& iterator.hasNext();) {
+
+				Resource eldest = iterator.next();
+
+				if (eldest != resource) {
+					iterator.remove();
+
+					size -= eldest.size();
+				}
+			}
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Removes all the resources cached for the owner.
+	 */
+	public void remove(Object owner) {
+		synchronized (resources) {
+			for (Iterator<Map.Entry<Key, Resource>> iterator = resources.entrySet().iterator(); iterator.hasNext();) {
+				Map.Entry<Key, Resource> entry = iterator.next();
+
+				if (entry.getKey().owner == owner) {
+					iterator.remove();
+
+					size -= entry.getValue().size();
+				}
+			}
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of bytes held by the cache.
+	 */
+	public long size() {
+		synchronized (resources) {
+			return size;
+		}
+	}
+
+	/**
+	 * Returns whether content of the type is worth compressing.
+	 */
+	static boolean isCompressible(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+
+		int index = contentType.indexOf(';');
+
+		String mimeType = ((index == -1) ? contentType : contentType.substring(0, index)).trim()
+				.toLowerCase(Locale.ROOT);
+
+		return mimeType.startsWith("text/") || mimeType.endsWith("+xml") || mimeType.endsWith("+json") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				|| mimeType.equals("application/javascript") || mimeType.equals("application/json") //$NON-NLS-1$ //$NON-NLS-2$
+				|| mimeType.equals("application/xml"); //$NON-NLS-1$
+	}
+
+	private static File toFile(URL url) {
+		if (!"file".equals(url.getProtocol())) { //$NON-NLS-1$
+			return null;
+		}
+
+		try {
+			File file = new File(url.toURI());
+
+			return file.isFile() ? file : null;
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static ByteBuffer compress(byte[] bytes) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2);
+
+		try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
+			gzip.write(bytes);
+		}
+
+		if (baos.size() >= bytes.length) {
+			return null;
+		}
+
+		return toDirectBuffer(baos.toByteArray());
+	}
+
+	private static ByteBuffer toDirectBuffer(byte[] bytes) {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+
+		buffer.put(bytes);
+		buffer.flip();
+
+		return buffer.asReadOnlyBuffer();
+	}
+
+}
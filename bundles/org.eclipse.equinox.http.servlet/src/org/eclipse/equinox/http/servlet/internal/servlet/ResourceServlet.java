@@ -19,12 +19,20 @@ package org.eclipse.equinox.http.servlet.internal.servlet;
 import java.io.*;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.security.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.servlet.http.*;
 import org.eclipse.equinox.http.servlet.RangeAwareServletContextHelper;
+import org.eclipse.equinox.http.servlet.internal.servlet.ResourceCache.Resource;
 import org.eclipse.equinox.http.servlet.internal.util.Const;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
 import org.osgi.service.http.context.ServletContextHelper;
 
 public class ResourceServlet extends HttpServlet {
@@ -37,18 +45,32 @@ public class ResourceServlet extends HttpServlet {
 	private static final String ACCEPT_RANGES = "Accept-Ranges"; //$NON-NLS-1$
 	private static final String RANGE_UNIT_BYTES = "bytes"; //$NON-NLS-1$
 	private static final String CONTENT_RANGE = "Content-Range"; //$NON-NLS-1$
+	private static final String ACCEPT_ENCODING = "Accept-Encoding"; //$NON-NLS-1$
+	private static final String CONTENT_ENCODING = "Content-Encoding"; //$NON-NLS-1$
+	private static final String VARY = "Vary"; //$NON-NLS-1$
+	private static final String GZIP = "gzip"; //$NON-NLS-1$
+	private static final String BUNDLEENTRY = "bundleentry"; //$NON-NLS-1$
+	private static final String BUNDLERESOURCE = "bundleresource"; //$NON-NLS-1$
+	private static final String FILE = "file"; //$NON-NLS-1$
+	// the generation of resources which are not cached
+	private static final long NO_GENERATION = -1;
 
 	private final String internalName;
 	final ServletContextHelper servletContextHelper;
 	private final AccessControlContext acc;
+	private final Bundle bundle;
+	private final ResourceCache resourceCache;
 
-	public ResourceServlet(String internalName, ServletContextHelper servletContextHelper, AccessControlContext acc) {
+	public ResourceServlet(String internalName, ServletContextHelper servletContextHelper, AccessControlContext acc,
+			Bundle bundle, ResourceCache resourceCache) {
 		if (internalName.equals(Const.SLASH)) {
 			internalName = Const.BLANK;
 		}
 		this.internalName = internalName;
 		this.servletContextHelper = servletContextHelper;
 		this.acc = acc;
+		this.bundle = bundle;
+		this.resourceCache = resourceCache;
 	}
 
 	public void service(HttpServletRequest req, final HttpServletResponse resp) throws IOException {
@@ -72,12 +94,53 @@ public class ResourceServlet extends HttpServlet {
 			final URL resourceURL) throws IOException {
 		try {
 			AccessController.doPrivileged((PrivilegedExceptionAction<Boolean>) () -> {
-				URLConnection connection = resourceURL.openConnection();
-				long lastModified = connection.getLastModified();
-				int contentLength = connection.getContentLength();
+				String filename = new File(resourcePath).getName();
+				String contentType = servletContextHelper.getMimeType(filename);
+				if (contentType == null)
+					contentType = getServletConfig().getServletContext().getMimeType(filename);
+
+				long generation = getGeneration(resourceURL);
+				Resource resource = null;
+				if (generation != NO_GENERATION)
+					resource = resourceCache.get(this, resourceURL, generation);
+				URLConnection connection = null;
+				if (resource == null) {
+					connection = resourceURL.openConnection();
+					if (generation != NO_GENERATION) {
+						try {
+							resource = resourceCache.put(this, resourceURL, generation, connection,
+									ResourceCache.isCompressible(contentType));
+						} catch (FileNotFoundException | SecurityException e) {
+							// the content is not accessible, see the uncached case below
+							sendError(resp, HttpServletResponse.SC_FORBIDDEN);
+							return Boolean.TRUE;
+						}
+					}
+				}
+
+				long lastModified;
+				int contentLength;
+				if (resource != null) {
+					lastModified = resource.lastModified;
+					contentLength = resource.contentLength;
+				} else {
+					lastModified = connection.getLastModified();
+					contentLength = connection.getContentLength();
+				}
+
+				String rangeHeader = req.getHeader(RANGE);
+				boolean rangeable = (servletContextHelper instanceof RangeAwareServletContextHelper)
+						&& ((RangeAwareServletContextHelper) servletContextHelper).rangeableContentType(contentType,
+								req.getHeader("User-Agent")); //$NON-NLS-1$
+
+				// ranges are always served from the unencoded content
+				boolean gzip = (resource != null) && (resource.gzipContent != null) && (rangeHeader == null)
+						&& !rangeable && acceptsGzip(req.getHeader(ACCEPT_ENCODING));
 
 				String etag = null;
-				if (lastModified != -1 && contentLength != -1)
+				if (resource != null)
+					etag = gzip ? resource.gzipEtag : resource.etag;
+				else if (lastModified != -1 && contentLength != -1)
 					etag = "W/\"" + contentLength + "-" + lastModified + "\""; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$
 
 				// Check for cache revalidation.
@@ -97,7 +160,6 @@ public class ResourceServlet extends HttpServlet {
 					return Boolean.TRUE;
 				}
 
-				String rangeHeader = req.getHeader(RANGE);
 				Range range = null;
 				if (rangeHeader != null) {
 					range = Range.createFromRangeHeader(rangeHeader);
@@ -115,11 +177,6 @@ public class ResourceServlet extends HttpServlet {
 				if (contentLength != -1)
 					resp.setContentLength(contentLength);
 
-				String filename = new File(resourcePath).getName();
-				String contentType = servletContextHelper.getMimeType(filename);
-				if (contentType == null)
-					contentType = getServletConfig().getServletContext().getMimeType(filename);
-
 				if (contentType != null)
 					resp.setContentType(contentType);
 
@@ -129,10 +186,11 @@ public class ResourceServlet extends HttpServlet {
 				if (etag != null)
 					resp.setHeader(ETAG, etag);
 
-				if (range == null && (servletContextHelper instanceof RangeAwareServletContextHelper)
-						&& ((RangeAwareServletContextHelper) servletContextHelper).rangeableContentType(contentType,
-								req.getHeader("User-Agent"))) { //$NON-NLS-1$
+				// the encoding of the response depends on the Accept-Encoding header
+				if (resource != null && resource.gzipContent != null)
+					resp.setHeader(VARY, ACCEPT_ENCODING);
 
+				if (range == null && rangeable) {
 					range = new Range();
 					range.firstBytePos = 0;
 					range.completeLength = contentLength;
@@ -148,6 +206,44 @@ public class ResourceServlet extends HttpServlet {
 				}
 
 				if (contentLength != 0) {
+					if (resource != null) {
+						OutputStream os;
+						try {
+							os = resp.getOutputStream();
+						} catch (IllegalStateException e) { // can occur if the response output is already open as a
+															// Writer
+							if (gzip) {
+								resp.setHeader(ETAG, resource.etag);
+								resp.setContentLength(contentLength);
+							}
+							try (InputStream is = resourceURL.openStream()) {
+								writeResourceToWriter(is, resp.getWriter(), range);
+							} catch (FileNotFoundException | SecurityException fnfe) {
+								sendError(resp, HttpServletResponse.SC_FORBIDDEN);
+							}
+							return Boolean.TRUE;
+						}
+						if (gzip) {
+							resp.setHeader(CONTENT_ENCODING, GZIP);
+							resp.setContentLength(resource.gzipContent.remaining());
+							writeResourceToOutputStream(resource.gzipContent, os, null);
+						} else if (resource.content != null) {
+							writeResourceToOutputStream(resource.content, os, range);
+						} else {
+							int writtenContentLength;
+							try {
+								writtenContentLength = writeResourceToOutputStream(resource.file, os, range,
+										contentLength);
+							} catch (NoSuchFileException | AccessDeniedException | SecurityException e) {
+								// the file was deleted or made unreadable since it was cached
+								sendError(resp, HttpServletResponse.SC_FORBIDDEN);
+								return Boolean.TRUE;
+							}
+							if (range == null && writtenContentLength != contentLength)
+								resp.setContentLength(writtenContentLength);
+						}
+						return Boolean.TRUE;
+					}
 					// open the input stream
 					try (InputStream is = connection.getInputStream()) {
 						// write the resource
@@ -177,6 +273,73 @@ public class ResourceServlet extends HttpServlet {
 		}
 	}
 
+	/**
+	 * Returns the generation of the resource, which changes when the resource may
+	 * have changed. A resource of a bundle has the last modified time of that
+	 * bundle, which is not necessarily the bundle which registered the resources,
+	 * and changes when the bundle is updated. A file is checked for changes each
+	 * time it is served. Other resources cannot be checked for changes and are
+	 * not cached.
+	 */
+	private long getGeneration(URL resourceURL) {
+		String protocol = resourceURL.getProtocol();
+		if (FILE.equals(protocol))
+			return 0;
+		if (!BUNDLEENTRY.equals(protocol) && !BUNDLERESOURCE.equals(protocol))
+			return NO_GENERATION;
+		// the host of a bundle URL starts with the id of the bundle
+		String host = resourceURL.getHost();
+		int index = host.indexOf('.');
+		Bundle resourceBundle;
+		try {
+			long bundleId = Long.parseLong(index == -1 ? host : host.substring(0, index));
+			resourceBundle = (bundleId == bundle.getBundleId()) ? bundle : getBundle(bundleId);
+		} catch (NumberFormatException e) {
+			return NO_GENERATION;
+		}
+		return (resourceBundle == null) ? NO_GENERATION : resourceBundle.getLastModified();
+	}
+
+	private Bundle getBundle(long bundleId) {
+		BundleContext context = bundle.getBundleContext();
+		return (context == null) ? null : context.getBundle(bundleId);
+	}
+
+	@Override
+	public void destroy() {
+		resourceCache.remove(this);
+	}
+
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null)
+			return false;
+		boolean wildcard = false;
+		for (String coding : acceptEncoding.split(",")) { //$NON-NLS-1$
+			int index = coding.indexOf(';');
+			String name = (index == -1 ? coding : coding.substring(0, index)).trim();
+			boolean accepted = index == -1 || !isZeroQuality(coding.substring(index + 1));
+			if (name.equalsIgnoreCase(GZIP) || name.equalsIgnoreCase("x-gzip")) //$NON-NLS-1$
+				return accepted;
+			if (name.equals("*")) //$NON-NLS-1$
+				wildcard = accepted;
+		}
+		return wildcard;
+	}
+
+	private static boolean isZeroQuality(String parameters) {
+		for (String parameter : parameters.split(";")) { //$NON-NLS-1$
+			parameter = parameter.trim();
+			if (parameter.startsWith("q=") || parameter.startsWith("Q=")) { //$NON-NLS-1$ //$NON-NLS-2$
+				try {
+					return Double.parseDouble(parameter.substring(2).trim()) <= 0;
+				} catch (NumberFormatException e) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+
 	void sendError(final HttpServletResponse resp, int sc) throws IOException {
 
 		try {
@@ -213,6 +376,60 @@ public class ResourceServlet extends HttpServlet {
 		return writtenContentLength;
 	}
 
+	/*
+	 * The servlet API only writes byte arrays, so the content of a direct buffer
+	 * is copied to the heap in chunks as it is written. That copy is cheaper than
+	 * reading the resource from its bundle and keeps the cached content off the
+	 * heap; the content of a heap buffer is written without a copy.
+	 */
+	int writeResourceToOutputStream(ByteBuffer content, OutputStream os, Range range) throws IOException {
+		ByteBuffer buffer = content.duplicate();
+		if (range != null) {
+			buffer.position(range.firstBytePos);
+			buffer.limit(range.lastBytePos + 1);
+		}
+		int writtenContentLength = buffer.remaining();
+		if (buffer.hasArray()) {
+			os.write(buffer.array(), buffer.arrayOffset() + buffer.position(), writtenContentLength);
+			return writtenContentLength;
+		}
+		WritableByteChannel channel = Channels.newChannel(os);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		return writtenContentLength;
+	}
+
+	/*
+	 * FileChannel.transferTo only avoids copying the file through user space when
+	 * it writes to another file or to a socket. Written to the channel of a
+	 * servlet output stream, the file is read through a temporary buffer and
+	 * copied to the heap, which costs as much as reading it through a stream but
+	 * still saves opening the resource URL.
+	 */
+	int writeResourceToOutputStream(File file, OutputStream os, Range range, int contentLength) throws IOException {
+		long position = 0;
+		long count = contentLength;
+		if (range != null) {
+			position = range.firstBytePos;
+			count = range.contentLength();
+		}
+		int writtenContentLength = 0;
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			WritableByteChannel channel = Channels.newChannel(os);
+			while (writtenContentLength < count) {
+				long transferred = fileChannel.transferTo(position + writtenContentLength,
+						count - writtenContentLength, channel);
+				if (transferred <= 0) {
+					// the file was truncated
+					break;
+				}
+				writtenContentLength += transferred;
+			}
+		}
+		return writtenContentLength;
+	}
+
 	void writeResourceToWriter(InputStream is, Writer writer, Range range) throws IOException {
 		if (range != null) {
 			if (range.firstBytePos != Range.NOT_SET) {
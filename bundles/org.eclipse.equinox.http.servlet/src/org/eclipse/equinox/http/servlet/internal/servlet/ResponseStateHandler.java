@@ -16,7 +16,6 @@ package org.eclipse.equinox.http.servlet.internal.servlet;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Collections;
 import java.util.List;
 import javax.servlet.*;
 import javax.servlet.http.*;
@@ -42,7 +41,7 @@ public class ResponseStateHandler {
 	public void processRequest() throws IOException, ServletException {
 		List<ServletRequestListener> servletRequestListeners = getServletRequestListener();
 		EndpointRegistration<?> endpoint = dispatchTargets.getServletRegistration();
-		List<FilterRegistration> filters = dispatchTargets.getMatchingFilterRegistrations();
+		FilterRegistration[] filters = dispatchTargets.getFilterChain(dispatchTargets.getDispatcherType());
 
 		endpoint.addReference();
 
@@ -62,11 +61,9 @@ public class ResponseStateHandler {
 
 			if (endpoint.getServletContextHelper().handleSecurity(request, response)) {
 				try {
-					if (filters.isEmpty()) {
+					if (filters.length == 0) {
 						endpoint.service(request, response);
 					} else {
-						Collections.sort(filters);
-
 						FilterChain chain = new FilterChainImpl(filters, endpoint, dispatchTargets.getDispatcherType());
 
 						chain.doFilter(request, response);
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.registry;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread safe map with integer keys that allows values to be removed by the
+ * garbage collector. This is the concurrent counterpart of {@link ReferenceMap}:
+ * lookups never lock, and the mappings of values which were garbage collected
+ * are purged when the map is modified.
+ * <p>
+ * This map does not allow null values.
+ */
+public class ConcurrentReferenceMap {
+
+	private static final class SoftRef extends SoftReference<Object> {
+		final Integer key;
+
+		SoftRef(Integer key, Object value, ReferenceQueue<Object> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Constant indicating that hard references should be used.
+	 */
+	final public static int HARD = ReferenceMap.HARD;
+
+	/**
+	 * Constant indicating that soft references should be used.
+	 */
+	final public static int SOFT = ReferenceMap.SOFT;
+
+	private final ConcurrentHashMap<Integer, Object> map;
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+	private final boolean soft;
+
+	/**
+	 * Constructs a new <code>ConcurrentReferenceMap</code> with the specified
+	 * reference type and initial capacity.
+	 *
+	 * @param referenceType the type of reference to use for values; must be
+	 *                      {@link #HARD} or {@link #SOFT}
+	 * @param capacity      the initial capacity for the map
+	 */
+	public ConcurrentReferenceMap(int referenceType, int capacity) {
+		if (referenceType != HARD && referenceType != SOFT)
+			throw new IllegalArgumentException(" must be HARD or SOFT."); //$NON-NLS-1$
+		this.soft = referenceType == SOFT;
+		this.map = new ConcurrentHashMap<>(capacity);
+	}
+
+	/**
+	 * Returns the value associated with the given key, if any.
+	 *
+	 * @return the value associated with the given key, or <code>null</code> if the
+	 *         key maps to no value
+	 */
+	public Object get(int key) {
+		Object value = map.get(key);
+		if (value instanceof SoftRef)
+			return ((SoftRef) value).get();
+		return value;
+	}
+
+	/**
+	 * Associates the given key with the given value, replacing any previous value.
+	 *
+	 * @param key   the key of the mapping
+	 * @param value the value of the mapping
+	 * @throws NullPointerException if the value is null
+	 */
+	public void put(int key, Object value) {
+		if (value == null)
+			throw new NullPointerException("null values not allowed"); //$NON-NLS-1$
+		purge();
+		Integer boxedKey = Integer.valueOf(key);
+		map.put(boxedKey, soft ? new SoftRef(boxedKey, value, queue) : value);
+	}
+
+	/**
+	 * Associates the given key with the given value unless the key is already
+	 * associated with a value which was not garbage collected.
+	 *
+	 * @param key   the key of the mapping
+	 * @param value the value of the mapping
+	 * @return the value already associated with the key, or <code>null</code> if
+	 *         the given value was associated with the key
+	 * @throws NullPointerException if the value is null
+	 */
+	public Object putIfAbsent(int key, Object value) {
+		if (value == null)
+			throw new NullPointerException("null values not allowed"); //$NON-NLS-1$
+		purge();
+		Integer boxedKey = Integer.valueOf(key);
+		Object newValue = soft ? new SoftRef(boxedKey, value, queue) : value;
+		while (true) {
+			Object existing = map.putIfAbsent(boxedKey, newValue);
+			if (existing == null)
+				return null;
+			if (!(existing instanceof SoftRef))
+				return existing;
+			Object referent = ((SoftRef) existing).get();
+			if (referent != null)
+				return referent;
+			// the existing value was garbage collected but not purged yet
+			if (map.replace(boxedKey, existing, newValue))
+				return null;
+		}
+	}
+
+	/**
+	 * Removes the key and its associated value from this map.
+	 *
+	 * @param key the key to remove
+	 * @return the value associated with that key, or null if the key was not in the
+	 *         map
+	 */
+	public Object remove(int key) {
+		purge();
+		Object value = map.remove(key);
+		if (value instanceof SoftRef)
+			return ((SoftRef) value).get();
+		return value;
+	}
+
+	/**
+	 * Returns the number of mappings, including the ones of values which were
+	 * garbage collected but not purged yet.
+	 */
+	public int size() {
+		return map.size();
+	}
+
+	private void purge() {
+		SoftRef ref;
+		while ((ref = (SoftRef) queue.poll()) != null) {
+			// the key may have been mapped to another value since
+			map.remove(ref.key, ref);
+		}
+	}
+}
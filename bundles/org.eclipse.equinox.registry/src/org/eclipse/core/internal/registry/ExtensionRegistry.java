@@ -17,6 +17,7 @@ package org.eclipse.core.internal.registry;
 import java.io.*;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.function.IntPredicate;
 import javax.xml.parsers.ParserConfigurationException;
 import org.eclipse.core.internal.registry.spi.ConfigurationElementAttribute;
 import org.eclipse.core.internal.registry.spi.ConfigurationElementDescription;
@@ -1138,6 +1139,37 @@ public class ExtensionRegistry implements IExtensionRegistry, IDynamicExtensionR
 		if (!checkReadWriteAccess(key, persist))
 			throw new IllegalArgumentException(
 					"Unauthorized access to the ExtensionRegistry.addContribution() method. Check if proper access token is supplied."); //$NON-NLS-1$
+		Contribution contribution = basicParseContribution(is, contributor, persist, contributionName,
+				translationBundle, true);
+		if (contribution == null)
+			return false;
+		add(contribution); // the add() method does synchronization
+		return true;
+	}
+
+	/**
+	 * Parses a contribution without adding it to the registry. The registry objects
+	 * of the contribution are assigned ids but are not linked into the registry,
+	 * and the ids of its extension points are not registered, until the
+	 * contribution is passed to {@link #addContributions(Contribution[], long[])}.
+	 * Unlike
+	 * {@link #addContribution(InputStream, IContributor, boolean, String, ResourceBundle, Object)}
+	 * this method does not lock the registry, so contributions of different
+	 * contributors can be parsed concurrently.
+	 *
+	 * @return the parsed contribution or <code>null</code> if the contribution
+	 *         could not be parsed
+	 */
+	public Contribution parseContribution(InputStream is, IContributor contributor, boolean persist,
+			String contributionName, ResourceBundle translationBundle, Object key) {
+		if (!checkReadWriteAccess(key, persist))
+			throw new IllegalArgumentException(
+					"Unauthorized access to the ExtensionRegistry.parseContribution() method. Check if proper access token is supplied."); //$NON-NLS-1$
+		return basicParseContribution(is, contributor, persist, contributionName, translationBundle, false);
+	}
+
+	private Contribution basicParseContribution(InputStream is, IContributor contributor, boolean persist,
+			String contributionName, ResourceBundle translationBundle, boolean claimExtensionPoints) {
 		if (contributionName == null)
 			contributionName = ""; //$NON-NLS-1$
 
@@ -1149,6 +1181,7 @@ public class ExtensionRegistry implements IExtensionRegistry, IDynamicExtensionR
 		MultiStatus problems = new MultiStatus(RegistryMessages.OWNER_NAME, ExtensionsParser.PARSE_PROBLEM, message,
 				null);
 		ExtensionsParser parser = new ExtensionsParser(problems, this);
+		parser.setClaimExtensionPoints(claimExtensionPoints);
 		Contribution contribution = getElementFactory().createContribution(internalContributor.getActualId(), persist);
 
 		try {
@@ -1158,11 +1191,11 @@ public class ExtensionRegistry implements IExtensionRegistry, IDynamicExtensionR
 			if (status != IStatus.OK) {
 				log(problems);
 				if (status == IStatus.ERROR || status == IStatus.CANCEL)
-					return false;
+					return null;
 			}
 		} catch (ParserConfigurationException | SAXException | IOException e) {
 			logError(ownerName, contributionName, e);
-			return false;
+			return null;
 		} finally {
 			try {
 				is.close();
@@ -1170,8 +1203,60 @@ public class ExtensionRegistry implements IExtensionRegistry, IDynamicExtensionR
 				// nothing to do
 			}
 		}
-		add(contribution); // the add() method does synchronization
-		return true;
+		return contribution;
+	}
+
+	/**
+	 * Adds the contributions returned by
+	 * {@link #parseContribution(InputStream, IContributor, boolean, String, ResourceBundle, Object)}
+	 * to the registry in a single registry change. The contributors may have been
+	 * added or removed while their contributions were parsed, so a contribution is
+	 * discarded if its contributor was added in the meantime or if it is no longer
+	 * current. The ids of the extension points are registered here, in the order
+	 * of the contributions, so the first contribution declaring an extension point
+	 * wins regardless of the order in which the contributions were parsed.
+	 *
+	 * @param contributions the parsed contributions; <code>null</code> elements
+	 *                      are ignored
+	 * @param timestamps    the time stamps of the contributions, or 0 if the
+	 *                      contents time stamp is not tracked
+	 * @param current       tests if the contribution at an index is still to be
+	 *                      added; called while the registry is locked
+	 */
+	public void addContributions(Contribution[] contributions, long[] timestamps, IntPredicate current) {
+		access.enterWrite();
+		try {
+			eventDelta = CombinedEventDelta.recordAddition();
+			for (int i = 0; i < contributions.length; i++) {
+				Contribution contribution = contributions[i];
+				if (contribution != null) {
+					String contributorId = contribution.getContributorId();
+					if (registryObjects.hasContribution(contributorId)) {
+						registryObjects.discardContribution(contribution);
+						continue;
+					}
+					if (!current.test(i)) {
+						registryObjects.discardContribution(contribution);
+						registryObjects.removeContributor(contributorId);
+						continue;
+					}
+					for (String duplicate : registryObjects.claimExtensionPoints(contribution)) {
+						if (debug()) {
+							String msg = NLS.bind(RegistryMessages.parse_duplicateExtensionPoint, duplicate,
+									contribution.getDefaultNamespace());
+							log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, 0, msg, null));
+						}
+					}
+					basicAdd(contribution, true);
+				}
+				if (timestamps[i] != 0)
+					aggregatedTimestamp.add(timestamps[i]);
+			}
+			fireRegistryChangeEvent();
+			eventDelta = null;
+		} finally {
+			access.exitWrite();
+		}
 	}
 
 	private void logError(String owner, String contributionName, Exception e) {
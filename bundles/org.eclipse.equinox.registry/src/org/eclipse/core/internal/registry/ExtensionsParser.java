@@ -17,6 +17,7 @@ package org.eclipse.core.internal.registry;
 import java.io.IOException;
 import java.util.*;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
@@ -88,6 +89,11 @@ public class ExtensionsParser extends DefaultHandler {
 
 	private Contribution contribution;
 
+	// true: register the ids of the extension points while parsing; false: the
+	// ids are registered when the contribution is added, see
+	// RegistryObjectManager.claimExtensionPoints()
+	private boolean claimExtensionPoints = true;
+
 	// This keeps tracks of the value of the configuration element in case the value
 	// comes in several pieces (see characters()). See as well bug 75592.
 	private String configurationElementValue;
@@ -159,6 +165,10 @@ public class ExtensionsParser extends DefaultHandler {
 		this.registry = registry;
 	}
 
+	void setClaimExtensionPoints(boolean claimExtensionPoints) {
+		this.claimExtensionPoints = claimExtensionPoints;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -325,7 +335,7 @@ public class ExtensionsParser extends DefaultHandler {
 	 */
 	private void cleanup() {
 		for (RegistryObject object : addedRegistryObjects) {
-			if (object instanceof ExtensionPoint) {
+			if (claimExtensionPoints && object instanceof ExtensionPoint) {
 				String id = ((ExtensionPoint) object).getUniqueIdentifier();
 				objectManager.removeExtensionPoint(id);
 			} else
@@ -431,14 +441,19 @@ public class ExtensionsParser extends DefaultHandler {
 			locationName = in.getSystemId();
 			if (locationName == null)
 				locationName = manifestName;
-			factory.setNamespaceAware(true);
-			try {
-				factory.setFeature("http://xml.org/sax/features/string-interning", true); //$NON-NLS-1$
-			} catch (SAXException se) {
-				// ignore; we can still operate without string-interning
+			SAXParser parser;
+			// manifests of different contributions may be parsed concurrently
+			synchronized (factory) {
+				factory.setNamespaceAware(true);
+				try {
+					factory.setFeature("http://xml.org/sax/features/string-interning", true); //$NON-NLS-1$
+				} catch (SAXException se) {
+					// ignore; we can still operate without string-interning
+				}
+				factory.setValidating(false);
+				parser = factory.newSAXParser();
 			}
-			factory.setValidating(false);
-			factory.newSAXParser().parse(in, this);
+			parser.parse(in, this);
 			return (Contribution) objectStack.pop();
 		} finally {
 			if (registry.debug()) {
@@ -607,7 +622,10 @@ public class ExtensionsParser extends DefaultHandler {
 			stateStack.push(Integer.valueOf(IGNORED_ELEMENT_STATE));
 			return;
 		}
-		if (!objectManager.addExtensionPoint(currentExtPoint, true)) {
+		if (!claimExtensionPoints) {
+			// the id is claimed when the contribution is added, in the order of the batch
+			objectManager.add(currentExtPoint, true);
+		} else if (!objectManager.addExtensionPoint(currentExtPoint, true)) {
 			// avoid adding extension point second time as it might cause
 			// extensions associated with the existing extension point to
 			// become inaccessible.
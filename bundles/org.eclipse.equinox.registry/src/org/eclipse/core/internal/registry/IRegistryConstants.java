@@ -34,6 +34,8 @@ public interface IRegistryConstants {
 	public static final String PROP_DEFAULT_REGISTRY = "eclipse.createRegistry"; //$NON-NLS-1$
 	public static final String PROP_REGISTRY_NULL_USER_TOKEN = "eclipse.registry.nulltoken"; //$NON-NLS-1$
 	public static final String PROP_MULTI_LANGUAGE = "eclipse.registry.MultiLanguage"; //$NON-NLS-1$
+	public static final String PROP_MAPPED_CACHE = "eclipse.registry.mappedCache"; //$NON-NLS-1$
+	public static final String PROP_PARSER_THREADS = "eclipse.registry.parserThreads"; //$NON-NLS-1$
 
 	// OSGI system properties
 	public static final String PROP_NL = "osgi.nl"; //$NON-NLS-1$
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.registry;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the data written by a {@link DataOutputStream} directly from a view of
+ * a memory mapped registry cache file. Each reader has its own position, so any
+ * number of readers can decode the same file concurrently.
+ */
+final class MappedDataInput implements DataInput {
+	private final ByteBuffer buffer;
+
+	/**
+	 * Creates a reader of the specified file buffer starting at the offset.
+	 *
+	 * @param file   the mapped file, it is not modified
+	 * @param offset the position to start reading at
+	 * @throws EOFException if the offset is past the end of the file
+	 */
+	MappedDataInput(ByteBuffer file, int offset) throws EOFException {
+		if (offset < 0 || offset > file.limit())
+			throw new EOFException();
+		this.buffer = file.duplicate();
+		this.buffer.position(offset);
+	}
+
+	private ByteBuffer need(int length) throws EOFException {
+		if (buffer.remaining() < length)
+			throw new EOFException();
+		return buffer;
+	}
+
+	@Override
+	public void readFully(byte[] b) throws IOException {
+		readFully(b, 0, b.length);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		need(len).get(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(int n) {
+		int skipped = Math.max(0, Math.min(n, buffer.remaining()));
+		buffer.position(buffer.position() + skipped);
+		return skipped;
+	}
+
+	@Override
+	public boolean readBoolean() throws IOException {
+		return need(1).get() != 0;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		return need(1).get();
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		return need(1).get() & 0xff;
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		return need(2).getShort();
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		return need(2).getShort() & 0xffff;
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		return need(2).getChar();
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		return need(4).getInt();
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		return need(8).getLong();
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		return need(4).getFloat();
+	}
+
+	@Override
+	public double readDouble() throws IOException {
+		return need(8).getDouble();
+	}
+
+	/**
+	 * Reads the next line like {@link DataInputStream#readLine()}: each byte is
+	 * converted to a character and the line ends with a line feed, a carriage
+	 * return, a carriage return followed by a line feed or the end of the file.
+	 */
+	@Override
+	public String readLine() {
+		if (!buffer.hasRemaining())
+			return null;
+		StringBuilder line = new StringBuilder();
+		while (buffer.hasRemaining()) {
+			int c = buffer.get() & 0xff;
+			if (c == '\n')
+				break;
+			if (c == '\r') {
+				if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n')
+					buffer.get();
+				break;
+			}
+			line.append((char) c);
+		}
+		return line.toString();
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		return DataInputStream.readUTF(this);
+	}
+}
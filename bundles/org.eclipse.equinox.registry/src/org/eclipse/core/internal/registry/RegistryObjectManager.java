@@ -15,6 +15,7 @@ package org.eclipse.core.internal.registry;
 
 import java.lang.ref.SoftReference;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.eclipse.core.runtime.IContributor;
 import org.eclipse.core.runtime.InvalidRegistryObjectException;
 import org.eclipse.core.runtime.spi.RegistryContributor;
@@ -34,6 +35,8 @@ public class RegistryObjectManager implements IObjectManager {
 	static final int CACHE_INITIAL_SIZE = 512; // This value has been picked because it is the minimal size required to
 												// startup an RCP app. (FYI, eclipse requires 3 growths).
 	static final float DEFAULT_LOADFACTOR = 0.75f; // This is the default factor used in reference map.
+	static final int LOAD_STRIPES = 32; // The number of locks used to load objects from the table reader, must be a
+										// power of two.
 
 	static final int[] EMPTY_INT_ARRAY = new int[0];
 	static final String[] EMPTY_STRING_ARRAY = new String[0];
@@ -46,11 +49,18 @@ public class RegistryObjectManager implements IObjectManager {
 	private HashtableOfStringAndInt extensionPoints; // This is loaded on startup. Then entries can be added when
 														// loading a new plugin from the xml.
 	// key: object id, value: an object
-	private ReferenceMap cache; // Entries are added by getter. The structure is not thread safe.
+	private final ConcurrentReferenceMap cache; // Entries are added by getter. Reads do not lock.
 	// key: int, value: int
-	private OffsetTable fileOffsets = null; // This is read once on startup when loading from the cache. Entries are
-											// never added here. They are only removed to prevent "removed" objects to
-											// be reloaded.
+	private volatile OffsetTable fileOffsets = null; // This is read once on startup when loading from the cache.
+														// Entries are never added here. They are only removed to
+														// prevent "removed" objects to be reloaded.
+
+	// Objects missing from the cache are loaded from the table reader while holding
+	// the read lock and the lock of the stripe of their id, so that each object is
+	// only loaded once. Objects are removed while holding the write lock, so that a
+	// removed object is never put back in the cache by a concurrent load.
+	private final ReentrantReadWriteLock loadLock = new ReentrantReadWriteLock();
+	private final Object[] loadStripes = new Object[LOAD_STRIPES];
 
 	private int nextId = 1; // This is only used to get the next number available.
 
@@ -78,7 +88,7 @@ public class RegistryObjectManager implements IObjectManager {
 	// needs to be set in a couple of places (addNamespace and removeNamespace)
 	private boolean isDirty = false;
 
-	private boolean fromCache = false;
+	private volatile boolean fromCache = false;
 
 	private final ExtensionRegistry registry;
 
@@ -89,9 +99,12 @@ public class RegistryObjectManager implements IObjectManager {
 	public RegistryObjectManager(ExtensionRegistry registry) {
 		extensionPoints = new HashtableOfStringAndInt();
 		if ("true".equalsIgnoreCase(RegistryProperties.getProperty(PROP_NO_REGISTRY_FLUSHING))) { //$NON-NLS-1$
-			cache = new ReferenceMap(ReferenceMap.HARD, CACHE_INITIAL_SIZE, DEFAULT_LOADFACTOR);
+			cache = new ConcurrentReferenceMap(ConcurrentReferenceMap.HARD, CACHE_INITIAL_SIZE);
 		} else {
-			cache = new ReferenceMap(ReferenceMap.SOFT, CACHE_INITIAL_SIZE, DEFAULT_LOADFACTOR);
+			cache = new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT, CACHE_INITIAL_SIZE);
+		}
+		for (int i = 0; i < loadStripes.length; i++) {
+			loadStripes[i] = new Object();
 		}
 		newContributions = new KeyedHashSet();
 
@@ -246,12 +259,22 @@ public class RegistryObjectManager implements IObjectManager {
 		return result;
 	}
 
-	synchronized public void add(RegistryObject registryObject, boolean hold) {
+	// Objects loaded by the table reader already have an id, they are added
+	// without holding the lock of this object manager. The children of an object
+	// are loaded along with it, without holding the lock of their stripe, so the
+	// first instance of a loaded object is kept.
+	public void add(RegistryObject registryObject, boolean hold) {
 		if (registryObject.getObjectId() == UNKNOWN) {
-			int id = nextId++;
-			registryObject.setObjectId(id);
+			synchronized (this) {
+				int id = nextId++;
+				registryObject.setObjectId(id);
+			}
+			cache.put(registryObject.getObjectId(), registryObject);
+		} else {
+			Object existing = cache.putIfAbsent(registryObject.getObjectId(), registryObject);
+			if (existing != null)
+				registryObject = (RegistryObject) existing;
 		}
-		cache.put(registryObject.getObjectId(), registryObject);
 		if (hold)
 			hold(registryObject);
 	}
@@ -263,23 +286,32 @@ public class RegistryObjectManager implements IObjectManager {
 	}
 
 	synchronized void remove(int id, boolean release) {
-		RegistryObject toRemove = (RegistryObject) cache.get(id);
-		if (fileOffsets != null)
-			fileOffsets.removeKey(id);
-		if (toRemove != null)
-			remove(toRemove, release);
+		loadLock.writeLock().lock();
+		try {
+			RegistryObject toRemove = (RegistryObject) cache.get(id);
+			if (fileOffsets != null)
+				fileOffsets.removeKey(id);
+			if (toRemove != null)
+				remove(toRemove, release);
+		} finally {
+			loadLock.writeLock().unlock();
+		}
 	}
 
 	private void hold(RegistryObject toHold) {
-		heldObjects.add(toHold);
+		synchronized (heldObjects) {
+			heldObjects.add(toHold);
+		}
 	}
 
 	private void release(RegistryObject toRelease) {
-		heldObjects.remove(toRelease);
+		synchronized (heldObjects) {
+			heldObjects.remove(toRelease);
+		}
 	}
 
 	@Override
-	public synchronized Object getObject(int id, byte type) {
+	public Object getObject(int id, byte type) {
 		return basicGetObject(id, type);
 	}
 
@@ -288,13 +320,34 @@ public class RegistryObjectManager implements IObjectManager {
 		if (result != null)
 			return result;
 		if (fromCache)
-			result = load(id, type);
+			result = loadObject(id, type);
 		if (result == null)
 			throw new InvalidRegistryObjectException();
-		cache.put(id, result);
 		return result;
 	}
 
+	private Object loadObject(int id, byte type) {
+		loadLock.readLock().lock();
+		try {
+			synchronized (loadStripes[id & (LOAD_STRIPES - 1)]) {
+				// another thread may have loaded it in the meantime
+				Object result = cache.get(id);
+				if (result == null) {
+					result = load(id, type);
+					if (result != null) {
+						// it may have been loaded as the child of another object
+						Object existing = cache.putIfAbsent(id, result);
+						if (existing != null)
+							result = existing;
+					}
+				}
+				return result;
+			}
+		} finally {
+			loadLock.readLock().unlock();
+		}
+	}
+
 	// The current impementation of this method assumes that we don't cache dynamic
 	// extension. In this case all extensions not yet loaded (i.e. not in the memory
 	// cache)
@@ -314,7 +367,7 @@ public class RegistryObjectManager implements IObjectManager {
 	}
 
 	@Override
-	public synchronized RegistryObject[] getObjects(int[] values, byte type) {
+	public RegistryObject[] getObjects(int[] values, byte type) {
 		if (values.length == 0) {
 			switch (type) {
 			case EXTENSION_POINT:
@@ -754,6 +807,51 @@ public class RegistryObjectManager implements IObjectManager {
 		associatedObjects.putAll(result);
 	}
 
+	/**
+	 * Registers the ids of the extension points of a parsed contribution. An
+	 * extension point whose id is already registered is removed from the
+	 * contribution.
+	 *
+	 * @return the ids of the extension points which were removed
+	 */
+	synchronized List<String> claimExtensionPoints(Contribution contribution) {
+		List<String> duplicates = new ArrayList<>(0);
+		for (int xpt : contribution.getExtensionPoints()) {
+			ExtensionPoint tmp = (ExtensionPoint) basicGetObject(xpt, RegistryObjectManager.EXTENSION_POINT);
+			String uniqueId = tmp.getUniqueIdentifier();
+			if (extensionPoints.get(uniqueId) != HashtableOfStringAndInt.MISSING_ELEMENT) {
+				contribution.unlinkChild(xpt);
+				remove(xpt, true);
+				duplicates.add(uniqueId);
+			} else
+				extensionPoints.put(uniqueId, xpt);
+		}
+		return duplicates;
+	}
+
+	/**
+	 * Removes the objects of a parsed contribution which is not added to the
+	 * registry, along with the extension points it registered.
+	 */
+	synchronized void discardContribution(Contribution contribution) {
+		Map<Integer, RegistryObject> associatedObjects = new HashMap<>();
+		for (int ext : contribution.getExtensions()) {
+			Extension tmp = (Extension) basicGetObject(ext, RegistryObjectManager.EXTENSION);
+			associatedObjects.put(Integer.valueOf(ext), tmp);
+			collectChildren(tmp, 0, associatedObjects);
+		}
+		for (int xpt : contribution.getExtensionPoints()) {
+			ExtensionPoint tmp = (ExtensionPoint) basicGetObject(xpt, RegistryObjectManager.EXTENSION_POINT);
+			// another contribution may have registered an extension point with this id
+			if (extensionPoints.get(tmp.getUniqueIdentifier()) == xpt)
+				extensionPoints.removeKey(tmp.getUniqueIdentifier());
+			associatedObjects.put(Integer.valueOf(xpt), tmp);
+		}
+		for (RegistryObject toRemove : associatedObjects.values()) {
+			remove(toRemove.getObjectId(), true);
+		}
+	}
+
 	synchronized void removeObjects(Map<?, ?> associatedObjects) {
 		// Remove the objects from the main object manager so they can no longer be
 		// accessed.
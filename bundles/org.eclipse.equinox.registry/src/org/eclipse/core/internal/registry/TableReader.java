@@ -15,9 +15,13 @@ package org.eclipse.core.internal.registry;
 
 import java.io.*;
 import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.spi.RegistryContributor;
@@ -45,11 +49,15 @@ public class TableReader {
 	static final String MAIN = ".mainData"; //$NON-NLS-1$
 	BufferedRandomInputStream mainDataFile = null;
 	DataInputStream mainInput = null;
+	volatile ByteBuffer mainDataBuffer = null; // set instead of the stream when the file is mapped
+	String mainDataPath = null;
 
 	// Informations representing the EXTRA file
 	static final String EXTRA = ".extraData"; //$NON-NLS-1$
 	BufferedRandomInputStream extraDataFile = null;
 	DataInputStream extraInput = null;
+	volatile ByteBuffer extraDataBuffer = null; // set instead of the stream when the file is mapped
+	String extraDataPath = null;
 
 	// The table file
 	static final String TABLE = ".table"; //$NON-NLS-1$
@@ -79,16 +87,45 @@ public class TableReader {
 
 	private final ExtensionRegistry registry;
 
-	private SoftReference<Map<String, String>> stringPool;
+	// Memory map the main and extra data files instead of reading them through a
+	// stream. Records are then decoded directly from the mapped pages, concurrently
+	// and without copying the file to the heap.
+	private final boolean mapped;
+
+	private volatile SoftReference<Map<String, String>> stringPool;
+
+	/**
+	 * Reads a record of the main or extra data file.
+	 */
+	private interface RecordReader<T> {
+		T read(DataInput in) throws IOException;
+	}
 
 	void setMainDataFile(File main) throws IOException {
-		mainDataFile = new BufferedRandomInputStream(main);
-		mainInput = new DataInputStream(mainDataFile);
+		if (mapped) {
+			mainDataBuffer = map(main);
+			mainDataPath = main.getCanonicalPath();
+		} else {
+			mainDataFile = new BufferedRandomInputStream(main);
+			mainInput = new DataInputStream(mainDataFile);
+		}
 	}
 
 	void setExtraDataFile(File extra) throws IOException {
-		extraDataFile = new BufferedRandomInputStream(extra);
-		extraInput = new DataInputStream(extraDataFile);
+		if (mapped) {
+			extraDataBuffer = map(extra);
+			extraDataPath = extra.getCanonicalPath();
+		} else {
+			extraDataFile = new BufferedRandomInputStream(extra);
+			extraInput = new DataInputStream(extraDataFile);
+		}
+	}
+
+	private static ByteBuffer map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// the mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
 	}
 
 	void setTableFile(File table) {
@@ -113,6 +150,8 @@ public class TableReader {
 
 	public TableReader(ExtensionRegistry registry) {
 		this.registry = registry;
+		this.mapped = "true" //$NON-NLS-1$
+				.equalsIgnoreCase(RegistryProperties.getProperty(IRegistryConstants.PROP_MAPPED_CACHE));
 	}
 
 	// Don't need to synchronize - called only from a synchronized method
@@ -179,8 +218,8 @@ public class TableReader {
 			if (!validTime || !validInstall || !validOS || !validWS || !validNL || !validMultiLang)
 				return false;
 
-			boolean validMain = (mainDataFileSize == mainDataFile.length());
-			boolean validExtra = (extraDataFileSize == extraDataFile.length());
+			boolean validMain = (mainDataFileSize == (mapped ? mainDataBuffer.limit() : mainDataFile.length()));
+			boolean validExtra = (extraDataFileSize == (mapped ? extraDataBuffer.limit() : extraDataFile.length()));
 			boolean validContrib = (contributionsFileSize == contributionsFile.length());
 			boolean validContributors = (contributorsFileSize == contributorsFile.length());
 			boolean validNamespace = (namespacesFileSize == namespacesFile.length());
@@ -196,12 +235,9 @@ public class TableReader {
 
 	public Object loadConfigurationElement(int offset) {
 		try {
-			synchronized (mainDataFile) {
-				goToInputFile(offset);
-				return basicLoadConfigurationElement(mainInput, null);
-			}
+			return readMain(offset, in -> basicLoadConfigurationElement(in, null));
 		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, mainDataFile);
+			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, getMainDataName());
 			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
 			if (DEBUG)
 				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
@@ -210,7 +246,7 @@ public class TableReader {
 		}
 	}
 
-	private ConfigurationElement basicLoadConfigurationElement(DataInputStream is, String actualContributorId)
+	private ConfigurationElement basicLoadConfigurationElement(DataInput is, String actualContributorId)
 			throws IOException {
 		int self = is.readInt();
 		String contributorId = readStringOrNull(is);
@@ -243,7 +279,7 @@ public class TableReader {
 		return result;
 	}
 
-	private String[] readStringArray(DataInputStream is) throws IOException {
+	private String[] readStringArray(DataInput is) throws IOException {
 		int size = is.readInt();
 		if (size == 0)
 			return null;
@@ -256,12 +292,10 @@ public class TableReader {
 
 	public Object loadThirdLevelConfigurationElements(int offset, RegistryObjectManager objectManager) {
 		try {
-			synchronized (extraDataFile) {
-				goToExtraFile(offset);
-				return loadConfigurationElementAndChildren(null, extraInput, 3, Integer.MAX_VALUE, objectManager, null);
-			}
+			return readExtra(offset, in -> loadConfigurationElementAndChildren(null, in, 3, Integer.MAX_VALUE,
+					objectManager, null));
 		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, extraDataFile);
+			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, getExtraDataName());
 			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
 			if (DEBUG)
 				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
@@ -272,9 +306,9 @@ public class TableReader {
 	}
 
 	// Read a whole configuration element subtree
-	private ConfigurationElement loadConfigurationElementAndChildren(DataInputStream is, DataInputStream extraIs,
-			int depth, int maxDepth, RegistryObjectManager objectManager, String namespaceOwnerId) throws IOException {
-		DataInputStream currentStream = is;
+	private ConfigurationElement loadConfigurationElementAndChildren(DataInput is, DataInput extraIs, int depth,
+			int maxDepth, RegistryObjectManager objectManager, String namespaceOwnerId) throws IOException {
+		DataInput currentStream = is;
 		if (depth > 2)
 			currentStream = extraIs;
 
@@ -293,7 +327,7 @@ public class TableReader {
 		return ce;
 	}
 
-	private String[] readPropertiesAndValue(DataInputStream inputStream) throws IOException {
+	private String[] readPropertiesAndValue(DataInput inputStream) throws IOException {
 		int numberOfProperties = inputStream.readInt();
 		if (numberOfProperties == 0)
 			return RegistryObjectManager.EMPTY_STRING_ARRAY;
@@ -306,12 +340,9 @@ public class TableReader {
 
 	public Object loadExtension(int offset) {
 		try {
-			synchronized (mainDataFile) {
-				goToInputFile(offset);
-				return basicLoadExtension(mainInput);
-			}
+			return readMain(offset, this::basicLoadExtension);
 		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, mainDataFile);
+			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, getMainDataName());
 			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
 			if (DEBUG)
 				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
@@ -320,39 +351,38 @@ public class TableReader {
 		return null;
 	}
 
-	private Extension basicLoadExtension(DataInputStream inputStream) throws IOException {
+	private Extension basicLoadExtension(DataInput inputStream) throws IOException {
 		int self = inputStream.readInt();
-		String simpleId = readStringOrNull(mainInput);
-		String namespace = readStringOrNull(mainInput);
-		int[] children = readArray(mainInput);
-		int extraData = mainInput.readInt();
+		String simpleId = readStringOrNull(inputStream);
+		String namespace = readStringOrNull(inputStream);
+		int[] children = readArray(inputStream);
+		int extraData = inputStream.readInt();
 		return getObjectFactory().createExtension(self, simpleId, namespace, children, extraData, true);
 	}
 
 	public ExtensionPoint loadExtensionPointTree(int offset, RegistryObjectManager objects) {
 		try {
-			synchronized (mainDataFile) {
-				ExtensionPoint xpt = (ExtensionPoint) loadExtensionPoint(offset);
+			return readMain(offset, in -> {
+				ExtensionPoint xpt = basicLoadExtensionPoint(in);
 				int[] children = xpt.getRawChildren();
 				int nbrOfExtension = children.length;
 				for (int i = 0; i < nbrOfExtension; i++) {
-					Extension loaded = basicLoadExtension(mainInput);
+					Extension loaded = basicLoadExtension(in);
 					objects.add(loaded, holdObjects);
 				}
 
 				for (int i = 0; i < nbrOfExtension; i++) {
-					int nbrOfCe = mainInput.readInt();
+					int nbrOfCe = in.readInt();
 					for (int j = 0; j < nbrOfCe; j++) {
 						// note that max depth is set to 2 and extra input is never going to
 						// be used in this call to the loadConfigurationElementAndChildren().
-						objects.add(loadConfigurationElementAndChildren(mainInput, null, 1, 2, objects, null),
-								holdObjects);
+						objects.add(loadConfigurationElementAndChildren(in, null, 1, 2, objects, null), holdObjects);
 					}
 				}
 				return xpt;
-			}
+			});
 		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, mainDataFile);
+			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, getMainDataName());
 			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
 			if (DEBUG)
 				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
@@ -361,28 +391,14 @@ public class TableReader {
 		}
 	}
 
-	private Object loadExtensionPoint(int offset) {
-		try {
-			goToInputFile(offset);
-			return basicLoadExtensionPoint();
-		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, mainDataFile);
-			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
-			if (DEBUG)
-				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
-						"Error reading an extension point (" + offset + ") from the registry cache", e)); //$NON-NLS-1$ //$NON-NLS-2$
-			return null;
-		}
-	}
-
-	private ExtensionPoint basicLoadExtensionPoint() throws IOException {
-		int self = mainInput.readInt();
-		int[] children = readArray(mainInput);
-		int extraData = mainInput.readInt();
+	private ExtensionPoint basicLoadExtensionPoint(DataInput in) throws IOException {
+		int self = in.readInt();
+		int[] children = readArray(in);
+		int extraData = in.readInt();
 		return getObjectFactory().createExtensionPoint(self, children, extraData, true);
 	}
 
-	private int[] readArray(DataInputStream in) throws IOException {
+	private int[] readArray(DataInput in) throws IOException {
 		int arraySize = in.readInt();
 		if (arraySize == 0)
 			return RegistryObjectManager.EMPTY_INT_ARRAY;
@@ -393,15 +409,41 @@ public class TableReader {
 		return result;
 	}
 
-	private void goToInputFile(int offset) throws IOException {
-		mainDataFile.seek(offset);
+	private <T> T readMain(int offset, RecordReader<T> reader) throws IOException {
+		if (mapped)
+			return reader.read(new MappedDataInput(checkOpen(mainDataBuffer), offset));
+		synchronized (mainDataFile) {
+			mainDataFile.seek(offset);
+			return reader.read(mainInput);
+		}
+	}
+
+	private <T> T readExtra(int offset, RecordReader<T> reader) throws IOException {
+		if (mapped)
+			return reader.read(new MappedDataInput(checkOpen(extraDataBuffer), offset));
+		synchronized (extraDataFile) {
+			extraDataFile.seek(offset);
+			return reader.read(extraInput);
+		}
+	}
+
+	// The buffers are released when the reader is closed, possibly while records
+	// are loaded. Such a load fails like a read of a closed stream.
+	private static ByteBuffer checkOpen(ByteBuffer buffer) throws IOException {
+		if (buffer == null)
+			throw new IOException("Stream Closed"); //$NON-NLS-1$
+		return buffer;
 	}
 
-	private void goToExtraFile(int offset) throws IOException {
-		extraDataFile.seek(offset);
+	private Object getMainDataName() {
+		return mapped ? mainDataPath : mainDataFile;
 	}
 
-	private String readStringOrNull(DataInputStream in) throws IOException {
+	private Object getExtraDataName() {
+		return mapped ? extraDataPath : extraDataFile;
+	}
+
+	private String readStringOrNull(DataInput in) throws IOException {
 		byte type = in.readByte();
 		if (type == NULL)
 			return null;
@@ -410,12 +452,9 @@ public class TableReader {
 
 	public String[] loadExtensionExtraData(int dataPosition) {
 		try {
-			synchronized (extraDataFile) {
-				goToExtraFile(dataPosition);
-				return basicLoadExtensionExtraData();
-			}
+			return readExtra(dataPosition, this::basicLoadExtensionExtraData);
 		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, extraDataFile);
+			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, getExtraDataName());
 			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
 			if (DEBUG)
 				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
@@ -424,19 +463,15 @@ public class TableReader {
 		}
 	}
 
-	private String[] basicLoadExtensionExtraData() throws IOException {
-		return new String[] { readStringOrNull(extraInput), readStringOrNull(extraInput),
-				readStringOrNull(extraInput) };
+	private String[] basicLoadExtensionExtraData(DataInput in) throws IOException {
+		return new String[] { readStringOrNull(in), readStringOrNull(in), readStringOrNull(in) };
 	}
 
 	public String[] loadExtensionPointExtraData(int offset) {
 		try {
-			synchronized (extraDataFile) {
-				goToExtraFile(offset);
-				return basicLoadExtensionPointExtraData();
-			}
+			return readExtra(offset, this::basicLoadExtensionPointExtraData);
 		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, extraDataFile);
+			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, getExtraDataName());
 			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
 			if (DEBUG)
 				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
@@ -445,13 +480,13 @@ public class TableReader {
 		}
 	}
 
-	private String[] basicLoadExtensionPointExtraData() throws IOException {
+	private String[] basicLoadExtensionPointExtraData(DataInput in) throws IOException {
 		String[] result = new String[5];
-		result[0] = readStringOrNull(extraInput); // the label
-		result[1] = readStringOrNull(extraInput); // the schema
-		result[2] = readStringOrNull(extraInput); // the fully qualified name
-		result[3] = readStringOrNull(extraInput); // the namespace
-		result[4] = readStringOrNull(extraInput); // the contributor Id
+		result[0] = readStringOrNull(in); // the label
+		result[1] = readStringOrNull(in); // the schema
+		result[2] = readStringOrNull(in); // the fully qualified name
+		result[3] = readStringOrNull(in); // the namespace
+		result[4] = readStringOrNull(in); // the contributor Id
 		return result;
 	}
 
@@ -547,18 +582,19 @@ public class TableReader {
 		}
 	}
 
-	private void loadAllOrphans(RegistryObjectManager objectManager) throws IOException {
+	private void loadAllOrphans(RegistryObjectManager objectManager, DataInput main, DataInput extra)
+			throws IOException {
 		// Read the extensions and configuration elements of the orphans
 		int orphans = objectManager.getOrphanExtensions().size();
 		for (int k = 0; k < orphans; k++) {
-			int numberOfOrphanExtensions = mainInput.readInt();
+			int numberOfOrphanExtensions = main.readInt();
 			for (int i = 0; i < numberOfOrphanExtensions; i++) {
-				loadFullExtension(objectManager);
+				loadFullExtension(objectManager, main, extra);
 			}
 			for (int i = 0; i < numberOfOrphanExtensions; i++) {
-				int nbrOfCe = mainInput.readInt();
+				int nbrOfCe = main.readInt();
 				for (int j = 0; j < nbrOfCe; j++) {
-					objectManager.add(loadConfigurationElementAndChildren(mainInput, extraInput, 1, Integer.MAX_VALUE,
+					objectManager.add(loadConfigurationElementAndChildren(main, extra, 1, Integer.MAX_VALUE,
 							objectManager, null), true);
 				}
 			}
@@ -568,40 +604,45 @@ public class TableReader {
 	// Do not need to synchronize - called only from a synchronized method
 	public boolean readAllCache(RegistryObjectManager objectManager) {
 		try {
+			// the files are read sequentially from their start
+			DataInput main = mapped ? new MappedDataInput(checkOpen(mainDataBuffer), 0) : mainInput;
+			DataInput extra = mapped ? new MappedDataInput(checkOpen(extraDataBuffer), 0) : extraInput;
 			int size = objectManager.getExtensionPoints().size();
 			for (int i = 0; i < size; i++) {
-				objectManager.add(readAllExtensionPointTree(objectManager), holdObjects);
+				objectManager.add(readAllExtensionPointTree(objectManager, main, extra), holdObjects);
 			}
-			loadAllOrphans(objectManager);
+			loadAllOrphans(objectManager, main, extra);
 		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, mainDataFile);
+			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, getMainDataName());
 			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
 			return false;
 		}
 		return true;
 	}
 
-	private ExtensionPoint readAllExtensionPointTree(RegistryObjectManager objectManager) throws IOException {
-		ExtensionPoint xpt = loadFullExtensionPoint();
+	private ExtensionPoint readAllExtensionPointTree(RegistryObjectManager objectManager, DataInput main,
+			DataInput extra) throws IOException {
+		ExtensionPoint xpt = loadFullExtensionPoint(main, extra);
 		int[] children = xpt.getRawChildren();
 		int nbrOfExtension = children.length;
 		for (int i = 0; i < nbrOfExtension; i++) {
-			loadFullExtension(objectManager);
+			loadFullExtension(objectManager, main, extra);
 		}
 
 		for (int i = 0; i < nbrOfExtension; i++) {
-			int nbrOfCe = mainInput.readInt();
+			int nbrOfCe = main.readInt();
 			for (int j = 0; j < nbrOfCe; j++) {
-				objectManager.add(loadConfigurationElementAndChildren(mainInput, extraInput, 1, Integer.MAX_VALUE,
-						objectManager, null), true);
+				objectManager.add(loadConfigurationElementAndChildren(main, extra, 1, Integer.MAX_VALUE, objectManager,
+						null), true);
 			}
 		}
 		return xpt;
 	}
 
-	private ExtensionPoint loadFullExtensionPoint() throws IOException { // TODO I don't like this.
-		ExtensionPoint xpt = basicLoadExtensionPoint();
-		String[] tmp = basicLoadExtensionPointExtraData();
+	// TODO I don't like this.
+	private ExtensionPoint loadFullExtensionPoint(DataInput main, DataInput extra) throws IOException {
+		ExtensionPoint xpt = basicLoadExtensionPoint(main);
+		String[] tmp = basicLoadExtensionPointExtraData(extra);
 		xpt.setLabel(tmp[0]);
 		xpt.setSchema(tmp[1]);
 		xpt.setUniqueIdentifier(tmp[2]);
@@ -610,10 +651,11 @@ public class TableReader {
 		return xpt;
 	}
 
-	private Extension loadFullExtension(RegistryObjectManager objectManager) throws IOException {
+	private Extension loadFullExtension(RegistryObjectManager objectManager, DataInput main, DataInput extra)
+			throws IOException {
 		String[] tmp;
-		Extension loaded = basicLoadExtension(mainInput);
-		tmp = basicLoadExtensionExtraData();
+		Extension loaded = basicLoadExtension(main);
+		tmp = basicLoadExtensionExtraData(extra);
 		loaded.setLabel(tmp[0]);
 		loaded.setExtensionPointIdentifier(tmp[1]);
 		loaded.setContributorId(tmp[2]);
@@ -667,6 +709,9 @@ public class TableReader {
 	}
 
 	public void close() {
+		// the mappings are released once the buffers are garbage collected
+		mainDataBuffer = null;
+		extraDataBuffer = null;
 		try {
 			if (mainInput != null)
 				mainInput.close();
@@ -678,7 +723,7 @@ public class TableReader {
 		}
 	}
 
-	private String readUTF(DataInputStream in, int type) throws IOException {
+	private String readUTF(DataInput in, int type) throws IOException {
 		String value;
 		if (type == LOBJECT) {
 			int length = in.readInt();
@@ -689,21 +734,15 @@ public class TableReader {
 			value = in.readUTF();
 		}
 
-		Map<String, String> map = null;
-		if (stringPool != null) {
-			map = stringPool.get();
-		}
+		// records of the main and extra data files may be read concurrently
+		SoftReference<Map<String, String>> pool = stringPool;
+		Map<String, String> map = pool == null ? null : pool.get();
 		if (map == null) {
-			map = new HashMap<>();
+			map = new ConcurrentHashMap<>();
 			stringPool = new SoftReference<>(map);
 		}
 
-		String pooledString = map.get(value);
-		if (pooledString == null) {
-			map.put(value, value);
-			return value;
-		}
-
-		return pooledString;
+		String pooledString = map.putIfAbsent(value, value);
+		return pooledString == null ? value : pooledString;
 	}
 }
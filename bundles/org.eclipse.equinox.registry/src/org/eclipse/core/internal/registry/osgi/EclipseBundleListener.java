@@ -16,8 +16,8 @@ package org.eclipse.core.internal.registry.osgi;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
-import org.eclipse.core.internal.registry.ExtensionRegistry;
-import org.eclipse.core.internal.registry.RegistryMessages;
+import java.util.concurrent.*;
+import org.eclipse.core.internal.registry.*;
 import org.eclipse.core.internal.runtime.ResourceTranslator;
 import org.eclipse.core.internal.runtime.RuntimeLog;
 import org.eclipse.core.runtime.*;
@@ -89,13 +89,91 @@ public class EclipseBundleListener implements SynchronousBundleListener {
 	}
 
 	public void processBundles(Bundle[] bundles) {
+		int parserThreads = getParserThreads();
+		if (parserThreads <= 1) {
+			for (Bundle bundle : bundles) {
+				if (isBundleResolved(bundle)) {
+					addBundle(bundle, false);
+				} else {
+					removeBundle(bundle);
+				}
+			}
+			return;
+		}
+		List<Bundle> resolved = new ArrayList<>(bundles.length);
 		for (Bundle bundle : bundles) {
 			if (isBundleResolved(bundle)) {
-				addBundle(bundle, false);
+				resolved.add(bundle);
 			} else {
 				removeBundle(bundle);
 			}
 		}
+		addBundles(resolved, parserThreads);
+	}
+
+	private static int getParserThreads() {
+		String threads = RegistryProperties.getProperty(IRegistryConstants.PROP_PARSER_THREADS);
+		if (threads != null) {
+			try {
+				return Integer.parseInt(threads);
+			} catch (NumberFormatException e) {
+				// use the default
+			}
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/*
+	 * Parses the manifests of the bundles concurrently and then adds all the
+	 * contributions to the registry at once, so the registry is locked only while
+	 * the parsed contributions are linked.
+	 */
+	private void addBundles(List<Bundle> bundles, int parserThreads) {
+		int size = bundles.size();
+		Contribution[] contributions = new Contribution[size];
+		long[] timestamps = new long[size];
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parserThreads, size)), r -> {
+			Thread thread = new Thread(r, "Registry Manifest Parser"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> parsed = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				final int index = i;
+				parsed.add(executor.submit(() -> parseBundle(bundles.get(index), contributions, timestamps, index)));
+			}
+			for (int i = 0; i < size; i++) {
+				try {
+					parsed.get(i).get();
+				} catch (ExecutionException e) {
+					String message = NLS.bind(RegistryMessages.parse_failedParsingManifest,
+							bundles.get(i).getSymbolicName());
+					RuntimeLog.log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, 0, message, e.getCause()));
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+		// bundles may have been resolved or unresolved while the manifests were parsed
+		registry.addContributions(contributions, timestamps, i -> isBundleResolved(bundles.get(i)));
+	}
+
+	private void parseBundle(Bundle bundle, Contribution[] contributions, long[] timestamps, int index) {
+		IContributor contributor = ContributorFactoryOSGi.createContributor(bundle);
+		if (registry.hasContributor(contributor))
+			return;
+		URL pluginManifest = getExtensionURL(bundle, true);
+		if (pluginManifest == null)
+			return;
+		InputStream is = openManifest(pluginManifest);
+		if (is == null)
+			return;
+		timestamps[index] = getTimestamp(bundle, pluginManifest);
+		contributions[index] = registry.parseContribution(is, contributor, true, pluginManifest.getPath(),
+				getTranslationBundle(bundle), token);
 	}
 
 	private boolean isBundleResolved(Bundle bundle) {
@@ -168,25 +246,34 @@ public class EclipseBundleListener implements SynchronousBundleListener {
 		URL pluginManifest = getExtensionURL(bundle, true);
 		if (pluginManifest == null)
 			return;
-		InputStream is;
+		InputStream is = openManifest(pluginManifest);
+		if (is == null)
+			return;
+		registry.addContribution(is, contributor, true, pluginManifest.getPath(), getTranslationBundle(bundle), token,
+				getTimestamp(bundle, pluginManifest));
+	}
+
+	private static InputStream openManifest(URL pluginManifest) {
 		try {
-			is = new BufferedInputStream(pluginManifest.openStream());
+			return new BufferedInputStream(pluginManifest.openStream());
 		} catch (IOException ex) {
-			is = null;
+			return null;
 		}
-		if (is == null)
-			return;
+	}
 
-		ResourceBundle translationBundle = null;
+	private static ResourceBundle getTranslationBundle(Bundle bundle) {
 		try {
-			translationBundle = ResourceTranslator.getResourceBundle(bundle);
+			return ResourceTranslator.getResourceBundle(bundle);
 		} catch (MissingResourceException e) {
 			// Ignore the exception
+			return null;
 		}
-		long timestamp = 0;
+	}
+
+	private long getTimestamp(Bundle bundle, URL pluginManifest) {
 		if (strategy.checkContributionsTimestamp())
-			timestamp = strategy.getExtendedTimestamp(bundle, pluginManifest);
-		registry.addContribution(is, contributor, true, pluginManifest.getPath(), translationBundle, token, timestamp);
+			return strategy.getExtendedTimestamp(bundle, pluginManifest);
+		return 0;
 	}
 
 	private void checkForNLSFragment(Bundle bundle) {
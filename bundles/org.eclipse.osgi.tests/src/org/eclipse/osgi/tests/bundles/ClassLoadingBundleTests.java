@@ -2512,6 +2512,52 @@ public class ClassLoadingBundleTests extends AbstractBundleTests {
 		}
 	}
 
+	@Test
+	public void testMissingResourceFoundAfterFragmentAttach() throws Exception {
+		File outputDir = OSGiTestsActivator.getContext().getDataFile(getName()); // $NON-NLS-1$
+		outputDir.mkdirs();
+
+		Map<String, String> hostHeaders = new HashMap<>();
+		hostHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		hostHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "host");
+		File hostFile = SystemBundleTests.createBundle(outputDir, "host", hostHeaders,
+				Collections.singletonMap("host/resource.txt", "host"));
+
+		Map<String, String> fragHeaders = new HashMap<>();
+		fragHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		fragHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "fragment");
+		fragHeaders.put(Constants.FRAGMENT_HOST, "host");
+		File fragFile = SystemBundleTests.createBundle(outputDir, "frag", fragHeaders,
+				Collections.singletonMap("frag/resource.txt", "frag"));
+
+		Bundle host = getContext().installBundle(hostFile.toURI().toASCIIString());
+		Bundle frag = null;
+		try {
+			host.start();
+			// look up the missing names twice so the second lookup is from the cache
+			for (int i = 0; i < 2; i++) {
+				assertNull("Found resource.", host.getResource("frag/resource.txt"));
+				Enumeration<URL> resources = host.getResources("frag/resource.txt");
+				assertTrue("Found resources.", resources == null || !resources.hasMoreElements());
+				assertThrows(ClassNotFoundException.class, () -> host.loadClass("frag.Missing"));
+			}
+			assertNotNull("Missing resource.", host.getResource("host/resource.txt"));
+
+			frag = getContext().installBundle(fragFile.toURI().toASCIIString());
+			assertTrue("Fragment not attached.",
+					getContext().getBundle(Constants.SYSTEM_BUNDLE_LOCATION).adapt(FrameworkWiring.class)
+							.resolveBundles(Collections.singleton(frag)));
+			URL resource = host.getResource("frag/resource.txt");
+			assertNotNull("Missing resource after fragment attach.", resource);
+			assertEquals("Wrong content.", "frag", readURL(resource));
+		} finally {
+			host.uninstall();
+			if (frag != null) {
+				frag.uninstall();
+			}
+		}
+	}
+
 	void refreshBundles(Collection<Bundle> bundles) throws InterruptedException {
 		final CountDownLatch refreshSignal = new CountDownLatch(1);
 		getContext().getBundle(Constants.SYSTEM_BUNDLE_LOCATION).adapt(FrameworkWiring.class).refreshBundles(bundles,
@@ -13,12 +13,27 @@
  *******************************************************************************/
 package org.eclipse.osgi.tests.bundles;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.eclipse.osgi.launch.Equinox;
+import org.eclipse.osgi.tests.OSGiTestsActivator;
 import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
 
 /*
  * The framework must persist data according to the value of the
@@ -140,4 +155,73 @@ public class PersistedBundleTests extends AbstractBundleTests {
 		}
 	}
 
+	/*
+	 * Test that the providers of packages found through required bundles are the
+	 * same after the framework is restarted with the persisted wirings.
+	 */
+	@Test
+	public void testRequiredSourcesAfterRestart() throws Exception {
+		File bundles = OSGiTestsActivator.getContext().getDataFile(getName() + "-bundles");
+		bundles.mkdirs();
+		Map<String, String> exporterHeaders = new HashMap<>();
+		exporterHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		exporterHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "exporter");
+		exporterHeaders.put(Constants.EXPORT_PACKAGE, "pkg");
+		File exporterFile = SystemBundleTests.createBundle(bundles, getName() + "-exporter", exporterHeaders,
+				Collections.singletonMap("pkg/resource.txt", "exporter"));
+
+		Map<String, String> reexporterHeaders = new HashMap<>();
+		reexporterHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		reexporterHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "reexporter");
+		reexporterHeaders.put(Constants.EXPORT_PACKAGE, "pkg");
+		reexporterHeaders.put(Constants.REQUIRE_BUNDLE, "exporter; visibility:=reexport");
+		File reexporterFile = SystemBundleTests.createBundle(bundles, getName() + "-reexporter", reexporterHeaders,
+				Collections.singletonMap("pkg/resource.txt", "reexporter"));
+
+		Map<String, String> requirerHeaders = new HashMap<>();
+		requirerHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		requirerHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "requirer");
+		requirerHeaders.put(Constants.REQUIRE_BUNDLE, "reexporter");
+		File requirerFile = SystemBundleTests.createBundle(bundles, getName() + "-requirer", requirerHeaders);
+
+		Map<String, Object> configuration = createConfiguration();
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			BundleContext context = equinox.getBundleContext();
+			Bundle requirer;
+			try (InputStream exporterIn = new FileInputStream(exporterFile);
+					InputStream reexporterIn = new FileInputStream(reexporterFile);
+					InputStream requirerIn = new FileInputStream(requirerFile)) {
+				context.installBundle("exporter", exporterIn);
+				context.installBundle("reexporter", reexporterIn);
+				requirer = context.installBundle("requirer", requirerIn);
+			}
+			requirer.start();
+			assertEquals("Wrong resources.", List.of("exporter", "reexporter"), getResources(requirer));
+			assertNull("Found resource.", requirer.getResource("other/resource.txt"));
+		} finally {
+			stop(equinox);
+		}
+
+		equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			Bundle requirer = equinox.getBundleContext().getBundle("requirer");
+			assertEquals("Wrong resources.", List.of("exporter", "reexporter"), getResources(requirer));
+			assertNull("Found resource.", requirer.getResource("other/resource.txt"));
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	private static List<String> getResources(Bundle bundle) throws IOException {
+		List<String> result = new ArrayList<>();
+		for (URL resource : Collections.list(bundle.getResources("pkg/resource.txt"))) {
+			try (InputStream in = resource.openStream()) {
+				result.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			}
+		}
+		return result;
+	}
 }
@@ -29,6 +29,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
@@ -37,6 +38,7 @@ import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -81,14 +83,22 @@ import org.eclipse.equinox.log.ExtendedLogService;
 import org.eclipse.equinox.log.test.TestListener;
 import org.eclipse.equinox.log.test.TestListener2;
 import org.eclipse.osgi.container.Module;
+import org.eclipse.osgi.framework.log.FrameworkLog;
+import org.eclipse.osgi.framework.log.FrameworkLogEntry;
 import org.eclipse.osgi.framework.util.FilePath;
 import org.eclipse.osgi.internal.debug.Debug;
 import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
+import org.eclipse.osgi.internal.loader.classpath.NegativeLookupCacheStatistics;
 import org.eclipse.osgi.internal.location.EquinoxLocations;
 import org.eclipse.osgi.launch.Equinox;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.eclipse.osgi.service.environment.EnvironmentInfo;
 import org.eclipse.osgi.service.urlconversion.URLConverter;
+import org.eclipse.osgi.storage.BundleInfo.Generation;
+import org.eclipse.osgi.storage.bundlefile.BundleFile;
+import org.eclipse.osgi.storage.bundlefile.BundleFileWrapper;
+import org.eclipse.osgi.storage.bundlefile.MappedZipBundleFile;
+import org.eclipse.osgi.storage.bundlefile.ZipBundleFile;
 import org.eclipse.osgi.storage.url.reference.Handler;
 import org.eclipse.osgi.tests.OSGiTestsActivator;
 import org.eclipse.osgi.tests.security.BaseSecurityTest;
@@ -2449,6 +2459,144 @@ public class SystemBundleTests extends AbstractBundleTests {
 		}
 	}
 
+	@Test
+	public void testAsyncLogFile() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName()); // $NON-NLS-1$
+		File logFile = new File(config, "test.log");
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, config.getAbsolutePath());
+		configuration.put(EclipseStarter.PROP_LOGFILE, logFile.getAbsolutePath());
+		configuration.put("eclipse.log.async", "true");
+		// a small buffer makes the logging threads wait for the writer thread
+		configuration.put("eclipse.log.async.buffer.size", "8");
+		configuration.put("eclipse.log.async.flush.entries", "4");
+		int threads = 4;
+		int logSize = 500;
+		Equinox equinox = new Equinox(configuration);
+		try {
+			equinox.start();
+			BundleContext bc = equinox.getBundleContext();
+			FrameworkLog frameworkLog = bc.getService(bc.getServiceReference(FrameworkLog.class));
+			List<Thread> loggers = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				String prefix = getName() + ' ' + i + ' ';
+				loggers.add(new Thread(() -> {
+					for (int j = 0; j < logSize; j++) {
+						frameworkLog.log(new FrameworkLogEntry(getName(), FrameworkLogEntry.ERROR, 0, prefix + j, 0,
+								null, null));
+					}
+				}));
+			}
+			loggers.forEach(Thread::start);
+			for (Thread logger : loggers) {
+				logger.join();
+			}
+		} finally {
+			stop(equinox);
+		}
+
+		int[] expected = new int[threads];
+		for (String line : Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8)) {
+			if (line.startsWith("!MESSAGE " + getName())) {
+				String[] message = line.split(" ");
+				int thread = Integer.parseInt(message[2]);
+				assertEquals("Wrong entry order.", expected[thread], Integer.parseInt(message[3]));
+				expected[thread]++;
+			}
+		}
+		for (int logged : expected) {
+			assertEquals("Wrong number of entries.", logSize, logged);
+		}
+	}
+
+	@Test
+	public void testAsyncLogOverflowDrop() throws Exception {
+		doTestAsyncLogOverflow("drop");
+	}
+
+	@Test
+	public void testAsyncLogOverflowSample() throws Exception {
+		doTestAsyncLogOverflow("sample");
+	}
+
+	private void doTestAsyncLogOverflow(String overflow) throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName()); // $NON-NLS-1$
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, config.getAbsolutePath());
+		configuration.put("eclipse.log.async", "true");
+		configuration.put("eclipse.log.async.buffer.size", "8");
+		configuration.put("eclipse.log.async.flush.entries", "4");
+		configuration.put("eclipse.log.async.overflow", overflow);
+		int sample = 5;
+		configuration.put("eclipse.log.async.overflow.sample", Integer.toString(sample));
+		int threads = 4;
+		int logSize = 200;
+		// holding up the writer thread on its first flush makes the buffer overflow
+		AtomicBoolean firstFlush = new AtomicBoolean(true);
+		StringWriter log = new StringWriter() {
+			@Override
+			public void flush() {
+				if (firstFlush.compareAndSet(true, false)) {
+					try {
+						Thread.sleep(500);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				super.flush();
+			}
+		};
+		Equinox equinox = new Equinox(configuration);
+		try {
+			equinox.start();
+			BundleContext bc = equinox.getBundleContext();
+			FrameworkLog frameworkLog = bc.getService(bc.getServiceReference(FrameworkLog.class));
+			frameworkLog.setWriter(log, false);
+			List<Thread> loggers = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				String prefix = getName() + ' ' + i + ' ';
+				loggers.add(new Thread(() -> {
+					for (int j = 0; j < logSize; j++) {
+						frameworkLog.log(new FrameworkLogEntry(getName(), FrameworkLogEntry.ERROR, 0, prefix + j, 0,
+								null, null));
+					}
+				}));
+			}
+			loggers.forEach(Thread::start);
+			for (Thread logger : loggers) {
+				logger.join();
+			}
+		} finally {
+			stop(equinox);
+		}
+
+		int[] last = new int[threads];
+		Arrays.fill(last, -1);
+		int written = 0;
+		int dropped = 0;
+		for (String line : log.toString().split("\\R")) {
+			if (line.startsWith("!MESSAGE " + getName())) {
+				String[] message = line.split(" ");
+				int thread = Integer.parseInt(message[2]);
+				int entry = Integer.parseInt(message[3]);
+				assertTrue("Wrong entry order.", entry > last[thread]);
+				last[thread] = entry;
+				written++;
+			} else if (line.startsWith("!MESSAGE ") && line.contains("log entries were dropped")) {
+				dropped += Integer.parseInt(line.split(" ")[1]);
+			}
+		}
+		int logged = threads * logSize;
+		assertTrue("No entries dropped.", dropped > 0);
+		assertTrue("Entries lost without being reported: " + written + " + " + dropped,
+				written + dropped >= logged);
+		assertTrue("Too many entries written.", written < logged);
+		if ("sample".equals(overflow)) {
+			// one in every sample entries logged while the buffer is full is kept
+			assertTrue("Too few entries kept: " + written, written >= logged / sample);
+		}
+	}
+
 	@Test
 	public void testSystemCapabilitiesBug522125() throws Exception {
 		String frameworkLocation = OSGiTestsActivator.getContext().getProperty(EquinoxConfiguration.PROP_FRAMEWORK);
@@ -3034,6 +3182,117 @@ public class SystemBundleTests extends AbstractBundleTests {
 		}
 	}
 
+	@Test
+	public void testMappedZipBundleFile() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName()); // $NON-NLS-1$
+		config.mkdirs();
+
+		Map<String, String> bundleHeaders = new HashMap<>();
+		bundleHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		bundleHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName());
+		Map<String, String> bundleEntries = new LinkedHashMap<>();
+		bundleEntries.put("dirA/", null);
+		bundleEntries.put("dirA/fileA", "fileA");
+		bundleEntries.put("dirA/dirB/", null);
+		bundleEntries.put("dirA/dirB/fileB", "fileB");
+		// file in a directory with no directory entry
+		bundleEntries.put("dirA/dirC/fileC", "fileC");
+		File testBundleFile = SystemBundleTests.createBundle(config, getName(), bundleHeaders, bundleEntries);
+		bundleHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".reference");
+		File referenceBundleFile = SystemBundleTests.createBundle(config, getName() + ".reference", bundleHeaders,
+				bundleEntries);
+
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, config.getAbsolutePath());
+		configuration.put(EquinoxConfiguration.PROP_BUNDLE_FILE_MAPPED, "true");
+		// mapped bundle files must not be limited by the open file limit
+		configuration.put(EquinoxConfiguration.PROP_FILE_LIMIT, "10");
+
+		final Equinox equinox = new Equinox(configuration);
+		equinox.start();
+		try {
+			BundleContext systemContext = equinox.getBundleContext();
+			Bundle testBundle = systemContext.installBundle("file:///" + testBundleFile.getAbsolutePath());
+			testBundle.start();
+
+			assertEquals("Wrong content.", "fileA", readEntry(testBundle.getEntry("dirA/fileA")));
+			assertEquals("Wrong content.", "fileB", readEntry(testBundle.getEntry("/dirA/dirB/fileB")));
+			assertEquals("Wrong content.", "fileC", readEntry(testBundle.getEntry("dirA/dirC/fileC")));
+			assertNotNull("Entry not found.", testBundle.getEntry("dirA/dirC/"));
+			assertNull("Found entry.", testBundle.getEntry("dirA/fileD"));
+			assertEquals("Wrong content.", "fileA", readEntry(testBundle.getResource("dirA/fileA")));
+
+			Set<String> paths = new HashSet<>(Collections.list(testBundle.getEntryPaths("dirA/")));
+			assertEquals("Wrong paths.", new HashSet<>(Arrays.asList("dirA/fileA", "dirA/dirB/", "dirA/dirC/")),
+					paths);
+			List<URL> allEntries = testBundle.adapt(BundleWiring.class).findEntries("/", "*",
+					BundleWiring.FINDENTRIES_RECURSE);
+			assertEquals("Wrong number of entries: " + allEntries, 8, allEntries.size());
+			assertTrue("Not a mapped bundle file.", getBaseBundleFile(testBundle) instanceof MappedZipBundleFile);
+
+			// a jar installed by reference may be modified in place so it is not mapped
+			Bundle referenceBundle = systemContext
+					.installBundle("reference:file:///" + referenceBundleFile.getAbsolutePath());
+			assertEquals("Wrong content.", "fileA", readEntry(referenceBundle.getEntry("dirA/fileA")));
+			assertTrue("Not a zip bundle file.", getBaseBundleFile(referenceBundle) instanceof ZipBundleFile);
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	@Test
+	public void testMappedZipBundleFileZip64() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName());
+		config.mkdirs();
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+		manifest.getMainAttributes().putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.getMainAttributes().putValue(Constants.BUNDLE_SYMBOLICNAME, getName());
+		// the zip output stream writes the ZIP64 end records for 0xffff entries or more
+		File testBundleFile = new File(config, getName() + ".jar");
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(testBundleFile), manifest)) {
+			for (int i = 0; i < 0xffff; i++) {
+				jos.putNextEntry(new JarEntry("entries/" + i + ".txt"));
+				jos.write(Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+				jos.closeEntry();
+			}
+		}
+
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, config.getAbsolutePath());
+		configuration.put(EquinoxConfiguration.PROP_BUNDLE_FILE_MAPPED, "true");
+
+		final Equinox equinox = new Equinox(configuration);
+		equinox.start();
+		try {
+			Bundle testBundle = equinox.getBundleContext().installBundle("file:///" + testBundleFile.getAbsolutePath());
+			testBundle.start();
+
+			// a ZIP64 archive cannot be mapped, it is read by a zip bundle file instead
+			assertTrue("Not a zip bundle file.", getBaseBundleFile(testBundle) instanceof ZipBundleFile);
+			assertEquals("Wrong content.", "42", readEntry(testBundle.getEntry("entries/42.txt")));
+			assertEquals("Wrong content.", "65534", readEntry(testBundle.getResource("entries/65534.txt")));
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	private static BundleFile getBaseBundleFile(Bundle bundle) {
+		Generation generation = (Generation) bundle.adapt(Module.class).getCurrentRevision().getRevisionInfo();
+		BundleFile bundleFile = generation.getBundleFile();
+		while (bundleFile instanceof BundleFileWrapper) {
+			bundleFile = ((BundleFileWrapper) bundleFile).getBundleFile();
+		}
+		return bundleFile;
+	}
+
+	private static String readEntry(URL entry) throws IOException {
+		assertNotNull("Entry not found.", entry);
+		try (InputStream in = entry.openStream()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
 	@Test
 	public void testContextFinderGetResource() throws Exception {
 		File config = OSGiTestsActivator.getContext().getDataFile(getName()); // $NON-NLS-1$
@@ -3355,4 +3614,40 @@ public class SystemBundleTests extends AbstractBundleTests {
 		assertEquals("Unexpected bundle count", 0, testContext.getBundles().length);
 	}
 
+	@Test
+	public void testNegativeLookupCacheDirectoryBundle() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName()); // $NON-NLS-1$
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, config.getAbsolutePath());
+		configuration.put(EquinoxConfiguration.PROP_CLASSPATH_NEGATIVE_CACHE_SIZE, "16"); //$NON-NLS-1$
+		Equinox equinox = new Equinox(configuration);
+		try {
+			equinox.start();
+			BundleContext bc = equinox.getBundleContext();
+			NegativeLookupCacheStatistics statistics = bc
+					.getService(bc.getServiceReference(NegativeLookupCacheStatistics.class));
+			assertNotNull("No statistics service", statistics); //$NON-NLS-1$
+			assertEquals("Wrong maximum size", 16, statistics.getMaximumSize()); //$NON-NLS-1$
+
+			// a jar does not change, names missing from it are cached
+			File jarFile = createBundle(config, getName() + ".jar", false, false); //$NON-NLS-1$
+			Bundle jarBundle = bc.installBundle("reference:file:///" + jarFile.getAbsolutePath()); //$NON-NLS-1$
+			long hits = statistics.getHitCount();
+			assertNull("Found missing resource", jarBundle.getResource("missing.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertNull("Found missing resource", jarBundle.getResource("missing.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("Wrong hits", hits + 1, statistics.getHitCount()); //$NON-NLS-1$
+
+			// a directory may get new content at any time
+			File dirFile = createBundle(config, getName() + ".dir", false, true); //$NON-NLS-1$
+			Bundle dirBundle = bc.installBundle("reference:file:///" + dirFile.getAbsolutePath()); //$NON-NLS-1$
+			long disabled = statistics.getDisabledCount();
+			assertNull("Found missing resource", dirBundle.getResource("added.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("Wrong disabled count", disabled + 1, statistics.getDisabledCount()); //$NON-NLS-1$
+			Files.write(new File(dirFile, "added.txt").toPath(), "added".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+			assertNotNull("Did not find added resource", dirBundle.getResource("added.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			stop(equinox);
+		}
+	}
+
 }
@@ -93,6 +93,9 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.BundleReference;
 import org.osgi.framework.Constants;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.Version;
 import org.osgi.framework.hooks.resolver.ResolverHook;
 import org.osgi.framework.hooks.resolver.ResolverHookFactory;
@@ -105,6 +108,7 @@ import org.osgi.framework.wiring.BundleCapability;
 import org.osgi.framework.wiring.BundleRequirement;
 import org.osgi.framework.wiring.BundleRevision;
 import org.osgi.framework.wiring.BundleWire;
+import org.osgi.resource.Capability;
 import org.osgi.resource.Namespace;
 
 public class TestModuleContainer extends AbstractTest {
@@ -2925,6 +2929,384 @@ public class TestModuleContainer extends AbstractTest {
 		assertEquals("Wrong test list attr", testIntStringList, testAttrList);
 	}
 
+	@Test
+	public void testStoreWirings() throws BundleException, IOException {
+		DummyContainerAdaptor adaptor = createDummyAdaptor();
+		ModuleContainer container = adaptor.getContainer();
+
+		// install the system.bundle
+		installDummyModule("system.bundle.MF", Constants.SYSTEM_BUNDLE_LOCATION, Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
+				null, null, container);
+
+		Map<String, String> providerManifest = new HashMap<>();
+		providerManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		providerManifest.put(Constants.BUNDLE_SYMBOLICNAME, "provider");
+		providerManifest.put(Constants.EXPORT_PACKAGE, "provider.a, provider.b");
+		installDummyModule(providerManifest, "provider", container);
+
+		Map<String, String> requirerManifest = new HashMap<>();
+		requirerManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		requirerManifest.put(Constants.BUNDLE_SYMBOLICNAME, "requirer");
+		requirerManifest.put(Constants.IMPORT_PACKAGE, "provider.a");
+		requirerManifest.put(Constants.REQUIRE_BUNDLE, "provider");
+		installDummyModule(requirerManifest, "requirer", container);
+
+		ResolutionReport report = container.resolve(container.getModules(), true);
+		assertNull("Error resolving.", report.getResolutionException());
+		Map<String, String> expected = getWiringDescriptions(container);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(bytes);
+		adaptor.getDatabase().store(data, true);
+
+		// reload into a new container
+		adaptor = createDummyAdaptor();
+		container = adaptor.getContainer();
+		adaptor.getDatabase().load(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals("Wrong wirings after load.", expected, getWiringDescriptions(container));
+
+		ModuleWiring providerWiring = container.getModule("provider").getCurrentRevision().getWiring();
+		ModuleWiring requirerWiring = container.getModule("requirer").getCurrentRevision().getWiring();
+		List<ModuleWire> providedWires = providerWiring.getProvidedModuleWires(PackageNamespace.PACKAGE_NAMESPACE);
+		List<ModuleWire> requiredWires = requirerWiring.getRequiredModuleWires(PackageNamespace.PACKAGE_NAMESPACE);
+		assertEquals("Wrong number of provided wires.", 1, providedWires.size());
+		assertTrue("Provided and required wire are not the same.", providedWires.get(0) == requiredWires.get(0));
+
+		// resolve a new requirer against the loaded wirings
+		Map<String, String> requirer2Manifest = new HashMap<>(requirerManifest);
+		requirer2Manifest.put(Constants.BUNDLE_SYMBOLICNAME, "requirer2");
+		requirer2Manifest.put(Constants.IMPORT_PACKAGE, "provider.b");
+		Module requirer2 = installDummyModule(requirer2Manifest, "requirer2", container);
+		report = container.resolve(Arrays.asList(requirer2), true);
+		assertNull("Error resolving.", report.getResolutionException());
+		providedWires = providerWiring.getProvidedModuleWires(PackageNamespace.PACKAGE_NAMESPACE);
+		assertEquals("Wrong number of provided wires.", 2, providedWires.size());
+		assertEquals("Wrong requirer wirings.", expected.get("requirer"), getWiringDescriptions(container).get("requirer"));
+	}
+
+	private static Map<String, String> getWiringDescriptions(ModuleContainer container) {
+		Map<String, String> descriptions = new HashMap<>();
+		for (Module module : container.getModules()) {
+			ModuleWiring wiring = module.getCurrentRevision().getWiring();
+			if (wiring == null) {
+				continue;
+			}
+			StringBuilder description = new StringBuilder();
+			description.append("capabilities: ").append(wiring.getModuleCapabilities(null).size());
+			description.append(" requirements: ").append(wiring.getModuleRequirements(null).size());
+			for (ModuleWire wire : wiring.getRequiredModuleWires(null)) {
+				description.append(" required: ").append(wire.getCapability().getNamespace()).append(' ')
+						.append(wire.getProvider().getRevisions().getModule().getLocation());
+			}
+			for (ModuleWire wire : wiring.getProvidedModuleWires(null)) {
+				description.append(" provided: ").append(wire.getCapability().getNamespace()).append(' ')
+						.append(wire.getRequirer().getRevisions().getModule().getLocation());
+			}
+			description.append(wiring.getSubstitutedNames());
+			descriptions.put(module.getLocation(), description.toString());
+		}
+		return descriptions;
+	}
+
+	@Test
+	public void testStoreDelta() throws BundleException, IOException {
+		DummyContainerAdaptor adaptor = createDummyAdaptor();
+		ModuleContainer container = adaptor.getContainer();
+
+		// install the system.bundle
+		installDummyModule("system.bundle.MF", Constants.SYSTEM_BUNDLE_LOCATION, Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
+				null, null, container);
+
+		Map<String, String> providerManifest = new HashMap<>();
+		providerManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		providerManifest.put(Constants.BUNDLE_SYMBOLICNAME, "provider");
+		providerManifest.put(Constants.EXPORT_PACKAGE, "provider.a, provider.b");
+		Module provider = installDummyModule(providerManifest, "provider", container);
+
+		Map<String, String> requirerManifest = new HashMap<>();
+		requirerManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		requirerManifest.put(Constants.BUNDLE_SYMBOLICNAME, "requirer");
+		requirerManifest.put(Constants.IMPORT_PACKAGE, "provider.a");
+		Module requirer = installDummyModule(requirerManifest, "requirer", container);
+
+		Map<String, String> otherManifest = new HashMap<>();
+		otherManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		otherManifest.put(Constants.BUNDLE_SYMBOLICNAME, "other");
+		Module other = installDummyModule(otherManifest, "other", container);
+
+		Map<String, String> importerManifest = new HashMap<>();
+		importerManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		importerManifest.put(Constants.BUNDLE_SYMBOLICNAME, "importer");
+		importerManifest.put(Constants.DYNAMICIMPORT_PACKAGE, "provider.b");
+		Module importer = installDummyModule(importerManifest, "importer", container);
+
+		ResolutionReport report = container.resolve(container.getModules(), true);
+		assertNull("Error resolving.", report.getResolutionException());
+
+		ByteArrayOutputStream stored = new ByteArrayOutputStream();
+		adaptor.getDatabase().store(new DataOutputStream(stored), true);
+
+		// update the requirer, uninstall other, install a new module and change a start level
+		Map<String, String> requirerManifest2 = new HashMap<>(requirerManifest);
+		requirerManifest2.put(Constants.BUNDLE_VERSION, "2.0");
+		container.update(requirer, OSGiManifestBuilderFactory.createBuilder(requirerManifest2), null);
+		container.uninstall(other);
+		container.refresh(Arrays.asList(requirer, other));
+		Map<String, String> addedManifest = new HashMap<>(requirerManifest);
+		addedManifest.put(Constants.BUNDLE_SYMBOLICNAME, "added");
+		installDummyModule(addedManifest, "added", container);
+		provider.setStartLevel(5);
+		report = container.resolve(container.getModules(), true);
+		assertNull("Error resolving.", report.getResolutionException());
+
+		// a delta which is not committed is written again with the next delta
+		ByteArrayOutputStream delta = new ByteArrayOutputStream();
+		assertTrue("Delta not stored.", adaptor.getDatabase().storeDelta(new DataOutputStream(delta)));
+		delta = new ByteArrayOutputStream();
+		assertTrue("Delta not stored.", adaptor.getDatabase().storeDelta(new DataOutputStream(delta)));
+		adaptor.getDatabase().commitDelta();
+		assertTrue("Delta is not smaller than the stored database.", delta.size() < stored.size());
+
+		// a dynamic wire changes the existing wirings of the importer and provider
+		assertNotNull("No dynamic wire.", container.resolveDynamic("provider.b", importer.getCurrentRevision()));
+		ByteArrayOutputStream dynamicDelta = new ByteArrayOutputStream();
+		assertTrue("Dynamic delta not stored.", adaptor.getDatabase().storeDelta(new DataOutputStream(dynamicDelta)));
+		adaptor.getDatabase().commitDelta();
+		ByteArrayOutputStream emptyDelta = new ByteArrayOutputStream();
+		assertTrue("Empty delta not stored.", adaptor.getDatabase().storeDelta(new DataOutputStream(emptyDelta)));
+		adaptor.getDatabase().commitDelta();
+		assertTrue("Empty delta is not smaller than the dynamic delta.", emptyDelta.size() < dynamicDelta.size());
+
+		// load the stored database and the deltas into a new container
+		DummyContainerAdaptor loadedAdaptor = createDummyAdaptor();
+		ModuleContainer loaded = loadedAdaptor.getContainer();
+		loadedAdaptor.getDatabase().load(new DataInputStream(new ByteArrayInputStream(stored.toByteArray())));
+		loadedAdaptor.getDatabase().loadDelta(new DataInputStream(new ByteArrayInputStream(delta.toByteArray())));
+		loadedAdaptor.getDatabase()
+				.loadDelta(new DataInputStream(new ByteArrayInputStream(dynamicDelta.toByteArray())));
+		loadedAdaptor.getDatabase().loadDelta(new DataInputStream(new ByteArrayInputStream(emptyDelta.toByteArray())));
+
+		assertEquals("Wrong modules.", getModuleDescriptions(container), getModuleDescriptions(loaded));
+		assertNull("Found uninstalled module.", loaded.getModule(other.getId()));
+		assertEquals("Wrong start level.", 5, loaded.getModule(provider.getId()).getStartLevel());
+		assertEquals("Wrong timestamp.", adaptor.getDatabase().getTimestamp(), loadedAdaptor.getDatabase().getTimestamp());
+		// the wirings which changed after the database was stored are loaded from the deltas
+		assertEquals("Wrong wirings.", getWiringDescriptions(container), getWiringDescriptions(loaded));
+		assertEquals("Wrong state.", State.RESOLVED, loaded.getModule("requirer").getState());
+		ModuleWire requiredWire = loaded.getModule("requirer").getCurrentRevision().getWiring()
+				.getRequiredModuleWires(PackageNamespace.PACKAGE_NAMESPACE).get(0);
+		assertTrue("The provider and requirer do not share the wire.", loaded.getModule("provider")
+				.getCurrentRevision().getWiring().getProvidedModuleWires(null).contains(requiredWire));
+	}
+
+	private static List<String> getModuleDescriptions(ModuleContainer container) {
+		List<String> descriptions = new ArrayList<>();
+		for (Module module : container.getModules()) {
+			descriptions.add(module.getId() + " " + module.getLocation() + " "
+					+ module.getCurrentRevision().getVersion() + " " + module.getLastModified());
+		}
+		return descriptions;
+	}
+
+	@Test
+	public void testIncrementalResolve() throws BundleException, IOException {
+		ModuleContainer incremental = createIncrementalResolveContainer(null);
+		ModuleContainer full = createIncrementalResolveContainer(
+				Collections.singletonMap(EquinoxConfiguration.PROP_RESOLVER_INCREMENTAL, "false"));
+		assertEquals("Wrong wirings.", getWiringDescriptions(full), getWiringDescriptions(incremental));
+		assertNull("Resolved with a uses constraint violation.",
+				incremental.getModule("violation").getCurrentRevision().getWiring());
+		List<ModuleWire> consumerWires = incremental.getModule("consumer").getCurrentRevision().getWiring()
+				.getRequiredModuleWires(PackageNamespace.PACKAGE_NAMESPACE);
+		assertEquals("Wrong number of package wires.", 1, consumerWires.size());
+		assertEquals("Wrong package provider.", "a1",
+				consumerWires.get(0).getProvider().getRevisions().getModule().getLocation());
+		assertNotNull("Fragment is not attached.",
+				incremental.getModule("fragment").getCurrentRevision().getWiring());
+	}
+
+	@Test
+	public void testIncrementalResolveAfterLoad() throws BundleException, IOException {
+		ModuleContainer container = createIncrementalResolveContainer(null);
+		// load twice to also persist the package spaces read from the persistent data
+		for (int i = 0; i < 2; i++) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			((DummyContainerAdaptor) container.getAdaptor()).getDatabase().store(new DataOutputStream(bytes), true);
+			DummyContainerAdaptor adaptor = new DummyContainerAdaptor(new DummyCollisionHook(false), null);
+			adaptor.getDatabase().load(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+			container = adaptor.getContainer();
+		}
+		assertNotNull("Fragment is not attached.", container.getModule("fragment").getCurrentRevision().getWiring());
+
+		Map<String, String> manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "violation2");
+		manifest.put(Constants.IMPORT_PACKAGE, "f, a; version=\"[2,3)\"");
+		Module violation = installDummyModule(manifest, "violation2", container);
+		manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "consumer2");
+		manifest.put(Constants.REQUIRE_BUNDLE, "requirer");
+		manifest.put(Constants.IMPORT_PACKAGE, "a");
+		Module consumer = installDummyModule(manifest, "consumer2", container);
+		ResolutionReport report = container.resolve(Arrays.asList(violation, consumer), false);
+		assertNull("Unexpected error.", report.getResolutionException());
+
+		assertNull("Resolved with a uses constraint violation.", violation.getCurrentRevision().getWiring());
+		List<ModuleWire> consumerWires = consumer.getCurrentRevision().getWiring()
+				.getRequiredModuleWires(PackageNamespace.PACKAGE_NAMESPACE);
+		assertEquals("Wrong number of package wires.", 1, consumerWires.size());
+		assertEquals("Wrong package provider.", "a1",
+				consumerWires.get(0).getProvider().getRevisions().getModule().getLocation());
+	}
+
+	private ModuleContainer createIncrementalResolveContainer(Map<String, String> configuration)
+			throws BundleException, IOException {
+		DummyContainerAdaptor adaptor = new DummyContainerAdaptor(new DummyCollisionHook(false), configuration);
+		ModuleContainer container = adaptor.getContainer();
+
+		// install the system.bundle
+		installDummyModule("system.bundle.MF", Constants.SYSTEM_BUNDLE_LOCATION, Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
+				null, null, container);
+
+		Map<String, String> manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "a1");
+		manifest.put(Constants.EXPORT_PACKAGE, "a; version=1.0");
+		installDummyModule(manifest, "a1", container);
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "a2");
+		manifest.put(Constants.EXPORT_PACKAGE, "a; version=2.0");
+		installDummyModule(manifest, "a2", container);
+
+		manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "user");
+		manifest.put(Constants.EXPORT_PACKAGE, "u; uses:=a");
+		manifest.put(Constants.IMPORT_PACKAGE, "a; version=\"[1,2)\"");
+		installDummyModule(manifest, "user", container);
+
+		manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "requirer");
+		manifest.put(Constants.REQUIRE_BUNDLE, "user; visibility:=reexport");
+		installDummyModule(manifest, "requirer", container);
+		ResolutionReport report = container.resolve(container.getModules(), true);
+		assertNull("Error resolving.", report.getResolutionException());
+
+		// resolve the same violation twice to reuse the package spaces of the resolved
+		manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "violation");
+		manifest.put(Constants.IMPORT_PACKAGE, "u, a; version=\"[2,3)\"");
+		Module violation = installDummyModule(manifest, "violation", container);
+		for (int i = 0; i < 2; i++) {
+			report = container.resolve(Arrays.asList(violation), false);
+			assertNull("Unexpected error.", report.getResolutionException());
+		}
+
+		// attach a fragment to a resolved host required by another resolved bundle
+		manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "fragment");
+		manifest.put(Constants.FRAGMENT_HOST, "user");
+		manifest.put(Constants.EXPORT_PACKAGE, "f; uses:=a");
+		Module fragment = installDummyModule(manifest, "fragment", container);
+		report = container.resolve(Arrays.asList(fragment), true);
+		assertNull("Error resolving.", report.getResolutionException());
+
+		manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, "consumer");
+		manifest.put(Constants.REQUIRE_BUNDLE, "requirer");
+		manifest.put(Constants.IMPORT_PACKAGE, "a");
+		installDummyModule(manifest, "consumer", container);
+		report = container.resolve(container.getModules(), false);
+		assertNull("Unexpected error.", report.getResolutionException());
+		return container;
+	}
+
+	@Test
+	public void testFindCapabilitiesAttributeIndex() throws BundleException, IOException, InvalidSyntaxException {
+		DummyContainerAdaptor adaptor = createDummyAdaptor();
+		ModuleContainer container = adaptor.getContainer();
+
+		// install the system.bundle
+		installDummyModule("system.bundle.MF", Constants.SYSTEM_BUNDLE_LOCATION, Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
+				null, null, container);
+
+		List<Module> providers = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			Map<String, String> providerManifest = new HashMap<>();
+			providerManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+			providerManifest.put(Constants.BUNDLE_SYMBOLICNAME, "provider" + i);
+			providerManifest.put(Constants.PROVIDE_CAPABILITY, "test.index; type=" + (i % 2 == 0 ? "even" : "odd")
+					+ "; version:Version=" + i + ".0; values:List<String>=\"v" + i + ",all\"");
+			providers.add(installDummyModule(providerManifest, "provider" + i, container));
+		}
+		// values which are not indexed as a single string or version
+		Map<String, String> stringVersionManifest = new HashMap<>();
+		stringVersionManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		stringVersionManifest.put(Constants.BUNDLE_SYMBOLICNAME, "string.version");
+		stringVersionManifest.put(Constants.PROVIDE_CAPABILITY, "test.index; type=even; version=5.0; values:Long=1");
+		providers.add(installDummyModule(stringVersionManifest, "string.version", container));
+		Map<String, String> listVersionManifest = new HashMap<>();
+		listVersionManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		listVersionManifest.put(Constants.BUNDLE_SYMBOLICNAME, "list.version");
+		listVersionManifest.put(Constants.PROVIDE_CAPABILITY,
+				"test.index; type:List<String>=\"even,odd\"; version:List<Version>=\"1.0,50.0\"");
+		providers.add(installDummyModule(listVersionManifest, "list.version", container));
+
+		String[] filters = { "(type=even)", "(&(type=even)(version>=10.0)(!(version>=20.0)))", "(version=5.0)",
+				"(version>=35.0)", "(!(version>=3.0))", "(values=v7)", "(&(values=all)(version<=3.0))",
+				"(|(version=1.0)(version=2.0))", "(&(version>=30.0)(version<=10.0))", "(values=1)" };
+		checkFindCapabilities(container, filters);
+
+		// the indexes must be updated when capabilities are removed and added
+		container.uninstall(providers.get(0));
+		container.uninstall(providers.get(11));
+		container.uninstall(providers.get(providers.size() - 1));
+		Map<String, String> addedManifest = new HashMap<>();
+		addedManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		addedManifest.put(Constants.BUNDLE_SYMBOLICNAME, "added");
+		addedManifest.put(Constants.PROVIDE_CAPABILITY, "test.index; type=odd; version:Version=15.5");
+		installDummyModule(addedManifest, "added", container);
+		checkFindCapabilities(container, filters);
+
+		// the indexes are dropped once empty and created again when needed
+		for (Module module : container.getModules()) {
+			if (module.getId() != 0) {
+				container.uninstall(module);
+			}
+		}
+		checkFindCapabilities(container, filters);
+		installDummyModule(addedManifest, "added", container);
+		for (int i = 0; i < 20; i++) {
+			listVersionManifest.put(Constants.BUNDLE_SYMBOLICNAME, "list.version" + i);
+			installDummyModule(listVersionManifest, "list.version" + i, container);
+		}
+		checkFindCapabilities(container, filters);
+	}
+
+	private static void checkFindCapabilities(ModuleContainer container, String[] filters)
+			throws InvalidSyntaxException {
+		for (String filter : filters) {
+			Filter f = FrameworkUtil.createFilter(filter);
+			Set<Capability> expected = new HashSet<>();
+			for (Module module : container.getModules()) {
+				for (Capability capability : module.getCurrentRevision().getCapabilities("test.index")) {
+					if (f.matches(capability.getAttributes())) {
+						expected.add(capability);
+					}
+				}
+			}
+			Collection<BundleCapability> found = container.getFrameworkWiring()
+					.findProviders(ModuleContainer.createRequirement("test.index",
+							Collections.singletonMap(Namespace.REQUIREMENT_FILTER_DIRECTIVE, filter),
+							Collections.emptyMap()));
+			assertEquals("Wrong capabilities for: " + filter, expected, new HashSet<>(found));
+		}
+	}
+
 	@Test
 	public void testBug483849() throws BundleException, IOException {
 		DummyContainerAdaptor adaptor = createDummyAdaptor();
@@ -30,8 +30,10 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -44,11 +46,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicReference;
 import junit.framework.AssertionFailedError;
+import org.eclipse.osgi.internal.debug.BinaryTraceFile;
 import org.eclipse.osgi.internal.debug.FrameworkDebugOptions;
 import org.eclipse.osgi.internal.debug.FrameworkDebugTraceEntry;
 import org.eclipse.osgi.service.debug.DebugOptions;
 import org.eclipse.osgi.service.debug.DebugOptionsListener;
 import org.eclipse.osgi.service.debug.DebugTrace;
+import org.eclipse.osgi.service.environment.EnvironmentInfo;
 import org.eclipse.osgi.tests.OSGiTestsActivator;
 import org.junit.After;
 import org.junit.Before;
@@ -733,6 +737,67 @@ public class DebugOptionsTestCase {
 		traceFile.delete();
 	}
 
+	/**
+	 * test DebugTrace.trace*() API with a binary trace file
+	 */
+	@Test
+	public void testBinaryTraceFile() throws IOException {
+
+		ServiceReference<EnvironmentInfo> envRef = OSGiTestsActivator.getContext()
+				.getServiceReference(EnvironmentInfo.class);
+		EnvironmentInfo envInfo = OSGiTestsActivator.getContext().getService(envRef);
+		final File traceFile = OSGiTestsActivator.getContext().getDataFile(getName() + ".trace"); //$NON-NLS-1$
+		final File binaryTraceFile = new File(traceFile.getPath() + ".bin"); //$NON-NLS-1$
+		binaryTraceFile.delete();
+		envInfo.setProperty("eclipse.trace.binary", "true"); //$NON-NLS-1$ //$NON-NLS-2$
+		envInfo.setProperty("eclipse.trace.binary.caller", "true"); //$NON-NLS-1$ //$NON-NLS-2$
+		TraceEntry[] traceOutput = null;
+		final String exceptionMessage = "An error"; //$NON-NLS-1$
+		try {
+			TestDebugTrace debugTrace = this.createDebugTrace(traceFile);
+			debugTrace.trace("/debug", "testing 1"); //$NON-NLS-1$ //$NON-NLS-2$
+			debugTrace.trace("/notset", "testing 2"); //$NON-NLS-1$ //$NON-NLS-2$
+			debugTrace.trace("/debug", "testing | 3", new Exception(exceptionMessage)); //$NON-NLS-1$ //$NON-NLS-2$
+			debugTrace.traceEntry("/debug", new String[] { "arg1", "arg2" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			debugTrace.traceExit("/debug", "returnValue"); //$NON-NLS-1$ //$NON-NLS-2$
+			// changing the trace file closes the binary trace file; its records are kept when it is opened again
+			debugOptions.setFile(null);
+			debugOptions.setFile(traceFile);
+			debugTrace.trace("/debug", "testing 4"); //$NON-NLS-1$ //$NON-NLS-2$
+			assertFalse("The trace file was written", traceFile.exists()); //$NON-NLS-1$
+			assertTrue("The binary trace file was not written", binaryTraceFile.isFile()); //$NON-NLS-1$
+			try (Writer out = new OutputStreamWriter(new FileOutputStream(traceFile), StandardCharsets.UTF_8)) {
+				BinaryTraceFile.decode(binaryTraceFile, out);
+			}
+			traceOutput = readTraceFile(traceFile); // Note: this call will also delete the trace file
+		} catch (InvalidTraceEntry invalidEx) {
+			failWithInvalidTrace("BinaryTraceFile.decode(file, writer)", invalidEx);
+		} finally {
+			envInfo.setProperty("eclipse.trace.binary", null); //$NON-NLS-1$
+			envInfo.setProperty("eclipse.trace.binary.caller", null); //$NON-NLS-1$
+			OSGiTestsActivator.getContext().ungetService(envRef);
+		}
+		assertEquals("Wrong number of trace entries", 5, traceOutput.length); //$NON-NLS-1$
+		assertEquals("Thread name is incorrect", Thread.currentThread().getName(), traceOutput[0].getThreadName()); //$NON-NLS-1$
+		assertEquals("Bundle name is incorrect", getName(), traceOutput[0].getBundleSymbolicName()); //$NON-NLS-1$
+		assertEquals("option-path value is incorrect", "/debug", traceOutput[0].getOptionPath()); //$NON-NLS-1$//$NON-NLS-2$
+		assertEquals("class name value is incorrect", DebugOptionsTestCase.class.getName(), //$NON-NLS-1$
+				traceOutput[0].getClassName());
+		assertEquals("method name value is incorrect", "testBinaryTraceFile", traceOutput[0].getMethodName()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("trace message is incorrect", "testing 1", traceOutput[0].getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull("throwable should be null", traceOutput[0].getThrowableText()); //$NON-NLS-1$
+		assertEquals("trace message is incorrect", "testing | 3", traceOutput[1].getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotNull("throwable text should not be null", traceOutput[1].getThrowableText()); //$NON-NLS-1$
+		assertTrue("throwable text is incorrect", //$NON-NLS-1$
+				traceOutput[1].getThrowableText().startsWith("java.lang.Exception: " + exceptionMessage)); //$NON-NLS-1$
+		assertEquals("trace message is incorrect", "Entering method with parameters: (arg1 arg2)", //$NON-NLS-1$ //$NON-NLS-2$
+				traceOutput[2].getMessage());
+		assertEquals("trace message is incorrect", "Exiting method with result: returnValue", //$NON-NLS-1$ //$NON-NLS-2$
+				traceOutput[3].getMessage());
+		assertEquals("trace message is incorrect", "testing 4", traceOutput[4].getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+		binaryTraceFile.delete();
+	}
+
 	/**
 	 * test DebugTrace.trace(option, message, Throwable)
 	 */
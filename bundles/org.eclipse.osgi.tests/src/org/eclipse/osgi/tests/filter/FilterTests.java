@@ -41,6 +41,7 @@ import org.osgi.framework.Filter;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
+import org.osgi.framework.Version;
 
 @RunWith(Parameterized.class)
 public class FilterTests {
@@ -199,6 +200,25 @@ public class FilterTests {
 		testFilter("(booleanvalue=)", props, ISFALSE);
 	}
 
+	@Test
+	public void testReusedFilterMixedTypes() throws InvalidSyntaxException {
+		Filter f1 = createFilter("(value>=2)");
+		Filter f2 = createFilter("(value=b)");
+		Object[] values = { Long.valueOf(3), "3", Version.valueOf("3.0"), Double.valueOf(1.5), Integer.valueOf(2),
+				new SampleComparable("1"), Float.valueOf(2.5f), new SampleComparable("2") };
+		boolean[] expected = { true, true, true, false, true, false, true, true };
+		for (int repeat = 0; repeat < 2; repeat++) {
+			for (int i = 0; i < values.length; i++) {
+				Dictionary<String, Object> props = new Hashtable<>();
+				props.put("value", values[i]);
+				assertEquals("wrong result for " + values[i], expected[i], f1.match(props));
+				assertEquals("wrong result for " + values[i], expected[i],
+						f1.match(new DictionaryServiceReference(props)));
+				assertFalse("wrong result for " + values[i], f2.match(props));
+			}
+		}
+	}
+
 	@Test
 	public void testIllegal() throws InvalidSyntaxException {
 		Dictionary<String, Object> props = getProperties();
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
+import org.eclipse.osgi.launch.Equinox;
+import org.eclipse.osgi.tests.OSGiTestsActivator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+
+/**
+ * Measures the time to load all the classes of a bundle with a parallel capable
+ * class loader against the number of threads concurrently loading classes.
+ */
+public class ClassLoadingPerformanceTest {
+	@Rule
+	public TestName testName = new TestName();
+
+	static final int CLASS_COUNT = 2000;
+	static final String PACKAGE = "perf.classes"; //$NON-NLS-1$
+
+	private File bundleFile;
+	private Equinox equinox;
+
+	@Before
+	public void setUp() throws Exception {
+		File root = OSGiTestsActivator.getContext().getDataFile(getClass().getName() + '.' + testName.getMethodName());
+		root.mkdirs();
+		bundleFile = createBundle(new File(root, "classes.jar")); //$NON-NLS-1$
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, new File(root, "storage").getAbsolutePath()); //$NON-NLS-1$
+		configuration.put(Constants.FRAMEWORK_STORAGE_CLEAN, Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT);
+		configuration.put(EquinoxConfiguration.PROP_CLASS_LOADER_TYPE, EquinoxConfiguration.CLASS_LOADER_TYPE_PARALLEL);
+		equinox = new Equinox(configuration);
+		equinox.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		equinox.stop();
+		equinox.waitForStop(10000);
+	}
+
+	@Test
+	public void testLoadClasses01Thread() throws Exception {
+		doLoadClasses(1);
+	}
+
+	@Test
+	public void testLoadClasses04Threads() throws Exception {
+		doLoadClasses(4);
+	}
+
+	@Test
+	public void testLoadClasses16Threads() throws Exception {
+		doLoadClasses(16);
+	}
+
+	private void doLoadClasses(int threads) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			new PerformanceTestRunner() {
+				private int installs;
+
+				@Override
+				protected void test() {
+					try {
+						// a new bundle each time so that none of its classes is loaded yet
+						Bundle bundle;
+						try (FileInputStream in = new FileInputStream(bundleFile)) {
+							bundle = equinox.getBundleContext().installBundle("classes" + installs++, in); //$NON-NLS-1$
+						}
+						List<Future<Integer>> results = new ArrayList<>(threads);
+						for (int t = 0; t < threads; t++) {
+							final int offset = t * CLASS_COUNT / threads;
+							// every thread loads all the classes starting at a different class
+							results.add(executor.submit(() -> {
+								int loaded = 0;
+								for (int i = 0; i < CLASS_COUNT; i++) {
+									bundle.loadClass(PACKAGE + ".C" + ((offset + i) % CLASS_COUNT)); //$NON-NLS-1$
+									loaded++;
+								}
+								return loaded;
+							}));
+						}
+						for (Future<Integer> result : results) {
+							assertEquals("Wrong number of classes loaded.", CLASS_COUNT, result.get().intValue()); //$NON-NLS-1$
+						}
+						bundle.uninstall();
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}.run(getClass(), testName.getMethodName(), 10, 1);
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	private static File createBundle(File file) throws IOException {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.putValue("Manifest-Version", "1.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2"); //$NON-NLS-1$
+		attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, "perf.classes"); //$NON-NLS-1$
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file), manifest)) {
+			for (int i = 0; i < CLASS_COUNT; i++) {
+				String name = PACKAGE.replace('.', '/') + "/C" + i; //$NON-NLS-1$
+				jar.putNextEntry(new JarEntry(name + ".class")); //$NON-NLS-1$
+				jar.write(createClass(name));
+				jar.closeEntry();
+			}
+		}
+		return file;
+	}
+
+	/*
+	 * Creates the bytes of an empty public class extending java.lang.Object.
+	 */
+	private static byte[] createClass(String name) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0); // minor version
+			out.writeShort(52); // major version (Java 8)
+			out.writeShort(5); // constant pool count + 1
+			out.writeByte(1); // #1 Utf8 this class name
+			out.writeUTF(name);
+			out.writeByte(7); // #2 Class #1
+			out.writeShort(1);
+			out.writeByte(1); // #3 Utf8 super class name
+			out.writeUTF("java/lang/Object"); //$NON-NLS-1$
+			out.writeByte(7); // #4 Class #3
+			out.writeShort(3);
+			out.writeShort(0x0021); // ACC_PUBLIC | ACC_SUPER
+			out.writeShort(2); // this class
+			out.writeShort(4); // super class
+			out.writeShort(0); // interfaces
+			out.writeShort(0); // fields
+			out.writeShort(0); // methods
+			out.writeShort(0); // attributes
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.tests.perf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.osgi.tests.OSGiTestsActivator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.Version;
+
+/**
+ * Compares matching a filter which is reused, and therefore has its operands
+ * already converted to the property value types, with matching a newly created
+ * filter. The filters are matched against a set of service property maps
+ * similar to the ones registered by declarative services components.
+ */
+public class FilterPerformanceTest {
+	@Rule
+	public TestName testName = new TestName();
+
+	static final int MAP_COUNT = 500;
+	static final String FILTER = "(&(objectClass=org.acme.Service)(service.ranking>=5)" //$NON-NLS-1$
+			+ "(version>=1.2.0)(enabled=true)(|(component.name=component250)(weight<=0.5)))"; //$NON-NLS-1$
+
+	private static List<Map<String, Object>> createMaps() {
+		List<Map<String, Object>> maps = new ArrayList<>(MAP_COUNT);
+		for (int i = 0; i < MAP_COUNT; i++) {
+			Map<String, Object> map = new HashMap<>();
+			map.put(Constants.OBJECTCLASS, new String[] { "org.acme.Service", "org.acme.Other" + (i % 10) }); //$NON-NLS-1$ //$NON-NLS-2$
+			map.put(Constants.SERVICE_ID, Long.valueOf(i));
+			map.put(Constants.SERVICE_RANKING, Integer.valueOf(i % 10));
+			map.put(Constants.SERVICE_PID, "org.acme.pid" + i); //$NON-NLS-1$
+			map.put("component.name", "component" + i); //$NON-NLS-1$ //$NON-NLS-2$
+			map.put("component.id", Long.valueOf(i)); //$NON-NLS-1$
+			map.put("version", new Version(1, i % 5, 0)); //$NON-NLS-1$
+			map.put("enabled", Boolean.valueOf(i % 2 == 0)); //$NON-NLS-1$
+			map.put("weight", Double.valueOf((i % 100) / 100.0)); //$NON-NLS-1$
+			maps.add(map);
+		}
+		return maps;
+	}
+
+	@Test
+	public void testMatchReusedFilter() throws Exception {
+		final List<Map<String, Object>> maps = createMaps();
+		final Filter filter = OSGiTestsActivator.getContext().createFilter(FILTER);
+		new PerformanceTestRunner() {
+			protected void test() {
+				doMatch(filter, maps);
+			}
+		}.run(getClass(), testName.getMethodName(), 10, 100);
+	}
+
+	@Test
+	public void testMatchNewFilter() throws Exception {
+		final List<Map<String, Object>> maps = createMaps();
+		new PerformanceTestRunner() {
+			protected void test() {
+				for (Map<String, Object> map : maps) {
+					try {
+						OSGiTestsActivator.getContext().createFilter(FILTER).matches(map);
+					} catch (InvalidSyntaxException e) {
+						Assert.fail(e.getMessage());
+					}
+				}
+			}
+		}.run(getClass(), testName.getMethodName(), 10, 100);
+	}
+
+	@Test
+	public void testMatchFrameworkUtilFilter() throws Exception {
+		final List<Map<String, Object>> maps = createMaps();
+		final Filter filter = FrameworkUtil.createFilter(FILTER);
+		new PerformanceTestRunner() {
+			protected void test() {
+				doMatch(filter, maps);
+			}
+		}.run(getClass(), testName.getMethodName(), 10, 100);
+	}
+
+	static void doMatch(Filter filter, List<Map<String, Object>> maps) {
+		int matches = 0;
+		for (Map<String, Object> map : maps) {
+			if (filter.matches(map)) {
+				matches++;
+			}
+		}
+		Assert.assertTrue("No matches found.", matches > 0); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.tests.perf;
+
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.osgi.container.Module;
+import org.eclipse.osgi.container.ModuleContainer;
+import org.eclipse.osgi.container.builders.OSGiManifestBuilderFactory;
+import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.BundleSpecification;
+import org.eclipse.osgi.service.resolver.ExportPackageDescription;
+import org.eclipse.osgi.service.resolver.ImportPackageSpecification;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.osgi.tests.container.dummys.DummyCollisionHook;
+import org.eclipse.osgi.tests.container.dummys.DummyContainerAdaptor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.osgi.framework.Constants;
+
+/**
+ * Measures the time the module container takes to resolve the bundles of
+ * {@link StateUsesPerformanceTest} against the number of resolver threads and
+ * the number of resources each parallel resolver task takes at once.
+ */
+public class ResolverUsesPerformanceTest extends BasePerformanceTest {
+
+	@Rule
+	public TestName testName = new TestName();
+
+	@Test
+	public void testUsesResolution01000Threads01() throws Exception {
+		doUsesResolution(1000, 1, null);
+	}
+
+	@Test
+	public void testUsesResolution01000Threads04() throws Exception {
+		doUsesResolution(1000, 4, null);
+	}
+
+	@Test
+	public void testUsesResolution05000Threads01() throws Exception {
+		doUsesResolution(5000, 1, null);
+	}
+
+	@Test
+	public void testUsesResolution05000Threads04() throws Exception {
+		doUsesResolution(5000, 4, null);
+	}
+
+	@Test
+	public void testUsesResolution05000Threads04Granularity01() throws Exception {
+		doUsesResolution(5000, 4, "1"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testUsesResolution05000Threads04Granularity32() throws Exception {
+		doUsesResolution(5000, 4, "32"); //$NON-NLS-1$
+	}
+
+	private void doUsesResolution(int stateSize, int threads, String granularity) throws Exception {
+		State state = buildRandomState(stateSize);
+		StateUsesPerformanceTest.addUsesBundles(state);
+		final Map<String, Map<String, String>> manifests = new LinkedHashMap<>();
+		for (BundleDescription bundle : state.getBundles()) {
+			manifests.put(bundle.getLocation(), getManifest(bundle));
+		}
+		final Map<String, String> configuration = new HashMap<>();
+		if (granularity != null) {
+			configuration.put(EquinoxConfiguration.PROP_RESOLVER_PARALLEL_GRANULARITY, granularity);
+		}
+		final ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+		try {
+			new PerformanceTestRunner() {
+				@Override
+				protected void test() {
+					try {
+						DummyContainerAdaptor adaptor = new DummyContainerAdaptor(new DummyCollisionHook(false),
+								new HashMap<>(configuration));
+						adaptor.setResolverExecutor(executor == null ? Runnable::run : executor);
+						ModuleContainer container = adaptor.getContainer();
+						Map<String, String> systemManifest = new HashMap<>();
+						systemManifest.put(Constants.BUNDLE_MANIFESTVERSION, "2"); //$NON-NLS-1$
+						systemManifest.put(Constants.BUNDLE_SYMBOLICNAME, Constants.SYSTEM_BUNDLE_SYMBOLICNAME);
+						container.install(null, Constants.SYSTEM_BUNDLE_LOCATION,
+								OSGiManifestBuilderFactory.createBuilder(systemManifest), null);
+						Module system = container.getModule(0);
+						for (Map.Entry<String, Map<String, String>> manifest : manifests.entrySet()) {
+							container.install(system, manifest.getKey(),
+									OSGiManifestBuilderFactory.createBuilder(manifest.getValue()), null);
+						}
+						assertNull("Unexpected error.", container.resolve(null, false).getResolutionException()); //$NON-NLS-1$
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}.run(getClass(), testName.getMethodName(), 10, 1);
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+				executor.awaitTermination(10, TimeUnit.SECONDS);
+			}
+		}
+	}
+
+	private static Map<String, String> getManifest(BundleDescription bundle) {
+		Map<String, String> manifest = new HashMap<>();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2"); //$NON-NLS-1$
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, bundle.getSymbolicName()
+				+ (bundle.isSingleton() ? "; " + Constants.SINGLETON_DIRECTIVE + ":=true" : "")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		manifest.put(Constants.BUNDLE_VERSION, bundle.getVersion().toString());
+
+		List<String> exports = new ArrayList<>();
+		for (ExportPackageDescription export : bundle.getExportPackages()) {
+			String clause = export.getName() + "; " + Constants.VERSION_ATTRIBUTE + "=\"" + export.getVersion() + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+			Object uses = export.getDirective(Constants.USES_DIRECTIVE);
+			if (uses instanceof String[]) {
+				uses = String.join(",", (String[]) uses); //$NON-NLS-1$
+			}
+			if (uses != null) {
+				clause += "; " + Constants.USES_DIRECTIVE + ":=\"" + uses + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			exports.add(clause);
+		}
+		putClauses(manifest, Constants.EXPORT_PACKAGE, exports);
+
+		// the random state may import or require the same name more than once
+		Set<String> imports = new LinkedHashSet<>();
+		for (ImportPackageSpecification importPackage : bundle.getImportPackages()) {
+			imports.add(importPackage.getName() + "; " + Constants.VERSION_ATTRIBUTE + "=\"" //$NON-NLS-1$ //$NON-NLS-2$
+					+ importPackage.getVersionRange() + '"');
+		}
+		putClauses(manifest, Constants.IMPORT_PACKAGE, imports);
+
+		Map<String, String> requires = new LinkedHashMap<>();
+		for (BundleSpecification require : bundle.getRequiredBundles()) {
+			String clause = require.getName() + "; " + Constants.BUNDLE_VERSION_ATTRIBUTE + "=\"" //$NON-NLS-1$ //$NON-NLS-2$
+					+ require.getVersionRange() + '"';
+			if (require.isExported()) {
+				clause += "; " + Constants.VISIBILITY_DIRECTIVE + ":=" + Constants.VISIBILITY_REEXPORT; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			if (require.isOptional()) {
+				clause += "; " + Constants.RESOLUTION_DIRECTIVE + ":=" + Constants.RESOLUTION_OPTIONAL; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			requires.putIfAbsent(require.getName(), clause);
+		}
+		putClauses(manifest, Constants.REQUIRE_BUNDLE, requires.values());
+		return manifest;
+	}
+
+	private static void putClauses(Map<String, String> manifest, String header, Iterable<String> clauses) {
+		String value = String.join(", ", clauses); //$NON-NLS-1$
+		if (!value.isEmpty()) {
+			manifest.put(header, value);
+		}
+	}
+}
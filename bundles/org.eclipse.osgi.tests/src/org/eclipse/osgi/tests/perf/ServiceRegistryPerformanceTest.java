@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.tests.perf;
+
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.osgi.tests.OSGiTestsActivator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Measures the throughput of service lookups against the number of threads
+ * concurrently looking up services.
+ */
+public class ServiceRegistryPerformanceTest {
+	@Rule
+	public TestName testName = new TestName();
+
+	static final int SERVICE_COUNT = 1000;
+	static final int LOOKUPS_PER_THREAD = 1000;
+
+	private final List<ServiceRegistration<?>> registrations = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		BundleContext context = OSGiTestsActivator.getContext();
+		Runnable runIt = () -> {
+			// nothing
+		};
+		for (int i = 0; i < SERVICE_COUNT; i++) {
+			Hashtable<String, Object> props = new Hashtable<>();
+			props.put("component.name", "component" + i); //$NON-NLS-1$ //$NON-NLS-2$
+			props.put(getClass().getName(), Boolean.TRUE);
+			registrations.add(context.registerService(Runnable.class, runIt, props));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		registrations.forEach(ServiceRegistration::unregister);
+		registrations.clear();
+	}
+
+	@Test
+	public void testLookupObjectClass01Thread() throws Exception {
+		doLookup(1, "(objectClass=java.lang.Runnable)"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLookupObjectClass04Threads() throws Exception {
+		doLookup(4, "(objectClass=java.lang.Runnable)"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLookupObjectClass16Threads() throws Exception {
+		doLookup(16, "(objectClass=java.lang.Runnable)"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLookupFiltered01Thread() throws Exception {
+		doLookup(1, "(&(objectClass=java.lang.Runnable)(component.name=component500))"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLookupFiltered04Threads() throws Exception {
+		doLookup(4, "(&(objectClass=java.lang.Runnable)(component.name=component500))"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLookupFiltered16Threads() throws Exception {
+		doLookup(16, "(&(objectClass=java.lang.Runnable)(component.name=component500))"); //$NON-NLS-1$
+	}
+
+	private void doLookup(int threads, final String filter) throws Exception {
+		final BundleContext context = OSGiTestsActivator.getContext();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			new PerformanceTestRunner() {
+				protected void test() {
+					List<Future<?>> results = new ArrayList<>(threads);
+					for (int t = 0; t < threads; t++) {
+						results.add(executor.submit(() -> {
+							for (int i = 0; i < LOOKUPS_PER_THREAD; i++) {
+								assertNotNull("No services found.", context.getServiceReferences((String) null, filter)); //$NON-NLS-1$
+							}
+							return null;
+						}));
+					}
+					try {
+						for (Future<?> result : results) {
+							result.get();
+						}
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}.run(getClass(), testName.getMethodName(), 10, 10);
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+}
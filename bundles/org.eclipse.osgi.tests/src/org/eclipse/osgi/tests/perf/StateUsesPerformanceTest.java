@@ -60,7 +60,7 @@ public class StateUsesPerformanceTest extends BasePerformanceTest {
 		doUsesResolution(5000, 1, AllTests.DEGRADATION_RESOLUTION);
 	}
 
-	private void addUsesBundles(State state) throws BundleException {
+	static void addUsesBundles(State state) throws BundleException {
 		int id = state.getBundles().length + 500;
 		Hashtable manifest = new Hashtable();
 		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import org.eclipse.osgi.internal.permadmin.EvaluationCacheStatistics;
 import org.eclipse.osgi.launch.Equinox;
 import org.eclipse.osgi.tests.OSGiTestsActivator;
 import org.eclipse.osgi.tests.bundles.AbstractBundleTests;
@@ -1187,6 +1188,84 @@ public class SecurityAdminUnitTests extends AbstractBundleTests {
 		}
 	}
 
+	@Test
+	public void testEvaluationCacheStatistics() {
+		EvaluationCacheStatistics statistics = equinox.getBundleContext()
+				.getService(equinox.getBundleContext().getServiceReference(EvaluationCacheStatistics.class));
+		assertNotNull("No statistics service", statistics); //$NON-NLS-1$
+		ConditionalPermissionUpdate update = cpa.newConditionalPermissionUpdate();
+		List rows = update.getConditionalPermissionInfos();
+		rows.add(cpa.newConditionalPermissionInfo(null, new ConditionInfo[] { SIGNER_CONDITION1 }, READONLY_INFOS,
+				ConditionalPermissionInfo.ALLOW));
+		assertTrue("failed to commit", update.commit()); //$NON-NLS-1$
+
+		AccessControlContext acc = cpa.getAccessControlContext(new String[] { "cn=t1,c=FR;cn=test1,c=US" }); //$NON-NLS-1$
+		long hits = statistics.getHitCount();
+		long misses = statistics.getMissCount();
+		testPermission(acc, new FilePermission("test", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("Wrong misses", misses + 1, statistics.getMissCount()); //$NON-NLS-1$
+		testPermission(acc, new FilePermission("test", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("Wrong hits", hits + 1, statistics.getHitCount()); //$NON-NLS-1$
+		assertEquals("Wrong size", 1, statistics.getSize()); //$NON-NLS-1$
+
+		// a new table starts with an empty cache
+		update = cpa.newConditionalPermissionUpdate();
+		assertTrue("failed to commit", update.commit()); //$NON-NLS-1$
+		assertEquals("Wrong size", 0, statistics.getSize()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testEvaluationCacheBounds() throws Exception {
+		// restart the framework with a small cache whose decisions expire
+		equinox.stop();
+		equinox.waitForStop(10000);
+		File config = OSGiTestsActivator.getContext().getDataFile(getName() + "_bounded"); //$NON-NLS-1$
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, config.getAbsolutePath());
+		configuration.put(Constants.FRAMEWORK_SECURITY, Constants.FRAMEWORK_SECURITY_OSGI);
+		configuration.put("equinox.security.evaluation.cache.size", "2"); //$NON-NLS-1$ //$NON-NLS-2$
+		configuration.put("equinox.security.evaluation.cache.expiration", "1000"); //$NON-NLS-1$ //$NON-NLS-2$
+		equinox = new Equinox(configuration);
+		equinox.init();
+		cpa = equinox.getBundleContext()
+				.getService(equinox.getBundleContext().getServiceReference(ConditionalPermissionAdmin.class));
+		EvaluationCacheStatistics statistics = equinox.getBundleContext()
+				.getService(equinox.getBundleContext().getServiceReference(EvaluationCacheStatistics.class));
+		assertEquals("Wrong maximum size", 2, statistics.getMaximumSize()); //$NON-NLS-1$
+		assertEquals("Wrong expiration", 1000, statistics.getExpiration()); //$NON-NLS-1$
+		ConditionalPermissionUpdate update = cpa.newConditionalPermissionUpdate();
+		List rows = update.getConditionalPermissionInfos();
+		rows.add(cpa.newConditionalPermissionInfo(null, new ConditionInfo[] { SIGNER_CONDITION1 }, READONLY_INFOS,
+				ConditionalPermissionInfo.ALLOW));
+		assertTrue("failed to commit", update.commit()); //$NON-NLS-1$
+
+		AccessControlContext acc = cpa.getAccessControlContext(new String[] { "cn=t1,c=FR;cn=test1,c=US" }); //$NON-NLS-1$
+		long hits = statistics.getHitCount();
+		long misses = statistics.getMissCount();
+		long evictions = statistics.getEvictionCount();
+		testPermission(acc, new FilePermission("test1", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		testPermission(acc, new FilePermission("test2", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		// test1 is used again so it gets a second chance when test3 needs room
+		testPermission(acc, new FilePermission("test1", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		testPermission(acc, new FilePermission("test3", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("Wrong size", 2, statistics.getSize()); //$NON-NLS-1$
+		assertEquals("Wrong evictions", evictions + 1, statistics.getEvictionCount()); //$NON-NLS-1$
+		assertEquals("Wrong misses", misses + 3, statistics.getMissCount()); //$NON-NLS-1$
+		assertEquals("Wrong hits", hits + 1, statistics.getHitCount()); //$NON-NLS-1$
+		testPermission(acc, new FilePermission("test1", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("test1 was evicted", hits + 2, statistics.getHitCount()); //$NON-NLS-1$
+		testPermission(acc, new FilePermission("test2", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("test2 was not evicted", misses + 4, statistics.getMissCount()); //$NON-NLS-1$
+
+		// the decisions are evaluated again once they expire
+		Thread.sleep(1500);
+		misses = statistics.getMissCount();
+		testPermission(acc, new FilePermission("test2", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("test2 did not expire", misses + 1, statistics.getMissCount()); //$NON-NLS-1$
+		testPermission(acc, new FilePermission("test2", "read"), true); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("test2 is not cached again", hits + 3, statistics.getHitCount()); //$NON-NLS-1$
+	}
+
 	private void checkInfos(ConditionalPermissionInfo testInfo1, ConditionalPermissionInfo testInfo2) {
 		assertTrue("Infos are not equal: " + testInfo1.getEncoded() + " " + testInfo2.getEncoded(),
 				testInfo1.equals(testInfo2));
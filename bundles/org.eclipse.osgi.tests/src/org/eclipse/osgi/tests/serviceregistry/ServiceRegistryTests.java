@@ -25,13 +25,17 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
+import org.eclipse.osgi.launch.Equinox;
 import org.eclipse.osgi.tests.OSGiTestsActivator;
 import org.eclipse.osgi.tests.bundles.AbstractBundleTests;
 import org.eclipse.osgi.tests.util.MapDictionary;
@@ -493,6 +497,175 @@ public class ServiceRegistryTests extends AbstractBundleTests {
 		}
 	}
 
+	@Test
+	public void testLookupDuringRegistrationChanges() throws Exception {
+		final String testMethodName = getName();
+		final String filter = "(" + testMethodName + "=true)"; //$NON-NLS-1$ //$NON-NLS-2$
+		final BundleContext bc = getContext();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final CountDownLatch done = new CountDownLatch(1);
+		Thread reader = new Thread(() -> {
+			try {
+				while (done.getCount() > 0) {
+					ServiceReference<?>[] refs = bc.getServiceReferences(Runnable.class.getName(), filter);
+					if (refs == null) {
+						continue;
+					}
+					// the rankings change concurrently so only check values which do not change
+					Set<Object> ids = new HashSet<>();
+					for (ServiceReference<?> ref : refs) {
+						if (!ids.add(ref.getProperty(Constants.SERVICE_ID))) {
+							throw new AssertionError("Duplicate references: " + Arrays.toString(refs)); //$NON-NLS-1$
+						}
+					}
+				}
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		}, testMethodName);
+		reader.start();
+		Runnable runIt = () -> {
+			// nothing
+		};
+		List<ServiceRegistration<Runnable>> registrations = new ArrayList<>();
+		try {
+			for (int i = 0; i < 200; i++) {
+				Hashtable<String, Object> props = new Hashtable<>();
+				props.put(testMethodName, Boolean.TRUE);
+				props.put(Constants.SERVICE_RANKING, Integer.valueOf(i % 7));
+				registrations.add(bc.registerService(Runnable.class, runIt, props));
+				if (i % 3 == 0) {
+					props.put(Constants.SERVICE_RANKING, Integer.valueOf(-i));
+					registrations.get(i / 2).setProperties(props);
+				}
+				if (i % 5 == 0) {
+					registrations.remove(0).unregister();
+				}
+			}
+			ServiceReference<?>[] refs = bc.getServiceReferences(Runnable.class.getName(), filter);
+			assertNotNull("No references found", refs); //$NON-NLS-1$
+			assertEquals("Wrong number of references", registrations.size(), refs.length); //$NON-NLS-1$
+			Set<Object> expectedIds = new HashSet<>();
+			for (ServiceRegistration<Runnable> registration : registrations) {
+				expectedIds.add(registration.getReference().getProperty(Constants.SERVICE_ID));
+			}
+			// no more changes are made, so the rankings and ids are read once for each reference
+			int previousRanking = Integer.MAX_VALUE;
+			long previousId = Long.MIN_VALUE;
+			for (ServiceReference<?> ref : refs) {
+				int ranking = (Integer) ref.getProperty(Constants.SERVICE_RANKING);
+				long id = (Long) ref.getProperty(Constants.SERVICE_ID);
+				assertTrue("Unexpected reference: " + id, expectedIds.remove(id)); //$NON-NLS-1$
+				assertTrue("References are not sorted: " + Arrays.toString(refs), //$NON-NLS-1$
+						ranking < previousRanking || (ranking == previousRanking && id > previousId));
+				previousRanking = ranking;
+				previousId = id;
+			}
+		} finally {
+			done.countDown();
+			reader.join();
+			registrations.forEach(ServiceRegistration::unregister);
+		}
+		assertNull("Failure during lookup", failure.get()); //$NON-NLS-1$
+		assertNull("Found unregistered services", bc.getServiceReferences(Runnable.class.getName(), filter)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testServiceListenerObjectClassIndex() throws InvalidSyntaxException {
+		final String testMethodName = getName();
+		BundleContext bc = OSGiTestsActivator.getContext();
+		final int[] results = new int[4];
+		ServiceListener runnableListener = event -> results[0]++;
+		ServiceListener callableListener = event -> results[1]++;
+		ServiceListener complexListener = event -> results[2]++;
+		ServiceListener changedListener = event -> results[3]++;
+		bc.addServiceListener(runnableListener, "(objectClass=" + Runnable.class.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		bc.addServiceListener(callableListener, "(&(objectClass=" + Callable.class.getName() + ")(" //$NON-NLS-1$ //$NON-NLS-2$
+				+ testMethodName + "=true))"); //$NON-NLS-1$
+		bc.addServiceListener(complexListener, "(|(objectClass=" + Runnable.class.getName() + ")(" //$NON-NLS-1$ //$NON-NLS-2$
+				+ testMethodName + "=true))"); //$NON-NLS-1$
+		bc.addServiceListener(changedListener, "(objectClass=" + Callable.class.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		// replace the filter of the listener; it must no longer get Callable events
+		bc.addServiceListener(changedListener, "(objectClass=" + Runnable.class.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		ServiceRegistration<?> reg = null;
+		try {
+			Hashtable<String, Object> props = new Hashtable<>();
+			props.put(testMethodName, Boolean.TRUE);
+			reg = bc.registerService(new String[] { Object.class.getName(), Callable.class.getName() },
+					(Callable<Object>) () -> null, props);
+			assertEquals("Wrong number of events", 0, results[0]); //$NON-NLS-1$
+			assertEquals("Wrong number of events", 1, results[1]); //$NON-NLS-1$
+			assertEquals("Wrong number of events", 1, results[2]); //$NON-NLS-1$
+			assertEquals("Wrong number of events", 0, results[3]); //$NON-NLS-1$
+
+			bc.removeServiceListener(callableListener);
+			reg.setProperties(props);
+			assertEquals("Wrong number of events", 0, results[0]); //$NON-NLS-1$
+			assertEquals("Wrong number of events", 1, results[1]); //$NON-NLS-1$
+			assertEquals("Wrong number of events", 2, results[2]); //$NON-NLS-1$
+			assertEquals("Wrong number of events", 0, results[3]); //$NON-NLS-1$
+		} finally {
+			bc.removeServiceListener(runnableListener);
+			bc.removeServiceListener(callableListener);
+			bc.removeServiceListener(complexListener);
+			bc.removeServiceListener(changedListener);
+			if (reg != null) {
+				reg.unregister();
+			}
+		}
+	}
+
+	@Test
+	public void testPropertyIndexes() throws Exception {
+		Map<String, Object> configuration = createConfiguration();
+		configuration.put(EquinoxConfiguration.PROP_SERVICE_REGISTRY_INDEXES, "service.pid, component.name"); //$NON-NLS-1$
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			BundleContext bc = equinox.getBundleContext();
+			Runnable runIt = () -> {
+				// nothing
+			};
+			Hashtable<String, Object> props = new Hashtable<>();
+			props.put(Constants.SERVICE_PID, "pid1"); //$NON-NLS-1$
+			props.put("component.name", new String[] { "c1", "c2" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			ServiceRegistration<Runnable> reg1 = bc.registerService(Runnable.class, runIt, props);
+			props = new Hashtable<>();
+			props.put(Constants.SERVICE_PID, "pid2"); //$NON-NLS-1$
+			props.put("component.name", Arrays.asList("c2", "c3")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			props.put(Constants.SERVICE_RANKING, Integer.valueOf(10));
+			ServiceRegistration<Runnable> reg2 = bc.registerService(Runnable.class, runIt, props);
+			props = new Hashtable<>();
+			props.put("component.name", Long.valueOf(3)); //$NON-NLS-1$
+			ServiceRegistration<Object> reg3 = bc.registerService(Object.class, new Object(), props);
+
+			validateFoundServices(bc, "(service.pid=pid1)", reg1); //$NON-NLS-1$
+			validateFoundServices(bc, "(&(objectClass=java.lang.Runnable)(service.pid=pid2))", reg2); //$NON-NLS-1$
+			validateFoundServices(bc, "(component.name=c2)", reg1, reg2); //$NON-NLS-1$
+			validateFoundServices(bc, "(component.name=3)", reg3); //$NON-NLS-1$
+			validateFoundServices(bc, "(&(service.pid=pid1)(component.name=c3))"); //$NON-NLS-1$
+			validateFoundServices(bc, "(|(service.pid=pid1)(service.pid=pid2))", reg1, reg2); //$NON-NLS-1$
+			ServiceReference<?>[] refs = bc.getServiceReferences(Runnable.class.getName(), "(component.name=c2)"); //$NON-NLS-1$
+			assertEquals("Wrong number of references", 2, refs.length); //$NON-NLS-1$
+			assertEquals("Wrong order of references", reg2.getReference(), refs[0]); //$NON-NLS-1$
+			assertNull("Found wrong class", bc.getServiceReferences(Object.class.getName(), "(service.pid=pid1)")); //$NON-NLS-1$ //$NON-NLS-2$
+
+			props = new Hashtable<>();
+			props.put(Constants.SERVICE_PID, "pid3"); //$NON-NLS-1$
+			props.put(Constants.SERVICE_RANKING, Integer.valueOf(20));
+			reg1.setProperties(props);
+			validateFoundServices(bc, "(service.pid=pid1)"); //$NON-NLS-1$
+			validateFoundServices(bc, "(service.pid=pid3)", reg1); //$NON-NLS-1$
+			validateFoundServices(bc, "(component.name=c2)", reg2); //$NON-NLS-1$
+
+			reg2.unregister();
+			validateFoundServices(bc, "(component.name=c2)"); //$NON-NLS-1$
+			validateFoundServices(bc, "(service.pid=pid2)"); //$NON-NLS-1$
+		} finally {
+			stop(equinox);
+		}
+	}
+
 	@Test
 	public void testInvalidRanking() throws InterruptedException {
 		final CountDownLatch warning = new CountDownLatch(1);
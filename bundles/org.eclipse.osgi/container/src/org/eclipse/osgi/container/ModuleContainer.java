@@ -150,7 +150,7 @@ public final class ModuleContainer implements DebugOptionsListener {
 	 */
 	public ModuleContainer(ModuleContainerAdaptor adaptor, ModuleDatabase moduledataBase) {
 		this.adaptor = adaptor;
-		this.moduleResolver = new ModuleResolver(adaptor);
+		this.moduleResolver = new ModuleResolver(adaptor, moduledataBase.getResolvedPackages());
 		this.moduleDatabase = moduledataBase;
 		this.frameworkWiring = new ContainerWiring();
 		this.frameworkStartLevel = new ContainerStartLevel();
@@ -987,6 +987,7 @@ public final class ModuleContainer implements DebugOptionsListener {
 					if (current != null) {
 						// need to update the provided capabilities, provided and required wires for
 						// currently resolved
+						moduleResolver.updateWiring(current, deltaEntry.getValue());
 						current.setCapabilities(deltaEntry.getValue().getCapabilities());
 						current.setProvidedWires(deltaEntry.getValue().getProvidedWires());
 						current.setRequirements(deltaEntry.getValue().getRequirements());
@@ -13,9 +13,12 @@
  *******************************************************************************/
 package org.eclipse.osgi.container;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,6 +30,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -43,6 +47,7 @@ import org.eclipse.osgi.internal.container.Capabilities;
 import org.eclipse.osgi.internal.container.ComputeNodeOrder;
 import org.eclipse.osgi.internal.container.NamespaceList;
 import org.eclipse.osgi.internal.container.NamespaceList.Builder;
+import org.eclipse.osgi.internal.container.ResolvedPackageSpaces;
 import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.Constants;
@@ -128,6 +133,13 @@ public class ModuleDatabase {
 
 	private final Capabilities capabilities;
 
+	/**
+	 * The package spaces the resolver calculated for resolved revisions. They are
+	 * persisted along with the wirings so that they are reused after a restart.
+	 * Null if the package spaces are calculated for each resolve process.
+	 */
+	private final ResolvedPackageSpaces resolvedPackages;
+
 	/**
 	 * A map of module settings keyed by module id.
 	 */
@@ -138,11 +150,64 @@ public class ModuleDatabase {
 	 */
 	private int initialModuleStartLevel = 1;
 
+	/**
+	 * The modules as they were last persisted by store, storeDelta or load keyed
+	 * by module id, or {@code null} if nothing has been persisted yet.
+	 */
+	private volatile Map<Long, PersistedModule> persistedModules;
+
+	/**
+	 * The modules as they were when the last delta was written by storeDelta, or
+	 * {@code null} if no delta is waiting to be committed.
+	 */
+	private volatile Map<Long, PersistedModule> pendingModules;
+
 	/**
 	 * Monitors read and write access to this database
 	 */
 	private final ReentrantReadWriteLock monitor = new ReentrantReadWriteLock(false);
 
+	/**
+	 * The persisted state of a module used to find the changes to persist with
+	 * {@link ModuleDatabase#storeDelta(DataOutputStream)}.
+	 */
+	private static final class PersistedModule {
+		final WeakReference<ModuleRevision> revision;
+		// null if the module was persisted without a wiring
+		final WeakReference<ModuleWiring> wiring;
+		final int wiringChanges;
+		final EnumSet<Settings> settings;
+		final int startLevel;
+		final long lastModified;
+
+		PersistedModule(ModuleRevision revision, ModuleWiring wiring, EnumSet<Settings> settings, int startLevel,
+				long lastModified) {
+			this.revision = new WeakReference<>(revision);
+			this.wiring = wiring == null ? null : new WeakReference<>(wiring);
+			this.wiringChanges = wiring == null ? 0 : wiring.getChangeCount();
+			this.settings = settings == null ? null : EnumSet.copyOf(settings);
+			this.startLevel = startLevel;
+			this.lastModified = lastModified;
+		}
+
+		boolean isUpdated(Module module) {
+			return revision.get() != module.getCurrentRevision();
+		}
+
+		boolean isUnresolved(ModuleWiring current) {
+			return wiring != null && wiring.get() != current;
+		}
+
+		boolean isRewired(ModuleWiring current) {
+			return wiring == null || wiring.get() != current || wiringChanges != current.getChangeCount();
+		}
+
+		boolean isChanged(Module module, EnumSet<Settings> currentSettings) {
+			return !Objects.equals(settings, currentSettings) || startLevel != module.getStartLevel()
+					|| lastModified != module.getLastModified();
+		}
+	}
+
 	static enum Sort {
 		BY_DEPENDENCY, BY_START_LEVEL, BY_ID;
 
@@ -177,6 +242,17 @@ public class ModuleDatabase {
 		this.allTimeStamp = new AtomicLong(constructionTime);
 		this.moduleSettings = new HashMap<>();
 		this.capabilities = new Capabilities();
+		String incrementalConfig = adaptor.getProperty(EquinoxConfiguration.PROP_RESOLVER_INCREMENTAL);
+		this.resolvedPackages = Boolean.FALSE.toString().equalsIgnoreCase(incrementalConfig) ? null
+				: new ResolvedPackageSpaces(adaptor);
+	}
+
+	/**
+	 * Returns the package spaces the resolver calculated for resolved revisions,
+	 * or null if the package spaces are calculated for each resolve process.
+	 */
+	final ResolvedPackageSpaces getResolvedPackages() {
+		return resolvedPackages;
 	}
 
 	/**
@@ -434,6 +510,64 @@ public class ModuleDatabase {
 		}
 	}
 
+	/**
+	 * Removes the wirings of the specified revisions and the wires from other
+	 * wirings to them. The specified revisions must include all the revisions
+	 * depending on them.
+	 *
+	 * @param revisions the revisions to unresolve
+	 */
+	private void unresolve(Collection<ModuleRevision> revisions) {
+		// sanity check
+		checkWrite();
+		Map<ModuleWiring, Collection<ModuleWire>> toRemoveWireLists = new HashMap<>();
+		for (ModuleRevision revision : revisions) {
+			ModuleWiring wiring = wirings.get(revision);
+			if (wiring == null) {
+				continue;
+			}
+			for (ModuleWire wire : wiring.getRequiredModuleWires(null)) {
+				if (revisions.contains(wire.getProvider())) {
+					continue;
+				}
+				Collection<ModuleWire> providerWires = toRemoveWireLists.get(wire.getProviderWiring());
+				if (providerWires == null) {
+					providerWires = new ArrayList<>();
+					toRemoveWireLists.put(wire.getProviderWiring(), providerWires);
+				}
+				providerWires.add(wire);
+			}
+		}
+		for (ModuleRevision revision : revisions) {
+			if (wirings.remove(revision) != null) {
+				revision.getRevisions().getModule().setState(State.INSTALLED);
+			}
+		}
+		for (Map.Entry<ModuleWiring, Collection<ModuleWire>> entry : toRemoveWireLists.entrySet()) {
+			NamespaceList.Builder<ModuleWire> provided = entry.getKey().getProvidedWires().createBuilder();
+			provided.removeAll(entry.getValue());
+			entry.getKey().setProvidedWires(provided.build());
+		}
+	}
+
+	/**
+	 * Removes the specified unresolved module from this database without
+	 * uninstalling it.
+	 *
+	 * @param module the module to remove
+	 */
+	private void remove(Module module) {
+		// sanity check
+		checkWrite();
+		modulesByLocations.remove(module.getLocation());
+		modulesById.remove(module.getId());
+		moduleSettings.remove(module.getId());
+		for (ModuleRevision revision : module.getRevisions().getModuleRevisions()) {
+			module.getRevisions().removeRevision(revision);
+			removeCapabilities(revision);
+		}
+	}
+
 	/**
 	 * Gets all revisions with a removal pending wiring.
 	 * <p>
@@ -515,8 +649,7 @@ public class ModuleDatabase {
 			Map<ModuleRevision, ModuleWiring> clonedWirings = new HashMap<>(wirings);
 			clonedWirings.replaceAll(new BiFunction<ModuleRevision, ModuleWiring, ModuleWiring>() {
 				public ModuleWiring apply(ModuleRevision r, ModuleWiring w) {
-					return new ModuleWiring(r, w.getCapabilities(), w.getRequirements(), w.getProvidedWires(),
-							w.getRequiredWires(), w.getSubstitutedNames());
+					return w.copy();
 				}
 			});
 			return clonedWirings;
@@ -936,12 +1069,130 @@ public class ModuleDatabase {
 	public final void store(DataOutputStream out, boolean persistWirings) throws IOException {
 		readLock();
 		try {
-			Persistence.store(this, out, persistWirings);
+			boolean wiringsPersisted = Persistence.store(this, out, persistWirings);
+			pendingModules = null;
+			persistedModules = getPersistedModules(wiringsPersisted);
 		} finally {
 			readUnlock();
 		}
 	}
 
+	/**
+	 * Writes the changes to this database since it was last
+	 * {@link #store(DataOutputStream, boolean) stored}, {@link #load(DataInputStream)
+	 * loaded} or since the last delta was written. The delta is written in a
+	 * format suitable for using the {@link #loadDelta(DataInputStream)} method on a
+	 * database loaded from the last stored data and all the deltas written after
+	 * it.
+	 * <p>
+	 * The delta contains the modules installed or updated, the ids of the modules
+	 * uninstalled or updated, the settings of the modules that changed and the
+	 * wirings that are new or changed, including the wires added for dynamic
+	 * imports. The ids of the modules which no longer have the persisted wiring
+	 * are written as well, these modules and their dependents are unresolved
+	 * before the wirings are loaded.
+	 * <p>
+	 * The written delta is not recorded as persisted until
+	 * {@link #commitDelta()} is called. If the delta could not be saved then the
+	 * next delta is written against the same persisted state again.
+	 * <p>
+	 * No delta can be written if nothing was persisted yet, if the system module
+	 * got a new revision or if there are {@link #getRemovalPending() removal
+	 * pending} revisions. In that case nothing is written and {@code false} is
+	 * returned, the database should be {@link #store(DataOutputStream, boolean)
+	 * stored} instead.
+	 * <p>
+	 * This method acquires the {@link #readLock() read} lock while writing the
+	 * delta.
+	 *
+	 * @param out the data output steam.
+	 * @return true if the delta was written, false if the database needs to be
+	 *         stored instead.
+	 * @throws IOException if writing the delta to the specified output stream
+	 *                     throws an IOException
+	 * @since 3.19
+	 */
+	public final boolean storeDelta(DataOutputStream out) throws IOException {
+		readLock();
+		try {
+			Map<Long, PersistedModule> persisted = persistedModules;
+			if (persisted == null || !getRemovalPending().isEmpty()) {
+				return false;
+			}
+			Module systemModule = modulesById.get(0L);
+			PersistedModule persistedSystem = persisted.get(0L);
+			if (systemModule == null || persistedSystem == null || persistedSystem.isUpdated(systemModule)) {
+				return false;
+			}
+			pendingModules = null;
+			Persistence.storeDelta(this, persisted, out);
+			pendingModules = getPersistedModules(true);
+			return true;
+		} finally {
+			readUnlock();
+		}
+	}
+
+	/**
+	 * Records the delta last written by {@link #storeDelta(DataOutputStream)} as
+	 * persisted. This must only be called once the delta has been saved, the next
+	 * delta then only contains the changes made after it.
+	 *
+	 * @since 3.19
+	 */
+	public final void commitDelta() {
+		Map<Long, PersistedModule> pending = pendingModules;
+		if (pending != null) {
+			pendingModules = null;
+			persistedModules = pending;
+		}
+	}
+
+	/**
+	 * Loads a delta written by {@link #storeDelta(DataOutputStream)} into this
+	 * database. The delta must be loaded into a database loaded from the data
+	 * stored before the delta was written, after all the deltas written before
+	 * it.
+	 * <p>
+	 * Since this method modifies this database it is considered a write operation.
+	 * This method acquires the {@link #writeLock() write} lock while loading the
+	 * delta into this database.
+	 * <p>
+	 * The specified stream remains open after this method returns.
+	 *
+	 * @param in the data input stream.
+	 * @throws IOException if an error occurred when reading from the input stream.
+	 * @since 3.19
+	 */
+	public final void loadDelta(DataInputStream in) throws IOException {
+		writeLock();
+		try {
+			Persistence.loadDelta(this, in);
+			persistedModules = getPersistedModules(true);
+		} finally {
+			writeUnlock();
+		}
+	}
+
+	/**
+	 * Returns the persisted state of the current modules.
+	 *
+	 * @param withWirings true if the wirings were persisted
+	 */
+	private Map<Long, PersistedModule> getPersistedModules(boolean withWirings) {
+		Map<Long, PersistedModule> persisted = new HashMap<>();
+		for (Module module : modulesById.values()) {
+			ModuleRevision current = module.getCurrentRevision();
+			if (current == null) {
+				continue;
+			}
+			ModuleWiring wiring = withWirings ? wirings.get(current) : null;
+			persisted.put(module.getId(), new PersistedModule(current, wiring, moduleSettings.get(module.getId()),
+					module.getStartLevel(), module.getLastModified()));
+		}
+		return persisted;
+	}
+
 	/**
 	 * Loads information into this database from the input data stream. This data
 	 * base must be empty and never been modified (the
@@ -966,6 +1217,7 @@ public class ModuleDatabase {
 			if (allTimeStamp.get() != constructionTime)
 				throw new IllegalStateException("Can only load into a empty database."); //$NON-NLS-1$
 			Persistence.load(this, in);
+			persistedModules = getPersistedModules(true);
 		} finally {
 			writeUnlock();
 		}
@@ -1015,7 +1267,7 @@ public class ModuleDatabase {
 	}
 
 	private static class Persistence {
-		private static final int VERSION = 3;
+		private static final int VERSION = 5;
 		private static final byte NULL = 0;
 		private static final byte OBJECT = 1;
 		private static final byte INDEX = 2;
@@ -1058,30 +1310,110 @@ public class ModuleDatabase {
 			}
 		}
 
-		public static void store(ModuleDatabase moduleDatabase, DataOutputStream out, boolean persistWirings)
+		public static boolean store(ModuleDatabase moduleDatabase, DataOutputStream out, boolean persistWirings)
 				throws IOException {
+			writeHeader(moduleDatabase, out);
+
+			List<Module> modules = moduleDatabase.getModules();
+			// outside of the modules the wirings have 'substituted' packages strings
+			Map<ModuleRevision, ModuleWiring> wirings = moduleDatabase.wirings;
+			Set<String> substituted = new HashSet<>();
+			for (ModuleWiring wiring : wirings.values()) {
+				substituted.addAll(wiring.getSubstitutedNames());
+			}
+			Map<Object, Integer> objectTable = writeObjectTable(moduleDatabase, modules, substituted, out);
+
+			// Followed by modules which reference the strings, versions, and maps
+			out.writeInt(modules.size());
+			for (Module module : modules) {
+				writeModule(module, moduleDatabase, out, objectTable);
+			}
+
+			Collection<ModuleRevision> removalPendings = moduleDatabase.getRemovalPending();
+			// only persist wirings if there are no removals pending
+			persistWirings &= removalPendings.isEmpty();
+			out.writeBoolean(persistWirings);
+			if (!persistWirings) {
+				return false;
+			}
+
+			// the wirings are written as an image of indexes which is decoded lazily
+			// see PersistentWirings
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream image = new DataOutputStream(bytes);
+			// first all the required wires which reference the modules
+			Map<ModuleWire, Integer> wireTable = new HashMap<>();
+			List<ModuleWire> allWires = new ArrayList<>();
+			for (ModuleWiring wiring : wirings.values()) {
+				for (ModuleWire wire : wiring.getPersistentRequiredWires()) {
+					wireTable.put(wire, Integer.valueOf(allWires.size()));
+					allWires.add(wire);
+				}
+			}
+			image.writeInt(allWires.size());
+			for (ModuleWire wire : allWires) {
+				writeWire(wire, image, objectTable);
+			}
+
+			// now write all the info about each wiring using only indexes from the
+			// objectTable and the wires
+			for (ModuleWiring wiring : wirings.values()) {
+				writeWiring(wiring, image, objectTable, wireTable);
+			}
+			out.writeInt(bytes.size());
+			bytes.writeTo(out);
+
+			// followed by the package spaces calculated for the wirings
+			writeResolvedPackages(moduleDatabase, wirings, objectTable, out);
+
+			out.flush();
+			return true;
+		}
+
+		private static void writeResolvedPackages(ModuleDatabase moduleDatabase,
+				Map<ModuleRevision, ModuleWiring> wirings, Map<Object, Integer> objectTable, DataOutputStream out)
+				throws IOException {
+			if (moduleDatabase.resolvedPackages == null) {
+				out.writeInt(0);
+			} else {
+				moduleDatabase.resolvedPackages.write(wirings, objectTable::get, out);
+			}
+		}
+
+		private static void readResolvedPackages(ModuleDatabase moduleDatabase,
+				Map<ModuleRevision, ModuleWiring> wirings, List<Object> objectTable, DataInputStream in)
+				throws IOException {
+			if (moduleDatabase.resolvedPackages == null) {
+				ResolvedPackageSpaces.skip(in);
+			} else {
+				// the package space is only valid while the wiring has the persisted content
+				// so keep an unmodified copy
+				moduleDatabase.resolvedPackages.read(in, objectTable::get, revision -> {
+					ModuleWiring wiring = wirings.get(revision);
+					return wiring == null ? null : wiring.copy();
+				});
+			}
+		}
+
+		private static void writeHeader(ModuleDatabase moduleDatabase, DataOutputStream out) throws IOException {
 			out.writeInt(VERSION);
 			out.writeLong(moduleDatabase.getRevisionsTimestamp());
 			out.writeLong(moduleDatabase.getTimestamp());
 			out.writeLong(moduleDatabase.getNextId());
 			out.writeInt(moduleDatabase.getInitialModuleStartLevel());
+		}
 
+		private static Map<Object, Integer> writeObjectTable(ModuleDatabase moduleDatabase, Collection<Module> modules,
+				Collection<String> extraStrings, DataOutputStream out) throws IOException {
 			// prime the object table with all the strings, versions and maps
-			Set<String> allStrings = new HashSet<>();
+			Set<String> allStrings = new HashSet<>(extraStrings);
 			Set<Version> allVersions = new HashSet<>();
 			Set<Map<String, ?>> allMaps = new HashSet<>();
 
 			// first gather all the strings, versions and maps from the modules
-			List<Module> modules = moduleDatabase.getModules();
 			for (Module module : modules) {
 				getStringsVersionsAndMaps(module, moduleDatabase, allStrings, allVersions, allMaps);
 			}
-			// outside of the modules the wirings have 'substituted' packages strings
-			Map<ModuleRevision, ModuleWiring> wirings = moduleDatabase.wirings;
-			for (ModuleWiring wiring : wirings.values()) {
-				Collection<String> substituted = wiring.getSubstitutedNames();
-				allStrings.addAll(substituted);
-			}
 
 			// Now persist all the Strings
 			Map<Object, Integer> objectTable = new HashMap<>();
@@ -1103,39 +1435,359 @@ public class ModuleDatabase {
 				writeMap(map, out, objectTable, moduleDatabase);
 				out.writeInt(addToWriteTable(map, objectTable));
 			}
+			return objectTable;
+		}
 
-			// Followed by modules which reference the strings, versions, and maps
-			out.writeInt(modules.size());
-			for (Module module : modules) {
+		private static void readObjectTable(DataInputStream in, List<Object> objectTable) throws IOException {
+			int numStrings = in.readInt();
+			for (int i = 0; i < numStrings; i++) {
+				readIndexedString(in, objectTable);
+			}
+			int numVersions = in.readInt();
+			for (int i = 0; i < numVersions; i++) {
+				readIndexedVersion(in, objectTable);
+			}
+			int numMaps = in.readInt();
+			for (int i = 0; i < numMaps; i++) {
+				readIndexedMap(in, objectTable);
+			}
+		}
+
+		public static void storeDelta(ModuleDatabase moduleDatabase, Map<Long, PersistedModule> persisted,
+				DataOutputStream out) throws IOException {
+			writeHeader(moduleDatabase, out);
+
+			Set<Long> removed = new HashSet<>(persisted.keySet());
+			List<Module> added = new ArrayList<>();
+			List<Long> unresolved = new ArrayList<>();
+			List<Module> changed = new ArrayList<>();
+			// the wirings which are new or changed since they were persisted
+			List<ModuleWiring> rewired = new ArrayList<>();
+			Set<String> substituted = new HashSet<>();
+			for (Module module : moduleDatabase.getModules()) {
+				ModuleRevision current = module.getCurrentRevision();
+				if (current == null) {
+					continue;
+				}
+				Long id = module.getId();
+				PersistedModule persistedModule = persisted.get(id);
+				ModuleWiring wiring = moduleDatabase.wirings.get(current);
+				boolean isAdded = persistedModule == null || persistedModule.isUpdated(module);
+				if (wiring != null && (isAdded || persistedModule.isRewired(wiring))) {
+					rewired.add(wiring);
+					substituted.addAll(wiring.getSubstitutedNames());
+				}
+				if (isAdded) {
+					// an updated module is removed and added again
+					added.add(module);
+					continue;
+				}
+				removed.remove(id);
+				if (persistedModule.isUnresolved(wiring)) {
+					unresolved.add(id);
+				}
+				if (persistedModule.isChanged(module, moduleDatabase.moduleSettings.get(id))) {
+					changed.add(module);
+				}
+			}
+
+			writeIds(removed, out);
+			writeIds(unresolved, out);
+
+			Map<Object, Integer> objectTable = writeObjectTable(moduleDatabase, added, substituted, out);
+			out.writeInt(added.size());
+			for (Module module : added) {
 				writeModule(module, moduleDatabase, out, objectTable);
 			}
 
-			Collection<ModuleRevision> removalPendings = moduleDatabase.getRemovalPending();
-			// only persist wirings if there are no removals pending
-			persistWirings &= removalPendings.isEmpty();
-			out.writeBoolean(persistWirings);
-			if (!persistWirings) {
-				return;
+			out.writeInt(changed.size());
+			for (Module module : changed) {
+				out.writeLong(module.getId());
+				EnumSet<Settings> settings = moduleDatabase.moduleSettings.get(module.getId());
+				out.writeInt(settings == null ? 0 : settings.size());
+				if (settings != null) {
+					for (Settings setting : settings) {
+						writeString(setting.name(), out, objectTable);
+					}
+				}
+				out.writeInt(module.getStartLevel());
+				out.writeLong(module.getLastModified());
 			}
 
-			// prime the object table with all the required wires which reference the
-			// modules
-			out.writeInt(wirings.size());
-			for (ModuleWiring wiring : wirings.values()) {
-				List<ModuleWire> requiredWires = wiring.getPersistentRequiredWires();
-				out.writeInt(requiredWires.size());
-				for (ModuleWire wire : requiredWires) {
-					writeWire(wire, out, objectTable);
+			// capabilities and requirements are referenced by the id of the module and
+			// their index in the current revision
+			Map<Object, Integer> indexes = new HashMap<>();
+			out.writeInt(rewired.size());
+			for (ModuleWiring wiring : rewired) {
+				writeDeltaWiring(wiring, out, objectTable, indexes);
+			}
+			out.flush();
+		}
+
+		private static void writeDeltaWiring(ModuleWiring wiring, DataOutputStream out,
+				Map<Object, Integer> objectTable, Map<Object, Integer> indexes) throws IOException {
+			writeModuleId(wiring.getRevision(), out);
+
+			List<ModuleCapability> capabilities = wiring.getModuleCapabilities(null);
+			out.writeInt(capabilities.size());
+			for (ModuleCapability capability : capabilities) {
+				writeIndex(capability, capability.getRevision(), out, indexes);
+			}
+
+			List<ModuleRequirement> requirements = wiring.getPersistentRequirements();
+			out.writeInt(requirements.size());
+			for (ModuleRequirement requirement : requirements) {
+				writeIndex(requirement, requirement.getRevision(), out, indexes);
+			}
+
+			writeDeltaWires(wiring.getPersistentProvidedWires(), out, indexes);
+			writeDeltaWires(wiring.getPersistentRequiredWires(), out, indexes);
+
+			Collection<String> substituted = wiring.getSubstitutedNames();
+			out.writeInt(substituted.size());
+			for (String pkgName : substituted) {
+				writeString(pkgName, out, objectTable);
+			}
+		}
+
+		private static void writeDeltaWires(List<ModuleWire> wires, DataOutputStream out, Map<Object, Integer> indexes)
+				throws IOException {
+			out.writeInt(wires.size());
+			for (ModuleWire wire : wires) {
+				writeIndex(wire.getCapability(), wire.getCapability().getRevision(), out, indexes);
+				writeModuleId(wire.getProvider(), out);
+				writeIndex(wire.getRequirement(), wire.getRequirement().getRevision(), out, indexes);
+				writeModuleId(wire.getRequirer(), out);
+			}
+		}
+
+		private static void writeModuleId(ModuleRevision revision, DataOutputStream out) throws IOException {
+			Module module = revision.getRevisions().getModule();
+			// no removal pending revisions exist when writing a delta
+			if (module.getCurrentRevision() != revision)
+				throw new IllegalStateException("Can only reference current revisions: " + revision); //$NON-NLS-1$
+			out.writeLong(module.getId());
+		}
+
+		private static void writeIndex(Object capabilityOrRequirement, ModuleRevision revision, DataOutputStream out,
+				Map<Object, Integer> indexes) throws IOException {
+			writeModuleId(revision, out);
+			Integer index = indexes.get(capabilityOrRequirement);
+			if (index == null) {
+				List<ModuleCapability> capabilities = revision.getModuleCapabilities(null);
+				for (int i = 0; i < capabilities.size(); i++) {
+					indexes.put(capabilities.get(i), i);
 				}
+				List<ModuleRequirement> requirements = revision.getModuleRequirements(null);
+				for (int i = 0; i < requirements.size(); i++) {
+					indexes.put(requirements.get(i), i);
+				}
+				index = indexes.get(capabilityOrRequirement);
+				if (index == null)
+					throw new NullPointerException("Could not find the expected indexes"); //$NON-NLS-1$
 			}
+			out.writeInt(index);
+		}
 
-			// now write all the info about each wiring using only indexes from the
-			// objectTable
-			for (ModuleWiring wiring : wirings.values()) {
-				writeWiring(wiring, out, objectTable);
+		private static ModuleRevision readModuleId(ModuleDatabase moduleDatabase, DataInputStream in)
+				throws IOException {
+			long id = in.readLong();
+			Module module = moduleDatabase.modulesById.get(id);
+			ModuleRevision current = module == null ? null : module.getCurrentRevision();
+			if (current == null) {
+				throw new IllegalArgumentException("No module found with id: " + id); //$NON-NLS-1$
 			}
+			return current;
+		}
 
-			out.flush();
+		private static ModuleWiring readDeltaWiring(ModuleDatabase moduleDatabase, DataInputStream in,
+				List<Object> objectTable) throws IOException {
+			ModuleRevision revision = readModuleId(moduleDatabase, in);
+
+			int numCapabilities = in.readInt();
+			NamespaceList.Builder<ModuleCapability> capabilities = Builder.create(NamespaceList.CAPABILITY);
+			for (int i = 0; i < numCapabilities; i++) {
+				capabilities.add(readModuleId(moduleDatabase, in).getModuleCapabilities(null).get(in.readInt()));
+			}
+
+			int numRequirements = in.readInt();
+			NamespaceList.Builder<ModuleRequirement> requirements = Builder.create(NamespaceList.REQUIREMENT);
+			for (int i = 0; i < numRequirements; i++) {
+				requirements.add(readModuleId(moduleDatabase, in).getModuleRequirements(null).get(in.readInt()));
+			}
+
+			NamespaceList<ModuleWire> providedWires = readDeltaWires(moduleDatabase, in);
+			NamespaceList<ModuleWire> requiredWires = readDeltaWires(moduleDatabase, in);
+
+			int numSubstitutedNames = in.readInt();
+			Collection<String> substituted = new ArrayList<>(numSubstitutedNames);
+			for (int i = 0; i < numSubstitutedNames; i++) {
+				substituted.add(readString(in, objectTable));
+			}
+
+			return new ModuleWiring(revision, capabilities.build(), requirements.build(), providedWires, requiredWires,
+					substituted);
+		}
+
+		private static NamespaceList<ModuleWire> readDeltaWires(ModuleDatabase moduleDatabase, DataInputStream in)
+				throws IOException {
+			int numWires = in.readInt();
+			NamespaceList.Builder<ModuleWire> wires = Builder.create(NamespaceList.WIRE);
+			for (int i = 0; i < numWires; i++) {
+				ModuleCapability capability = readModuleId(moduleDatabase, in).getModuleCapabilities(null)
+						.get(in.readInt());
+				ModuleRevision provider = readModuleId(moduleDatabase, in);
+				ModuleRequirement requirement = readModuleId(moduleDatabase, in).getModuleRequirements(null)
+						.get(in.readInt());
+				ModuleRevision requirer = readModuleId(moduleDatabase, in);
+				wires.add(new ModuleWire(capability, provider, requirement, requirer));
+			}
+			return wires.build();
+		}
+
+		/**
+		 * Replaces the wires read from a delta with the wire shared by the provider
+		 * and requirer wiring, the wire of a wiring not contained in the delta is
+		 * used if it exists.
+		 */
+		private static NamespaceList<ModuleWire> shareWires(NamespaceList<ModuleWire> readWires, boolean provided,
+				Map<ModuleRevision, ModuleWiring> rewired, Map<List<Object>, ModuleWire> shared,
+				ModuleDatabase moduleDatabase) {
+			NamespaceList.Builder<ModuleWire> wires = Builder.create(NamespaceList.WIRE);
+			for (ModuleWire wire : readWires.getList(null)) {
+				List<Object> key = Arrays.<Object> asList(wire.getCapability(), wire.getProvider(),
+						wire.getRequirement(), wire.getRequirer());
+				ModuleWire sharedWire = shared.get(key);
+				if (sharedWire == null) {
+					// the other end is either read from the delta as well or kept its wiring
+					ModuleRevision other = provided ? wire.getRequirer() : wire.getProvider();
+					ModuleWiring otherWiring = rewired.containsKey(other) ? null : moduleDatabase.wirings.get(other);
+					if (otherWiring != null) {
+						List<ModuleWire> otherWires = provided ? otherWiring.getRequiredModuleWires(null)
+								: otherWiring.getProvidedModuleWires(null);
+						for (ModuleWire otherWire : otherWires) {
+							if (key.equals(Arrays.<Object> asList(otherWire.getCapability(), otherWire.getProvider(),
+									otherWire.getRequirement(), otherWire.getRequirer()))) {
+								sharedWire = otherWire;
+								break;
+							}
+						}
+					}
+					if (sharedWire == null) {
+						sharedWire = wire;
+					}
+					shared.put(key, sharedWire);
+				}
+				wires.add(sharedWire);
+			}
+			return wires.build();
+		}
+
+		private static void writeIds(Collection<Long> ids, DataOutputStream out) throws IOException {
+			out.writeInt(ids.size());
+			for (Long id : ids) {
+				out.writeLong(id);
+			}
+		}
+
+		private static List<Long> readIds(DataInputStream in) throws IOException {
+			int num = in.readInt();
+			List<Long> ids = new ArrayList<>(num);
+			for (int i = 0; i < num; i++) {
+				ids.add(in.readLong());
+			}
+			return ids;
+		}
+
+		public static void loadDelta(ModuleDatabase moduleDatabase, DataInputStream in) throws IOException {
+			int version = in.readInt();
+			if (version > VERSION || VERSION / 1000 != version / 1000)
+				throw new IllegalArgumentException("The version of the persistent framework data is not compatible: " //$NON-NLS-1$
+						+ version + " expecting: " + VERSION); //$NON-NLS-1$
+			long revisionsTimeStamp = in.readLong();
+			long allTimeStamp = in.readLong();
+			long nextId = in.readLong();
+			int initialModuleStartLevel = in.readInt();
+
+			List<Long> removed = readIds(in);
+			List<Long> unresolved = readIds(in);
+			// first unresolve the removed and unresolved modules along with their dependents
+			Collection<ModuleRevision> toUnresolve = new HashSet<>();
+			for (List<Long> ids : Arrays.asList(removed, unresolved)) {
+				for (Long id : ids) {
+					Module module = moduleDatabase.modulesById.get(id);
+					ModuleRevision current = module == null ? null : module.getCurrentRevision();
+					if (current != null && moduleDatabase.wirings.containsKey(current)) {
+						toUnresolve.addAll(ModuleContainer.getDependencyClosure(current, moduleDatabase.wirings));
+					}
+				}
+			}
+			moduleDatabase.unresolve(toUnresolve);
+			for (Long id : removed) {
+				Module module = moduleDatabase.modulesById.get(id);
+				if (module != null) {
+					moduleDatabase.remove(module);
+				}
+			}
+
+			List<Object> objectTable = new ArrayList<>();
+			readObjectTable(in, objectTable);
+			int numModules = in.readInt();
+			ModuleRevisionBuilder builder = new ModuleRevisionBuilder();
+			for (int i = 0; i < numModules; i++) {
+				readModule(builder, moduleDatabase, in, objectTable, version);
+			}
+
+			int numChanged = in.readInt();
+			for (int i = 0; i < numChanged; i++) {
+				long id = in.readLong();
+				EnumSet<Settings> settings = null;
+				int numSettings = in.readInt();
+				if (numSettings > 0) {
+					settings = EnumSet.noneOf(Settings.class);
+					for (int j = 0; j < numSettings; j++) {
+						settings.add(Settings.valueOf(readString(in, objectTable)));
+					}
+				}
+				int startlevel = in.readInt();
+				long lastModified = in.readLong();
+				Module module = moduleDatabase.modulesById.get(id);
+				if (module == null) {
+					throw new IllegalArgumentException("No module found with id: " + id); //$NON-NLS-1$
+				}
+				if (settings == null) {
+					moduleDatabase.moduleSettings.remove(id);
+				} else {
+					moduleDatabase.moduleSettings.put(id, settings);
+				}
+				if (id != 0) {
+					// like load the settings of the system module are not changed
+					module.storeSettings(settings);
+				}
+				module.storeStartLevel(startlevel);
+				module.setlastModified(lastModified);
+			}
+
+			int numWirings = in.readInt();
+			Map<ModuleRevision, ModuleWiring> rewired = new HashMap<>();
+			for (int i = 0; i < numWirings; i++) {
+				ModuleWiring wiring = readDeltaWiring(moduleDatabase, in, objectTable);
+				rewired.put(wiring.getRevision(), wiring);
+			}
+			Map<List<Object>, ModuleWire> shared = new HashMap<>();
+			for (ModuleWiring wiring : rewired.values()) {
+				wiring.setProvidedWires(shareWires(wiring.getProvidedWires(), true, rewired, shared, moduleDatabase));
+				wiring.setRequiredWires(shareWires(wiring.getRequiredWires(), false, rewired, shared, moduleDatabase));
+			}
+			for (ModuleWiring wiring : rewired.values()) {
+				moduleDatabase.wirings.put(wiring.getRevision(), wiring);
+				wiring.getRevision().getRevisions().getModule().setState(State.RESOLVED);
+			}
+
+			moduleDatabase.nextId.set(nextId);
+			moduleDatabase.initialModuleStartLevel = initialModuleStartLevel;
+			moduleDatabase.revisionsTimeStamp.set(revisionsTimeStamp);
+			moduleDatabase.allTimeStamp.set(allTimeStamp);
 		}
 
 		private static void getStringsVersionsAndMaps(Module module, ModuleDatabase moduleDatabase,
@@ -1215,18 +1867,7 @@ public class ModuleDatabase {
 			List<Object> objectTable = new ArrayList<>();
 
 			if (version >= 2) {
-				int numStrings = in.readInt();
-				for (int i = 0; i < numStrings; i++) {
-					readIndexedString(in, objectTable);
-				}
-				int numVersions = in.readInt();
-				for (int i = 0; i < numVersions; i++) {
-					readIndexedVersion(in, objectTable);
-				}
-				int numMaps = in.readInt();
-				for (int i = 0; i < numMaps; i++) {
-					readIndexedMap(in, objectTable);
-				}
+				readObjectTable(in, objectTable);
 			}
 			int numModules = in.readInt();
 			ModuleRevisionBuilder builder = new ModuleRevisionBuilder();
@@ -1239,20 +1880,31 @@ public class ModuleDatabase {
 			if (!in.readBoolean())
 				return; // no wires persisted
 
-			int numWirings = in.readInt();
-			// prime the table with all the required wires
-			for (int i = 0; i < numWirings; i++) {
-				int numWires = in.readInt();
-				for (int j = 0; j < numWires; j++) {
-					readWire(in, objectTable);
+			Map<ModuleRevision, ModuleWiring> wirings;
+			if (version >= 4) {
+				// the wirings are only decoded from the image when used
+				byte[] image = new byte[in.readInt()];
+				in.readFully(image);
+				wirings = new PersistentWirings(ByteBuffer.wrap(image).asIntBuffer(), objectTable).createWirings();
+				if (version >= 5) {
+					readResolvedPackages(moduleDatabase, wirings, objectTable, in);
+				}
+			} else {
+				int numWirings = in.readInt();
+				// prime the table with all the required wires
+				for (int i = 0; i < numWirings; i++) {
+					int numWires = in.readInt();
+					for (int j = 0; j < numWires; j++) {
+						readWire(in, objectTable);
+					}
 				}
-			}
 
-			// now read all the info about each wiring using only indexes
-			Map<ModuleRevision, ModuleWiring> wirings = new HashMap<>();
-			for (int i = 0; i < numWirings; i++) {
-				ModuleWiring wiring = readWiring(in, objectTable);
-				wirings.put(wiring.getRevision(), wiring);
+				// now read all the info about each wiring using only indexes
+				wirings = new HashMap<>();
+				for (int i = 0; i < numWirings; i++) {
+					ModuleWiring wiring = readWiring(in, objectTable);
+					wirings.put(wiring.getRevision(), wiring);
+				}
 			}
 			// TODO need to do this without incrementing the timestamp
 			moduleDatabase.setWiring(wirings);
@@ -1380,8 +2032,6 @@ public class ModuleDatabase {
 			if (capability == null || provider == null || requirement == null || requirer == null)
 				throw new NullPointerException("Could not find the expected indexes"); //$NON-NLS-1$
 
-			out.writeInt(addToWriteTable(wire, objectTable));
-
 			out.writeInt(capability);
 			out.writeInt(provider);
 			out.writeInt(requirement);
@@ -1404,8 +2054,8 @@ public class ModuleDatabase {
 			addToReadTable(result, wireIndex, objectTable);
 		}
 
-		private static void writeWiring(ModuleWiring wiring, DataOutputStream out, Map<Object, Integer> objectTable)
-				throws IOException {
+		private static void writeWiring(ModuleWiring wiring, DataOutputStream out, Map<Object, Integer> objectTable,
+				Map<ModuleWire, Integer> wireTable) throws IOException {
 			Integer revisionIndex = objectTable.get(wiring.getRevision());
 			if (revisionIndex == null)
 				throw new NullPointerException("Could not find revision for wiring."); //$NON-NLS-1$
@@ -1432,7 +2082,7 @@ public class ModuleDatabase {
 			List<ModuleWire> providedWires = wiring.getPersistentProvidedWires();
 			out.writeInt(providedWires.size());
 			for (ModuleWire wire : providedWires) {
-				Integer wireIndex = objectTable.get(wire);
+				Integer wireIndex = wireTable.get(wire);
 				if (wireIndex == null)
 					throw new NullPointerException("Could not find provided wire for wiring."); //$NON-NLS-1$
 				out.writeInt(wireIndex);
@@ -1441,7 +2091,7 @@ public class ModuleDatabase {
 			List<ModuleWire> requiredWires = wiring.getPersistentRequiredWires();
 			out.writeInt(requiredWires.size());
 			for (ModuleWire wire : requiredWires) {
-				Integer wireIndex = objectTable.get(wire);
+				Integer wireIndex = wireTable.get(wire);
 				if (wireIndex == null)
 					throw new NullPointerException("Could not find required wire for wiring."); //$NON-NLS-1$
 				out.writeInt(wireIndex);
@@ -1450,7 +2100,10 @@ public class ModuleDatabase {
 			Collection<String> substituted = wiring.getSubstitutedNames();
 			out.writeInt(substituted.size());
 			for (String pkgName : substituted) {
-				writeString(pkgName, out, objectTable);
+				Integer stringIndex = objectTable.get(pkgName);
+				if (stringIndex == null)
+					throw new NullPointerException("Could not find substituted package for wiring."); //$NON-NLS-1$
+				out.writeInt(stringIndex);
 			}
 		}
 
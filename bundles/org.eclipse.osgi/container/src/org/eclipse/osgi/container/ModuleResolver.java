@@ -43,6 +43,7 @@ import org.apache.felix.resolver.ResolverImpl;
 import org.eclipse.osgi.container.ModuleRequirement.DynamicModuleRequirement;
 import org.eclipse.osgi.container.namespaces.EquinoxFragmentNamespace;
 import org.eclipse.osgi.internal.container.InternalUtils;
+import org.eclipse.osgi.internal.container.ResolvedPackageSpaces;
 import org.eclipse.osgi.internal.container.NamespaceList;
 import org.eclipse.osgi.internal.debug.Debug;
 import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
@@ -102,6 +103,15 @@ final class ModuleResolver {
 	private static final int DEFAULT_BATCH_TIMEOUT = (int) TimeUnit.MINUTES.toMillis(2);
 	final int resolverRevisionBatchSize;
 	final int resolverBatchTimeout;
+	final int resolverParallelGranularity;
+	/*
+	 * The package spaces the resolver calculated for resolved revisions. They are
+	 * reused by later resolve processes so that only the package spaces of the
+	 * revisions with a changed wiring are calculated again. Owned by the module
+	 * database which persists them. Null if the package spaces are calculated for
+	 * each resolve process.
+	 */
+	private final ResolvedPackageSpaces resolvedPackages;
 
 	void setDebugOptions() {
 		DebugOptions options = adaptor.getDebugOptions();
@@ -130,9 +140,11 @@ final class ModuleResolver {
 	 * Constructs the module resolver with the specified resolver hook factory and
 	 * resolver.
 	 * 
-	 * @param adaptor the container adaptor
+	 * @param adaptor          the container adaptor
+	 * @param resolvedPackages the package spaces calculated for resolved revisions
+	 *                         or null
 	 */
-	ModuleResolver(final ModuleContainerAdaptor adaptor) {
+	ModuleResolver(final ModuleContainerAdaptor adaptor, ResolvedPackageSpaces resolvedPackages) {
 		this.adaptor = adaptor;
 
 		setDebugOptions();
@@ -141,7 +153,9 @@ final class ModuleResolver {
 		this.resolverRevisionBatchSize = parseInteger(batchSizeConfig, DEFAULT_BATCH_SIZE, 1);
 		String batchTimeoutConfig = this.adaptor.getProperty(EquinoxConfiguration.PROP_RESOLVER_BATCH_TIMEOUT);
 		this.resolverBatchTimeout = parseInteger(batchTimeoutConfig, DEFAULT_BATCH_TIMEOUT, BATCH_MIN_TIMEOUT);
-
+		String granularityConfig = this.adaptor.getProperty(EquinoxConfiguration.PROP_RESOLVER_PARALLEL_GRANULARITY);
+		this.resolverParallelGranularity = parseInteger(granularityConfig, ResolverImpl.DEFAULT_GRANULARITY, 1);
+		this.resolvedPackages = resolvedPackages;
 	}
 
 	private static int parseInteger(String sInteger, int defaultValue, int minValue) {
@@ -153,6 +167,26 @@ final class ModuleResolver {
 		}
 	}
 
+	/**
+	 * Discards the package spaces calculated for resolved revisions if the
+	 * capabilities of a resolved wiring are about to change, for example because
+	 * a fragment is attached to a resolved host. The package space of a revision
+	 * is only reused while its own wiring is unchanged but the package spaces of
+	 * the revisions requiring the updated wiring depend on its capabilities.
+	 *
+	 * @param current the resolved wiring
+	 * @param update  the wiring with the new content
+	 * @return true if the capabilities change
+	 */
+	boolean updateWiring(ModuleWiring current, ModuleWiring update) {
+		if (resolvedPackages == null || current == update
+				|| current.getCapabilities().getList(null).equals(update.getCapabilities().getList(null))) {
+			return false;
+		}
+		resolvedPackages.clear();
+		return true;
+	}
+
 	/**
 	 * Attempts to resolve all unresolved modules installed in the specified module
 	 * database. returns a delta containing the new wirings or modified wirings that
@@ -542,6 +576,12 @@ final class ModuleResolver {
 		private final Set<Resource> transitivelyResolveFailures = new LinkedHashSet<>();
 		private final Set<Resource> failedToResolve = new HashSet<>();
 		private AtomicBoolean scheduleTimeout = new AtomicBoolean(true);
+		/*
+		 * False once the capabilities of a resolved wiring changed in the copy of the
+		 * wirings; the package spaces calculated from the copy must not be reused
+		 * because the change may never be applied to the module database.
+		 */
+		private boolean reuseResolvedPackages = true;
 		private AtomicReference<ScheduledFuture<?>> timoutFuture = new AtomicReference<>();
 		/*
 		 * Used to generate the UNRESOLVED_PROVIDER resolution report entries.
@@ -957,6 +997,7 @@ final class ModuleResolver {
 					if (f != null) {
 						f.cancel(true);
 					}
+					discardUnresolvedPackages();
 					computeUnresolvedProviderResolutionReportEntries(result);
 					computeUsesConstraintViolations(logger.getUsesConstraintViolations());
 					if (DEBUG_WIRING) {
@@ -985,6 +1026,13 @@ final class ModuleResolver {
 			}
 		}
 
+		private void discardUnresolvedPackages() {
+			if (resolvedPackages != null) {
+				// the package spaces of revisions which are no longer resolved are never used again
+				resolvedPackages.retainAll(wirings.keySet());
+			}
+		}
+
 		private void printWirings(Map<Resource, List<Wire>> wires) {
 			StringBuilder builder = new StringBuilder("RESOLVER: Wirings for resolved bundles:"); //$NON-NLS-1$
 			if (wires == null) {
@@ -1081,7 +1129,8 @@ final class ModuleResolver {
 			Map<Resource, List<Wire>> interimResults = null;
 			try {
 				transitivelyResolveFailures.addAll(revisions);
-				interimResults = new ResolverImpl(logger, this).resolve(this);
+				interimResults = new ResolverImpl(logger, this, reuseResolvedPackages ? resolvedPackages : null,
+						resolverParallelGranularity).resolve(this);
 				applyInterimResultToWiringCopy(interimResults);
 				if (DEBUG_ROOTS) {
 					Debug.println("Resolver: resolved " + interimResults.size() + " bundles."); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1127,7 +1176,10 @@ final class ModuleResolver {
 				// update the copy of wirings to include interim results
 				Map<ModuleRevision, ModuleWiring> updatedWirings = generateDelta(interimResult, wirings);
 				for (Map.Entry<ModuleRevision, ModuleWiring> updatedWiring : updatedWirings.entrySet()) {
-					wirings.put(updatedWiring.getKey(), updatedWiring.getValue());
+					ModuleWiring previous = wirings.put(updatedWiring.getKey(), updatedWiring.getValue());
+					if (previous != null && updateWiring(previous, updatedWiring.getValue())) {
+						reuseResolvedPackages = false;
+					}
 				}
 			}
 		}
@@ -1379,8 +1431,8 @@ final class ModuleResolver {
 		}
 
 		private Map<Resource, List<Wire>> resolveDynamic() throws ResolutionException {
-			return new ResolverImpl(new Logger(0), null).resolveDynamic(this, wirings.get(dynamicReq.getResource()),
-					dynamicReq.getOriginal());
+			return new ResolverImpl(new Logger(0), null, reuseResolvedPackages ? resolvedPackages : null)
+					.resolveDynamic(this, wirings.get(dynamicReq.getResource()), dynamicReq.getOriginal());
 		}
 
 		private void filterResolvable() {
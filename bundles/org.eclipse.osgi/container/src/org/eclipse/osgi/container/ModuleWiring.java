@@ -71,6 +71,13 @@ public final class ModuleWiring implements BundleWiring {
 	private volatile NamespaceList<ModuleWire> requiredWires;
 	volatile boolean isValid = true;
 	private final AtomicReference<Set<String>> dynamicMissRef = new AtomicReference<>();
+	// the persistent wirings to load the capabilities, requirements and wires from;
+	// null once they are loaded
+	private volatile PersistentWirings persistent;
+	private final int persistentOffset;
+	// incremented each time the capabilities, requirements or wires are replaced;
+	// only modified while holding the database write lock
+	private volatile int changeCount;
 
 	ModuleWiring(ModuleRevision revision, NamespaceList<ModuleCapability> capabilities,
 			NamespaceList<ModuleRequirement> requirements, NamespaceList<ModuleWire> providedWires,
@@ -82,6 +89,60 @@ public final class ModuleWiring implements BundleWiring {
 		this.providedWires = providedWires;
 		this.requiredWires = requiredWires;
 		this.substitutedPkgNames = substitutedPkgNames.isEmpty() ? Collections.emptyList() : substitutedPkgNames;
+		this.persistentOffset = -1;
+	}
+
+	ModuleWiring(ModuleRevision revision, PersistentWirings persistent, int persistentOffset,
+			Collection<String> substitutedPkgNames) {
+		super();
+		this.revision = revision;
+		this.substitutedPkgNames = substitutedPkgNames.isEmpty() ? Collections.emptyList() : substitutedPkgNames;
+		this.persistent = persistent;
+		this.persistentOffset = persistentOffset;
+	}
+
+	/**
+	 * Returns a copy of this wiring with the same capabilities, requirements, wires
+	 * and substituted package names. If this wiring has not been loaded from the
+	 * persistent wirings yet then the copy is loaded from them when used.
+	 */
+	ModuleWiring copy() {
+		PersistentWirings current = persistent;
+		if (current != null) {
+			return new ModuleWiring(revision, current, persistentOffset, substitutedPkgNames);
+		}
+		return new ModuleWiring(revision, capabilities, requirements, providedWires, requiredWires,
+				substitutedPkgNames);
+	}
+
+	/**
+	 * Returns the number of times the capabilities, requirements or wires of this
+	 * wiring have been replaced since it was created.
+	 */
+	int getChangeCount() {
+		return changeCount;
+	}
+
+	boolean isPersistent() {
+		return persistent != null;
+	}
+
+	private void load() {
+		PersistentWirings current = persistent;
+		if (current != null) {
+			current.load(this, persistentOffset);
+		}
+	}
+
+	void loaded(NamespaceList<ModuleCapability> loadedCapabilities,
+			NamespaceList<ModuleRequirement> loadedRequirements, NamespaceList<ModuleWire> loadedProvidedWires,
+			NamespaceList<ModuleWire> loadedRequiredWires) {
+		this.capabilities = loadedCapabilities;
+		this.requirements = loadedRequirements;
+		this.providedWires = loadedProvidedWires;
+		this.requiredWires = loadedRequiredWires;
+		// must be cleared last to publish the loaded values
+		this.persistent = null;
 	}
 
 	@Override
@@ -96,7 +157,7 @@ public final class ModuleWiring implements BundleWiring {
 
 	@Override
 	public boolean isInUse() {
-		return isCurrent() || !providedWires.isEmpty() || isFragmentInUse();
+		return isCurrent() || !getProvidedWires().isEmpty() || isFragmentInUse();
 	}
 
 	private boolean isFragmentInUse() {
@@ -121,7 +182,7 @@ public final class ModuleWiring implements BundleWiring {
 		if (!isValid) {
 			return null;
 		}
-		return capabilities.getList(namespace);
+		return getCapabilities().getList(namespace);
 	}
 
 	/**
@@ -136,14 +197,14 @@ public final class ModuleWiring implements BundleWiring {
 		if (!isValid) {
 			return null;
 		}
-		return requirements.getList(namespace);
+		return getRequirements().getList(namespace);
 	}
 
 	List<ModuleRequirement> getPersistentRequirements() {
 		if (!isValid) {
 			return null;
 		}
-		List<ModuleRequirement> persistentRequriements = new ArrayList<>(requirements.getList(null));
+		List<ModuleRequirement> persistentRequriements = new ArrayList<>(getRequirements().getList(null));
 		for (Iterator<ModuleRequirement> iRequirements = persistentRequriements.iterator(); iRequirements.hasNext();) {
 			ModuleRequirement requirement = iRequirements.next();
 			if (PackageNamespace.PACKAGE_NAMESPACE.equals(requirement.getNamespace())) {
@@ -175,11 +236,11 @@ public final class ModuleWiring implements BundleWiring {
 	 * @see #getProvidedWires(String)
 	 */
 	public List<ModuleWire> getProvidedModuleWires(String namespace) {
-		return getWires(namespace, providedWires);
+		return getWires(namespace, getProvidedWires());
 	}
 
 	List<ModuleWire> getPersistentProvidedWires() {
-		return getPersistentWires(providedWires);
+		return getPersistentWires(getProvidedWires());
 	}
 
 	/**
@@ -191,11 +252,11 @@ public final class ModuleWiring implements BundleWiring {
 	 * @see #getRequiredWires(String)
 	 */
 	public List<ModuleWire> getRequiredModuleWires(String namespace) {
-		return getWires(namespace, requiredWires);
+		return getWires(namespace, getRequiredWires());
 	}
 
 	List<ModuleWire> getPersistentRequiredWires() {
-		return getPersistentWires(requiredWires);
+		return getPersistentWires(getRequiredWires());
 	}
 
 	private List<ModuleWire> getPersistentWires(NamespaceList<ModuleWire> allWires) {
@@ -216,12 +277,12 @@ public final class ModuleWiring implements BundleWiring {
 
 	@Override
 	public List<BundleWire> getProvidedWires(String namespace) {
-		return asCopy(getWires(namespace, providedWires));
+		return asCopy(getWires(namespace, getProvidedWires()));
 	}
 
 	@Override
 	public List<BundleWire> getRequiredWires(String namespace) {
-		return asCopy(getWires(namespace, requiredWires));
+		return asCopy(getWires(namespace, getRequiredWires()));
 	}
 
 	private List<ModuleWire> getWires(String namespace, NamespaceList<ModuleWire> wires) {
@@ -314,12 +375,12 @@ public final class ModuleWiring implements BundleWiring {
 
 	@Override
 	public List<Wire> getProvidedResourceWires(String namespace) {
-		return asCopy(getWires(namespace, providedWires));
+		return asCopy(getWires(namespace, getProvidedWires()));
 	}
 
 	@Override
 	public List<Wire> getRequiredResourceWires(String namespace) {
-		return asCopy(getWires(namespace, requiredWires));
+		return asCopy(getWires(namespace, getRequiredWires()));
 	}
 
 	@Override
@@ -328,19 +389,27 @@ public final class ModuleWiring implements BundleWiring {
 	}
 
 	void setProvidedWires(NamespaceList<ModuleWire> providedWires) {
+		load();
 		this.providedWires = providedWires;
+		changeCount++;
 	}
 
 	void setRequiredWires(NamespaceList<ModuleWire> requiredWires) {
+		load();
 		this.requiredWires = requiredWires;
+		changeCount++;
 	}
 
 	void setCapabilities(NamespaceList<ModuleCapability> capabilities) {
+		load();
 		this.capabilities = capabilities;
+		changeCount++;
 	}
 
 	void setRequirements(NamespaceList<ModuleRequirement> requirements) {
+		load();
 		this.requirements = requirements;
+		changeCount++;
 	}
 
 	void unload() {
@@ -433,7 +502,7 @@ public final class ModuleWiring implements BundleWiring {
 		// This is necessary to make sure any in flight resolve operations are using the
 		// latest wiring data and avoids them overwriting the requirements incorrectly.
 		moduleDatabase.writeLockOperation(true, () -> {
-			NamespaceList.Builder<ModuleRequirement> requirmentsBuilder = requirements.createBuilder();
+			NamespaceList.Builder<ModuleRequirement> requirmentsBuilder = getRequirements().createBuilder();
 			requirmentsBuilder.addAll(newRequirements);
 			requirements = requirmentsBuilder.build();
 			// clear out miss cache when adding new dynamic imports.
@@ -480,7 +549,7 @@ public final class ModuleWiring implements BundleWiring {
 		// Could cache this, but seems unnecessary since it will only be used by the
 		// resolver
 		List<Wire> substitutionWires = new ArrayList<>(substitutedPkgNames.size());
-		List<ModuleWire> current = requiredWires.getList(PackageNamespace.PACKAGE_NAMESPACE);
+		List<ModuleWire> current = getRequiredWires().getList(PackageNamespace.PACKAGE_NAMESPACE);
 		for (ModuleWire wire : current) {
 			Capability cap = wire.getCapability();
 			if (substitutedPkgNames.contains(cap.getAttributes().get(PackageNamespace.PACKAGE_NAMESPACE))) {
@@ -491,18 +560,22 @@ public final class ModuleWiring implements BundleWiring {
 	}
 
 	NamespaceList<ModuleCapability> getCapabilities() {
+		load();
 		return capabilities;
 	}
 
 	NamespaceList<ModuleWire> getProvidedWires() {
+		load();
 		return providedWires;
 	}
 
 	NamespaceList<ModuleRequirement> getRequirements() {
+		load();
 		return requirements;
 	}
 
 	NamespaceList<ModuleWire> getRequiredWires() {
+		load();
 		return requiredWires;
 	}
 }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.container;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.osgi.internal.container.NamespaceList;
+import org.eclipse.osgi.internal.container.NamespaceList.Builder;
+
+/**
+ * The wirings read from the persistent data of a {@link ModuleDatabase}. The
+ * wirings are kept as an image of indexes into the object table of the
+ * persistent data. A {@link ModuleWiring} created from the image only decodes
+ * its capabilities, requirements and wires the first time they are used.
+ * <p>
+ * The image starts with the number of wires followed by the capability,
+ * provider, requirement and requirer index of each wire. The wires are followed
+ * by a record for each wiring with the index of the revision, the number and
+ * indexes of the capabilities, the requirements, the provided wires, the
+ * required wires and the substituted package names.
+ */
+final class PersistentWirings {
+	private final IntBuffer image;
+	private final List<Object> objectTable;
+	/* @GuardedBy("this") */
+	private final ModuleWire[] wires;
+
+	PersistentWirings(IntBuffer image, List<Object> objectTable) {
+		this.image = image;
+		this.objectTable = objectTable;
+		int numWires = image.get(0);
+		if (numWires < 0 || 1 + numWires * 4L > image.limit())
+			throw new IllegalArgumentException("Invalid number of wires: " + numWires); //$NON-NLS-1$
+		this.wires = new ModuleWire[numWires];
+	}
+
+	/**
+	 * Creates the wirings of the image. Only the revision and the substituted
+	 * package names of each wiring are decoded. All the indexes of the image are
+	 * checked so that invalid data is detected while loading instead of when a
+	 * wiring is used.
+	 *
+	 * @return the wirings keyed by their revision
+	 */
+	Map<ModuleRevision, ModuleWiring> createWirings() {
+		for (int i = 0; i < wires.length; i++) {
+			int offset = 1 + i * 4;
+			checkObject(image.get(offset), ModuleCapability.class);
+			checkObject(image.get(offset + 1), ModuleRevision.class);
+			checkObject(image.get(offset + 2), ModuleRequirement.class);
+			checkObject(image.get(offset + 3), ModuleRevision.class);
+		}
+		Map<ModuleRevision, ModuleWiring> wirings = new HashMap<>();
+		int offset = 1 + wires.length * 4;
+		while (offset < image.limit()) {
+			int start = offset;
+			ModuleRevision revision = checkObject(image.get(offset++), ModuleRevision.class);
+			offset = checkObjects(offset, ModuleCapability.class);
+			offset = checkObjects(offset, ModuleRequirement.class);
+			offset = checkWires(offset);
+			offset = checkWires(offset);
+			int numSubstituted = image.get(offset++);
+			Collection<String> substituted = new ArrayList<>(numSubstituted);
+			for (int i = 0; i < numSubstituted; i++) {
+				substituted.add(checkObject(image.get(offset++), String.class));
+			}
+			wirings.put(revision, new ModuleWiring(revision, this, start, substituted));
+		}
+		return wirings;
+	}
+
+	private <T> T checkObject(int index, Class<T> type) {
+		Object object = index < 0 || index >= objectTable.size() ? null : objectTable.get(index);
+		if (!type.isInstance(object))
+			throw new NullPointerException("Could not find the expected indexes"); //$NON-NLS-1$
+		return type.cast(object);
+	}
+
+	private int checkObjects(int offset, Class<?> type) {
+		int num = image.get(offset++);
+		for (int i = 0; i < num; i++) {
+			checkObject(image.get(offset++), type);
+		}
+		return offset;
+	}
+
+	private int checkWires(int offset) {
+		int num = image.get(offset++);
+		for (int i = 0; i < num; i++) {
+			int index = image.get(offset++);
+			if (index < 0 || index >= wires.length)
+				throw new NullPointerException("Could not find the expected indexes"); //$NON-NLS-1$
+		}
+		return offset;
+	}
+
+	/**
+	 * Decodes the capabilities, requirements and wires of the wiring with the
+	 * record at the specified offset of the image. Wires are shared by all the
+	 * wirings decoded from the image.
+	 *
+	 * @param wiring the wiring to decode
+	 * @param offset the offset of the record of the wiring
+	 */
+	synchronized void load(ModuleWiring wiring, int offset) {
+		if (!wiring.isPersistent()) {
+			// already loaded by another thread
+			return;
+		}
+		int index = offset + 1;
+		NamespaceList.Builder<ModuleCapability> capabilities = Builder.create(NamespaceList.CAPABILITY);
+		int numCapabilities = image.get(index++);
+		for (int i = 0; i < numCapabilities; i++) {
+			capabilities.add((ModuleCapability) objectTable.get(image.get(index++)));
+		}
+
+		NamespaceList.Builder<ModuleRequirement> requirements = Builder.create(NamespaceList.REQUIREMENT);
+		int numRequirements = image.get(index++);
+		for (int i = 0; i < numRequirements; i++) {
+			requirements.add((ModuleRequirement) objectTable.get(image.get(index++)));
+		}
+
+		NamespaceList.Builder<ModuleWire> providedWires = Builder.create(NamespaceList.WIRE);
+		int numProvidedWires = image.get(index++);
+		for (int i = 0; i < numProvidedWires; i++) {
+			providedWires.add(getWire(image.get(index++)));
+		}
+
+		NamespaceList.Builder<ModuleWire> requiredWires = Builder.create(NamespaceList.WIRE);
+		int numRequiredWires = image.get(index++);
+		for (int i = 0; i < numRequiredWires; i++) {
+			requiredWires.add(getWire(image.get(index++)));
+		}
+
+		wiring.loaded(capabilities.build(), requirements.build(), providedWires.build(), requiredWires.build());
+	}
+
+	private ModuleWire getWire(int index) {
+		ModuleWire wire = wires[index];
+		if (wire == null) {
+			int offset = 1 + index * 4;
+			wire = new ModuleWire((ModuleCapability) objectTable.get(image.get(offset)),
+					(ModuleRevision) objectTable.get(image.get(offset + 1)),
+					(ModuleRequirement) objectTable.get(image.get(offset + 2)),
+					(ModuleRevision) objectTable.get(image.get(offset + 3)));
+			wires[index] = wire;
+		}
+		return wire;
+	}
+}
@@ -17,11 +17,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.eclipse.osgi.container.ModuleCapability;
@@ -30,6 +35,8 @@ import org.eclipse.osgi.internal.framework.FilterImpl;
 import org.eclipse.osgi.util.ManifestElement;
 import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.Version;
+import org.osgi.framework.VersionRange;
 import org.osgi.framework.namespace.AbstractWiringNamespace;
 import org.osgi.framework.namespace.BundleNamespace;
 import org.osgi.framework.namespace.HostNamespace;
@@ -39,12 +46,25 @@ import org.osgi.resource.Namespace;
 import org.osgi.resource.Requirement;
 
 public class Capabilities {
+	/**
+	 * The number of candidates a requirement must have before the secondary
+	 * attribute indexes are used to narrow them down.
+	 */
+	static final int ATTRIBUTE_INDEX_THRESHOLD = 16;
+
 	static class NamespaceSet {
 		private final String name;
 		private final Map<String, Set<ModuleCapability>> indexes = new HashMap<>();
 		private final Set<ModuleCapability> all = new HashSet<>();
 		private final Set<ModuleCapability> nonStringIndexes = new HashSet<>(0);
 		private final boolean matchMandatory;
+		/*
+		 * Secondary indexes of the attributes other than the namespace attribute. An
+		 * index is created the first time a requirement with many candidates filters
+		 * on the attribute. Lookups are done while holding the read lock of the
+		 * database so the indexes may be created concurrently.
+		 */
+		private final Map<String, AttributeIndex> attributeIndexes = new ConcurrentHashMap<>(0);
 
 		NamespaceSet(String name) {
 			this.name = name;
@@ -58,6 +78,9 @@ public class Capabilities {
 						"Invalid namespace: " + capability.getNamespace() + ": expecting: " + name); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 			all.add(capability);
+			for (AttributeIndex attributeIndex : attributeIndexes.values()) {
+				attributeIndex.add(capability);
+			}
 			// by convention we index by the namespace attribute
 			Object index = capability.getAttributes().get(name);
 			if (index == null) {
@@ -97,6 +120,14 @@ public class Capabilities {
 						"Invalid namespace: " + capability.getNamespace() + ": expecting: " + name); //$NON-NLS-1$//$NON-NLS-2$
 			}
 			all.remove(capability);
+			for (Iterator<AttributeIndex> iterator = attributeIndexes.values().iterator(); iterator.hasNext();) {
+				AttributeIndex attributeIndex = iterator.next();
+				attributeIndex.remove(capability);
+				if (attributeIndex.isEmpty()) {
+					// created again by the next lookup that needs it
+					iterator.remove();
+				}
+			}
 			// by convention we index by the namespace attribute
 			Object index = capability.getAttributes().get(name);
 			if (index == null) {
@@ -122,8 +153,8 @@ public class Capabilities {
 				nonStringIndexes.remove(capability);
 			} else {
 				Set<ModuleCapability> capabilities = indexes.get(indexKey);
-				if (capabilities != null) {
-					capabilities.remove(capability);
+				if (capabilities != null && capabilities.remove(capability) && capabilities.isEmpty()) {
+					indexes.remove(indexKey);
 				}
 			}
 		}
@@ -151,13 +182,13 @@ public class Capabilities {
 			} else {
 				String indexKey = f.getPrimaryKeyValue(name);
 				if (indexKey == null) {
-					result = match(f, all, synthetic);
+					result = matchIndexed(f, all, synthetic);
 				} else {
 					Set<ModuleCapability> indexed = indexes.get(indexKey);
 					if (indexed == null) {
 						result = new ArrayList<>(0);
 					} else {
-						result = match(f, indexed, synthetic);
+						result = matchIndexed(f, indexed, synthetic);
 					}
 					if (!nonStringIndexes.isEmpty()) {
 						List<ModuleCapability> nonStringResult = match(f, nonStringIndexes, synthetic);
@@ -181,6 +212,224 @@ public class Capabilities {
 			}
 			return result;
 		}
+
+		/**
+		 * Matches the filter against the candidates. When there are many candidates
+		 * the secondary indexes of the other attributes the filter requires a value
+		 * or a version range for are intersected with the candidates first so that
+		 * the filter is only matched against the capabilities found in all of them.
+		 */
+		private List<ModuleCapability> matchIndexed(FilterImpl f, Set<ModuleCapability> candidates,
+				boolean synthetic) {
+			if (candidates.size() <= ATTRIBUTE_INDEX_THRESHOLD) {
+				return match(f, candidates, synthetic);
+			}
+			List<IndexedCandidates> indexed = new ArrayList<>(2);
+			String[] attributes = f.getAttributes();
+			nextAttribute: for (int i = 0; i < attributes.length; i++) {
+				String attribute = attributes[i];
+				if (attribute.equals(name)) {
+					continue;
+				}
+				for (int j = 0; j < i; j++) {
+					if (attribute.equals(attributes[j])) {
+						continue nextAttribute;
+					}
+				}
+				String value = f.getPrimaryKeyValue(attribute);
+				VersionRange range = value == null ? f.getVersionRange(attribute) : null;
+				if (value != null || range != null) {
+					AttributeIndex attributeIndex = attributeIndexes.computeIfAbsent(attribute,
+							a -> new AttributeIndex(a, all));
+					indexed.add(value != null ? attributeIndex.equalTo(value) : attributeIndex.within(range));
+				}
+			}
+			if (indexed.isEmpty()) {
+				return match(f, candidates, synthetic);
+			}
+			indexed.sort(Comparator.comparingInt(IndexedCandidates::size));
+			List<Set<ModuleCapability>> parts = Collections.singletonList(candidates);
+			int from = 0;
+			if (indexed.get(0).size() < candidates.size()) {
+				// the sets of the smallest index are iterated without copying them
+				parts = indexed.get(0).getParts();
+				from = 1;
+			}
+			List<ModuleCapability> result = new ArrayList<>(1);
+			for (int part = 0; part < parts.size(); part++) {
+				nextCandidate: for (ModuleCapability candidate : parts.get(part)) {
+					if (from == 1 && !candidates.contains(candidate)) {
+						continue;
+					}
+					if (part > 0 && parts.get(0).contains(candidate)) {
+						// already matched with the first set
+						continue;
+					}
+					for (int i = from; i < indexed.size(); i++) {
+						if (!indexed.get(i).contains(candidate)) {
+							continue nextCandidate;
+						}
+					}
+					if (matches(f, candidate, !synthetic && matchMandatory)) {
+						result.add(candidate);
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A secondary index of the capabilities of a namespace by the value of an
+	 * attribute. String values are indexed by equality and single version values
+	 * are sorted so that the capabilities within a version range can be found.
+	 * Capabilities without the attribute are not indexed because the filters the
+	 * index is used for only match when the attribute is present.
+	 */
+	static final class AttributeIndex {
+		private final String attribute;
+		private final Map<String, Set<ModuleCapability>> strings = new HashMap<>();
+		// capabilities with a value other than a string which may still equal a string
+		private final Set<ModuleCapability> nonStrings = new HashSet<>(0);
+		private final NavigableMap<Version, Set<ModuleCapability>> versions = new TreeMap<>();
+		// capabilities with a value other than a single version which may still be in a range
+		private final Set<ModuleCapability> nonVersions = new HashSet<>(0);
+
+		AttributeIndex(String attribute, Collection<ModuleCapability> capabilities) {
+			this.attribute = attribute;
+			for (ModuleCapability capability : capabilities) {
+				add(capability);
+			}
+		}
+
+		void add(ModuleCapability capability) {
+			Object value = capability.getAttributes().get(attribute);
+			if (value == null) {
+				return;
+			}
+			if (value instanceof Version) {
+				versions.computeIfAbsent((Version) value, v -> new HashSet<>(1)).add(capability);
+			} else {
+				nonVersions.add(capability);
+			}
+			for (Object element : asCollection(value)) {
+				if (element instanceof String) {
+					strings.computeIfAbsent((String) element, s -> new HashSet<>(1)).add(capability);
+				} else {
+					nonStrings.add(capability);
+				}
+			}
+		}
+
+		boolean isEmpty() {
+			return strings.isEmpty() && nonStrings.isEmpty() && versions.isEmpty() && nonVersions.isEmpty();
+		}
+
+		void remove(ModuleCapability capability) {
+			Object value = capability.getAttributes().get(attribute);
+			if (value == null) {
+				return;
+			}
+			if (value instanceof Version) {
+				remove(versions, (Version) value, capability);
+			} else {
+				nonVersions.remove(capability);
+			}
+			for (Object element : asCollection(value)) {
+				if (element instanceof String) {
+					remove(strings, (String) element, capability);
+				} else {
+					nonStrings.remove(capability);
+				}
+			}
+		}
+
+		private static <K> void remove(Map<K, Set<ModuleCapability>> index, K key, ModuleCapability capability) {
+			Set<ModuleCapability> capabilities = index.get(key);
+			if (capabilities != null && capabilities.remove(capability) && capabilities.isEmpty()) {
+				index.remove(key);
+			}
+		}
+
+		private static Collection<?> asCollection(Object value) {
+			if (value instanceof Collection) {
+				return (Collection<?>) value;
+			}
+			if (value.getClass().isArray()) {
+				return value instanceof Object[] ? Arrays.asList((Object[]) value) : Collections.singleton(value);
+			}
+			return Collections.singleton(value);
+		}
+
+		IndexedCandidates equalTo(String value) {
+			Set<ModuleCapability> equal = strings.getOrDefault(value, Collections.emptySet());
+			return new IndexedCandidates(equal.size() + nonStrings.size()) {
+				@Override
+				List<Set<ModuleCapability>> getParts() {
+					return nonStrings.isEmpty() ? Collections.singletonList(equal) : Arrays.asList(equal, nonStrings);
+				}
+
+				@Override
+				boolean contains(ModuleCapability capability) {
+					return equal.contains(capability) || nonStrings.contains(capability);
+				}
+			};
+		}
+
+		IndexedCandidates within(VersionRange range) {
+			Collection<Set<ModuleCapability>> inRange;
+			if (range.isEmpty()) {
+				inRange = Collections.emptyList();
+			} else if (range.getRight() == null) {
+				inRange = versions.tailMap(range.getLeft(), range.getLeftType() == VersionRange.LEFT_CLOSED).values();
+			} else {
+				inRange = versions.subMap(range.getLeft(), range.getLeftType() == VersionRange.LEFT_CLOSED,
+						range.getRight(), range.getRightType() == VersionRange.RIGHT_CLOSED).values();
+			}
+			int size = nonVersions.size();
+			for (Set<ModuleCapability> capabilities : inRange) {
+				size += capabilities.size();
+			}
+			return new IndexedCandidates(size) {
+				@Override
+				List<Set<ModuleCapability>> getParts() {
+					List<Set<ModuleCapability>> parts = new ArrayList<>(inRange);
+					parts.add(nonVersions);
+					return parts;
+				}
+
+				@Override
+				boolean contains(ModuleCapability capability) {
+					Object value = capability.getAttributes().get(attribute);
+					return value instanceof Version ? range.includes((Version) value) : nonVersions.contains(capability);
+				}
+			};
+		}
+	}
+
+	/**
+	 * The capabilities of an attribute index which may match a comparison of the
+	 * filter.
+	 */
+	static abstract class IndexedCandidates {
+		private final int size;
+
+		IndexedCandidates(int size) {
+			this.size = size;
+		}
+
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Returns the sets of capabilities of the index which together contain the
+		 * candidates. The sets are views of the index and must not be modified. Only
+		 * the first set may contain capabilities which are also in the other sets.
+		 */
+		abstract List<Set<ModuleCapability>> getParts();
+
+		abstract boolean contains(ModuleCapability capability);
 	}
 
 	public static final Pattern MANDATORY_ATTR = Pattern.compile("\\(([^(=<>]+)\\s*[=<>]\\s*[^)]+\\)"); //$NON-NLS-1$
@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.internal.container;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import org.apache.felix.resolver.ResolverImpl.PackageSpace;
+import org.apache.felix.resolver.ResolverImpl.PackageSpaceCache;
+import org.apache.felix.resolver.ResolverImpl.PackageSpaceInput;
+import org.apache.felix.resolver.ResolverImpl.PackageSpaceOutput;
+import org.eclipse.osgi.container.ModuleContainerAdaptor;
+import org.eclipse.osgi.container.ModuleContainerAdaptor.ContainerEvent;
+import org.eclipse.osgi.container.ModuleRevision;
+import org.osgi.resource.Capability;
+import org.osgi.resource.Requirement;
+import org.osgi.resource.Resource;
+import org.osgi.resource.Wire;
+import org.osgi.resource.Wiring;
+
+/**
+ * The package spaces the resolver calculated for resolved revisions. They are
+ * reused by later resolve processes and persisted along with the wirings so
+ * that they are reused after a restart. Persisted package spaces refer to
+ * capabilities, requirements and revisions by the indexes of the persisted
+ * objects and are only decoded when the resolver uses them.
+ */
+public final class ResolvedPackageSpaces implements PackageSpaceCache {
+	/**
+	 * The maximum number of bytes written for the package spaces, the package
+	 * spaces which do not fit are calculated again after a restart.
+	 */
+	static final int MAX_PERSISTED_SIZE = 8 * 1024 * 1024;
+
+	private final ModuleContainerAdaptor adaptor;
+	private final Map<Resource, Entry> entries = new HashMap<>();
+
+	private static final class Entry {
+		// the content of the wiring the package space was calculated from
+		private final List<Capability> capabilities;
+		private final List<Wire> requiredWires;
+		// an unmodified lazy copy of the persisted wiring the package space was read for
+		private final Wiring persistedWiring;
+		private PackageSpace packageSpace;
+		// the persisted package space until it is decoded
+		private byte[] data;
+		private IntFunction<Object> objects;
+
+		Entry(Wiring wiring, PackageSpace packageSpace) {
+			this.capabilities = wiring.getResourceCapabilities(null);
+			this.requiredWires = wiring.getRequiredResourceWires(null);
+			this.persistedWiring = null;
+			this.packageSpace = packageSpace;
+		}
+
+		Entry(Wiring persistedWiring, byte[] data, IntFunction<Object> objects) {
+			this.capabilities = null;
+			this.requiredWires = null;
+			this.persistedWiring = persistedWiring;
+			this.data = data;
+			this.objects = objects;
+		}
+
+		boolean isCalculatedFrom(Wiring wiring) {
+			if (persistedWiring != null) {
+				return persistedWiring.getResourceCapabilities(null).equals(wiring.getResourceCapabilities(null))
+						&& persistedWiring.getRequiredResourceWires(null).equals(wiring.getRequiredResourceWires(null));
+			}
+			return capabilities.equals(wiring.getResourceCapabilities(null))
+					&& requiredWires.equals(wiring.getRequiredResourceWires(null));
+		}
+
+		synchronized PackageSpace getPackageSpace(Resource resource) throws IOException {
+			if (data != null) {
+				packageSpace = PackageSpace.read(resource,
+						new IndexedInput(new DataInputStream(new ByteArrayInputStream(data)), objects));
+				data = null;
+				objects = null;
+			}
+			return packageSpace;
+		}
+	}
+
+	/**
+	 * Thrown when a package space refers to an object which is not persisted.
+	 */
+	private static final class MissingIndexException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		MissingIndexException(Object object) {
+			super("No index for: " + object); //$NON-NLS-1$
+		}
+	}
+
+	private static final class IndexedOutput implements PackageSpaceOutput {
+		private final DataOutputStream out;
+		private final Function<Object, Integer> indexes;
+
+		IndexedOutput(DataOutputStream out, Function<Object, Integer> indexes) {
+			this.out = out;
+			this.indexes = indexes;
+		}
+
+		@Override
+		public void writeInt(int value) throws IOException {
+			out.writeInt(value);
+		}
+
+		@Override
+		public void writeString(String value) throws IOException {
+			out.writeUTF(value);
+		}
+
+		@Override
+		public void writeResource(Resource resource) throws IOException {
+			writeIndex(resource);
+		}
+
+		@Override
+		public void writeCapability(Capability capability) throws IOException {
+			writeIndex(capability);
+		}
+
+		@Override
+		public void writeRequirement(Requirement requirement) throws IOException {
+			writeIndex(requirement);
+		}
+
+		private void writeIndex(Object object) throws IOException {
+			Integer index = indexes.apply(object);
+			if (index == null) {
+				throw new MissingIndexException(object);
+			}
+			out.writeInt(index.intValue());
+		}
+	}
+
+	private static final class IndexedInput implements PackageSpaceInput {
+		private final DataInputStream in;
+		private final IntFunction<Object> objects;
+
+		IndexedInput(DataInputStream in, IntFunction<Object> objects) {
+			this.in = in;
+			this.objects = objects;
+		}
+
+		@Override
+		public int readInt() throws IOException {
+			return in.readInt();
+		}
+
+		@Override
+		public String readString() throws IOException {
+			return in.readUTF();
+		}
+
+		@Override
+		public Resource readResource() throws IOException {
+			return (Resource) objects.apply(in.readInt());
+		}
+
+		@Override
+		public Capability readCapability() throws IOException {
+			return (Capability) objects.apply(in.readInt());
+		}
+
+		@Override
+		public Requirement readRequirement() throws IOException {
+			return (Requirement) objects.apply(in.readInt());
+		}
+	}
+
+	/**
+	 * Creates an empty cache of package spaces.
+	 *
+	 * @param adaptor the adaptor used to log package spaces which cannot be read
+	 */
+	public ResolvedPackageSpaces(ModuleContainerAdaptor adaptor) {
+		this.adaptor = adaptor;
+	}
+
+	@Override
+	public PackageSpace get(Resource resource, Wiring wiring) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(resource);
+		}
+		if (entry == null || !entry.isCalculatedFrom(wiring)) {
+			return null;
+		}
+		try {
+			return entry.getPackageSpace(resource);
+		} catch (IOException | RuntimeException e) {
+			// the persisted package space does not match the persisted objects; calculate it again
+			discard(resource, entry, e);
+			return null;
+		}
+	}
+
+	@Override
+	public void put(Resource resource, Wiring wiring, PackageSpace packageSpace) {
+		synchronized (entries) {
+			entries.put(resource, new Entry(wiring, packageSpace));
+		}
+	}
+
+	/**
+	 * Discards all package spaces.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Discards the package spaces of all resources except the specified ones.
+	 *
+	 * @param resources the resources to keep the package spaces of
+	 */
+	public void retainAll(Collection<?> resources) {
+		synchronized (entries) {
+			entries.keySet().retainAll(resources);
+		}
+	}
+
+	private void discard(Resource resource, Entry entry, Throwable cause) {
+		synchronized (entries) {
+			entries.remove(resource, entry);
+		}
+		adaptor.publishContainerEvent(ContainerEvent.WARNING,
+				resource instanceof ModuleRevision ? ((ModuleRevision) resource).getRevisions().getModule() : null,
+				cause);
+	}
+
+	/**
+	 * Writes the package spaces which were calculated from the specified wirings.
+	 * Package spaces referring to objects without an index are not written and
+	 * the package spaces are only written up to {@link #MAX_PERSISTED_SIZE}
+	 * bytes.
+	 *
+	 * @param wirings the persisted wirings
+	 * @param indexes returns the index of a persisted object, or {@code null}
+	 * @param out     the output to write to
+	 * @throws IOException if an error occurs writing to the output
+	 */
+	public void write(Map<? extends Resource, ? extends Wiring> wirings, Function<Object, Integer> indexes,
+			DataOutputStream out) throws IOException {
+		List<Map.Entry<Resource, Entry>> current;
+		synchronized (entries) {
+			current = new ArrayList<>(entries.entrySet());
+		}
+		List<Integer> resourceIndexes = new ArrayList<>();
+		List<byte[]> packageSpaces = new ArrayList<>();
+		int size = 0;
+		for (Map.Entry<Resource, Entry> entry : current) {
+			Resource resource = entry.getKey();
+			Wiring wiring = wirings.get(resource);
+			Integer resourceIndex = indexes.apply(resource);
+			// only persist the package spaces calculated from the persisted wirings
+			if (wiring == null || resourceIndex == null || !entry.getValue().isCalculatedFrom(wiring)) {
+				continue;
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try {
+				PackageSpace packageSpace = entry.getValue().getPackageSpace(resource);
+				packageSpace.write(new IndexedOutput(new DataOutputStream(bytes), indexes));
+			} catch (MissingIndexException e) {
+				// refers to a revision which is not persisted
+				continue;
+			} catch (IOException | RuntimeException e) {
+				discard(resource, entry.getValue(), e);
+				continue;
+			}
+			if (size + bytes.size() > MAX_PERSISTED_SIZE) {
+				continue;
+			}
+			size += bytes.size();
+			resourceIndexes.add(resourceIndex);
+			packageSpaces.add(bytes.toByteArray());
+		}
+		out.writeInt(packageSpaces.size());
+		for (int i = 0; i < packageSpaces.size(); i++) {
+			out.writeInt(resourceIndexes.get(i));
+			out.writeInt(packageSpaces.get(i).length);
+			out.write(packageSpaces.get(i));
+		}
+	}
+
+	/**
+	 * Reads the package spaces written by
+	 * {@link #write(Map, Function, DataOutputStream)}. A package space is only
+	 * used while the wiring of its resource has the persisted content.
+	 *
+	 * @param in              the input to read from
+	 * @param objects         returns the persisted object for an index
+	 * @param persistedWiring returns an unmodified copy of the persisted wiring
+	 *                        of a resource, or {@code null}
+	 * @throws IOException if an error occurs reading from the input
+	 */
+	public void read(DataInputStream in, IntFunction<Object> objects, Function<Object, Wiring> persistedWiring)
+			throws IOException {
+		int num = in.readInt();
+		for (int i = 0; i < num; i++) {
+			Object resource = objects.apply(in.readInt());
+			byte[] data = new byte[in.readInt()];
+			in.readFully(data);
+			Wiring wiring = persistedWiring.apply(resource);
+			if (wiring != null) {
+				synchronized (entries) {
+					entries.put(wiring.getResource(), new Entry(wiring, data, objects));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Skips the package spaces written by
+	 * {@link #write(Map, Function, DataOutputStream)}.
+	 *
+	 * @param in the input to read from
+	 * @throws IOException if an error occurs reading from the input
+	 */
+	public static void skip(DataInputStream in) throws IOException {
+		int num = in.readInt();
+		for (int i = 0; i < num; i++) {
+			in.readInt();
+			in.skipBytes(in.readInt());
+		}
+	}
+}
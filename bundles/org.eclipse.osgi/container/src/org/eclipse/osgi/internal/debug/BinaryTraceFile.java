@@ -0,0 +1,425 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.internal.debug;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * A trace file of fixed size which keeps the most recent trace records in a
+ * binary form. The records are written to a memory mapped ring; once the ring
+ * is full the oldest records are overwritten. Unlike the trace file the binary
+ * trace file is not opened and closed for each record and the records are not
+ * formatted until the file is decoded to the format of the trace file:
+ *
+ * <pre>
+ *    java -cp org.eclipse.osgi.jar org.eclipse.osgi.internal.debug.BinaryTraceFile &lt;binary trace file&gt; [&lt;trace file&gt;]
+ * </pre>
+ * <p>
+ * The file starts with a header holding the capacity of the ring, the position
+ * of the oldest record and the position after the newest record. Positions only
+ * grow and are mapped to the ring modulo its capacity. Each record starts with
+ * its length, type, flags and timestamp followed by its strings. A record which
+ * does not fit before the end of the ring is written at its start; a zero
+ * length marks the space skipped.
+ * <p>
+ * This class is not thread safe, the trace writes records while holding the
+ * write lock of the debug options.
+ */
+public final class BinaryTraceFile {
+	/** The extension appended to the trace file name for the binary trace file */
+	static final String BINARY_TRACE_FILE_EXTENSION = ".bin"; //$NON-NLS-1$
+	/** The default size of the binary trace file */
+	static final int DEFAULT_SIZE = 16 * 1024; // The value is in KB.
+	/** The minimum size of the binary trace file */
+	static final int MIN_SIZE = 1024; // The value is in KB.
+
+	/** The record of a new session */
+	static final byte TYPE_SESSION = 0;
+	/** The record of a trace message */
+	static final byte TYPE_TRACE = 1;
+	/** The record of a method starting with no arguments */
+	static final byte TYPE_ENTER = 2;
+	/** The record of a method starting with a set of arguments */
+	static final byte TYPE_ENTER_WITH_PARAMS = 3;
+	/** The record of a method completing with no return value */
+	static final byte TYPE_EXIT = 4;
+	/** The record of a method completing with a return value */
+	static final byte TYPE_EXIT_WITH_RESULT = 5;
+
+	private static final byte FLAG_VERBOSE = 1;
+	private static final byte FLAG_CALLER = 2;
+
+	private static final int MAGIC = 0x45444254;
+	private static final int VERSION = 1;
+	private static final int HEADER_LENGTH = 64;
+	private static final int CAPACITY_OFFSET = 8;
+	private static final int TAIL_OFFSET = 16;
+	private static final int HEAD_OFFSET = 24;
+	/** The length of the length, type, flags and timestamp of a record */
+	private static final int RECORD_HEADER_LENGTH = 4 + 1 + 1 + 8;
+	/** The maximum number of characters written for each string of a record */
+	private static final int MAX_STRING_LENGTH = 16 * 1024;
+
+	private final File file;
+	/** The mapped file; {@code null} when closed */
+	private MappedByteBuffer buffer;
+	private final int capacity;
+	/** The position of the oldest record */
+	private long tail;
+	/** The position after the newest record */
+	private long head;
+
+	private BinaryTraceFile(File file, MappedByteBuffer buffer, int capacity, boolean reuse) {
+		this.file = file;
+		this.buffer = buffer;
+		this.capacity = capacity;
+		if (reuse) {
+			tail = buffer.getLong(TAIL_OFFSET);
+			head = buffer.getLong(HEAD_OFFSET);
+		}
+		if (!reuse || tail < 0 || tail > head || head - tail > capacity) {
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			buffer.putInt(CAPACITY_OFFSET, capacity);
+			tail = head = 0;
+			buffer.putLong(TAIL_OFFSET, tail);
+			buffer.putLong(HEAD_OFFSET, head);
+		}
+	}
+
+	/**
+	 * Opens the binary trace file. The records of an existing file of the same size
+	 * are kept; any other file is replaced.
+	 *
+	 * @param file the binary trace file
+	 * @param size the size of the file in KB
+	 * @return the binary trace file
+	 * @throws IOException if the file cannot be opened
+	 */
+	static BinaryTraceFile open(File file, int size) throws IOException {
+		int capacity = (int) Math.min((long) size << 10, Integer.MAX_VALUE - HEADER_LENGTH);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) { //$NON-NLS-1$
+			boolean reuse = raf.length() == HEADER_LENGTH + capacity && raf.readInt() == MAGIC
+					&& raf.readInt() == VERSION && raf.readInt() == capacity;
+			if (!reuse) {
+				raf.setLength(0);
+				raf.setLength(HEADER_LENGTH + capacity);
+			}
+			// the mapping stays valid after the file is closed
+			MappedByteBuffer buffer = raf.getChannel().map(MapMode.READ_WRITE, 0, HEADER_LENGTH + capacity);
+			return new BinaryTraceFile(file, buffer, capacity, reuse);
+		}
+	}
+
+	/**
+	 * Returns the binary trace file.
+	 */
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Closes the binary trace file. The records written are forced to the file
+	 * and the mapping is released; it is unmapped once it is garbage collected.
+	 * No records can be written once the file is closed.
+	 */
+	void close() {
+		if (buffer != null) {
+			buffer.force();
+			buffer = null;
+		}
+	}
+
+	/**
+	 * Writes the record of a new session.
+	 *
+	 * @param timestamp  the timestamp of the session
+	 * @param verbose    indicates if verbose debugging is enabled
+	 * @param allOptions the option strings specified for the session
+	 */
+	void writeSession(long timestamp, boolean verbose, String[] allOptions) {
+		int length = RECORD_HEADER_LENGTH + 4;
+		int count = 0;
+		// leave room for other records
+		while (count < allOptions.length && length + getLength(allOptions[count]) <= capacity / 2) {
+			length += getLength(allOptions[count++]);
+		}
+		start(length, TYPE_SESSION, verbose ? FLAG_VERBOSE : 0, timestamp);
+		buffer.putInt(count);
+		for (int i = 0; i < count; i++) {
+			putString(allOptions[i]);
+		}
+		end();
+	}
+
+	/**
+	 * Writes a trace record.
+	 *
+	 * @param type               the type of the record
+	 * @param timestamp          the time the entry was traced
+	 * @param verbose            indicates if verbose debugging is enabled
+	 * @param threadName         the name of the thread tracing the entry
+	 * @param bundleSymbolicName the symbolic name of the bundle being traced
+	 * @param optionPath         the trace option-path
+	 * @param caller             the caller of the trace API, may be null
+	 * @param message            the trace message, or the method arguments or
+	 *                           result, may be null
+	 * @param throwableText      the text of the trace exception, may be null
+	 */
+	void write(byte type, long timestamp, boolean verbose, String threadName, String bundleSymbolicName,
+			String optionPath, StackTraceElement caller, String message, String throwableText) {
+		int length = RECORD_HEADER_LENGTH + getLength(threadName) + getLength(bundleSymbolicName)
+				+ getLength(optionPath) + getLength(message) + getLength(throwableText);
+		if (caller != null) {
+			length += getLength(caller.getClassName()) + getLength(caller.getMethodName()) + 4;
+		}
+		start(length, type, (verbose ? FLAG_VERBOSE : 0) | (caller != null ? FLAG_CALLER : 0), timestamp);
+		putString(threadName);
+		putString(bundleSymbolicName);
+		putString(optionPath);
+		if (caller != null) {
+			putString(caller.getClassName());
+			putString(caller.getMethodName());
+			buffer.putInt(caller.getLineNumber());
+		}
+		putString(message);
+		putString(throwableText);
+		end();
+	}
+
+	/**
+	 * Reserves the space for a record, overwriting the oldest records if needed,
+	 * and writes the header of the record.
+	 */
+	private void start(int length, byte type, int flags, long timestamp) {
+		int offset = (int) (head % capacity);
+		long start = head;
+		if (capacity - offset < length) {
+			// wrap around to the start of the ring
+			start += capacity - offset;
+		}
+		long end = start + length;
+		while (tail < end - capacity && tail < head) {
+			tail = next(tail);
+		}
+		if (tail < end - capacity) {
+			tail = start;
+		}
+		// move the tail before its records are overwritten
+		buffer.putLong(TAIL_OFFSET, tail);
+		if (start != head && capacity - offset >= 4) {
+			buffer.putInt(HEADER_LENGTH + offset, 0);
+		}
+		head = end;
+		buffer.position(HEADER_LENGTH + (int) (start % capacity));
+		buffer.putInt(length);
+		buffer.put(type);
+		buffer.put((byte) flags);
+		buffer.putLong(timestamp);
+	}
+
+	/**
+	 * Publishes the record once it is completely written.
+	 */
+	private void end() {
+		buffer.putLong(HEAD_OFFSET, head);
+	}
+
+	/**
+	 * Returns the position of the record after the record at the specified
+	 * position.
+	 */
+	private long next(long position) {
+		int offset = (int) (position % capacity);
+		int length = capacity - offset < 4 ? 0 : buffer.getInt(HEADER_LENGTH + offset);
+		return position + (length > 0 ? length : capacity - offset);
+	}
+
+	/**
+	 * Returns the number of bytes written for a string.
+	 */
+	private static int getLength(String value) {
+		if (value == null) {
+			return 4;
+		}
+		int length = 4;
+		int chars = Math.min(value.length(), MAX_STRING_LENGTH);
+		for (int i = 0; i < chars; i++) {
+			char c = value.charAt(i);
+			length += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the number of bytes of a string followed by its characters using the
+	 * modified UTF-8 encoding; a null string is written as a length of -1.
+	 */
+	private void putString(String value) {
+		if (value == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		buffer.putInt(getLength(value) - 4);
+		int chars = Math.min(value.length(), MAX_STRING_LENGTH);
+		for (int i = 0; i < chars; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			} else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else {
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	private static String getString(ByteBuffer record) {
+		int length = record.getInt();
+		if (length < 0) {
+			return null;
+		}
+		int end = record.position() + length;
+		StringBuilder value = new StringBuilder(length);
+		while (record.position() < end) {
+			int b = record.get() & 0xFF;
+			if (b < 0x80) {
+				value.append((char) b);
+			} else if (b < 0xE0) {
+				value.append((char) (((b & 0x1F) << 6) | (record.get() & 0x3F)));
+			} else {
+				value.append((char) (((b & 0x0F) << 12) | ((record.get() & 0x3F) << 6) | (record.get() & 0x3F)));
+			}
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Decodes the records of a binary trace file, from the oldest to the newest,
+	 * and writes them in the format of the trace file.
+	 *
+	 * @param file the binary trace file
+	 * @param out  the writer for the trace
+	 * @throws IOException if the file cannot be read or is not a binary trace file
+	 */
+	public static void decode(File file, Writer out) throws IOException {
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+		if (data.limit() < HEADER_LENGTH || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+			throw new IOException("Not a binary trace file: " + file); //$NON-NLS-1$
+		}
+		int capacity = data.getInt(CAPACITY_OFFSET);
+		long tail = data.getLong(TAIL_OFFSET);
+		long head = data.getLong(HEAD_OFFSET);
+		if (capacity <= 0 || data.limit() != HEADER_LENGTH + capacity || tail < 0 || tail > head
+				|| head - tail > capacity) {
+			throw new IOException("Invalid binary trace file: " + file); //$NON-NLS-1$
+		}
+		long position = tail;
+		while (position < head) {
+			int offset = (int) (position % capacity);
+			int length = capacity - offset < 4 ? 0 : data.getInt(HEADER_LENGTH + offset);
+			if (length <= 0) {
+				position += capacity - offset;
+				continue;
+			}
+			data.position(HEADER_LENGTH + offset + 4);
+			decodeRecord(data, out);
+			position += length;
+		}
+		out.flush();
+	}
+
+	private static void decodeRecord(ByteBuffer record, Writer out) throws IOException {
+		byte type = record.get();
+		byte flags = record.get();
+		long timestamp = record.getLong();
+		boolean verbose = (flags & FLAG_VERBOSE) != 0;
+		if (type == TYPE_SESSION) {
+			String[] allOptions = new String[record.getInt()];
+			for (int i = 0; i < allOptions.length; i++) {
+				allOptions[i] = getString(record);
+			}
+			EclipseDebugTrace.writeSession(out, timestamp, verbose, allOptions);
+			return;
+		}
+		String threadName = getString(record);
+		String bundleSymbolicName = getString(record);
+		String optionPath = getString(record);
+		String className = null;
+		String methodName = null;
+		int lineNumber = 0;
+		if ((flags & FLAG_CALLER) != 0) {
+			className = getString(record);
+			methodName = getString(record);
+			lineNumber = record.getInt();
+		}
+		String message = getString(record);
+		String throwableText = getString(record);
+		switch (type) {
+		case TYPE_ENTER:
+			message = EclipseDebugTrace.createMessage(className, methodName, verbose,
+					EclipseDebugTrace.MESSAGE_ENTER_METHOD_NO_PARAMS);
+			break;
+		case TYPE_ENTER_WITH_PARAMS:
+			String enter = EclipseDebugTrace.createMessage(className, methodName, verbose,
+					EclipseDebugTrace.MESSAGE_ENTER_METHOD_WITH_PARAMS);
+			message = message == null ? enter : enter + message + ")"; //$NON-NLS-1$
+			break;
+		case TYPE_EXIT:
+			message = EclipseDebugTrace.createMessage(className, methodName, verbose,
+					EclipseDebugTrace.MESSAGE_EXIT_METHOD_NO_RESULTS);
+			break;
+		case TYPE_EXIT_WITH_RESULT:
+			message = EclipseDebugTrace.createMessage(className, methodName, verbose,
+					EclipseDebugTrace.MESSAGE_EXIT_METHOD_WITH_RESULTS) + message;
+			break;
+		default:
+			break;
+		}
+		EclipseDebugTrace.writeMessage(out, verbose, threadName, timestamp, bundleSymbolicName, optionPath, className,
+				methodName, lineNumber, message, throwableText);
+	}
+
+	/**
+	 * Decodes a binary trace file to the format of the trace file.
+	 *
+	 * @param args the binary trace file and optionally the file to write the trace
+	 *             to instead of the standard output
+	 * @throws IOException if an error occurs decoding the file
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: BinaryTraceFile <binary trace file> [<trace file>]"); //$NON-NLS-1$
+			return;
+		}
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(
+				args.length > 1 ? new FileOutputStream(args[1]) : System.out, StandardCharsets.UTF_8))) {
+			decode(new File(args[0]), out);
+		}
+	}
+}
@@ -48,6 +48,10 @@ public class Debug implements DebugOptionsListener {
 	 * Loader Debug option key.
 	 */
 	public static final String OPTION_DEBUG_LOADER = ECLIPSE_OSGI + "/debug/loader"; //$NON-NLS-1$
+	/**
+	 * Loader negative lookup cache Debug option key.
+	 */
+	public static final String OPTION_DEBUG_LOADER_NEGATIVE_CACHE = ECLIPSE_OSGI + "/debug/loader/negativeCache"; //$NON-NLS-1$
 	/**
 	 * Storage Debug option key.
 	 */
@@ -126,6 +130,10 @@ public class Debug implements DebugOptionsListener {
 	 * Loader debug flag.
 	 */
 	public boolean DEBUG_LOADER = false; // "debug.loader"
+	/**
+	 * Loader negative lookup cache debug flag.
+	 */
+	public boolean DEBUG_LOADER_NEGATIVE_CACHE = false; // "debug/loader/negativeCache"
 	/**
 	 * Storage debug flag.
 	 */
@@ -199,6 +207,7 @@ public class Debug implements DebugOptionsListener {
 		DEBUG_BUNDLE_TIME = dbgOptions.getBooleanOption(OPTION_DEBUG_BUNDLE_TIME, false)
 				|| dbgOptions.getBooleanOption("org.eclipse.core.runtime/timing/startup", false); //$NON-NLS-1$
 		DEBUG_LOADER = dbgOptions.getBooleanOption(OPTION_DEBUG_LOADER, false);
+		DEBUG_LOADER_NEGATIVE_CACHE = dbgOptions.getBooleanOption(OPTION_DEBUG_LOADER_NEGATIVE_CACHE, false);
 		DEBUG_STORAGE = dbgOptions.getBooleanOption(OPTION_DEBUG_STORAGE, false);
 		DEBUG_EVENTS = dbgOptions.getBooleanOption(OPTION_DEBUG_EVENTS, false);
 		DEBUG_SERVICES = dbgOptions.getBooleanOption(OPTION_DEBUG_SERVICES, false);
@@ -47,16 +47,30 @@ class EclipseDebugTrace implements DebugTrace {
 	 * to use
 	 */
 	private static final String PROP_TRACE_FILE_MAX = "eclipse.trace.backup.max"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify that trace entries are written to a
+	 * binary trace file instead of the trace file
+	 */
+	private static final String PROP_TRACE_BINARY = "eclipse.trace.binary"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify the size of the binary trace file
+	 */
+	private static final String PROP_TRACE_BINARY_SIZE = "eclipse.trace.binary.size"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify that the class, method and line number
+	 * calling the trace API are written to the binary trace file
+	 */
+	private static final String PROP_TRACE_BINARY_CALLER = "eclipse.trace.binary.caller"; //$NON-NLS-1$
 	/** The trace message for a thread stack dump */
 	private final static String MESSAGE_THREAD_DUMP = "Thread Stack dump: "; //$NON-NLS-1$
 	/** The trace message for a method completing with a return value */
-	private final static String MESSAGE_EXIT_METHOD_WITH_RESULTS = "Exiting method {0}with result: "; //$NON-NLS-1$
+	final static String MESSAGE_EXIT_METHOD_WITH_RESULTS = "Exiting method {0}with result: "; //$NON-NLS-1$
 	/** The trace message for a method completing with no return value */
-	private final static String MESSAGE_EXIT_METHOD_NO_RESULTS = "Exiting method {0}with a void return"; //$NON-NLS-1$
+	final static String MESSAGE_EXIT_METHOD_NO_RESULTS = "Exiting method {0}with a void return"; //$NON-NLS-1$
 	/** The trace message for a method starting with a set of arguments */
-	private final static String MESSAGE_ENTER_METHOD_WITH_PARAMS = "Entering method {0}with parameters: ("; //$NON-NLS-1$
+	final static String MESSAGE_ENTER_METHOD_WITH_PARAMS = "Entering method {0}with parameters: ("; //$NON-NLS-1$
 	/** The trace message for a method starting with no arguments */
-	private final static String MESSAGE_ENTER_METHOD_NO_PARAMS = "Entering method {0}with no parameters"; //$NON-NLS-1$
+	final static String MESSAGE_ENTER_METHOD_NO_PARAMS = "Entering method {0}with no parameters"; //$NON-NLS-1$
 	/** The version attribute written in the header of a new session */
 	private final static String TRACE_FILE_VERSION_COMMENT = "version: "; //$NON-NLS-1$
 	/** The verbose attribute written in the header of a new session */
@@ -92,7 +106,7 @@ class EclipseDebugTrace implements DebugTrace {
 		LINE_SEPARATOR = s == null ? "\n" : s; //$NON-NLS-1$
 	}
 	/** The value written to the trace file if a null object is being traced */
-	private final static String NULL_VALUE = "<null>"; //$NON-NLS-1$
+	final static String NULL_VALUE = "<null>"; //$NON-NLS-1$
 	/**  */
 	private final static SecureAction secureAction = AccessController.doPrivileged(SecureAction.createSecureAction());
 
@@ -113,6 +127,12 @@ class EclipseDebugTrace implements DebugTrace {
 	private int maxTraceFiles = DEFAULT_TRACE_FILES;
 	/** The index of the currently backed-up trace file */
 	private int backupTraceFileIndex = 0;
+	/** Indicates if trace entries are written to the binary trace file */
+	private boolean binary = false;
+	/** The size of the binary trace file */
+	private int binaryTraceFileSize = BinaryTraceFile.DEFAULT_SIZE; // The value is in KB.
+	/** Indicates if the caller of the trace API is written to the binary trace file */
+	private boolean binaryCaller = false;
 
 	/**
 	 * An optional argument to specify the name of the class used by clients to
@@ -178,7 +198,7 @@ class EclipseDebugTrace implements DebugTrace {
 	@Override
 	public void trace(final String optionPath, final String message) {
 
-		if (isDebuggingEnabled(optionPath)) {
+		if (isDebuggingEnabled(optionPath) && !writeBinaryRecord(BinaryTraceFile.TYPE_TRACE, optionPath, message, null)) {
 			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath,
 					message, traceClass);
 			writeRecord(record);
@@ -195,7 +215,8 @@ class EclipseDebugTrace implements DebugTrace {
 	@Override
 	public void trace(final String optionPath, final String message, final Throwable error) {
 
-		if (isDebuggingEnabled(optionPath)) {
+		if (isDebuggingEnabled(optionPath)
+				&& !writeBinaryRecord(BinaryTraceFile.TYPE_TRACE, optionPath, message, error)) {
 			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath,
 					message, error, traceClass);
 			writeRecord(record);
@@ -212,7 +233,7 @@ class EclipseDebugTrace implements DebugTrace {
 	@Override
 	public void traceEntry(final String optionPath) {
 
-		if (isDebuggingEnabled(optionPath)) {
+		if (isDebuggingEnabled(optionPath) && !writeBinaryRecord(BinaryTraceFile.TYPE_ENTER, optionPath, null, null)) {
 			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath, null,
 					traceClass);
 			record.setMessage(createMessage(record, EclipseDebugTrace.MESSAGE_ENTER_METHOD_NO_PARAMS));
@@ -246,27 +267,30 @@ class EclipseDebugTrace implements DebugTrace {
 	public void traceEntry(final String optionPath, final Object[] methodArguments) {
 
 		if (isDebuggingEnabled(optionPath)) {
-			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath, null,
-					traceClass);
-			final StringBuilder messageBuffer = new StringBuilder(
-					createMessage(record, EclipseDebugTrace.MESSAGE_ENTER_METHOD_WITH_PARAMS));
+			String arguments = null;
 			if (methodArguments != null) {
+				final StringBuilder argumentsBuffer = new StringBuilder();
 				int i = 0;
 				while (i < methodArguments.length) {
 					if (methodArguments[i] != null) {
-						messageBuffer.append(methodArguments[i].toString());
+						argumentsBuffer.append(methodArguments[i].toString());
 					} else {
-						messageBuffer.append(EclipseDebugTrace.NULL_VALUE);
+						argumentsBuffer.append(EclipseDebugTrace.NULL_VALUE);
 					}
 					i++;
 					if (i < methodArguments.length) {
-						messageBuffer.append(" "); //$NON-NLS-1$
+						argumentsBuffer.append(" "); //$NON-NLS-1$
 					}
 				}
-				messageBuffer.append(")"); //$NON-NLS-1$
+				arguments = argumentsBuffer.toString();
 			}
-
-			record.setMessage(messageBuffer.toString());
+			if (writeBinaryRecord(BinaryTraceFile.TYPE_ENTER_WITH_PARAMS, optionPath, arguments, null)) {
+				return;
+			}
+			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath, null,
+					traceClass);
+			final String message = createMessage(record, EclipseDebugTrace.MESSAGE_ENTER_METHOD_WITH_PARAMS);
+			record.setMessage(arguments == null ? message : message + arguments + ")"); //$NON-NLS-1$
 			writeRecord(record);
 		}
 	}
@@ -281,7 +305,7 @@ class EclipseDebugTrace implements DebugTrace {
 	@Override
 	public void traceExit(final String optionPath) {
 
-		if (isDebuggingEnabled(optionPath)) {
+		if (isDebuggingEnabled(optionPath) && !writeBinaryRecord(BinaryTraceFile.TYPE_EXIT, optionPath, null, null)) {
 			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath, null,
 					traceClass);
 			record.setMessage(createMessage(record, EclipseDebugTrace.MESSAGE_EXIT_METHOD_NO_RESULTS));
@@ -300,17 +324,13 @@ class EclipseDebugTrace implements DebugTrace {
 	public void traceExit(final String optionPath, final Object result) {
 
 		if (isDebuggingEnabled(optionPath)) {
+			final String resultText = result == null ? EclipseDebugTrace.NULL_VALUE : result.toString();
+			if (writeBinaryRecord(BinaryTraceFile.TYPE_EXIT_WITH_RESULT, optionPath, resultText, null)) {
+				return;
+			}
 			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath, null,
 					traceClass);
-			final StringBuilder messageBuffer = new StringBuilder(
-					createMessage(record, EclipseDebugTrace.MESSAGE_EXIT_METHOD_WITH_RESULTS));
-			if (result == null) {
-				messageBuffer.append(EclipseDebugTrace.NULL_VALUE);
-			} else {
-				messageBuffer.append(result.toString());
-			}
-
-			record.setMessage(messageBuffer.toString());
+			record.setMessage(createMessage(record, EclipseDebugTrace.MESSAGE_EXIT_METHOD_WITH_RESULTS) + resultText);
 			writeRecord(record);
 		}
 	}
@@ -342,6 +362,9 @@ class EclipseDebugTrace implements DebugTrace {
 				firstIndex++;
 			}
 			messageBuffer.append(convertStackTraceElementsToString(newElements));
+			if (writeBinaryRecord(BinaryTraceFile.TYPE_TRACE, optionPath, messageBuffer.toString(), null)) {
+				return;
+			}
 			final FrameworkDebugTraceEntry record = new FrameworkDebugTraceEntry(bundleSymbolicName, optionPath,
 					messageBuffer.toString(), traceClass);
 			writeRecord(record);
@@ -357,18 +380,31 @@ class EclipseDebugTrace implements DebugTrace {
 	 * @param originalMessage The original tracing message
 	 */
 	private final String createMessage(final FrameworkDebugTraceEntry record, final String originalMessage) {
+		return createMessage(record.getClassName(), record.getMethodName(), debugOptions.isVerbose(), originalMessage);
+	}
+
+	/**
+	 * Creates the trace message of a method entry or exit to include class and
+	 * method information if verbose debugging is disabled.
+	 *
+	 * @param className       The class being traced or null if not known
+	 * @param methodName      The method being traced
+	 * @param verbose         Indicates if verbose debugging is enabled
+	 * @param originalMessage The original tracing message
+	 */
+	static String createMessage(final String className, final String methodName, final boolean verbose,
+			final String originalMessage) {
 		String argument = null;
-		if (!debugOptions.isVerbose()) {
-			final StringBuilder classMethodName = new StringBuilder(record.getClassName());
+		if (!verbose && className != null) {
+			final StringBuilder classMethodName = new StringBuilder(className);
 			classMethodName.append("#"); //$NON-NLS-1$
-			classMethodName.append(record.getMethodName());
+			classMethodName.append(methodName);
 			classMethodName.append(" "); //$NON-NLS-1$
 			argument = classMethodName.toString();
 		} else {
 			argument = ""; //$NON-NLS-1$
 		}
 		return MessageFormat.format(originalMessage, new Object[] { argument });
-
 	}
 
 	/**
@@ -432,7 +468,44 @@ class EclipseDebugTrace implements DebugTrace {
 	}
 
 	/**
-	 * Reads the PROP_TRACE_SIZE_MAX and PROP_TRACE_FILE_MAX properties.
+	 * Writes a trace record to the binary trace file if one is used. The caller of
+	 * the trace API is only determined if configured; the message of method entries
+	 * and exits is created when the binary trace file is decoded.
+	 *
+	 * @param type       The type of the record
+	 * @param optionPath The trace option-path
+	 * @param message    The trace message, or the method arguments or result
+	 * @param error      An exception to be traced, may be null
+	 * @return true if the record was written to the binary trace file; false if the
+	 *         record must be written to the trace file
+	 */
+	private boolean writeBinaryRecord(final byte type, final String optionPath, final String message,
+			final Throwable error) {
+		if (!binary) {
+			return false;
+		}
+		final long timestamp = System.currentTimeMillis();
+		final StackTraceElement caller = binaryCaller ? FrameworkDebugTraceEntry.findCaller(traceClass) : null;
+		final String throwableText = getThrowableText(error);
+		synchronized (debugOptions.getWriteLock()) {
+			final BinaryTraceFile binaryFile = debugOptions.getBinaryTraceFile(binaryTraceFileSize);
+			if (binaryFile == null) {
+				return false;
+			}
+			final boolean verbose = debugOptions.isVerbose();
+			if (debugOptions.newSession()) {
+				binaryFile.writeSession(timestamp, verbose, debugOptions.getAllOptions());
+			}
+			binaryFile.write(type, timestamp, verbose, Thread.currentThread().getName(), bundleSymbolicName,
+					optionPath == null ? FrameworkDebugTraceEntry.DEFAULT_OPTION_PATH : optionPath, caller, message,
+					throwableText);
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the PROP_TRACE_SIZE_MAX, PROP_TRACE_FILE_MAX and PROP_TRACE_BINARY
+	 * properties.
 	 */
 	private void readLogProperties() {
 
@@ -454,6 +527,14 @@ class EclipseDebugTrace implements DebugTrace {
 				maxTraceFiles = DEFAULT_TRACE_FILES;
 			}
 		}
+
+		binary = "true".equals(debugOptions.getConfiguration().getConfiguration(PROP_TRACE_BINARY)); //$NON-NLS-1$
+		String newBinaryTraceFileSize = debugOptions.getConfiguration().getConfiguration(PROP_TRACE_BINARY_SIZE);
+		if (newBinaryTraceFileSize != null) {
+			binaryTraceFileSize = Math.max(Integer.parseInt(newBinaryTraceFileSize), BinaryTraceFile.MIN_SIZE);
+		}
+		binaryCaller = "true" //$NON-NLS-1$
+				.equals(debugOptions.getConfiguration().getConfiguration(PROP_TRACE_BINARY_CALLER));
 	}
 
 	/**
@@ -538,7 +619,7 @@ class EclipseDebugTrace implements DebugTrace {
 	 * @param comment     the comment to be written to the trace file
 	 * @throws IOException If an error occurs while writing the comment
 	 */
-	private void writeComment(final Writer traceWriter, final String comment) throws IOException {
+	static void writeComment(final Writer traceWriter, final String comment) throws IOException {
 
 		StringBuilder commentText = new StringBuilder(EclipseDebugTrace.TRACE_COMMENT);
 		commentText.append(" "); //$NON-NLS-1$
@@ -553,26 +634,25 @@ class EclipseDebugTrace implements DebugTrace {
 	 * @return A formatted time stamp based on the
 	 *         {@link EclipseDebugTrace#TRACE_FILE_DATE_FORMATTER} formatter
 	 */
-	private final String getFormattedDate(long timestamp) {
+	static String getFormattedDate(long timestamp) {
 		return TRACE_FILE_DATE_FORMATTER.format(Instant.ofEpochMilli(timestamp));
 	}
 
 	/**
-	 * Accessor to retrieve the text of a {@link Throwable} in a formatted manner so
-	 * that it can be written to the trace file.
+	 * Accessor to retrieve the text of a {@link Throwable}.
 	 *
 	 * @param error The {@lnk Throwable} to format
 	 * @return The complete text of a {@link Throwable} as a {@link String} or null
 	 *         if the input error is null.
 	 */
-	private final String getFormattedThrowable(Throwable error) {
+	private static String getThrowableText(Throwable error) {
 
 		String result = null;
 		if (error != null) {
 			ByteArrayOutputStream throwableByteOutputStream = new ByteArrayOutputStream();
 			try (PrintStream throwableStream = new PrintStream(throwableByteOutputStream, false)) {
 				error.printStackTrace(throwableStream);
-				result = encodeText(throwableByteOutputStream.toString());
+				result = throwableByteOutputStream.toString();
 			}
 		}
 		return result;
@@ -587,12 +667,25 @@ class EclipseDebugTrace implements DebugTrace {
 	 * @throws IOException If an error occurs while writing this session information
 	 */
 	private void writeSession(final Writer traceWriter, long timestamp) throws IOException {
+		writeSession(traceWriter, timestamp, debugOptions.isVerbose(), debugOptions.getAllOptions());
+	}
+
+	/**
+	 * Writes header information to a new trace file
+	 *
+	 * @param traceWriter the trace writer
+	 * @param timestamp   the timestamp for the session
+	 * @param verbose     indicates if verbose debugging is enabled
+	 * @param allOptions  the option strings specified for the session
+	 * @throws IOException If an error occurs while writing this session information
+	 */
+	static void writeSession(final Writer traceWriter, long timestamp, boolean verbose, String[] allOptions)
+			throws IOException {
 
-		writeComment(traceWriter, EclipseDebugTrace.TRACE_NEW_SESSION + this.getFormattedDate(timestamp));
+		writeComment(traceWriter, EclipseDebugTrace.TRACE_NEW_SESSION + getFormattedDate(timestamp));
 		writeComment(traceWriter, EclipseDebugTrace.TRACE_FILE_VERSION_COMMENT + EclipseDebugTrace.TRACE_FILE_VERSION);
-		writeComment(traceWriter, EclipseDebugTrace.TRACE_FILE_VERBOSE_COMMENT + debugOptions.isVerbose());
+		writeComment(traceWriter, EclipseDebugTrace.TRACE_FILE_VERBOSE_COMMENT + verbose);
 		writeComment(traceWriter, "The following option strings are specified for this debug session:"); //$NON-NLS-1$
-		final String[] allOptions = debugOptions.getAllOptions();
 		for (String allOption : allOptions) {
 			writeComment(traceWriter, "\t" + allOption); //$NON-NLS-1$
 		}
@@ -608,56 +701,83 @@ class EclipseDebugTrace implements DebugTrace {
 	 * @throws IOException If an error occurs while writing this message
 	 */
 	private void writeMessage(final Writer traceWriter, final FrameworkDebugTraceEntry entry) throws IOException {
+		writeMessage(traceWriter, debugOptions.isVerbose(), entry.getThreadName(), entry.getTimestamp(),
+				entry.getBundleSymbolicName(), entry.getOptionPath(), entry.getClassName(), entry.getMethodName(),
+				entry.getLineNumber(), entry.getMessage(), getThrowableText(entry.getThrowable()));
+	}
+
+	/**
+	 * Writes the specified trace entry elements to the trace file using the
+	 * {@link EclipseDebugTrace#TRACE_ELEMENT_DELIMITER} as the delimiter between
+	 * each element of the entry.
+	 *
+	 * @param traceWriter        the trace writer
+	 * @param verbose            indicates if verbose debugging is enabled
+	 * @param threadName         the name of the thread tracing the entry
+	 * @param timestamp          the time the entry was traced
+	 * @param bundleSymbolicName the symbolic name of the bundle being traced
+	 * @param optionPath         the trace option-path
+	 * @param className          the class being traced
+	 * @param methodName         the method being traced
+	 * @param lineNumber         the line number being traced
+	 * @param messageText        the trace message
+	 * @param throwableText      the text of the trace exception, may be null
+	 * @throws IOException If an error occurs while writing this message
+	 */
+	static void writeMessage(final Writer traceWriter, final boolean verbose, final String threadName,
+			final long timestamp, final String bundleSymbolicName, final String optionPath, final String className,
+			final String methodName, final int lineNumber, final String messageText, final String throwableText)
+			throws IOException {
 
 		final StringBuilder message = new StringBuilder(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 		message.append(" "); //$NON-NLS-1$
-		message.append(encodeText(entry.getThreadName()));
+		message.append(encodeText(threadName));
 		message.append(" "); //$NON-NLS-1$
 		message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 		message.append(" "); //$NON-NLS-1$
-		message.append(this.getFormattedDate(entry.getTimestamp()));
+		message.append(getFormattedDate(timestamp));
 		message.append(" "); //$NON-NLS-1$
 		message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 		message.append(" "); //$NON-NLS-1$
-		if (!debugOptions.isVerbose()) {
+		if (!verbose) {
 			// format the trace entry for quiet tracing: only the thread name, timestamp,
 			// trace message, and exception (if necessary)
-			message.append(encodeText(entry.getMessage()));
+			message.append(encodeText(messageText));
 		} else {
 			// format the trace entry for verbose tracing
-			message.append(entry.getBundleSymbolicName());
+			message.append(bundleSymbolicName);
 			message.append(" "); //$NON-NLS-1$
 			message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 			message.append(" "); //$NON-NLS-1$
-			message.append(encodeText(entry.getOptionPath()));
+			message.append(encodeText(optionPath));
 			message.append(" "); //$NON-NLS-1$
 			message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 			message.append(" "); //$NON-NLS-1$
-			message.append(entry.getClassName());
+			message.append(className);
 			message.append(" "); //$NON-NLS-1$
 			message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 			message.append(" "); //$NON-NLS-1$
-			message.append(entry.getMethodName());
+			message.append(methodName);
 			message.append(" "); //$NON-NLS-1$
 			message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 			message.append(" "); //$NON-NLS-1$
-			message.append(entry.getLineNumber());
+			message.append(lineNumber);
 			message.append(" "); //$NON-NLS-1$
 			message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 			message.append(" "); //$NON-NLS-1$
-			message.append(encodeText(entry.getMessage()));
+			message.append(encodeText(messageText));
 		}
-		if (entry.getThrowable() != null) {
+		if (throwableText != null) {
 			message.append(" "); //$NON-NLS-1$
 			message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 			message.append(" "); //$NON-NLS-1$
-			message.append(this.getFormattedThrowable(entry.getThrowable()));
+			message.append(encodeText(throwableText));
 		}
 		message.append(" "); //$NON-NLS-1$
 		message.append(EclipseDebugTrace.TRACE_ELEMENT_DELIMITER);
 		message.append(EclipseDebugTrace.LINE_SEPARATOR);
 		// write the message
-		if ((traceWriter != null) && (message != null)) {
+		if (traceWriter != null) {
 			traceWriter.write(message.toString());
 		}
 	}
@@ -82,6 +82,14 @@ public class FrameworkDebugOptions
 	 * should the header information be written)
 	 */
 	private boolean newSession = true;
+	/**
+	 * The binary trace file of the trace file; guarded by the write lock
+	 */
+	private BinaryTraceFile binaryTraceFile = null;
+	/**
+	 * The binary trace file that could not be opened; guarded by the write lock
+	 */
+	private File failedBinaryTraceFile = null;
 	private final EquinoxConfiguration environmentInfo;
 	private volatile BundleContext context;
 	private volatile ServiceTracker<DebugOptionsListener, DebugOptionsListener> listenerTracker;
@@ -142,6 +150,9 @@ public class FrameworkDebugOptions
 		listenerTracker.close();
 		listenerTracker = null;
 		this.context = null;
+		synchronized (writeLock) {
+			closeBinaryTraceFile();
+		}
 	}
 
 	/**
@@ -457,6 +468,10 @@ public class FrameworkDebugOptions
 			// the file changed so start a new session
 			this.newSession = true;
 		}
+		synchronized (writeLock) {
+			// the binary trace file is kept next to the trace file
+			closeBinaryTraceFile();
+		}
 	}
 
 	boolean newSession() {
@@ -473,6 +488,48 @@ public class FrameworkDebugOptions
 		return writeLock;
 	}
 
+	/**
+	 * Returns the binary trace file kept next to the trace file, opening it if
+	 * needed. Must be called while holding the write lock.
+	 *
+	 * @param size the size of the binary trace file in KB if it is created
+	 * @return the binary trace file or null if there is no trace file or the binary
+	 *         trace file cannot be opened
+	 */
+	BinaryTraceFile getBinaryTraceFile(int size) {
+		final File traceFile = getFile();
+		if (traceFile == null) {
+			return null;
+		}
+		final File file = new File(traceFile.getPath() + BinaryTraceFile.BINARY_TRACE_FILE_EXTENSION);
+		if (binaryTraceFile != null && binaryTraceFile.getFile().equals(file)) {
+			return binaryTraceFile;
+		}
+		if (file.equals(failedBinaryTraceFile)) {
+			return null;
+		}
+		closeBinaryTraceFile();
+		try {
+			binaryTraceFile = BinaryTraceFile.open(file, size);
+		} catch (IOException e) {
+			// only report the error once and fall back to the trace file
+			System.err.println("Unable to open binary trace file: " + file + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+			failedBinaryTraceFile = file;
+		}
+		return binaryTraceFile;
+	}
+
+	/**
+	 * Closes the binary trace file if one is open. Must be called while holding
+	 * the write lock.
+	 */
+	private void closeBinaryTraceFile() {
+		if (binaryTraceFile != null) {
+			binaryTraceFile.close();
+			binaryTraceFile = null;
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -104,11 +104,21 @@ public class FrameworkDebugTraceEntry {
 		this.message = message;
 		throwable = error;
 
-		String determineClassName = null;
-		String determineMethodName = null;
-		int determineLineNumber = 0;
 		// dynamically determine the class name, method name, and line number of the
 		// method calling the trace framework
+		StackTraceElement caller = findCaller(traceClass);
+		className = caller == null ? null : caller.getClassName();
+		methodName = caller == null ? null : caller.getMethodName();
+		lineNumber = caller == null ? 0 : caller.getLineNumber();
+	}
+
+	/**
+	 * Finds the stack element of the method calling the trace framework.
+	 *
+	 * @param traceClass The class that calls the trace API
+	 * @return the stack element of the caller or null if it cannot be found
+	 */
+	static StackTraceElement findCaller(final String traceClass) {
 		StackTraceElement[] stackElements = new Exception().getStackTrace();
 		int i = 0;
 		while (i < stackElements.length) {
@@ -124,18 +134,12 @@ public class FrameworkDebugTraceEntry {
 				 * then we assume this stack element is the caller of the trace API.
 				 */
 				if ((traceClass == null) || !fullClassName.equals(traceClass)) {
-					determineClassName = stackElements[i].getClassName();
-					determineMethodName = stackElements[i].getMethodName();
-					determineLineNumber = stackElements[i].getLineNumber();
-					break; // only break when the right stack element has been found; Otherwise keep trying
+					return stackElements[i]; // only return when the right stack element has been found; Otherwise keep trying
 				}
 			}
 			i++;
 		}
-
-		className = determineClassName;
-		methodName = determineMethodName;
-		lineNumber = determineLineNumber;
+		return null;
 	}
 
 	/*
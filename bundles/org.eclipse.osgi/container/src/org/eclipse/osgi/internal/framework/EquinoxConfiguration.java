@@ -141,6 +141,13 @@ public class EquinoxConfiguration implements EnvironmentInfo {
 	public final boolean CLASS_CERTIFICATE;
 	public final boolean PARALLEL_CAPABLE;
 
+	public final List<String> SERVICE_REGISTRY_INDEXES;
+	public final int CLASSPATH_NEGATIVE_CACHE_SIZE;
+	public final int SECURITY_EVALUATION_CACHE_SIZE;
+	public final long SECURITY_EVALUATION_CACHE_EXPIRATION;
+	public final boolean BUNDLE_FILE_MAPPED;
+	public final boolean STORAGE_JOURNAL;
+
 	private final Map<Throwable, Integer> exceptions = new LinkedHashMap<>(0);
 
 	// JVM os.arch property name
@@ -212,6 +219,21 @@ public class EquinoxConfiguration implements EnvironmentInfo {
 
 	public static final String PROP_EQUINOX_SECURITY = "eclipse.security"; //$NON-NLS-1$
 	public static final String PROP_FILE_LIMIT = "osgi.bundlefile.limit"; //$NON-NLS-1$
+	/**
+	 * If set to {@code true} the content of jar bundles is read from memory mapped
+	 * files instead of {@link java.util.zip.ZipFile}. Mapped bundle files are not
+	 * limited by {@link #PROP_FILE_LIMIT}. Only the jar bundles copied into the
+	 * storage are mapped; jar bundles installed by reference are not. Jar bundles
+	 * are not mapped when signed bundles are verified at runtime.
+	 */
+	public static final String PROP_BUNDLE_FILE_MAPPED = "equinox.bundlefile.mapped"; //$NON-NLS-1$
+	/**
+	 * If set to {@code true} the changes to the framework storage are appended to
+	 * a journal instead of rewriting the framework info each time the storage is
+	 * saved. The journal is compacted into the framework info once it gets large
+	 * and when the framework is stopped.
+	 */
+	public static final String PROP_STORAGE_JOURNAL = "equinox.storage.journal"; //$NON-NLS-1$
 
 	public final static String PROP_CLASS_CERTIFICATE_SUPPORT = "osgi.support.class.certificate"; //$NON-NLS-1$
 	public final static String PROP_CLASS_LOADER_TYPE = "osgi.classloader.type"; //$NON-NLS-1$
@@ -241,6 +263,39 @@ public class EquinoxConfiguration implements EnvironmentInfo {
 	public static final String PROP_EQUINOX_START_LEVEL_RESTRICT_PARALLEL = "equinox.start.level.restrict.parallel"; //$NON-NLS-1$
 	public static final String PROP_RESOLVER_REVISION_BATCH_SIZE = "equinox.resolver.revision.batch.size"; //$NON-NLS-1$
 	public static final String PROP_RESOLVER_BATCH_TIMEOUT = "equinox.resolver.batch.timeout"; //$NON-NLS-1$
+	public static final String PROP_RESOLVER_INCREMENTAL = "equinox.resolver.incremental"; //$NON-NLS-1$
+	public static final String PROP_RESOLVER_PARALLEL_GRANULARITY = "equinox.resolver.parallel.granularity"; //$NON-NLS-1$
+
+	/**
+	 * A comma separated list of service property keys to index in the service
+	 * registry, for example {@code service.pid,component.name,osgi.jaxrs.name}.
+	 * Service lookups with a filter requiring one of these properties to be equal
+	 * to a value only match the filter against the services having that value.
+	 */
+	public static final String PROP_SERVICE_REGISTRY_INDEXES = "equinox.service.registry.indexes"; //$NON-NLS-1$
+
+	/**
+	 * The maximum number of class and resource names which were not found on the
+	 * class path of a bundle to remember, so the class path does not have to be
+	 * searched again for them. A value of zero disables the cache. The cache is
+	 * disabled by default in development mode, and it is never used for a class
+	 * path which contains a directory.
+	 */
+	public static final String PROP_CLASSPATH_NEGATIVE_CACHE_SIZE = "equinox.classpath.negative.cache.size"; //$NON-NLS-1$
+
+	/**
+	 * The maximum number of conditional permission decisions to cache. Once the
+	 * cache is full the least recently used decisions are evicted. A value of zero
+	 * disables the cache. The default is 10000.
+	 */
+	public static final String PROP_SECURITY_EVALUATION_CACHE_SIZE = "equinox.security.evaluation.cache.size"; //$NON-NLS-1$
+
+	/**
+	 * The time in milliseconds a conditional permission decision is cached. A
+	 * decision older than this is evaluated again. A value of zero keeps the
+	 * decisions until they are evicted. The default is zero.
+	 */
+	public static final String PROP_SECURITY_EVALUATION_CACHE_EXPIRATION = "equinox.security.evaluation.cache.expiration"; //$NON-NLS-1$
 
 	public static final String PROP_SYSTEM_PROVIDE_HEADER = "equinox.system.provide.header"; //$NON-NLS-1$
 	public static final String SYSTEM_PROVIDE_HEADER_ORIGINAL = "original"; //$NON-NLS-1$
@@ -657,6 +712,45 @@ public class EquinoxConfiguration implements EnvironmentInfo {
 
 		PARALLEL_CAPABLE = CLASS_LOADER_TYPE_PARALLEL.equals(getConfiguration(PROP_CLASS_LOADER_TYPE));
 
+		SERVICE_REGISTRY_INDEXES = Collections
+				.unmodifiableList(Arrays.asList(getArrayFromList(getConfiguration(PROP_SERVICE_REGISTRY_INDEXES))));
+
+		int negativeCacheSize = devMode ? 0 : 256;
+		try {
+			String prop = getConfiguration(PROP_CLASSPATH_NEGATIVE_CACHE_SIZE);
+			if (prop != null) {
+				negativeCacheSize = Math.max(0, Integer.parseInt(prop));
+			}
+		} catch (NumberFormatException e) {
+			// use the default
+		}
+		CLASSPATH_NEGATIVE_CACHE_SIZE = negativeCacheSize;
+
+		int evaluationCacheSize = 10000;
+		try {
+			String prop = getConfiguration(PROP_SECURITY_EVALUATION_CACHE_SIZE);
+			if (prop != null) {
+				evaluationCacheSize = Math.max(0, Integer.parseInt(prop));
+			}
+		} catch (NumberFormatException e) {
+			// use the default
+		}
+		SECURITY_EVALUATION_CACHE_SIZE = evaluationCacheSize;
+
+		long evaluationCacheExpiration = 0;
+		try {
+			String prop = getConfiguration(PROP_SECURITY_EVALUATION_CACHE_EXPIRATION);
+			if (prop != null) {
+				evaluationCacheExpiration = Math.max(0, Long.parseLong(prop));
+			}
+		} catch (NumberFormatException e) {
+			// use the default
+		}
+		SECURITY_EVALUATION_CACHE_EXPIRATION = evaluationCacheExpiration;
+
+		BUNDLE_FILE_MAPPED = Boolean.parseBoolean(getConfiguration(PROP_BUNDLE_FILE_MAPPED));
+		STORAGE_JOURNAL = Boolean.parseBoolean(getConfiguration(PROP_STORAGE_JOURNAL));
+
 		// A specified osgi.dev property but unspecified osgi.checkConfiguration
 		// property implies osgi.checkConfiguration = true.
 		inCheckConfigurationMode = Boolean
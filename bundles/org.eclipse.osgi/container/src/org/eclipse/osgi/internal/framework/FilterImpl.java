@@ -16,6 +16,7 @@ package org.eclipse.osgi.internal.framework;
 
 import static java.util.Objects.requireNonNull;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -43,6 +44,7 @@ import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.Version;
+import org.osgi.framework.VersionRange;
 
 /**
  * RFC 1960-based Filter. Filter objects can be created by calling the
@@ -844,22 +846,35 @@ public abstract class FilterImpl implements Filter {
 	}
 
 	static class Equal extends Item {
+		/**
+		 * Marker for an operand value which could not be converted to the target type.
+		 */
+		private static final Object INVALID = new Object();
+
 		final String value;
-		private Object cached;
+		/*
+		 * The operand value converted to the target types on first use. The
+		 * converted values are immutable so racing to set them is harmless.
+		 */
+		private Object longOperand;
+		private Object doubleOperand;
+		private Object floatOperand;
+		private Object booleanOperand;
+		private Object versionOperand;
+		private TypedOperand typedOperand;
 
 		Equal(String attr, String value, boolean debug) {
 			super(attr, debug);
 			this.value = value;
 		}
 
-		private <T> T convert(Class<T> type, Function<String, ? extends T> converter) {
-			@SuppressWarnings("unchecked")
-			T converted = (T) cached;
-			if ((converted != null) && type.isInstance(converted)) {
-				return converted;
+		private Object convert(Function<String, ?> converter) {
+			try {
+				return converter.apply(value.trim());
+			} catch (RuntimeException e) {
+				// if the conversion throws an exception the operand can never match
+				return INVALID;
 			}
-			cached = converted = converter.apply(value.trim());
-			return converted;
 		}
 
 		@Override
@@ -883,19 +898,28 @@ public abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Version(Version value1) {
+			Object version2 = versionOperand;
+			if (version2 == null) {
+				versionOperand = version2 = convert(Version::valueOf);
+			}
+			if (version2 == INVALID) {
+				return false;
+			}
 			try {
-				Version version2 = convert(Version.class, Version::valueOf);
-				return comparison(value1.compareTo(version2));
+				return comparison(value1.compareTo((Version) version2));
 			} catch (Exception e) {
-				// if the valueOf or compareTo method throws an exception
+				// if the compareTo method throws an exception
 				return false;
 			}
 		}
 
 		@Override
 		boolean compare_Boolean(boolean boolval) {
-			boolean boolval2 = convert(Boolean.class, Boolean::valueOf).booleanValue();
-			return comparison(Boolean.compare(boolval, boolval2));
+			Object boolval2 = booleanOperand;
+			if (boolval2 == null) {
+				booleanOperand = boolval2 = convert(Boolean::valueOf);
+			}
+			return comparison(Boolean.compare(boolval, ((Boolean) boolval2).booleanValue()));
 		}
 
 		@Override
@@ -911,40 +935,43 @@ public abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Double(double doubleval) {
-			double doubleval2;
-			try {
-				doubleval2 = convert(Double.class, Double::valueOf).doubleValue();
-			} catch (IllegalArgumentException e) {
+			Object doubleval2 = doubleOperand;
+			if (doubleval2 == null) {
+				doubleOperand = doubleval2 = convert(Double::valueOf);
+			}
+			if (doubleval2 == INVALID) {
 				return false;
 			}
-			return comparison(Double.compare(doubleval, doubleval2));
+			return comparison(Double.compare(doubleval, ((Double) doubleval2).doubleValue()));
 		}
 
 		@Override
 		boolean compare_Float(float floatval) {
-			float floatval2;
-			try {
-				floatval2 = convert(Float.class, Float::valueOf).floatValue();
-			} catch (IllegalArgumentException e) {
+			Object floatval2 = floatOperand;
+			if (floatval2 == null) {
+				floatOperand = floatval2 = convert(Float::valueOf);
+			}
+			if (floatval2 == INVALID) {
 				return false;
 			}
-			return comparison(Float.compare(floatval, floatval2));
+			return comparison(Float.compare(floatval, ((Float) floatval2).floatValue()));
 		}
 
 		@Override
 		boolean compare_Long(long longval) {
-			long longval2;
-			try {
-				longval2 = convert(Long.class, Long::valueOf).longValue();
-			} catch (IllegalArgumentException e) {
+			Object longval2 = longOperand;
+			if (longval2 == null) {
+				longOperand = longval2 = convert(Long::valueOf);
+			}
+			if (longval2 == INVALID) {
 				return false;
 			}
-			return comparison(Long.compare(longval, longval2));
+			return comparison(Long.compare(longval, ((Long) longval2).longValue()));
 		}
 
 		@Override
 		boolean compare_Comparable(Comparable<Object> value1) {
-			Object value2 = valueOf(value1.getClass());
+			Object value2 = typedOperand(value1.getClass());
 			if (value2 == null) {
 				return false;
 			}
@@ -958,7 +985,7 @@ public abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Unknown(Object value1) {
-			Object value2 = valueOf(value1.getClass());
+			Object value2 = typedOperand(value1.getClass());
 			if (value2 == null) {
 				return false;
 			}
@@ -970,6 +997,27 @@ public abstract class FilterImpl implements Filter {
 			}
 		}
 
+		/**
+		 * Returns the operand value converted to the target type, avoiding the
+		 * reflective conversion if the last conversion was for the same type and
+		 * its value has not been collected.
+		 */
+		private Object typedOperand(Class<?> target) {
+			TypedOperand operand = typedOperand;
+			if (operand != null && operand.get() == target) {
+				if (operand.value == null) {
+					return null; // the operand cannot be converted to the target type
+				}
+				Object value2 = operand.value.get();
+				if (value2 != null) {
+					return value2;
+				}
+			}
+			Object value2 = valueOf(target);
+			typedOperand = new TypedOperand(target, value2);
+			return value2;
+		}
+
 		@Override
 		StringBuilder normalize(StringBuilder sb) {
 			sb.append('(').append(attr).append('=');
@@ -1059,6 +1107,26 @@ public abstract class FilterImpl implements Filter {
 		}
 	}
 
+	/**
+	 * An operand value converted to a type which has no specific compare method.
+	 * The type is usually loaded by a bundle class loader, so both the type and
+	 * the converted value, which references the type, are held weakly to not
+	 * prevent the class loader from being collected once the bundle is uninstalled
+	 * or refreshed while the filter is still in use.
+	 */
+	static final class TypedOperand extends WeakReference<Class<?>> {
+		/*
+		 * The converted value, or null if the operand cannot be converted to the
+		 * type.
+		 */
+		final WeakReference<Object> value;
+
+		TypedOperand(Class<?> type, Object value) {
+			super(type);
+			this.value = (value == null) ? null : new WeakReference<>(value);
+		}
+	}
+
 	static final class LessEqual extends Equal {
 		LessEqual(String attr, String value, boolean debug) {
 			super(attr, value, debug);
@@ -1278,6 +1346,80 @@ public abstract class FilterImpl implements Filter {
 		return null;
 	}
 
+	/**
+	 * Returns the range a version value of the specified attribute must be within
+	 * for the filter to evaluate to true. This is useful for indexing candidates by
+	 * version to match against this filter. Like {@link #getPrimaryKeyValue(String)}
+	 * only simple filters are checked where the attribute is compared by the filter
+	 * itself or by the operands of a base '&amp;' clause.
+	 * <p>
+	 * (version&gt;=1.0) returns [1.0,&infin;)<br>
+	 * (&amp;(version&gt;=1.0)(!(version&gt;=2.0))) returns [1.0,2.0)<br>
+	 * (&amp;(version=1.0)(|(vendor=IBM)(vendor=SUN))) returns [1.0,1.0]<br>
+	 * (!(version&gt;=2.0)) returns null because it also matches when the attribute
+	 * is not present<br>
+	 * (|(version=1.0)(version=2.0)) returns null
+	 * <p>
+	 * Each comparison may be satisfied by a different element of a collection or
+	 * array value so the range only applies to single version values.
+	 *
+	 * @param attribute the attribute
+	 * @return The range or null if none could be determined.
+	 */
+	public VersionRange getVersionRange(String attribute) {
+		FilterImpl[] operands = this instanceof And ? ((And) this).operands : new FilterImpl[] { this };
+		Version left = Version.emptyVersion;
+		boolean leftOpen = false;
+		Version right = null;
+		boolean rightOpen = false;
+		boolean required = false;
+		for (FilterImpl operand : operands) {
+			boolean not = operand instanceof Not;
+			FilterImpl item = not ? ((Not) operand).operand : operand;
+			if (!(item instanceof Equal) || item instanceof Approx || !attribute.equals(((Equal) item).attr)) {
+				continue;
+			}
+			Version version;
+			try {
+				version = Version.valueOf(((Equal) item).value);
+			} catch (IllegalArgumentException e) {
+				// not a version; leave the comparison to the filter
+				continue;
+			}
+			boolean lower = !not;
+			boolean upper = !not;
+			boolean open = not;
+			if (item instanceof GreaterEqual) {
+				upper = not;
+			} else if (item instanceof LessEqual) {
+				lower = not;
+			} else if (not) {
+				// (!(version=1.0)) does not bound the range
+				continue;
+			}
+			if (lower) {
+				int compare = version.compareTo(left);
+				if (compare > 0 || (compare == 0 && open)) {
+					left = version;
+					leftOpen = open;
+				}
+			}
+			if (upper) {
+				int compare = right == null ? -1 : version.compareTo(right);
+				if (compare < 0 || (compare == 0 && open)) {
+					right = version;
+					rightOpen = open;
+				}
+			}
+			required |= !not;
+		}
+		if (!required) {
+			return null;
+		}
+		return new VersionRange(leftOpen ? VersionRange.LEFT_OPEN : VersionRange.LEFT_CLOSED, left, right,
+				rightOpen || right == null ? VersionRange.RIGHT_OPEN : VersionRange.RIGHT_CLOSED);
+	}
+
 	public List<FilterImpl> getChildren() {
 		return Collections.emptyList();
 	}
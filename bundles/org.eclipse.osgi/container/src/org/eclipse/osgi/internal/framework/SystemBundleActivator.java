@@ -26,8 +26,10 @@ import org.eclipse.osgi.internal.debug.FrameworkDebugOptions;
 import org.eclipse.osgi.internal.framework.legacy.PackageAdminImpl;
 import org.eclipse.osgi.internal.framework.legacy.StartLevelImpl;
 import org.eclipse.osgi.internal.location.BasicLocation;
+import org.eclipse.osgi.internal.loader.classpath.NegativeLookupCacheStatistics;
 import org.eclipse.osgi.internal.location.EquinoxLocations;
 import org.eclipse.osgi.internal.permadmin.EquinoxSecurityManager;
+import org.eclipse.osgi.internal.permadmin.EvaluationCacheStatistics;
 import org.eclipse.osgi.internal.permadmin.SecurityAdmin;
 import org.eclipse.osgi.internal.url.EquinoxFactoryManager;
 import org.eclipse.osgi.service.debug.DebugOptions;
@@ -95,6 +97,9 @@ public class SystemBundleActivator implements BundleActivator {
 		SecurityAdmin sa = equinoxContainer.getStorage().getSecurityAdmin();
 		register(bc, PermissionAdmin.class, sa, null);
 		register(bc, ConditionalPermissionAdmin.class, sa, null);
+		register(bc, EvaluationCacheStatistics.class, sa.getEvaluationCacheStatistics(), null);
+		register(bc, NegativeLookupCacheStatistics.class,
+				equinoxContainer.getStorage().getNegativeLookupCacheCounters(), null);
 
 		props.clear();
 		props.put(Constants.SERVICE_RANKING, Integer.MIN_VALUE);
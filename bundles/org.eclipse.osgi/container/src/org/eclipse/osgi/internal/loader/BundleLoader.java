@@ -324,6 +324,8 @@ public class BundleLoader extends ModuleLoader {
 	@Override
 	protected void loadFragments(Collection<ModuleRevision> fragments) {
 		addFragmentExports(wiring.getModuleCapabilities(PackageNamespace.PACKAGE_NAMESPACE));
+		// fragment exports may change the providers found by required bundle searches
+		container.getStorage().getRequiredSourcesCache().clear();
 		loadClassLoaderFragments(fragments);
 		clearManifestLocalizationCache();
 	}
@@ -1291,15 +1293,24 @@ public class BundleLoader extends ModuleLoader {
 			if (result != null)
 				return result.isNullSource() ? null : result;
 		}
-		if (visited == null)
-			visited = new ArrayList<>();
-		if (!visited.contains(this))
-			visited.add(this); // always add ourselves so we do not recurse back to ourselves
-		List<PackageSource> result = new ArrayList<>(3);
-		for (ModuleWire bundleWire : requiredBundleWires) {
-			BundleLoader loader = getProviderLoader(bundleWire);
-			if (loader != null) {
-				loader.addExportedProvidersFor(pkgName, result, visited);
+		RequiredSourcesCache cache = container.getStorage().getRequiredSourcesCache();
+		// only a search which starts from this loader finds all providers
+		boolean completeSearch = visited == null;
+		List<PackageSource> result = completeSearch ? getCachedRequiredSources(cache, pkgName) : null;
+		if (result == null) {
+			if (visited == null)
+				visited = new ArrayList<>();
+			if (!visited.contains(this))
+				visited.add(this); // always add ourselves so we do not recurse back to ourselves
+			result = new ArrayList<>(3);
+			for (ModuleWire bundleWire : requiredBundleWires) {
+				BundleLoader loader = getProviderLoader(bundleWire);
+				if (loader != null) {
+					loader.addExportedProvidersFor(pkgName, result, visited);
+				}
+			}
+			if (completeSearch) {
+				cacheRequiredSources(cache, pkgName, result);
 			}
 		}
 		// found some so cache the result for next time and return
@@ -1322,6 +1333,56 @@ public class BundleLoader extends ModuleLoader {
 		return source.isNullSource() ? null : source;
 	}
 
+	/*
+	 * Returns the provider sources recorded for the package by a previous search
+	 * with the same wiring or null if the providers are not known or are no longer
+	 * valid.
+	 */
+	private List<PackageSource> getCachedRequiredSources(RequiredSourcesCache cache, String pkgName) {
+		ModuleWiring[] providers = cache.getProviders(wiring, pkgName);
+		if (providers == null) {
+			return null;
+		}
+		List<PackageSource> result = new ArrayList<>(providers.length);
+		for (ModuleWiring providerWiring : providers) {
+			// a provider wiring which is still current is reached through the same wires
+			BundleLoader loader = RequiredSourcesCache.isCurrent(providerWiring)
+					? (BundleLoader) providerWiring.getModuleLoader()
+					: null;
+			if (loader == null || !loader.isExportedPackage(pkgName)) {
+				// the provider has changed; search again
+				return null;
+			}
+			result.add(loader.exportSources.getPackageSource(pkgName));
+		}
+		if (debug.DEBUG_LOADER) {
+			Debug.println("BundleLoader[" + this + "] using cached required sources for " + pkgName); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return result;
+	}
+
+	/*
+	 * Records the providers of the package sources found by a search of the
+	 * required bundles. Nothing is recorded if a source is not the export source of
+	 * a current provider, for example when the package is substituted by an import.
+	 */
+	private void cacheRequiredSources(RequiredSourcesCache cache, String pkgName, List<PackageSource> sources) {
+		ModuleWiring[] providers = new ModuleWiring[sources.size()];
+		for (int i = 0; i < providers.length; i++) {
+			PackageSource source = sources.get(i);
+			if (!(source instanceof SingleSourcePackage)) {
+				return;
+			}
+			BundleLoader loader = ((SingleSourcePackage) source).getLoader();
+			if (!loader.wiring.isCurrent() || !loader.isExportedPackage(pkgName)
+					|| loader.exportSources.getPackageSource(pkgName) != source) {
+				return;
+			}
+			providers[i] = loader.wiring;
+		}
+		cache.putProviders(wiring, pkgName, providers);
+	}
+
 	/*
 	 * Gets the package source for the pkgName. This will include the local package
 	 * source if the bundle exports the package. This is used to compare the
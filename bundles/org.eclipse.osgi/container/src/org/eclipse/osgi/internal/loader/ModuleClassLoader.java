@@ -25,9 +25,9 @@ import java.security.ProtectionDomain;
 import java.security.cert.Certificate;
 import java.util.Collection;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.eclipse.osgi.container.ModuleRevision;
 import org.eclipse.osgi.internal.debug.Debug;
 import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
@@ -100,7 +100,21 @@ public abstract class ModuleClassLoader extends ClassLoader implements BundleRef
 		}
 	}
 
-	private final Map<String, Thread> classNameLocks = new HashMap<>(5);
+	/*
+	 * A lock held by a thread defining a class. Threads waiting to define the same
+	 * class wait on the lock itself, so only they are woken when it is released.
+	 */
+	private static final class ClassNameLock {
+		final Thread owner;
+		/* @GuardedBy("this") */
+		boolean released;
+
+		ClassNameLock(Thread owner) {
+			this.owner = owner;
+		}
+	}
+
+	private final ConcurrentMap<String, ClassNameLock> classNameLocks = new ConcurrentHashMap<>();
 	private final Object pkgLock = new Object();
 
 	/**
@@ -428,40 +442,44 @@ public abstract class ModuleClassLoader extends ClassLoader implements BundleRef
 	}
 
 	private boolean lockClassName(String classname) {
-		synchronized (classNameLocks) {
-			Object lockingThread = classNameLocks.get(classname);
-			Thread current = Thread.currentThread();
-			if (lockingThread == current)
-				return false;
-			boolean previousInterruption = Thread.interrupted();
-			try {
-				while (true) {
-					if (lockingThread == null) {
-						classNameLocks.put(classname, current);
-						return true;
+		Thread current = Thread.currentThread();
+		ClassNameLock lock = new ClassNameLock(current);
+		ClassNameLock existing = classNameLocks.putIfAbsent(classname, lock);
+		if (existing == null)
+			return true;
+		if (existing.owner == current)
+			return false;
+		boolean previousInterruption = Thread.interrupted();
+		try {
+			do {
+				synchronized (existing) {
+					while (!existing.released) {
+						existing.wait();
 					}
-
-					classNameLocks.wait();
-					lockingThread = classNameLocks.get(classname);
-				}
-			} catch (InterruptedException e) {
-				previousInterruption = true;
-				// must not throw LinkageError or ClassNotFoundException here because that will
-				// cause all threads
-				// to fail to load the class (see bug 490902)
-				throw new Error("Interrupted while waiting for classname lock: " + classname, e); //$NON-NLS-1$
-			} finally {
-				if (previousInterruption) {
-					current.interrupt();
 				}
+				existing = classNameLocks.putIfAbsent(classname, lock);
+			} while (existing != null);
+			return true;
+		} catch (InterruptedException e) {
+			previousInterruption = true;
+			// must not throw LinkageError or ClassNotFoundException here because that will
+			// cause all threads
+			// to fail to load the class (see bug 490902)
+			throw new Error("Interrupted while waiting for classname lock: " + classname, e); //$NON-NLS-1$
+		} finally {
+			if (previousInterruption) {
+				current.interrupt();
 			}
 		}
 	}
 
 	private void unlockClassName(String classname) {
-		synchronized (classNameLocks) {
-			classNameLocks.remove(classname);
-			classNameLocks.notifyAll();
+		ClassNameLock lock = classNameLocks.remove(classname);
+		if (lock != null) {
+			synchronized (lock) {
+				lock.released = true;
+				lock.notifyAll();
+			}
 		}
 	}
 
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.internal.loader;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.eclipse.osgi.container.Module;
+import org.eclipse.osgi.container.ModuleContainer;
+import org.eclipse.osgi.container.ModuleRevision;
+import org.eclipse.osgi.container.ModuleWiring;
+import org.eclipse.osgi.framework.util.ObjectPool;
+
+/**
+ * Records, for each wiring, the bundles which provide a package to the wiring
+ * through its required bundle wires. The result of a required bundle search
+ * only depends on the wiring and the wirings of its providers, so the recorded
+ * providers are persisted with the framework data and are reused by the
+ * {@link BundleLoader} of the same wiring after a restart instead of searching
+ * the required bundle graph again.
+ * <p>
+ * Recorded providers are keyed by the identity of the wiring and refer to the
+ * wirings of the providers. When a bundle is refreshed its wiring is replaced
+ * and the recorded providers of the old wiring are never used again; a
+ * recorded provider whose wiring was replaced is never used either.
+ *
+ * @ThreadSafe
+ */
+public final class RequiredSourcesCache {
+	private static final long[] EMPTY = new long[0];
+	private static final ModuleWiring[] NO_PROVIDERS = new ModuleWiring[0];
+
+	/* @GuardedBy("this") */
+	private final Map<ModuleWiring, Map<String, ModuleWiring[]>> sources = new WeakHashMap<>();
+	/* @GuardedBy("this") */
+	private Map<Long, Map<String, long[]>> loaded = new HashMap<>();
+
+	/**
+	 * Returns the wirings which provided the package to the wiring, in search
+	 * order, or {@code null} if nothing has been recorded. An empty array
+	 * indicates that no required bundle provides the package.
+	 */
+	synchronized ModuleWiring[] getProviders(ModuleWiring wiring, String packageName) {
+		Map<String, ModuleWiring[]> providers = sources.get(wiring);
+		return providers == null ? null : providers.get(packageName);
+	}
+
+	synchronized void putProviders(ModuleWiring wiring, String packageName, ModuleWiring[] providers) {
+		sources.computeIfAbsent(wiring, w -> new HashMap<>()).put(packageName, providers);
+	}
+
+	/**
+	 * Discards all recorded providers.
+	 */
+	public synchronized void clear() {
+		sources.clear();
+		loaded.clear();
+	}
+
+	/**
+	 * Returns the current wiring of the module with the specified id or
+	 * {@code null} if the module does not have a current wiring.
+	 */
+	static ModuleWiring getCurrentWiring(ModuleContainer container, long id) {
+		Module module = container.getModule(id);
+		ModuleRevision current = module == null ? null : module.getCurrentRevision();
+		ModuleWiring wiring = current == null ? null : current.getWiring();
+		return wiring != null && wiring.isCurrent() ? wiring : null;
+	}
+
+	/**
+	 * Returns whether the wiring is still the current wiring of its revision.
+	 */
+	static boolean isCurrent(ModuleWiring wiring) {
+		return wiring.isCurrent() && wiring.getRevision().getWiring() == wiring;
+	}
+
+	/**
+	 * Reads the providers persisted by {@link #save(DataOutputStream, List)}. The
+	 * providers are not used until they are bound to the loaded wirings with
+	 * {@link #bind(ModuleContainer)}.
+	 */
+	public synchronized void load(DataInputStream in) throws IOException {
+		int numWirings = in.readInt();
+		loaded = new HashMap<>(numWirings);
+		for (int i = 0; i < numWirings; i++) {
+			long id = in.readLong();
+			int numPackages = in.readInt();
+			Map<String, long[]> packages = new HashMap<>(numPackages);
+			for (int j = 0; j < numPackages; j++) {
+				String packageName = ObjectPool.intern(in.readUTF());
+				int numProviders = in.readInt();
+				long[] providers = numProviders == 0 ? EMPTY : new long[numProviders];
+				for (int k = 0; k < numProviders; k++) {
+					providers[k] = in.readLong();
+				}
+				packages.put(packageName, providers);
+			}
+			loaded.put(id, packages);
+		}
+	}
+
+	/**
+	 * Binds the loaded providers to the current wirings of the container. This
+	 * must only be called right after the wirings have been loaded from the same
+	 * persistent data as the providers.
+	 */
+	public synchronized void bind(ModuleContainer container) {
+		for (Map.Entry<Long, Map<String, long[]>> entry : loaded.entrySet()) {
+			ModuleWiring wiring = getCurrentWiring(container, entry.getKey());
+			if (wiring == null) {
+				continue;
+			}
+			Map<String, ModuleWiring[]> packages = new HashMap<>(entry.getValue().size());
+			for (Map.Entry<String, long[]> providerIds : entry.getValue().entrySet()) {
+				ModuleWiring[] providers = bind(container, providerIds.getValue());
+				if (providers != null) {
+					packages.put(providerIds.getKey(), providers);
+				}
+			}
+			sources.put(wiring, packages);
+		}
+		loaded = new HashMap<>();
+	}
+
+	private static ModuleWiring[] bind(ModuleContainer container, long[] providerIds) {
+		if (providerIds.length == 0) {
+			return NO_PROVIDERS;
+		}
+		ModuleWiring[] providers = new ModuleWiring[providerIds.length];
+		for (int i = 0; i < providerIds.length; i++) {
+			providers[i] = getCurrentWiring(container, providerIds[i]);
+			if (providers[i] == null) {
+				return null;
+			}
+		}
+		return providers;
+	}
+
+	/**
+	 * Discards the providers recorded for wirings which are no longer the current
+	 * wiring of their module, such as the bound wirings replaced when the deltas
+	 * of the storage journal are loaded.
+	 */
+	public synchronized void retainCurrent(ModuleContainer container) {
+		sources.keySet().removeIf(
+				wiring -> getCurrentWiring(container, wiring.getRevision().getRevisions().getModule().getId()) != wiring);
+	}
+
+	/**
+	 * Writes the recorded providers of the current wirings of the specified
+	 * revisions.
+	 */
+	public void save(DataOutputStream out, List<ModuleRevision> revisions) throws IOException {
+		List<Long> ids = new ArrayList<>();
+		List<Map<String, long[]>> packages = new ArrayList<>();
+		synchronized (this) {
+			for (ModuleRevision revision : revisions) {
+				ModuleWiring wiring = revision.getWiring();
+				Map<String, ModuleWiring[]> providers = wiring == null || !wiring.isCurrent() ? null
+						: sources.get(wiring);
+				Map<String, long[]> providerIds = providers == null ? null : getProviderIds(providers);
+				if (providerIds != null && !providerIds.isEmpty()) {
+					ids.add(revision.getRevisions().getModule().getId());
+					packages.add(providerIds);
+				}
+			}
+		}
+		out.writeInt(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			out.writeLong(ids.get(i));
+			Map<String, long[]> providers = packages.get(i);
+			out.writeInt(providers.size());
+			for (Map.Entry<String, long[]> entry : providers.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().length);
+				for (long id : entry.getValue()) {
+					out.writeLong(id);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns the module ids of the recorded providers which are still current,
+	 * the ids are bound to the wirings loaded with them after a restart.
+	 */
+	private static Map<String, long[]> getProviderIds(Map<String, ModuleWiring[]> providers) {
+		Map<String, long[]> providerIds = new HashMap<>(providers.size());
+		recorded: for (Map.Entry<String, ModuleWiring[]> entry : providers.entrySet()) {
+			ModuleWiring[] wirings = entry.getValue();
+			long[] ids = wirings.length == 0 ? EMPTY : new long[wirings.length];
+			for (int i = 0; i < wirings.length; i++) {
+				if (!isCurrent(wirings[i])) {
+					continue recorded;
+				}
+				ids[i] = wirings[i].getRevision().getRevisions().getModule().getId();
+			}
+			providerIds.put(entry.getKey(), ids);
+		}
+		return providerIds;
+	}
+}
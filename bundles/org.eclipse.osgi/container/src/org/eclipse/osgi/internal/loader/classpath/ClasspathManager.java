@@ -82,6 +82,8 @@ public class ClasspathManager {
 	// used to detect recusive defineClass calls for the same class on the same
 	// class loader (bug 345500)
 	private ThreadLocal<DefineContext> currentDefineContext = new ThreadLocal<>();
+	// names not found on the classpath; null if disabled
+	private final NegativeLookupCache negativeCache;
 
 	/**
 	 * Constructs a classpath manager for the given generation and module class
@@ -96,9 +98,37 @@ public class ClasspathManager {
 		this.hookRegistry = configuration.getHookRegistry();
 		this.generation = generation;
 		this.classloader = classloader;
+		this.negativeCache = configuration.CLASSPATH_NEGATIVE_CACHE_SIZE > 0
+				? new NegativeLookupCache(configuration.CLASSPATH_NEGATIVE_CACHE_SIZE,
+						generation.getBundleInfo().getStorage().getNegativeLookupCacheCounters())
+				: null;
 		String[] cp = getClassPath(generation.getRevision());
 		this.fragments = buildFragmentClasspaths(this.classloader, this);
 		this.entries = buildClasspath(cp, this, this.generation);
+		if (negativeCache != null) {
+			boolean directory = hasDirectory(entries);
+			for (FragmentClasspath fragment : fragments) {
+				directory |= hasDirectory(fragment.getEntries());
+			}
+			if (directory) {
+				negativeCache.disable();
+			}
+		}
+	}
+
+	/*
+	 * Returns true if one of the entries is a directory. Classes and resources may
+	 * be added to a directory at any time, for example to a bundle installed by
+	 * reference to a directory, so names missing from it are not cached.
+	 */
+	private static boolean hasDirectory(ClasspathEntry[] cpEntries) {
+		for (ClasspathEntry cpEntry : cpEntries) {
+			File baseFile = cpEntry == null ? null : cpEntry.getBundleFile().getBaseFile();
+			if (baseFile != null && baseFile.isDirectory()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	private static String[] getClassPath(ModuleRevision revision) {
@@ -168,6 +198,17 @@ public class ClasspathManager {
 		for (FragmentClasspath currentFragment : currentFragments) {
 			currentFragment.close();
 		}
+		clearNegativeCache("close"); //$NON-NLS-1$
+	}
+
+	private void clearNegativeCache(String reason) {
+		if (negativeCache == null) {
+			return;
+		}
+		if (debug.DEBUG_LOADER_NEGATIVE_CACHE) {
+			Debug.println("ClasspathManager[" + generation + "] negative cache " + reason + ": " + negativeCache); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		negativeCache.clear();
 	}
 
 	private ClasspathEntry[] buildClasspath(String[] cp, ClasspathManager hostloader, Generation source) {
@@ -358,6 +399,15 @@ public class ClasspathManager {
 		}
 
 		fragments = result.toArray(new FragmentClasspath[result.size()]);
+		// the fragments may provide names which were missing before
+		clearNegativeCache("fragment attach"); //$NON-NLS-1$
+		if (negativeCache != null) {
+			for (FragmentClasspath fragment : fragments) {
+				if (hasDirectory(fragment.getEntries())) {
+					negativeCache.disable();
+				}
+			}
+		}
 	}
 
 	private static BundleFile createBundleFile(File content, Generation generation) {
@@ -436,6 +486,15 @@ public class ClasspathManager {
 			}
 		}
 
+		boolean useNegativeCache = negativeCache != null && classPathIndex == -1;
+		long negativeCacheGeneration = 0;
+		if (useNegativeCache) {
+			negativeCacheGeneration = negativeCache.getGeneration();
+			if (negativeCache.isMissingResource(resource)) {
+				return null;
+			}
+		}
+
 		curIndex[0] = 0;
 		// look in classpath entries
 		result = findLocalResourceImpl(resource, entries, m, classPathIndex, curIndex);
@@ -451,6 +510,9 @@ public class ClasspathManager {
 			}
 		}
 
+		if (useNegativeCache) {
+			negativeCache.addMissingResource(resource, negativeCacheGeneration);
+		}
 		return null;
 	}
 
@@ -490,6 +552,14 @@ public class ClasspathManager {
 			}
 		}
 
+		long negativeCacheGeneration = 0;
+		if (negativeCache != null) {
+			negativeCacheGeneration = negativeCache.getGeneration();
+			if (negativeCache.isMissingResource(resource)) {
+				return Collections.emptyEnumeration();
+			}
+		}
+
 		classPathIndex[0] = 0;
 		// look in host classpath entries
 		findLocalResources(resource, entries, m, classPathIndex, resources);
@@ -500,6 +570,9 @@ public class ClasspathManager {
 
 		if (resources.size() > 0)
 			return Collections.enumeration(resources);
+		if (negativeCache != null) {
+			negativeCache.addMissingResource(resource, negativeCacheGeneration);
+		}
 		return Collections.emptyEnumeration();
 	}
 
@@ -633,6 +706,14 @@ public class ClasspathManager {
 			}
 		}
 
+		long negativeCacheGeneration = 0;
+		if (negativeCache != null) {
+			negativeCacheGeneration = negativeCache.getGeneration();
+			if (negativeCache.isMissingClass(classname)) {
+				return null;
+			}
+		}
+
 		// look in classpath entries
 		result = findLocalClassImpl(classname, entries, hooks);
 		if (result != null) {
@@ -647,9 +728,22 @@ public class ClasspathManager {
 			}
 		}
 
+		if (negativeCache != null && !isDefining(classname)) {
+			negativeCache.addMissingClass(classname, negativeCacheGeneration);
+		}
 		return null;
 	}
 
+	/*
+	 * A class which is being defined by this thread is not found by recursive
+	 * lookups, but it is not missing from the classpath.
+	 */
+	private boolean isDefining(String classname) {
+		DefineContext context = currentDefineContext.get();
+		return context != null
+				&& (context.currentlyProcessing.contains(classname) || context.currentlyDefining.contains(classname));
+	}
+
 	private Class<?> findLocalClassImpl(String classname, ClasspathEntry[] cpEntries, List<ClassLoaderHook> hooks) {
 		Class<?> result;
 		for (ClasspathEntry cpEntry : cpEntries) {
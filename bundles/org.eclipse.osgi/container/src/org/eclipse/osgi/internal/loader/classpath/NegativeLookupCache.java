@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.internal.loader.classpath;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the class and resource names which could not be found on
+ * the class path of a {@link ClasspathManager}. Lookups and additions do not
+ * lock so that classes can be loaded in parallel by the same class loader. When
+ * the cache is full some names are evicted, in no particular order.
+ * <p>
+ * Each missing name records the generation of the cache it was found missing
+ * for. {@link #clear()} starts a new generation, so a name which a lookup
+ * found missing before the class path changed is never reported as missing
+ * after the change, even if the lookup adds it after the cache was cleared.
+ * Lookups must read the {@link #getGeneration() generation} before they search
+ * the class path.
+ * <p>
+ * A class path containing a directory does not use the cache, since classes
+ * and resources may be added to the directory at any time.
+ *
+ * @ThreadSafe
+ */
+public final class NegativeLookupCache {
+	/**
+	 * The counters of the caches of all the class paths of a framework.
+	 */
+	public static final class Counters implements NegativeLookupCacheStatistics {
+		final LongAdder hits = new LongAdder();
+		final LongAdder misses = new LongAdder();
+		final LongAdder disabled = new LongAdder();
+		private final int maximumSize;
+
+		public Counters(int maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		@Override
+		public long getHitCount() {
+			return hits.sum();
+		}
+
+		@Override
+		public long getMissCount() {
+			return misses.sum();
+		}
+
+		@Override
+		public long getDisabledCount() {
+			return disabled.sum();
+		}
+
+		@Override
+		public int getMaximumSize() {
+			return maximumSize;
+		}
+	}
+
+	private final int maxSize;
+	private final Counters counters;
+	// name -> generation it was found missing for
+	private final Map<String, Long> missingClasses = new ConcurrentHashMap<>();
+	private final Map<String, Long> missingResources = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+	private volatile boolean disabled;
+
+	NegativeLookupCache(int maxSize, Counters counters) {
+		this.maxSize = maxSize;
+		this.counters = counters;
+	}
+
+	/**
+	 * Returns the current generation of the cache. It must be read before the
+	 * class path is searched for a name which may then be
+	 * {@link #addMissingClass(String, long) added} as missing.
+	 */
+	long getGeneration() {
+		return generation.get();
+	}
+
+	boolean isMissingClass(String name) {
+		return isMissing(missingClasses, name);
+	}
+
+	boolean isMissingResource(String name) {
+		return isMissing(missingResources, name);
+	}
+
+	private boolean isMissing(Map<String, Long> missing, String name) {
+		if (disabled) {
+			return false;
+		}
+		Long missingGeneration = missing.get(name);
+		if (missingGeneration != null && missingGeneration.longValue() == generation.get()) {
+			counters.hits.increment();
+			return true;
+		}
+		counters.misses.increment();
+		return false;
+	}
+
+	/**
+	 * Records a class name as missing.
+	 *
+	 * @param name               the class name
+	 * @param searchedGeneration the generation read before the class path was
+	 *                           searched
+	 */
+	void addMissingClass(String name, long searchedGeneration) {
+		addMissing(missingClasses, name, searchedGeneration);
+	}
+
+	/**
+	 * Records a resource name as missing.
+	 *
+	 * @param name               the resource name
+	 * @param searchedGeneration the generation read before the class path was
+	 *                           searched
+	 */
+	void addMissingResource(String name, long searchedGeneration) {
+		addMissing(missingResources, name, searchedGeneration);
+	}
+
+	private void addMissing(Map<String, Long> missing, String name, long searchedGeneration) {
+		if (disabled || searchedGeneration != generation.get()) {
+			// the class path changed during the search
+			return;
+		}
+		// if the cache is cleared concurrently the entry is for an old generation
+		// and is ignored
+		missing.put(name, Long.valueOf(searchedGeneration));
+		if (missing.size() > maxSize) {
+			evict(missing);
+		}
+	}
+
+	private void evict(Map<String, Long> missing) {
+		// evict an eighth of the entries at once, names of old generations first
+		int target = maxSize - (maxSize >> 3);
+		long current = generation.get();
+		for (Iterator<Long> iterator = missing.values().iterator(); iterator.hasNext();) {
+			if (iterator.next().longValue() != current) {
+				iterator.remove();
+			}
+		}
+		for (Iterator<Long> iterator = missing.values().iterator(); iterator.hasNext()
+				&& missing.size() > target;) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Forgets all missing names, for example because a fragment added entries to
+	 * the class path.
+	 */
+	void clear() {
+		generation.incrementAndGet();
+		missingClasses.clear();
+		missingResources.clear();
+	}
+
+	/**
+	 * Stops using the cache, because a directory was added to the class path.
+	 */
+	void disable() {
+		if (!disabled) {
+			disabled = true;
+			counters.disabled.increment();
+		}
+		clear();
+	}
+
+	@Override
+	public String toString() {
+		return "classes=" + missingClasses.size() + " resources=" + missingResources.size() + " maxSize=" + maxSize //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ (disabled ? " disabled" : ""); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.internal.loader.classpath;
+
+/**
+ * The statistics of the caches of the class and resource names which were not
+ * found on the class paths of the bundles. The system bundle registers this
+ * service. The counts are accumulated over the class paths of all the bundles
+ * since the framework was started.
+ */
+public interface NegativeLookupCacheStatistics {
+	/**
+	 * Returns the number of lookups which were answered by a cache without
+	 * searching the class path.
+	 *
+	 * @return the number of cache hits
+	 */
+	long getHitCount();
+
+	/**
+	 * Returns the number of lookups which had to search the class path.
+	 *
+	 * @return the number of cache misses
+	 */
+	long getMissCount();
+
+	/**
+	 * Returns the number of class paths which do not use a cache because they
+	 * contain a directory, which may get new content at any time.
+	 *
+	 * @return the number of class paths without a cache
+	 */
+	long getDisabledCount();
+
+	/**
+	 * Returns the maximum number of class names and of resource names the cache
+	 * of a class path holds. Zero means the caches are disabled.
+	 *
+	 * @return the maximum size of a cache
+	 */
+	int getMaximumSize();
+}
@@ -125,6 +125,8 @@ public class EquinoxLogServices {
 		frameworkLogReg.unregister();
 		perfLogReg.unregister();
 		logServiceManager.stop(context);
+		logWriter.flush();
+		perfWriter.flush();
 	}
 
 	public FrameworkLog getFrameworkLog() {
@@ -25,15 +25,26 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.core.runtime.adaptor.EclipseStarter;
 import org.eclipse.equinox.log.ExtendedLogEntry;
 import org.eclipse.equinox.log.LogFilter;
 import org.eclipse.equinox.log.SynchronousLogListener;
 import org.eclipse.osgi.framework.log.FrameworkLogEntry;
 import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
+import org.eclipse.osgi.internal.framework.EquinoxContainer;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleException;
 import org.osgi.service.log.LogEntry;
@@ -93,6 +104,76 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	 * the log
 	 */
 	private static final String PROP_LOG_INCLUDE_COMMAND_LINE = "eclipse.log.include.commandline"; //$NON-NLS-1$
+
+	// Constants for asynchronous logging
+	/**
+	 * The system property used to specify that entries are written to the log by a
+	 * background thread instead of the thread logging them
+	 */
+	private static final String PROP_LOG_ASYNC = "eclipse.log.async"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify the number of entries waiting to be
+	 * written before the log overflows
+	 */
+	private static final String PROP_LOG_ASYNC_BUFFER_SIZE = "eclipse.log.async.buffer.size"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify the maximum number of entries written
+	 * before the log is flushed
+	 */
+	private static final String PROP_LOG_ASYNC_FLUSH_ENTRIES = "eclipse.log.async.flush.entries"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify the maximum time in milliseconds an entry
+	 * waits for other entries to be flushed with
+	 */
+	private static final String PROP_LOG_ASYNC_FLUSH_INTERVAL = "eclipse.log.async.flush.interval"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify what happens to entries logged while the
+	 * buffer is full: block (the default), drop or sample
+	 */
+	private static final String PROP_LOG_ASYNC_OVERFLOW = "eclipse.log.async.overflow"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify that one in how many entries logged while
+	 * the buffer is full is kept with the sample overflow policy
+	 */
+	private static final String PROP_LOG_ASYNC_OVERFLOW_SAMPLE = "eclipse.log.async.overflow.sample"; //$NON-NLS-1$
+	/** The default number of entries waiting to be written */
+	private static final int DEFAULT_ASYNC_BUFFER_SIZE = 1024;
+	/** The default number of entries written before the log is flushed */
+	private static final int DEFAULT_ASYNC_FLUSH_ENTRIES = 64;
+	/** The default time in milliseconds an entry waits to be flushed */
+	private static final int DEFAULT_ASYNC_FLUSH_INTERVAL = 100;
+	/** The default sample rate of entries logged while the buffer is full */
+	private static final int DEFAULT_ASYNC_OVERFLOW_SAMPLE = 10;
+	/** The time in milliseconds the writer thread waits for entries before exiting */
+	private static final long ASYNC_IDLE_TIMEOUT = 5000;
+	/** The time in milliseconds to wait for the writer thread to write the entries */
+	private static final long ASYNC_FLUSH_TIMEOUT = 10000;
+
+	/**
+	 * What to do with entries logged while the buffer of an asynchronous log is
+	 * full
+	 */
+	enum OverflowPolicy {
+		/** Wait for the writer thread to make room */
+		BLOCK,
+		/** Discard the entry */
+		DROP,
+		/** Wait for room for a sample of the entries and discard the rest */
+		SAMPLE
+	}
+
+	/**
+	 * A log entry waiting to be written along with the time it was logged.
+	 */
+	private static final class QueuedEntry {
+		final FrameworkLogEntry entry;
+		final long time;
+
+		QueuedEntry(FrameworkLogEntry entry, long time) {
+			this.entry = entry;
+			this.time = time;
+		}
+	}
 	/**
 	 * Indicates if the console messages should be printed to the console
 	 * (System.out)
@@ -123,6 +204,25 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 
 	private LoggerAdmin loggerAdmin = null;
 
+	/**
+	 * The entries waiting to be written by the writer thread, or null if entries
+	 * are written by the thread logging them.
+	 */
+	private BlockingQueue<QueuedEntry> asyncQueue;
+	private int asyncFlushEntries = DEFAULT_ASYNC_FLUSH_ENTRIES;
+	private long asyncFlushInterval = DEFAULT_ASYNC_FLUSH_INTERVAL;
+	private OverflowPolicy asyncOverflow = OverflowPolicy.BLOCK;
+	private int asyncOverflowSample = DEFAULT_ASYNC_OVERFLOW_SAMPLE;
+	private final AtomicBoolean asyncWriterRunning = new AtomicBoolean();
+	/** The number of entries added to the queue */
+	private final AtomicLong asyncQueued = new AtomicLong();
+	/** The number of entries logged while the queue was full */
+	private final AtomicLong asyncOverflowed = new AtomicLong();
+	/** The number of entries dropped since the last time the log was written */
+	private final AtomicInteger asyncDropped = new AtomicInteger();
+	/** The number of queued entries written; guarded by this */
+	private long asyncWritten = 0;
+
 	/**
 	 * Constructs an EclipseLog which uses the specified File to log messages to
 	 * 
@@ -135,6 +235,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		this.enabled = enabled;
 		this.environmentInfo = environmentInfo;
 		readLogProperties();
+		readAsyncProperties();
 	}
 
 	/**
@@ -151,6 +252,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		this.loggerName = loggerName;
 		this.enabled = enabled;
 		this.environmentInfo = environmentInfo;
+		readAsyncProperties();
 	}
 
 	private Throwable getRoot(Throwable t) {
@@ -259,6 +361,13 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	}
 
 	public void close() {
+		flush();
+		synchronized (this) {
+			closeWriter();
+		}
+	}
+
+	private void closeWriter() {
 		try {
 			if (writer != null) {
 				Writer tmpWriter = writer;
@@ -305,11 +414,26 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		}
 	}
 
-	private synchronized void log(FrameworkLogEntry logEntry) {
+	private void log(FrameworkLogEntry logEntry) {
 		if (logEntry == null)
 			return;
 		if (!isLoggable(logEntry.getSeverity()))
 			return;
+		if (asyncQueue != null) {
+			queue(new QueuedEntry(logEntry, System.currentTimeMillis()));
+		} else {
+			writeEntries(Collections.singletonList(new QueuedEntry(logEntry, System.currentTimeMillis())), 0);
+		}
+	}
+
+	/**
+	 * Writes the entries to the log and flushes it once all entries are written.
+	 * 
+	 * @param entries the entries to write
+	 * @param dropped the number of entries dropped since the log was last written
+	 */
+	private synchronized void writeEntries(List<QueuedEntry> entries, int dropped) {
+		int written = 0;
 		try {
 			checkLogFileSize();
 			openFile();
@@ -317,17 +441,28 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 				writeSession();
 				newSession = false;
 			}
-			writeLog(0, logEntry);
+			if (dropped > 0) {
+				writeLog(0, new FrameworkLogEntry(EquinoxContainer.NAME, FrameworkLogEntry.WARNING, 0,
+						dropped + " log entries were dropped because the log buffer was full.", 0, null, null), //$NON-NLS-1$
+						System.currentTimeMillis());
+			}
+			for (; written < entries.size(); written++) {
+				QueuedEntry queued = entries.get(written);
+				writeLog(0, queued.entry, queued.time);
+			}
 			writer.flush();
 		} catch (Exception e) {
 			// any exceptions during logging should be caught
 			System.err.println("An exception occurred while writing to the platform log:");//$NON-NLS-1$
 			e.printStackTrace(System.err);
 			System.err.println("Logging to the console instead.");//$NON-NLS-1$
-			// we failed to write, so dump log entry to console instead
+			// we failed to write, so dump the remaining log entries to console instead
 			try {
 				writer = logForErrorStream();
-				writeLog(0, logEntry);
+				for (; written < entries.size(); written++) {
+					QueuedEntry queued = entries.get(written);
+					writeLog(0, queued.entry, queued.time);
+				}
 				writer.flush();
 			} catch (Exception e2) {
 				System.err.println("An exception occurred while logging to the console:");//$NON-NLS-1$
@@ -338,6 +473,114 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		}
 	}
 
+	/**
+	 * Adds an entry to the queue of entries to be written by the writer thread,
+	 * applying the overflow policy if the queue is full.
+	 * 
+	 * @param queued the entry to queue
+	 */
+	private void queue(QueuedEntry queued) {
+		if (!asyncQueue.offer(queued)) {
+			// the writer thread cannot exit while the queue is full
+			if (asyncOverflow == OverflowPolicy.DROP || (asyncOverflow == OverflowPolicy.SAMPLE
+					&& asyncOverflowed.incrementAndGet() % asyncOverflowSample != 0)) {
+				asyncDropped.incrementAndGet();
+				return;
+			}
+			try {
+				asyncQueue.put(queued);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				asyncDropped.incrementAndGet();
+				return;
+			}
+		}
+		asyncQueued.incrementAndGet();
+		if (!asyncWriterRunning.get()) {
+			startAsyncWriter();
+		}
+	}
+
+	private void startAsyncWriter() {
+		if (asyncWriterRunning.compareAndSet(false, true)) {
+			Thread asyncWriter = new Thread(this::writeQueued, "Equinox Log Writer: " + loggerName); //$NON-NLS-1$
+			asyncWriter.setDaemon(true);
+			asyncWriter.start();
+		}
+	}
+
+	/**
+	 * Writes the queued entries in batches until the queue stays empty for a
+	 * while. A batch is written once it holds the number of entries to flush at
+	 * once or once its first entry waited for the flush interval, so the log is
+	 * flushed once per batch instead of once per entry.
+	 */
+	private void writeQueued() {
+		List<QueuedEntry> batch = new ArrayList<>(asyncFlushEntries);
+		long flushInterval = TimeUnit.MILLISECONDS.toNanos(asyncFlushInterval);
+		boolean interrupted = false;
+		while (!interrupted) {
+			try {
+				QueuedEntry first = asyncQueue.poll(ASYNC_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					break;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + flushInterval;
+				while (batch.size() < asyncFlushEntries) {
+					asyncQueue.drainTo(batch, asyncFlushEntries - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= asyncFlushEntries || remaining <= 0) {
+						break;
+					}
+					QueuedEntry next = asyncQueue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+			if (!batch.isEmpty()) {
+				writeEntries(batch, asyncDropped.getAndSet(0));
+				synchronized (this) {
+					asyncWritten += batch.size();
+					notifyAll();
+				}
+				batch.clear();
+			}
+		}
+		asyncWriterRunning.set(false);
+		// an entry may have been queued after the last poll
+		if (!asyncQueue.isEmpty()) {
+			startAsyncWriter();
+		}
+	}
+
+	/**
+	 * Waits for the entries queued so far to be written to the log. Does nothing
+	 * if entries are written by the thread logging them.
+	 */
+	void flush() {
+		if (asyncQueue == null) {
+			return;
+		}
+		long target = asyncQueued.get();
+		long end = System.currentTimeMillis() + ASYNC_FLUSH_TIMEOUT;
+		synchronized (this) {
+			long remaining;
+			while (asyncWritten < target && (remaining = end - System.currentTimeMillis()) > 0) {
+				try {
+					wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
 	public synchronized void setWriter(Writer newWriter, boolean append) {
 		setOutput(null, newWriter, append);
 	}
@@ -489,17 +732,18 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	 * 
 	 * @param depth the depth of th entry
 	 * @param entry the entry to log
+	 * @param time  the time the entry was logged
 	 * @throws IOException if any error occurs writing to the log
 	 */
-	private void writeLog(int depth, FrameworkLogEntry entry) throws IOException {
-		writeEntry(depth, entry);
+	private void writeLog(int depth, FrameworkLogEntry entry, long time) throws IOException {
+		writeEntry(depth, entry, time);
 		writeMessage(entry);
 		writeStack(entry);
 
 		FrameworkLogEntry[] children = entry.getChildren();
 		if (children != null) {
 			for (FrameworkLogEntry child : children) {
-				writeLog(depth + 1, child);
+				writeLog(depth + 1, child, time);
 			}
 		}
 	}
@@ -511,9 +755,10 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	 * 
 	 * @param depth the depth of th entry
 	 * @param entry the entry to write the header for
+	 * @param time  the time the entry was logged
 	 * @throws IOException if any error occurs writing to the log
 	 */
-	private void writeEntry(int depth, FrameworkLogEntry entry) throws IOException {
+	private void writeEntry(int depth, FrameworkLogEntry entry, long time) throws IOException {
 		if (depth == 0) {
 			writeln(); // write a blank line before all !ENTRY tags bug #64406
 			write(ENTRY);
@@ -529,7 +774,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		writeSpace();
 		write(Integer.toString(entry.getBundleCode()));
 		writeSpace();
-		write(getDate(new Date()));
+		write(getDate(new Date(time)));
 		writeln();
 	}
 
@@ -710,6 +955,50 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		applyLogLevel();
 	}
 
+	/**
+	 * Reads the PROP_LOG_ASYNC properties.
+	 */
+	private void readAsyncProperties() {
+		if (!"true".equals(environmentInfo.getConfiguration(PROP_LOG_ASYNC))) { //$NON-NLS-1$
+			return;
+		}
+		asyncQueue = new ArrayBlockingQueue<>(
+				getPositiveConfiguration(PROP_LOG_ASYNC_BUFFER_SIZE, DEFAULT_ASYNC_BUFFER_SIZE));
+		asyncFlushEntries = getPositiveConfiguration(PROP_LOG_ASYNC_FLUSH_ENTRIES, DEFAULT_ASYNC_FLUSH_ENTRIES);
+		String flushInterval = environmentInfo.getConfiguration(PROP_LOG_ASYNC_FLUSH_INTERVAL);
+		if (flushInterval != null) {
+			try {
+				asyncFlushInterval = Math.max(0, Long.parseLong(flushInterval));
+			} catch (NumberFormatException e) {
+				// use the default
+			}
+		}
+		String overflow = environmentInfo.getConfiguration(PROP_LOG_ASYNC_OVERFLOW);
+		if (overflow != null) {
+			try {
+				asyncOverflow = OverflowPolicy.valueOf(overflow.toUpperCase(Locale.ENGLISH));
+			} catch (IllegalArgumentException e) {
+				// use the default
+			}
+		}
+		asyncOverflowSample = getPositiveConfiguration(PROP_LOG_ASYNC_OVERFLOW_SAMPLE, DEFAULT_ASYNC_OVERFLOW_SAMPLE);
+	}
+
+	private int getPositiveConfiguration(String key, int defaultValue) {
+		String value = environmentInfo.getConfiguration(key);
+		if (value != null) {
+			try {
+				int result = Integer.parseInt(value);
+				if (result > 0) {
+					return result;
+				}
+			} catch (NumberFormatException e) {
+				// use the default
+			}
+		}
+		return defaultValue;
+	}
+
 	void applyLogLevel() {
 		if (loggerAdmin == null) {
 			return;
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.internal.permadmin;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the decisions of a {@link SecurityTable}. Lookups never
+ * lock. Once the cache is full the decisions are evicted in approximately least
+ * recently used order with the clock (second chance) algorithm: the decisions
+ * are kept in insertion order and a decision which was used since it was last
+ * visited is moved to the end instead of being evicted. Decisions may also be
+ * bound in time; a decision older than the expiration is evaluated again the
+ * next time it is looked up.
+ */
+final class EvaluationCache {
+	/**
+	 * The counters shared by the caches of all the tables of a security admin.
+	 */
+	static final class Counters {
+		final LongAdder hits = new LongAdder();
+		final LongAdder misses = new LongAdder();
+		final LongAdder evictions = new LongAdder();
+	}
+
+	private static final class Entry {
+		final EvaluationCacheKey key;
+		final int decision;
+		final long created;
+		volatile boolean referenced;
+
+		Entry(EvaluationCacheKey key, int decision, long created) {
+			this.key = key;
+			this.decision = decision;
+			this.created = created;
+		}
+	}
+
+	private final Map<EvaluationCacheKey, Entry> entries;
+	private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+	// the number of entries in the clock, including replaced entries not yet visited
+	private final AtomicInteger size = new AtomicInteger();
+	private final int maximumSize;
+	// the time in nanoseconds a decision is kept; zero keeps decisions until they are evicted
+	private final long expiration;
+	private final Counters counters;
+
+	EvaluationCache(int maximumSize, long expiration, Counters counters) {
+		this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+		this.maximumSize = maximumSize;
+		this.expiration = TimeUnit.MILLISECONDS.toNanos(expiration);
+		this.counters = counters;
+	}
+
+	Integer get(EvaluationCacheKey key) {
+		Entry entry = entries.get(key);
+		if (entry != null && isExpired(entry)) {
+			// the entry stays in the clock until it is visited
+			if (entries.remove(key, entry)) {
+				counters.evictions.increment();
+			}
+			entry = null;
+		}
+		if (entry == null) {
+			counters.misses.increment();
+			return null;
+		}
+		if (!entry.referenced) {
+			entry.referenced = true;
+		}
+		counters.hits.increment();
+		return entry.decision;
+	}
+
+	void put(EvaluationCacheKey key, int decision) {
+		if (maximumSize == 0) {
+			return;
+		}
+		Entry entry = new Entry(key, decision, expiration > 0 ? System.nanoTime() : 0);
+		entries.put(key, entry);
+		clock.offer(entry);
+		if (size.incrementAndGet() > maximumSize) {
+			evict();
+		}
+	}
+
+	private void evict() {
+		while (size.get() > maximumSize) {
+			Entry eldest = clock.poll();
+			if (eldest == null) {
+				return;
+			}
+			if (eldest.referenced && !isExpired(eldest) && entries.get(eldest.key) == eldest) {
+				// give it a second chance
+				eldest.referenced = false;
+				clock.offer(eldest);
+			} else {
+				size.decrementAndGet();
+				if (entries.remove(eldest.key, eldest)) {
+					counters.evictions.increment();
+				}
+			}
+		}
+	}
+
+	private boolean isExpired(Entry entry) {
+		return expiration > 0 && System.nanoTime() - entry.created >= expiration;
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	int getMaximumSize() {
+		return maximumSize;
+	}
+
+	void clear() {
+		entries.clear();
+		clock.clear();
+		size.set(0);
+	}
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.internal.permadmin;
+
+/**
+ * The statistics of the cache of conditional permission decisions. The system
+ * bundle registers this service along with the conditional permission admin.
+ * The counts are accumulated over all the conditional permission tables
+ * committed since the framework was started.
+ */
+public interface EvaluationCacheStatistics {
+	/**
+	 * Returns the number of permission checks which were answered by the cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	long getHitCount();
+
+	/**
+	 * Returns the number of permission checks which had to evaluate the
+	 * conditional permission table.
+	 *
+	 * @return the number of cache misses
+	 */
+	long getMissCount();
+
+	/**
+	 * Returns the number of decisions which were removed from the cache to stay
+	 * within its maximum size or because they expired.
+	 *
+	 * @return the number of evicted decisions
+	 */
+	long getEvictionCount();
+
+	/**
+	 * Returns the number of decisions in the cache of the current conditional
+	 * permission table.
+	 *
+	 * @return the number of cached decisions
+	 */
+	int getSize();
+
+	/**
+	 * Returns the maximum number of decisions the cache holds. Zero means the
+	 * cache is disabled.
+	 *
+	 * @return the maximum size of the cache
+	 */
+	int getMaximumSize();
+
+	/**
+	 * Returns the time in milliseconds a decision is kept in the cache. Zero
+	 * means decisions are kept until they are evicted.
+	 *
+	 * @return the expiration of the cached decisions
+	 */
+	long getExpiration();
+}
@@ -17,8 +17,21 @@ import java.util.HashMap;
 import java.util.Map;
 import org.osgi.service.permissionadmin.PermissionInfo;
 
+/**
+ * The permissions of the bundle locations set with the permission admin. The
+ * table is immutable so that it can be read without locking, setting the
+ * permissions of a location returns a new table.
+ */
 public class PermissionAdminTable {
-	private final Map<String, PermissionInfoCollection> locations = new HashMap<>();
+	private final Map<String, PermissionInfoCollection> locations;
+
+	/**
+	 * Creates a table with the specified location permissions. The table takes
+	 * ownership of the map, it must not be modified afterwards.
+	 */
+	PermissionAdminTable(Map<String, PermissionInfoCollection> locations) {
+		this.locations = locations;
+	}
 
 	String[] getLocations() {
 		return locations.keySet().toArray(new String[locations.size()]);
@@ -31,12 +44,14 @@ public class PermissionAdminTable {
 		return null;
 	}
 
-	void setPermissions(String location, PermissionInfo[] permissions) {
+	PermissionAdminTable setPermissions(String location, PermissionInfo[] permissions) {
+		Map<String, PermissionInfoCollection> newLocations = new HashMap<>(locations);
 		if (permissions == null) {
-			locations.remove(location);
-			return;
+			newLocations.remove(location);
+		} else {
+			newLocations.put(location, new PermissionInfoCollection(permissions));
 		}
-		locations.put(location, new PermissionInfoCollection(permissions));
+		return new PermissionAdminTable(newLocations);
 	}
 
 	PermissionInfoCollection getCollection(String location) {
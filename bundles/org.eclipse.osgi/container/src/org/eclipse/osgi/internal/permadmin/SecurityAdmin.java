@@ -79,14 +79,29 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 	private static final String ADMIN_IMPLIED_ACTIONS = AdminPermission.RESOURCE + ',' + AdminPermission.METADATA + ','
 			+ AdminPermission.CLASS + ',' + AdminPermission.CONTEXT;
 	private static final PermissionInfo[] EMPTY_PERM_INFO = new PermissionInfo[0];
-	/* @GuardedBy(lock) */
-	private final PermissionAdminTable permAdminTable = new PermissionAdminTable();
-	/* @GuardedBy(lock) */
-	private SecurityTable condAdminTable;
-	/* @GuardedBy(lock) */
-	private PermissionInfoCollection permAdminDefaults;
-	/* @GuardedBy(lock) */
-	private long timeStamp = 0;
+
+	/**
+	 * An immutable snapshot of the permission admin and conditional permission
+	 * admin tables. Permission checks and queries read the current snapshot
+	 * without locking, updates publish a new snapshot while holding the lock.
+	 */
+	private static final class Tables {
+		final PermissionAdminTable permAdminTable;
+		final PermissionInfoCollection permAdminDefaults;
+		final SecurityTable condAdminTable;
+		final long timeStamp;
+
+		Tables(PermissionAdminTable permAdminTable, PermissionInfoCollection permAdminDefaults,
+				SecurityTable condAdminTable, long timeStamp) {
+			this.permAdminTable = permAdminTable;
+			this.permAdminDefaults = permAdminDefaults;
+			this.condAdminTable = condAdminTable;
+			this.timeStamp = timeStamp;
+		}
+	}
+
+	/* writes @GuardedBy(lock) */
+	private volatile Tables tables;
 	/* @GuardedBy(lock) */
 	private long nextID = System.currentTimeMillis();
 	/* @GuardedBy(lock) */
@@ -95,31 +110,39 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 	// private final EquinoxContainer container;
 	private final PermissionInfo[] impliedPermissionInfos;
 	private final EquinoxSecurityManager supportedSecurityManager;
+	private final int evaluationCacheSize;
+	private final long evaluationCacheExpiration;
+	private final EvaluationCache.Counters evaluationCounters = new EvaluationCache.Counters();
 
-	public SecurityAdmin(EquinoxSecurityManager supportedSecurityManager, PermissionData permissionStorage) {
+	public SecurityAdmin(EquinoxSecurityManager supportedSecurityManager, PermissionData permissionStorage,
+			int evaluationCacheSize, long evaluationCacheExpiration) {
 		this.supportedSecurityManager = supportedSecurityManager;
 		this.permissionStorage = permissionStorage;
+		this.evaluationCacheSize = evaluationCacheSize;
+		this.evaluationCacheExpiration = evaluationCacheExpiration;
 		this.impliedPermissionInfos = SecurityAdmin
 				.getPermissionInfos(getClass().getResource(OSGI_BASE_IMPLIED_PERMISSIONS));
 		String[] encodedDefaultInfos = permissionStorage.getPermissionData(null);
 		PermissionInfo[] defaultInfos = getPermissionInfos(encodedDefaultInfos);
-		if (defaultInfos != null)
-			permAdminDefaults = new PermissionInfoCollection(defaultInfos);
+		PermissionInfoCollection permAdminDefaults = defaultInfos == null ? null
+				: new PermissionInfoCollection(defaultInfos);
+		Map<String, PermissionInfoCollection> locationCollections = new HashMap<>();
 		String[] locations = permissionStorage.getLocations();
 		if (locations != null) {
 			for (String location : locations) {
 				String[] encodedLocationInfos = permissionStorage.getPermissionData(location);
 				if (encodedLocationInfos != null) {
 					PermissionInfo[] locationInfos = getPermissionInfos(encodedLocationInfos);
-					permAdminTable.setPermissions(location, locationInfos);
+					locationCollections.put(location, new PermissionInfoCollection(locationInfos));
 				}
 			}
 		}
 		String[] encodedCondPermInfos = permissionStorage.getConditionalPermissionInfos();
+		SecurityRow[] rows;
 		if (encodedCondPermInfos == null)
-			condAdminTable = new SecurityTable(this, new SecurityRow[0]);
+			rows = new SecurityRow[0];
 		else {
-			SecurityRow[] rows = new SecurityRow[encodedCondPermInfos.length];
+			rows = new SecurityRow[encodedCondPermInfos.length];
 			try {
 				for (int i = 0; i < rows.length; i++)
 					rows[i] = SecurityRow.createSecurityRow(this, encodedCondPermInfos[i]);
@@ -128,8 +151,14 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 				// bad format persisted in storage; start clean
 				rows = new SecurityRow[0];
 			}
-			condAdminTable = new SecurityTable(this, rows);
 		}
+		tables = new Tables(new PermissionAdminTable(locationCollections), permAdminDefaults,
+				newSecurityTable(rows), 0);
+	}
+
+	private SecurityTable newSecurityTable(SecurityRow[] rows) {
+		return new SecurityTable(this, rows,
+				new EvaluationCache(evaluationCacheSize, evaluationCacheExpiration, evaluationCounters));
 	}
 
 	private static PermissionInfo[] getPermissionInfos(String[] encodedInfos) {
@@ -143,19 +172,15 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 
 	boolean checkPermission(Permission permission, BundlePermissions bundlePermissions) {
 		// check permissions by location
-		PermissionInfoCollection locationCollection;
-		SecurityTable curCondAdminTable;
-		PermissionInfoCollection curPermAdminDefaults;
-		// save off the current state of the world while holding the lock
-		synchronized (lock) {
-			// get location the hard way to avoid permission check
-			Bundle bundle = bundlePermissions.getBundle();
-			locationCollection = bundle instanceof EquinoxBundle
-					? permAdminTable.getCollection(((EquinoxBundle) bundle).getModule().getLocation())
-					: null;
-			curCondAdminTable = condAdminTable;
-			curPermAdminDefaults = permAdminDefaults;
-		}
+		// use the current state of the world, it does not change while checking
+		Tables current = tables;
+		// get location the hard way to avoid permission check
+		Bundle bundle = bundlePermissions.getBundle();
+		PermissionInfoCollection locationCollection = bundle instanceof EquinoxBundle
+				? current.permAdminTable.getCollection(((EquinoxBundle) bundle).getModule().getLocation())
+				: null;
+		SecurityTable curCondAdminTable = current.condAdminTable;
+		PermissionInfoCollection curPermAdminDefaults = current.permAdminDefaults;
 		if (locationCollection != null)
 			return locationCollection.implies(bundlePermissions, permission);
 		// if conditional admin table is empty the fall back to defaults
@@ -175,36 +200,32 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 
 	@Override
 	public PermissionInfo[] getDefaultPermissions() {
-		synchronized (lock) {
-			if (permAdminDefaults == null)
-				return null;
-			return permAdminDefaults.getPermissionInfos();
-		}
+		PermissionInfoCollection permAdminDefaults = tables.permAdminDefaults;
+		if (permAdminDefaults == null)
+			return null;
+		return permAdminDefaults.getPermissionInfos();
 	}
 
 	@Override
 	public String[] getLocations() {
-		synchronized (lock) {
-			String[] results = permAdminTable.getLocations();
-			return results.length == 0 ? null : results;
-		}
+		String[] results = tables.permAdminTable.getLocations();
+		return results.length == 0 ? null : results;
 	}
 
 	@Override
 	public PermissionInfo[] getPermissions(String location) {
-		synchronized (lock) {
-			return permAdminTable.getPermissions(location);
-		}
+		return tables.permAdminTable.getPermissions(location);
 	}
 
 	@Override
 	public void setDefaultPermissions(PermissionInfo[] permissions) {
 		checkAllPermission();
 		synchronized (lock) {
-			if (permissions == null)
-				permAdminDefaults = null;
-			else
-				permAdminDefaults = new PermissionInfoCollection(permissions);
+			Tables current = tables;
+			PermissionInfoCollection permAdminDefaults = permissions == null ? null
+					: new PermissionInfoCollection(permissions);
+			tables = new Tables(current.permAdminTable, permAdminDefaults, current.condAdminTable,
+					current.timeStamp);
 			permissionStorage.setPermissionData(null, getEncodedPermissionInfos(permissions));
 		}
 	}
@@ -228,7 +249,9 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 	public void setPermissions(String location, PermissionInfo[] permissions) {
 		checkAllPermission();
 		synchronized (lock) {
-			permAdminTable.setPermissions(location, permissions);
+			Tables current = tables;
+			tables = new Tables(current.permAdminTable.setPermissions(location, permissions),
+					current.permAdminDefaults, current.condAdminTable, current.timeStamp);
 			permissionStorage.setPermissionData(location, getEncodedPermissionInfos(permissions));
 		}
 	}
@@ -273,9 +296,8 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 
 	@Override
 	public ConditionalPermissionUpdate newConditionalPermissionUpdate() {
-		synchronized (lock) {
-			return new SecurityTableUpdate(this, condAdminTable.getRows(), timeStamp);
-		}
+		Tables current = tables;
+		return new SecurityTableUpdate(this, current.condAdminTable.getRows(), current.timeStamp);
 	}
 
 	@Override
@@ -289,9 +311,7 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 	 */
 	@Override
 	public ConditionalPermissionInfo getConditionalPermissionInfo(String name) {
-		synchronized (lock) {
-			return condAdminTable.getRow(name);
-		}
+		return tables.condAdminTable.getRow(name);
 	}
 
 	/**
@@ -301,12 +321,10 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 	public Enumeration<ConditionalPermissionInfo> getConditionalPermissionInfos() {
 		// could implement our own Enumeration, but we don't care about performance
 		// here. Just do something simple:
-		synchronized (lock) {
-			SecurityRow[] rows = condAdminTable.getRows();
-			List<ConditionalPermissionInfo> vRows = new ArrayList<>(rows.length);
-			Collections.addAll(vRows, rows);
-			return Collections.enumeration(vRows);
-		}
+		SecurityRow[] rows = tables.condAdminTable.getRows();
+		List<ConditionalPermissionInfo> vRows = new ArrayList<>(rows.length);
+		Collections.addAll(vRows, rows);
+		return Collections.enumeration(vRows);
 	}
 
 	/**
@@ -346,14 +364,15 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 					// try again
 					setConditionalPermissionInfo(name, conds, perms, false);
 			}
-			return condAdminTable.getRow(index);
+			return tables.condAdminTable.getRow(index);
 		}
 	}
 
 	boolean commit(List<ConditionalPermissionInfo> rows, long updateStamp) {
 		checkAllPermission();
 		synchronized (lock) {
-			if (updateStamp != timeStamp)
+			Tables current = tables;
+			if (updateStamp != current.timeStamp)
 				return false;
 			SecurityRow[] newRows = new SecurityRow[rows.size()];
 			Collection<String> names = new ArrayList<>();
@@ -372,9 +391,10 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 				newRows[i] = new SecurityRow(this, name, infoBaseRow.getConditionInfos(),
 						infoBaseRow.getPermissionInfos(), infoBaseRow.getAccessDecision());
 			}
-			condAdminTable = new SecurityTable(this, newRows);
+			SecurityTable condAdminTable = newSecurityTable(newRows);
+			tables = new Tables(current.permAdminTable, current.permAdminDefaults, condAdminTable,
+					current.timeStamp + 1);
 			permissionStorage.saveConditionalPermissionInfos(condAdminTable.getEncodedRows());
-			timeStamp += 1;
 			return true;
 		}
 	}
@@ -443,19 +463,53 @@ public final class SecurityAdmin implements PermissionAdmin, ConditionalPermissi
 	}
 
 	public void clearCaches() {
-		PermissionInfoCollection[] permAdminCollections;
-		SecurityRow[] condAdminRows;
-		synchronized (lock) {
-			permAdminCollections = permAdminTable.getCollections();
-			condAdminRows = condAdminTable.getRows();
-		}
-		for (PermissionInfoCollection permAdminCollection : permAdminCollections) {
+		Tables current = tables;
+		for (PermissionInfoCollection permAdminCollection : current.permAdminTable.getCollections()) {
 			permAdminCollection.clearPermissionCache();
 		}
-		for (SecurityRow condAdminRow : condAdminRows) {
+		for (SecurityRow condAdminRow : current.condAdminTable.getRows()) {
 			condAdminRow.clearCaches();
 		}
-		condAdminTable.clearEvaluationCache();
+		current.condAdminTable.clearEvaluationCache();
+	}
+
+	/**
+	 * Returns the statistics of the cache of conditional permission decisions.
+	 *
+	 * @return the evaluation cache statistics
+	 */
+	public EvaluationCacheStatistics getEvaluationCacheStatistics() {
+		return new EvaluationCacheStatistics() {
+			@Override
+			public long getHitCount() {
+				return evaluationCounters.hits.sum();
+			}
+
+			@Override
+			public long getMissCount() {
+				return evaluationCounters.misses.sum();
+			}
+
+			@Override
+			public long getEvictionCount() {
+				return evaluationCounters.evictions.sum();
+			}
+
+			@Override
+			public int getSize() {
+				return tables.condAdminTable.getEvaluationCache().size();
+			}
+
+			@Override
+			public int getMaximumSize() {
+				return evaluationCacheSize;
+			}
+
+			@Override
+			public long getExpiration() {
+				return evaluationCacheExpiration;
+			}
+		};
 	}
 
 	EquinoxSecurityManager getSupportedSecurityManager() {
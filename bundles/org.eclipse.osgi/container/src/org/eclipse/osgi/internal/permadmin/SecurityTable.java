@@ -18,8 +18,6 @@ import java.security.Permission;
 import java.security.PermissionCollection;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.osgi.internal.permadmin.SecurityRow.Decision;
 import org.osgi.service.condpermadmin.Condition;
 
@@ -35,13 +33,14 @@ public class SecurityTable extends PermissionCollection {
 	private final SecurityRow[] rows;
 	private final SecurityAdmin securityAdmin;
 
-	private final transient Map<EvaluationCacheKey, Integer> evaluationCache = new ConcurrentHashMap<>(10000);
+	private final transient EvaluationCache evaluationCache;
 
-	public SecurityTable(SecurityAdmin securityAdmin, SecurityRow[] rows) {
+	public SecurityTable(SecurityAdmin securityAdmin, SecurityRow[] rows, EvaluationCache evaluationCache) {
 		if (rows == null)
 			throw new NullPointerException("rows cannot be null!!"); //$NON-NLS-1$
 		this.rows = rows;
 		this.securityAdmin = securityAdmin;
+		this.evaluationCache = evaluationCache;
 	}
 
 	boolean isEmpty() {
@@ -52,14 +51,10 @@ public class SecurityTable extends PermissionCollection {
 		if (bundlePermissions == null) {
 			return ABSTAIN;
 		}
-		if (evaluationCache.size() > 10000) {
-			clearEvaluationCache();
-		}
-		EvaluationCacheKey evaluationCacheKey = new EvaluationCacheKey(bundlePermissions, permission);
 		if (isEmpty()) {
-			evaluationCache.put(evaluationCacheKey, ABSTAIN);
 			return ABSTAIN;
 		}
+		EvaluationCacheKey evaluationCacheKey = new EvaluationCacheKey(bundlePermissions, permission);
 
 		// can't short-circuit early, so try cache
 		Integer result = evaluationCache.get(evaluationCacheKey);
@@ -176,6 +171,10 @@ public class SecurityTable extends PermissionCollection {
 		evaluationCache.clear();
 	}
 
+	EvaluationCache getEvaluationCache() {
+		return evaluationCache;
+	}
+
 	SecurityRow getRow(int i) {
 		return rows.length <= i || i < 0 ? null : rows[i];
 	}
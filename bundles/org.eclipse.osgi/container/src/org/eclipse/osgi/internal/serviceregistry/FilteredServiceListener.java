@@ -204,6 +204,25 @@ class FilteredServiceListener implements ServiceListener, ListenerHook.ListenerI
 		return getObjectClassFilterString(objectClass);
 	}
 
+	/**
+	 * Return the real listener.
+	 *
+	 * @return The service listener object.
+	 */
+	ServiceListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Return the objectClass required by the filter of this listener.
+	 *
+	 * @return The interned objectClass required by the filter or <code>null</code>
+	 *         if the listener must be called for services of any objectClass.
+	 */
+	String getObjectClass() {
+		return objectClass;
+	}
+
 	/**
 	 * Return the state of the listener for this addition and removal life cycle.
 	 * Initially this method will return <code>false</code> indicating the listener
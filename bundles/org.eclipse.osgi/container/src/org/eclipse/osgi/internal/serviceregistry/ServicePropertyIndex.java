@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.internal.serviceregistry;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index of published services by the value of a service property. The index
+ * is used to narrow the services which must be matched against a filter that
+ * requires the property to be equal to a value.
+ * <p>
+ * Only String values, and arrays and collections of String values, are indexed
+ * by value. Services with any other type of value for the property may still
+ * match an equality filter through type coercion, so they are kept in a
+ * separate list which is always included in the lookup result. Services which
+ * do not have the property are not included in the index since they can never
+ * match an equality filter on the property.
+ * <p>
+ * Like the other service lists of the registry, the lists of this index are
+ * immutable snapshots which are replaced while holding the monitor of the
+ * registry and are read without locking.
+ *
+ * @ThreadSafe
+ */
+final class ServicePropertyIndex {
+	private final String key;
+
+	/* @GuardedBy("registry") for updates */
+	private final ConcurrentMap<String, List<ServiceRegistrationImpl<?>>> servicesByValue = new ConcurrentHashMap<>();
+
+	/* @GuardedBy("registry") for updates */
+	private volatile List<ServiceRegistrationImpl<?>> nonStringServices = Collections.emptyList();
+
+	ServicePropertyIndex(String key) {
+		this.key = key;
+	}
+
+	/**
+	 * Returns the service property key indexed by this index.
+	 *
+	 * @return the service property key
+	 */
+	String getKey() {
+		return key;
+	}
+
+	/**
+	 * Adds the registration to the index.
+	 *
+	 * @param registration the registration to add
+	 * @param properties   the properties of the registration
+	 */
+	/* @GuardedBy("registry") */
+	void add(ServiceRegistrationImpl<?> registration, Map<String, Object> properties) {
+		Object value = properties.get(key);
+		if (value == null) {
+			return;
+		}
+		Set<String> values = getStringValues(value);
+		if (values == null) {
+			nonStringServices = ServiceRegistry.insertSorted(nonStringServices, registration);
+			return;
+		}
+		for (String v : values) {
+			servicesByValue.put(v, ServiceRegistry.insertSorted(servicesByValue.get(v), registration));
+		}
+	}
+
+	/**
+	 * Removes the registration from the index.
+	 *
+	 * @param registration the registration to remove
+	 * @param properties   the properties the registration was added with
+	 */
+	/* @GuardedBy("registry") */
+	void remove(ServiceRegistrationImpl<?> registration, Map<String, Object> properties) {
+		Object value = properties.get(key);
+		if (value == null) {
+			return;
+		}
+		Set<String> values = getStringValues(value);
+		if (values == null) {
+			nonStringServices = ServiceRegistry.remove(nonStringServices, registration);
+			return;
+		}
+		for (String v : values) {
+			List<ServiceRegistrationImpl<?>> services = ServiceRegistry.remove(servicesByValue.get(v), registration);
+			if (services.isEmpty()) {
+				servicesByValue.remove(v);
+			} else {
+				servicesByValue.put(v, services);
+			}
+		}
+	}
+
+	/**
+	 * Returns the sorted registrations which may have the specified value for the
+	 * indexed property.
+	 *
+	 * @param value the required value of the property
+	 * @return the candidate registrations
+	 */
+	List<ServiceRegistrationImpl<?>> lookup(String value) {
+		List<ServiceRegistrationImpl<?>> services = servicesByValue.get(value);
+		List<ServiceRegistrationImpl<?>> nonString = nonStringServices;
+		if (nonString.isEmpty()) {
+			return services == null ? Collections.emptyList() : services;
+		}
+		if (services == null) {
+			return nonString;
+		}
+		// merge the two sorted lists
+		List<ServiceRegistrationImpl<?>> result = new ArrayList<>(services.size() + nonString.size());
+		int i = 0, j = 0;
+		while (i < services.size() && j < nonString.size()) {
+			if (services.get(i).compareTo(nonString.get(j)) <= 0) {
+				result.add(services.get(i++));
+			} else {
+				result.add(nonString.get(j++));
+			}
+		}
+		result.addAll(services.subList(i, services.size()));
+		result.addAll(nonString.subList(j, nonString.size()));
+		return result;
+	}
+
+	/**
+	 * Returns the String values of the specified property value or {@code null}
+	 * if the value is not a String or an array or collection of Strings.
+	 */
+	private static Set<String> getStringValues(Object value) {
+		if (value instanceof String) {
+			return Collections.singleton((String) value);
+		}
+		if (value.getClass().isArray()) {
+			if (value.getClass().getComponentType().isPrimitive()) {
+				return null;
+			}
+			Set<String> result = new HashSet<>();
+			for (int i = 0, length = Array.getLength(value); i < length; i++) {
+				Object element = Array.get(value, i);
+				if (!(element instanceof String)) {
+					return null;
+				}
+				result.add((String) element);
+			}
+			return result;
+		}
+		if (value instanceof Collection<?>) {
+			Set<String> result = new HashSet<>();
+			for (Object element : (Collection<?>) value) {
+				if (!(element instanceof String)) {
+					return null;
+				}
+				result.add((String) element);
+			}
+			return result;
+		}
+		return null;
+	}
+}
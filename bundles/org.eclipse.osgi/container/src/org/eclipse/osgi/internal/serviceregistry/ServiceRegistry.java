@@ -18,13 +18,12 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +36,7 @@ import org.eclipse.osgi.framework.eventmgr.EventDispatcher;
 import org.eclipse.osgi.framework.eventmgr.ListenerQueue;
 import org.eclipse.osgi.internal.debug.Debug;
 import org.eclipse.osgi.internal.framework.BundleContextImpl;
+import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
 import org.eclipse.osgi.internal.framework.EquinoxContainer;
 import org.eclipse.osgi.internal.framework.FilterImpl;
 import org.eclipse.osgi.internal.messages.Msg;
@@ -78,17 +78,24 @@ public class ServiceRegistry {
 	 * {@literal List<ServiceRegistrationImpl<?>>}s are both sorted in the natural
 	 * order of ServiceRegistrationImpl and also are sets in that there must be no
 	 * two entries in a List which are equal.
+	 * <p>
+	 * The Lists are immutable snapshots. Updates are made while holding the
+	 * monitor of this object by publishing a new List for the class name. Lookups
+	 * read the current snapshot without locking.
 	 */
-	/* @GuardedBy("this") */
-	private final Map<String, List<ServiceRegistrationImpl<?>>> publishedServicesByClass;
+	/* @GuardedBy("this") for updates */
+	private final ConcurrentMap<String, List<ServiceRegistrationImpl<?>>> publishedServicesByClass;
 
 	/**
 	 * All published services. The List is both sorted in the natural order of
 	 * ServiceRegistrationImpl and also is a set in that there must be no two
 	 * entries in the List which are equal.
+	 * <p>
+	 * The List is an immutable snapshot which is replaced while holding the
+	 * monitor of this object.
 	 */
-	/* @GuardedBy("this") */
-	private final List<ServiceRegistrationImpl<?>> allPublishedServices;
+	/* @GuardedBy("this") for updates */
+	private volatile List<ServiceRegistrationImpl<?>> allPublishedServices;
 
 	/**
 	 * Published services by BundleContextImpl. The
@@ -98,6 +105,14 @@ public class ServiceRegistry {
 	/* @GuardedBy("this") */
 	private final Map<BundleContextImpl, List<ServiceRegistrationImpl<?>>> publishedServicesByContext;
 
+	/**
+	 * Secondary indexes of published services by service property value. These
+	 * are only used if configured with
+	 * {@link EquinoxConfiguration#PROP_SERVICE_REGISTRY_INDEXES}.
+	 */
+	/* @GuardedBy("this") for updates */
+	private final ServicePropertyIndex[] propertyIndexes;
+
 	/** next free service id. */
 	/* @GuardedBy("this") */
 	private long serviceid;
@@ -109,6 +124,16 @@ public class ServiceRegistry {
 	/* @GuardedBy("serviceEventListeners") */
 	private final Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> serviceEventListeners;
 
+	/**
+	 * Active Service Listeners indexed by the objectClass required by their filter.
+	 * Listeners which must be called for services of any objectClass, such as
+	 * listeners without a filter, with a complex filter or which are
+	 * UnfilteredServiceListeners, are indexed under the <code>null</code> key.
+	 * {@literal Map<String,Map<BundleContextImpl,CopyOnWriteIdentityMap<ServiceListener,FilteredServiceListener>>>}.
+	 */
+	/* @GuardedBy("serviceEventListeners") */
+	private final Map<String, Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>>> serviceEventListenersByClass;
+
 	/** initial capacity of the main data structure */
 	private static final int initialCapacity = 50;
 	/** initial capacity of the nested data structure */
@@ -130,10 +155,16 @@ public class ServiceRegistry {
 		this.container = container;
 		this.debug = container.getConfiguration().getDebug();
 		serviceid = 1;
-		publishedServicesByClass = new HashMap<>(initialCapacity);
+		publishedServicesByClass = new ConcurrentHashMap<>(initialCapacity);
 		publishedServicesByContext = new HashMap<>(initialCapacity);
-		allPublishedServices = new ArrayList<>(initialCapacity);
+		allPublishedServices = Collections.emptyList();
 		serviceEventListeners = new LinkedHashMap<>(initialCapacity);
+		serviceEventListenersByClass = new HashMap<>(initialCapacity);
+		List<String> indexedKeys = container.getConfiguration().SERVICE_REGISTRY_INDEXES;
+		propertyIndexes = new ServicePropertyIndex[indexedKeys.size()];
+		for (int i = 0; i < propertyIndexes.length; i++) {
+			propertyIndexes[i] = new ServicePropertyIndex(indexedKeys.get(i));
+		}
 		Module systemModule = container.getStorage().getModuleContainer().getModule(0);
 		systemBundleContext = (BundleContextImpl) systemModule.getBundle().getBundleContext();
 		systemBundleContext.provisionServicesInUseMap();
@@ -806,6 +837,10 @@ public class ServiceRegistry {
 				serviceEventListeners.put(context, listeners);
 			}
 			oldFilteredListener = listeners.put(listener, filteredListener);
+			if (oldFilteredListener != null) {
+				removeServiceListenerByClass(context, oldFilteredListener);
+			}
+			addServiceListenerByClass(context, filteredListener);
 		}
 
 		if (oldFilteredListener != null) {
@@ -838,6 +873,9 @@ public class ServiceRegistry {
 				return; // this context has no listeners to begin with
 			}
 			oldFilteredListener = listeners.remove(listener);
+			if (oldFilteredListener != null) {
+				removeServiceListenerByClass(context, oldFilteredListener);
+			}
 		}
 
 		if (oldFilteredListener == null) {
@@ -857,6 +895,11 @@ public class ServiceRegistry {
 		Map<ServiceListener, FilteredServiceListener> removedListenersMap;
 		synchronized (serviceEventListeners) {
 			removedListenersMap = serviceEventListeners.remove(context);
+			if (removedListenersMap != null) {
+				for (FilteredServiceListener oldFilteredListener : removedListenersMap.values()) {
+					removeServiceListenerByClass(context, oldFilteredListener);
+				}
+			}
 		}
 		if ((removedListenersMap == null) || removedListenersMap.isEmpty()) {
 			return;
@@ -868,6 +911,90 @@ public class ServiceRegistry {
 		notifyListenerHooks(asListenerInfos(removedListeners), false);
 	}
 
+	/**
+	 * Add a Service Listener to the objectClass index.
+	 *
+	 * @param context  Context of bundle adding listener.
+	 * @param listener Service Listener to be added.
+	 */
+	/* @GuardedBy("serviceEventListeners") */
+	private void addServiceListenerByClass(BundleContextImpl context, FilteredServiceListener listener) {
+		assert Thread.holdsLock(serviceEventListeners);
+		Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> classListeners = serviceEventListenersByClass
+				.get(listener.getObjectClass());
+		if (classListeners == null) {
+			classListeners = new LinkedHashMap<>(initialSubCapacity);
+			serviceEventListenersByClass.put(listener.getObjectClass(), classListeners);
+		}
+		CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> listeners = classListeners.get(context);
+		if (listeners == null) {
+			listeners = new CopyOnWriteIdentityMap<>();
+			classListeners.put(context, listeners);
+		}
+		listeners.put(listener.getListener(), listener);
+	}
+
+	/**
+	 * Remove a Service Listener from the objectClass index.
+	 *
+	 * @param context  Context of bundle removing listener.
+	 * @param listener Service Listener to be removed.
+	 */
+	/* @GuardedBy("serviceEventListeners") */
+	private void removeServiceListenerByClass(BundleContextImpl context, FilteredServiceListener listener) {
+		assert Thread.holdsLock(serviceEventListeners);
+		Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> classListeners = serviceEventListenersByClass
+				.get(listener.getObjectClass());
+		if (classListeners == null) {
+			return;
+		}
+		CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> listeners = classListeners.get(context);
+		if (listeners == null) {
+			return;
+		}
+		// only remove the mapping if it is for the specified listener
+		if (listeners.get(listener.getListener()) == listener) {
+			listeners.remove(listener.getListener());
+		}
+		if (listeners.isEmpty()) {
+			classListeners.remove(context);
+			if (classListeners.isEmpty()) {
+				serviceEventListenersByClass.remove(listener.getObjectClass());
+			}
+		}
+	}
+
+	/**
+	 * Add the Service Listeners of the contexts in the specified objectClass index
+	 * entry to the candidate listeners for an event.
+	 *
+	 * @param candidates     The candidate listeners by context.
+	 * @param classListeners The objectClass index entry; may be
+	 *                       <code>null</code>.
+	 */
+	/* @GuardedBy("serviceEventListeners") */
+	private static void addCandidateListeners(
+			Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> candidates,
+			Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> classListeners) {
+		if (classListeners == null) {
+			return;
+		}
+		for (Map.Entry<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> entry : classListeners
+				.entrySet()) {
+			CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> existing = candidates.get(entry.getKey());
+			if (existing == null) {
+				candidates.put(entry.getKey(), entry.getValue());
+			} else {
+				// the context has candidate listeners for more than one objectClass;
+				// merge into a copy so the index is not changed
+				CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> merged = new CopyOnWriteIdentityMap<>(
+						existing);
+				merged.putAll(entry.getValue());
+				candidates.put(entry.getKey(), merged);
+			}
+		}
+	}
+
 	/**
 	 * Coerce the generic type of a collection from
 	 * Collection<FilteredServiceListener> to Collection<ListenerInfo>
@@ -900,13 +1027,24 @@ public class ServiceRegistry {
 	}
 
 	void publishServiceEventPrivileged(final ServiceEvent event) {
-		/* Build the listener snapshot */
+		/*
+		 * Build the listener snapshot. Only listeners which require one of the
+		 * objectClasses of the service, or which do not require an objectClass, are
+		 * candidates to receive the event.
+		 */
+		String[] classes = ((ServiceReferenceImpl<?>) event.getServiceReference()).getClasses();
 		Map<BundleContextImpl, Set<Map.Entry<ServiceListener, FilteredServiceListener>>> listenerSnapshot;
 		Set<Map.Entry<ServiceListener, FilteredServiceListener>> systemServiceListenersOrig = null;
 		BundleContextImpl systemContext = null;
 		synchronized (serviceEventListeners) {
-			listenerSnapshot = new LinkedHashMap<>(serviceEventListeners.size());
-			for (Map.Entry<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> entry : serviceEventListeners
+			Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> candidates = new LinkedHashMap<>(
+					initialSubCapacity);
+			addCandidateListeners(candidates, serviceEventListenersByClass.get(null));
+			for (String clazz : classes) {
+				addCandidateListeners(candidates, serviceEventListenersByClass.get(clazz));
+			}
+			listenerSnapshot = new LinkedHashMap<>(candidates.size());
+			for (Map.Entry<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> entry : candidates
 					.entrySet()) {
 				Map<ServiceListener, FilteredServiceListener> listeners = entry.getValue();
 				if (!listeners.isEmpty()) {
@@ -1000,59 +1138,64 @@ public class ServiceRegistry {
 
 		// Add the ServiceRegistrationImpl to the list of Services published by Class
 		// Name.
-		int insertIndex;
 		for (String clazz : registration.getClasses()) {
 			List<ServiceRegistrationImpl<?>> services = publishedServicesByClass.get(clazz);
-
-			if (services == null) {
-				services = new ArrayList<>(initialSubCapacity);
-				publishedServicesByClass.put(clazz, services);
-			}
-
-			// The list is sorted, so we must find the proper location to insert
-			insertIndex = -Collections.binarySearch(services, registration) - 1;
-			services.add(insertIndex, registration);
+			publishedServicesByClass.put(clazz, insertSorted(services, registration));
 		}
 
 		// Add the ServiceRegistrationImpl to the list of all published Services.
-		// The list is sorted, so we must find the proper location to insert
-		insertIndex = -Collections.binarySearch(allPublishedServices, registration) - 1;
-		allPublishedServices.add(insertIndex, registration);
+		allPublishedServices = insertSorted(allPublishedServices, registration);
+
+		// Add the ServiceRegistrationImpl to the secondary property indexes.
+		Map<String, Object> properties = registration.getProperties();
+		for (ServicePropertyIndex index : propertyIndexes) {
+			index.add(registration, properties);
+		}
 	}
 
 	/**
 	 * Modify the ServiceRegistrationImpl in the data structure.
 	 *
-	 * @param context      The BundleContext of the bundle registering the service.
-	 * @param registration The modified ServiceRegistration.
+	 * @param context            The BundleContext of the bundle registering the
+	 *                           service.
+	 * @param registration       The modified ServiceRegistration.
+	 * @param previousRanking    The ranking of the registration before it was
+	 *                           modified.
+	 * @param previousProperties The properties of the registration before it was
+	 *                           modified.
 	 */
 	/* @GuardedBy("this") */
 	void modifyServiceRegistration(BundleContextImpl context, ServiceRegistrationImpl<?> registration,
-			int previousRanking) {
+			int previousRanking, Map<String, Object> previousProperties) {
 		assert Thread.holdsLock(this);
 		// The list of Services published by BundleContextImpl is not sorted, so
 		// we do not need to modify it.
 
+		// Remove the ServiceRegistrationImpl from the secondary property indexes
+		// using the previous properties; it is added back below using the current
+		// properties and ranking.
+		for (ServicePropertyIndex index : propertyIndexes) {
+			index.remove(registration, previousProperties);
+		}
+
 		// If the insert location has changed
 		if (registration.compareTo(previousRanking, registration.getId()) != 0) {
 			// Remove the ServiceRegistrationImpl from the list of Services published by
 			// Class Name
 			// and then add at the correct index.
-			int insertIndex;
 			for (String clazz : registration.getClasses()) {
 				List<ServiceRegistrationImpl<?>> services = publishedServicesByClass.get(clazz);
-				services.remove(registration);
-				// The list is sorted, so we must find the proper location to insert
-				insertIndex = -1 - Collections.binarySearch(services, registration);
-				services.add(insertIndex, registration);
+				publishedServicesByClass.put(clazz, insertSorted(remove(services, registration), registration));
 			}
 
 			// Remove the ServiceRegistrationImpl from the list of all published Services
 			// and then add at the correct index.
-			allPublishedServices.remove(registration);
-			// The list is sorted, so we must find the proper location to insert
-			insertIndex = -1 - Collections.binarySearch(allPublishedServices, registration);
-			allPublishedServices.add(insertIndex, registration);
+			allPublishedServices = insertSorted(remove(allPublishedServices, registration), registration);
+		}
+
+		Map<String, Object> properties = registration.getProperties();
+		for (ServicePropertyIndex index : propertyIndexes) {
+			index.add(registration, properties);
 		}
 	}
 
@@ -1075,19 +1218,84 @@ public class ServiceRegistry {
 		// Remove the ServiceRegistrationImpl from the list of Services published by
 		// Class Name.
 		for (String clazz : registration.getClasses()) {
-			List<ServiceRegistrationImpl<?>> services = publishedServicesByClass.get(clazz);
-			services.remove(registration);
+			List<ServiceRegistrationImpl<?>> services = remove(publishedServicesByClass.get(clazz), registration);
 			if (services.isEmpty()) { // remove empty list
 				publishedServicesByClass.remove(clazz);
+			} else {
+				publishedServicesByClass.put(clazz, services);
 			}
 		}
 
 		// Remove the ServiceRegistrationImpl from the list of all published Services.
-		allPublishedServices.remove(registration);
+		allPublishedServices = remove(allPublishedServices, registration);
+
+		// Remove the ServiceRegistrationImpl from the secondary property indexes.
+		Map<String, Object> properties = registration.getProperties();
+		for (ServicePropertyIndex index : propertyIndexes) {
+			index.remove(registration, properties);
+		}
+	}
+
+	/**
+	 * Returns a new immutable snapshot containing the registrations of the
+	 * specified sorted snapshot plus the specified registration at its sorted
+	 * position.
+	 *
+	 * @param services     The current sorted snapshot, may be <code>null</code>.
+	 * @param registration The registration to insert.
+	 * @return A new immutable sorted snapshot.
+	 */
+	static List<ServiceRegistrationImpl<?>> insertSorted(List<ServiceRegistrationImpl<?>> services,
+			ServiceRegistrationImpl<?> registration) {
+		if (services == null || services.isEmpty()) {
+			return Collections.singletonList(registration);
+		}
+		// The list is sorted, so we must find the proper location to insert
+		int insertIndex = -Collections.binarySearch(services, registration) - 1;
+		ServiceRegistrationImpl<?>[] result = new ServiceRegistrationImpl<?>[services.size() + 1];
+		for (int i = 0, j = 0; i < result.length; i++) {
+			result[i] = (i == insertIndex) ? registration : services.get(j++);
+		}
+		return Collections.unmodifiableList(Arrays.asList(result));
+	}
+
+	/**
+	 * Returns a new immutable snapshot containing the registrations of the
+	 * specified snapshot without the specified registration.
+	 *
+	 * @param services     The current snapshot, may be <code>null</code>.
+	 * @param registration The registration to remove.
+	 * @return A new immutable snapshot.
+	 */
+	static List<ServiceRegistrationImpl<?>> remove(List<ServiceRegistrationImpl<?>> services,
+			ServiceRegistrationImpl<?> registration) {
+		if (services == null) {
+			return Collections.emptyList();
+		}
+		int index = services.indexOf(registration);
+		if (index < 0) {
+			return services;
+		}
+		int size = services.size();
+		if (size == 1) {
+			return Collections.emptyList();
+		}
+		ServiceRegistrationImpl<?>[] result = new ServiceRegistrationImpl<?>[size - 1];
+		for (int i = 0, j = 0; i < size; i++) {
+			if (i != index) {
+				result[j++] = services.get(i);
+			}
+		}
+		return Collections.unmodifiableList(Arrays.asList(result));
 	}
 
 	/**
 	 * Lookup Service Registrations in the data structure by class name and filter.
+	 * <p>
+	 * No lock is held during the lookup. The returned List is either an immutable
+	 * snapshot of the published services, when no filter needs to be evaluated or
+	 * when all the candidates match the filter, or a new List of the services
+	 * which matched the filter.
 	 *
 	 * @param clazz  The class name with which the service was registered or
 	 *               <code>null</code> for all services.
@@ -1096,55 +1304,98 @@ public class ServiceRegistry {
 	 */
 	private List<ServiceRegistrationImpl<?>> lookupServiceRegistrations(String clazz, Filter filter) {
 		List<ServiceRegistrationImpl<?>> result;
-		synchronized (this) {
-			if (clazz == null) {
-				if (filter instanceof FilterImpl) {
-					// check if we can determine the clazz from the filter
-					String filterObjectClazz = ((FilterImpl) filter).getRequiredObjectClass();
-					if (filterObjectClazz != null) {
-						result = publishedServicesByClass.get(filterObjectClazz);
-						if (((FilterImpl) filter).getChildren().isEmpty()) {
-							// this is a simple (objectClass=serviceClass) filter;
-							// no need to evaluate the filter
-							filter = null;
-						}
-					} else {
-						result = allPublishedServices;
+		if (clazz == null) {
+			if (filter instanceof FilterImpl) {
+				// check if we can determine the clazz from the filter
+				String filterObjectClazz = ((FilterImpl) filter).getRequiredObjectClass();
+				if (filterObjectClazz != null) {
+					result = publishedServicesByClass.get(filterObjectClazz);
+					if (((FilterImpl) filter).getChildren().isEmpty()) {
+						// this is a simple (objectClass=serviceClass) filter;
+						// no need to evaluate the filter
+						filter = null;
 					}
 				} else {
-					// have to check all services
 					result = allPublishedServices;
 				}
 			} else {
-				/* services registered under the class name */
-				result = publishedServicesByClass.get(clazz);
+				// have to check all services
+				result = allPublishedServices;
 			}
+		} else {
+			/* services registered under the class name */
+			result = publishedServicesByClass.get(clazz);
+		}
 
-			if ((result == null) || result.isEmpty()) {
+		if ((result == null) || result.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		if (filter == null) {
+			return result; /* the snapshot is immutable so it can be returned directly */
+		}
+
+		// narrow the candidates using the secondary property indexes
+		boolean checkClazz = false;
+		if (propertyIndexes.length > 0 && filter instanceof FilterImpl) {
+			for (ServicePropertyIndex index : propertyIndexes) {
+				String value = ((FilterImpl) filter).getPrimaryKeyValue(index.getKey());
+				if (value != null) {
+					List<ServiceRegistrationImpl<?>> candidates = index.lookup(value);
+					if (candidates.size() < result.size()) {
+						result = candidates;
+						// the filter may not check the class name given to the lookup
+						checkClazz = clazz != null;
+					}
+				}
+			}
+			if (result.isEmpty()) {
 				return Collections.emptyList();
 			}
-
-			result = new LinkedList<>(result); /* make a new list since we don't want to change the real list */
 		}
 
-		if (filter == null) {
+		// the matches are only copied once a candidate does not match; if all the
+		// candidates match the immutable snapshot is returned
+		List<ServiceRegistrationImpl<?>> matches = null;
+		int size = result.size();
+		for (int i = 0; i < size; i++) {
+			ServiceRegistrationImpl<?> registration = result.get(i);
+			if (matches(registration, clazz, checkClazz, filter)) {
+				if (matches != null) {
+					matches.add(registration);
+				}
+			} else if (matches == null) {
+				matches = new ArrayList<>(size - 1);
+				matches.addAll(result.subList(0, i));
+			}
+		}
+		if (matches == null) {
 			return result;
 		}
+		return matches.isEmpty() ? Collections.emptyList() : matches;
+	}
 
-		for (Iterator<ServiceRegistrationImpl<?>> iter = result.iterator(); iter.hasNext();) {
-			ServiceRegistrationImpl<?> registration = iter.next();
-			ServiceReferenceImpl<?> reference;
-			try {
-				reference = registration.getReferenceImpl();
-			} catch (IllegalStateException e) {
-				iter.remove(); /* service was unregistered after we left the synchronized block above */
-				continue;
+	private static boolean matches(ServiceRegistrationImpl<?> registration, String clazz, boolean checkClazz,
+			Filter filter) {
+		if (checkClazz) {
+			boolean found = false;
+			for (String registeredClazz : registration.getClasses()) {
+				if (registeredClazz.equals(clazz)) {
+					found = true;
+					break;
+				}
 			}
-			if (!filter.match(reference)) {
-				iter.remove();
+			if (!found) {
+				return false;
 			}
 		}
-		return result;
+		ServiceReferenceImpl<?> reference;
+		try {
+			reference = registration.getReferenceImpl();
+		} catch (IllegalStateException e) {
+			return false; /* service was unregistered after the snapshot was taken */
+		}
+		return filter.match(reference);
 	}
 
 	/**
@@ -84,13 +84,13 @@ public class PermissionData {
 	public void setPermissionData(String location, String[] data) {
 		if (location == null) {
 			defaultInfos = data;
-			return;
-		}
-		synchronized (locations) {
-			if (data == null)
-				locations.remove(location);
-			else
-				locations.put(location, data);
+		} else {
+			synchronized (locations) {
+				if (data == null)
+					locations.remove(location);
+				else
+					locations.put(location, data);
+			}
 		}
 		setDirty(true);
 	}
@@ -131,6 +131,12 @@ public class PermissionData {
 		if (PERMDATA_VERSION == version) {
 			DataInputStream temp = new DataInputStream(new ByteArrayInputStream(bytes));
 			try {
+				// replace any permission data read before
+				defaultInfos = null;
+				condPermInfos = null;
+				synchronized (locations) {
+					locations.clear();
+				}
 				// read the default permissions first
 				int numPerms = temp.readInt();
 				if (numPerms > 0) {
@@ -52,6 +52,7 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 import org.eclipse.core.runtime.adaptor.EclipseStarter;
@@ -80,6 +81,8 @@ import org.eclipse.osgi.internal.framework.FilterImpl;
 import org.eclipse.osgi.internal.hookregistry.BundleFileWrapperFactoryHook;
 import org.eclipse.osgi.internal.hookregistry.StorageHookFactory;
 import org.eclipse.osgi.internal.hookregistry.StorageHookFactory.StorageHook;
+import org.eclipse.osgi.internal.loader.RequiredSourcesCache;
+import org.eclipse.osgi.internal.loader.classpath.NegativeLookupCache;
 import org.eclipse.osgi.internal.location.EquinoxLocations;
 import org.eclipse.osgi.internal.location.LocationHelper;
 import org.eclipse.osgi.internal.log.EquinoxLogServices;
@@ -95,6 +98,7 @@ import org.eclipse.osgi.storage.bundlefile.BundleFileWrapper;
 import org.eclipse.osgi.storage.bundlefile.BundleFileWrapperChain;
 import org.eclipse.osgi.storage.bundlefile.DirBundleFile;
 import org.eclipse.osgi.storage.bundlefile.MRUBundleFileList;
+import org.eclipse.osgi.storage.bundlefile.MappedZipBundleFile;
 import org.eclipse.osgi.storage.bundlefile.NestedDirBundleFile;
 import org.eclipse.osgi.storage.bundlefile.ZipBundleFile;
 import org.eclipse.osgi.storage.url.reference.Handler;
@@ -141,7 +145,9 @@ public class Storage {
 
 	}
 
-	public static final int VERSION = 6;
+	public static final int VERSION = 8;
+	private static final int JOURNAL_VERSION = 8;
+	private static final int REQUIRED_SOURCES_VERSION = 7;
 	private static final int CONTENT_TYPE_VERSION = 6;
 	private static final int CACHED_SYSTEM_CAPS_VERION = 5;
 	private static final int MR_JAR_VERSION = 4;
@@ -172,12 +178,21 @@ public class Storage {
 	private final ModuleContainer moduleContainer;
 	private final Object saveMonitor = new Object();
 	private long lastSavedTimestamp = -1;
+	private final StorageJournal journal;
+	// the id of the framework info which was loaded
+	private long loadedFrameworkInfoId;
+	// the size of the last framework info; the journal is compacted when it gets half as large
+	private long frameworkInfoSize;
+	// the generation ids of the bundles as last saved, keyed by bundle id
+	private Map<Long, Long> savedGenerations = Collections.emptyMap();
 	private final MRUBundleFileList mruList;
 	private final FrameworkExtensionInstaller extensionInstaller;
 	private final List<String> cachedHeaderKeys = Arrays.asList(Constants.BUNDLE_SYMBOLICNAME,
 			Constants.BUNDLE_ACTIVATIONPOLICY, "Service-Component"); //$NON-NLS-1$
 	private final boolean allowRestrictedProvides;
 	private final AtomicBoolean refreshMRBundles = new AtomicBoolean(false);
+	private final RequiredSourcesCache requiredSourcesCache = new RequiredSourcesCache();
+	private final NegativeLookupCache.Counters negativeLookupCacheCounters;
 	private final Version runtimeVersion;
 	private final String javaSpecVersion;
 
@@ -196,6 +211,8 @@ public class Storage {
 	}
 
 	private Storage(EquinoxContainer container, String[] cachedInfo) throws IOException {
+		this.negativeLookupCacheCounters = new NegativeLookupCache.Counters(
+				container.getConfiguration().CLASSPATH_NEGATIVE_CACHE_SIZE);
 		// default to Java 8 since that is our min
 		Version defaultVersion = Version.valueOf("1.8"); //$NON-NLS-1$
 		Version javaVersion = defaultVersion;
@@ -264,6 +281,7 @@ public class Storage {
 					childRoot.getParentFile().getAbsolutePath());
 		}
 
+		this.journal = new StorageJournal(childRoot, VERSION);
 		InputStream info = getInfoInputStream();
 		DataInputStream data = info == null ? null : new DataInputStream(new BufferedInputStream(info));
 		try {
@@ -280,14 +298,21 @@ public class Storage {
 				cleanOSGiStorage(osgiLocation, childRoot);
 			}
 			this.permissionData = loadPermissionData(data);
-			this.securityAdmin = new SecurityAdmin(null, this.permissionData);
+			this.securityAdmin = new SecurityAdmin(null, this.permissionData,
+					equinoxContainer.getConfiguration().SECURITY_EVALUATION_CACHE_SIZE,
+					equinoxContainer.getConfiguration().SECURITY_EVALUATION_CACHE_EXPIRATION);
 			this.adaptor = new EquinoxContainerAdaptor(equinoxContainer, this, generations);
 			this.moduleDatabase = new ModuleDatabase(this.adaptor);
 			this.moduleContainer = new ModuleContainer(this.adaptor, this.moduleDatabase);
 			if (data != null) {
 				try {
 					moduleDatabase.load(data);
+					// the required sources were saved for the wirings of the full save
+					requiredSourcesCache.bind(moduleContainer);
+					replayJournal(generations);
+					requiredSourcesCache.retainCurrent(moduleContainer);
 					lastSavedTimestamp = moduleDatabase.getTimestamp();
+					savedGenerations = getGenerationIds();
 				} catch (IllegalArgumentException e) {
 					equinoxContainer.getLogServices().log(EquinoxContainer.NAME, FrameworkLogEntry.WARNING,
 							"Incompatible version.  Starting with empty framework.", e); //$NON-NLS-1$
@@ -296,6 +321,7 @@ public class Storage {
 					cleanOSGiStorage(osgiLocation, childRoot);
 					// should free up the generations map
 					generations.clear();
+					requiredSourcesCache.clear();
 				}
 			}
 		} finally {
@@ -525,7 +551,7 @@ public class Storage {
 
 	public void close() {
 		try {
-			save();
+			save(true);
 		} catch (IOException e) {
 			getLogServices().log(EquinoxContainer.NAME, FrameworkLogEntry.ERROR, "Error saving on shutdown", e); //$NON-NLS-1$
 		}
@@ -583,6 +609,14 @@ public class Storage {
 		}
 	}
 
+	public RequiredSourcesCache getRequiredSourcesCache() {
+		return requiredSourcesCache;
+	}
+
+	public NegativeLookupCache.Counters getNegativeLookupCacheCounters() {
+		return negativeLookupCacheCounters;
+	}
+
 	public ModuleDatabase getModuleDatabase() {
 		return moduleDatabase;
 	}
@@ -1226,7 +1260,13 @@ public class Storage {
 				boolean strictPath = Boolean.parseBoolean(getConfiguration().getConfiguration(
 						EquinoxConfiguration.PROPERTY_STRICT_BUNDLE_ENTRY_PATH, Boolean.FALSE.toString()));
 				result = new DirBundleFile(content, strictPath);
-			} else {
+			} else if (getConfiguration().BUNDLE_FILE_MAPPED && !getConfiguration().runtimeVerifySignedBundles
+					&& generation.getContentType() == Type.DEFAULT && content.length() <= Integer.MAX_VALUE) {
+				// only the copies owned by the storage are mapped; content installed by
+				// reference may be modified or deleted in place while it is mapped
+				result = createMappedZipBundleFile(content, generation);
+			}
+			if (result == null) {
 				result = new ZipBundleFile(content, generation, mruList, getConfiguration().getDebug(),
 						getConfiguration().runtimeVerifySignedBundles);
 			}
@@ -1236,6 +1276,24 @@ public class Storage {
 		return wrapBundleFile(result, generation, isBase);
 	}
 
+	/*
+	 * Opens the mapped bundle file right away, so that archives it cannot read,
+	 * such as ZIP64 archives, are read by a ZipBundleFile instead. Returns null if
+	 * the content cannot be mapped.
+	 */
+	private BundleFile createMappedZipBundleFile(File content, Generation generation) throws IOException {
+		MappedZipBundleFile mapped = new MappedZipBundleFile(content, generation, getConfiguration().getDebug());
+		try {
+			mapped.open();
+			return mapped;
+		} catch (IOException e) {
+			if (getConfiguration().getDebug().DEBUG_BUNDLE_FILE_OPEN) {
+				Debug.println("Could not map bundle file - " + content + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return null;
+		}
+	}
+
 	public BundleFile createNestedBundleFile(String nestedDir, BundleFile bundleFile, Generation generation) {
 		return createNestedBundleFile(nestedDir, bundleFile, generation, Collections.emptyList());
 	}
@@ -1323,15 +1381,19 @@ public class Storage {
 	}
 
 	public void save() throws IOException {
+		save(false);
+	}
+
+	private void save(boolean compact) throws IOException {
 		if (isReadOnly()) {
 			return;
 		}
 		if (System.getSecurityManager() == null) {
-			save0();
+			save0(compact);
 		} else {
 			try {
 				AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
-					save0();
+					save0(compact);
 					return null;
 				});
 			} catch (PrivilegedActionException e) {
@@ -1342,7 +1404,7 @@ public class Storage {
 		}
 	}
 
-	void save0() throws IOException {
+	void save0(boolean compact) throws IOException {
 		StorageManager childStorageManager = null;
 		ManagedOutputStream mos = null;
 		DataOutputStream out = null;
@@ -1350,21 +1412,34 @@ public class Storage {
 		moduleDatabase.readLock();
 		try {
 			synchronized (this.saveMonitor) {
-				if (lastSavedTimestamp == moduleDatabase.getTimestamp())
+				if (lastSavedTimestamp == moduleDatabase.getTimestamp() && (!compact || journal.length() == 0))
+					return;
+				if (!compact && appendJournal()) {
+					lastSavedTimestamp = moduleDatabase.getTimestamp();
 					return;
+				}
+				long frameworkInfoId = newFrameworkInfoId();
 				childStorageManager = getChildStorageManager();
 				mos = childStorageManager.getOutputStream(FRAMEWORK_INFO);
 				out = new DataOutputStream(new BufferedOutputStream(mos));
-				saveGenerations(out);
+				saveGenerations(out, frameworkInfoId);
 				savePermissionData(out);
 				moduleDatabase.store(out, true);
+				frameworkInfoSize = out.size();
+				// closing commits the framework info, only then the journal can be discarded
+				out.close();
+				out = null;
+				journal.reset(frameworkInfoId);
 				lastSavedTimestamp = moduleDatabase.getTimestamp();
+				savedGenerations = getGenerationIds();
 				success = true;
 			}
 		} finally {
 			if (!success) {
 				if (mos != null) {
 					mos.abort();
+					// the database may have recorded the failed store as persisted
+					journal.invalidate();
 				}
 			}
 			if (out != null) {
@@ -1385,7 +1460,107 @@ public class Storage {
 		permissionData.savePermissionData(out);
 	}
 
-	private void saveGenerations(DataOutputStream out) throws IOException {
+	private long newFrameworkInfoId() {
+		long id;
+		do {
+			id = ThreadLocalRandom.current().nextLong();
+		} while (id == 0 || id == journal.getId());
+		return id;
+	}
+
+	/**
+	 * Appends the changes since the last save to the journal. The record contains
+	 * the new generations with their storage hook data, the permission data if it
+	 * changed and the {@link ModuleDatabase#storeDelta(DataOutputStream) delta} of
+	 * the module database. The required sources are not journaled, the wirings
+	 * replaced by a delta search their required bundles again after a restart.
+	 *
+	 * @return true if the changes got appended, false if the framework info needs
+	 *         to be saved in full instead
+	 */
+	private boolean appendJournal() throws IOException {
+		if (!getConfiguration().STORAGE_JOURNAL || journal.getId() == 0 || journal.length() > frameworkInfoSize / 2) {
+			return false;
+		}
+		Map<Long, Long> generationIds = new HashMap<>();
+		List<Generation> generations = new ArrayList<>();
+		for (Module module : moduleContainer.getModules()) {
+			ModuleRevision revision = module.getCurrentRevision();
+			Generation generation = revision == null ? null : (Generation) revision.getRevisionInfo();
+			if (generation == null) {
+				continue;
+			}
+			long bundleId = generation.getBundleInfo().getBundleId();
+			generationIds.put(bundleId, generation.getGenerationId());
+			if (!Long.valueOf(generation.getGenerationId()).equals(savedGenerations.get(bundleId))) {
+				if (bundleId == 0) {
+					// the system bundle changed
+					return false;
+				}
+				generations.add(generation);
+			}
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(generations.size());
+		for (Generation generation : generations) {
+			saveGeneration(out, generation);
+		}
+		saveStorageHookData(out, generations);
+		boolean permissionsChanged = permissionData.isDirty();
+		out.writeBoolean(permissionsChanged);
+		if (permissionsChanged) {
+			savePermissionData(out);
+		}
+		if (!moduleDatabase.storeDelta(out)) {
+			return false;
+		}
+		out.close();
+		journal.append(bytes.toByteArray());
+		// only now the delta is persisted
+		moduleDatabase.commitDelta();
+		savedGenerations = generationIds;
+		return true;
+	}
+
+	/**
+	 * Loads the changes appended to the journal of the loaded framework info.
+	 */
+	private void replayJournal(Map<Long, Generation> generations) throws IOException {
+		Type[] contentTypes = Type.values();
+		for (byte[] record : journal.read(loadedFrameworkInfoId, isReadOnly())) {
+			try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+				int numGenerations = in.readInt();
+				List<Generation> journaled = new ArrayList<>(numGenerations);
+				for (int i = 0; i < numGenerations; i++) {
+					Generation generation = loadGeneration(in, VERSION, cachedHeaderKeys, contentTypes);
+					generations.put(generation.getBundleInfo().getBundleId(), generation);
+					journaled.add(generation);
+				}
+				connectPersistentBundles(journaled);
+				loadStorageHookData(journaled, in);
+				if (in.readBoolean()) {
+					permissionData.readPermissionData(in);
+				}
+				moduleDatabase.loadDelta(in);
+			}
+		}
+	}
+
+	private Map<Long, Long> getGenerationIds() {
+		Map<Long, Long> generationIds = new HashMap<>();
+		for (Module module : moduleContainer.getModules()) {
+			ModuleRevision revision = module.getCurrentRevision();
+			Generation generation = revision == null ? null : (Generation) revision.getRevisionInfo();
+			if (generation != null) {
+				generationIds.put(generation.getBundleInfo().getBundleId(), generation.getGenerationId());
+			}
+		}
+		return generationIds;
+	}
+
+	private void saveGenerations(DataOutputStream out, long frameworkInfoId) throws IOException {
 		List<Module> modules = moduleContainer.getModules();
 		List<Generation> generations = new ArrayList<>();
 		for (Module module : modules) {
@@ -1414,45 +1589,59 @@ public class Storage {
 
 		out.writeInt(generations.size());
 		for (Generation generation : generations) {
-			BundleInfo bundleInfo = generation.getBundleInfo();
-			out.writeLong(bundleInfo.getBundleId());
-			out.writeUTF(bundleInfo.getLocation());
-			out.writeLong(bundleInfo.getNextGenerationId());
-			out.writeLong(generation.getGenerationId());
-			out.writeBoolean(generation.isDirectory());
-			Type contentType = generation.getContentType();
-			out.writeInt(contentType.ordinal());
-			out.writeBoolean(generation.hasPackageInfo());
-			if (bundleInfo.getBundleId() == 0 || contentType == Type.CONNECT) {
-				// just write empty string for system bundle content and connect content in this
-				// case
-				out.writeUTF(""); //$NON-NLS-1$
+			saveGeneration(out, generation);
+		}
+
+		saveStorageHookData(out, generations);
+		saveRequiredSources(out, generations);
+		out.writeLong(frameworkInfoId);
+	}
+
+	private void saveGeneration(DataOutputStream out, Generation generation) throws IOException {
+		BundleInfo bundleInfo = generation.getBundleInfo();
+		out.writeLong(bundleInfo.getBundleId());
+		out.writeUTF(bundleInfo.getLocation());
+		out.writeLong(bundleInfo.getNextGenerationId());
+		out.writeLong(generation.getGenerationId());
+		out.writeBoolean(generation.isDirectory());
+		Type contentType = generation.getContentType();
+		out.writeInt(contentType.ordinal());
+		out.writeBoolean(generation.hasPackageInfo());
+		if (bundleInfo.getBundleId() == 0 || contentType == Type.CONNECT) {
+			// just write empty string for system bundle content and connect content in this
+			// case
+			out.writeUTF(""); //$NON-NLS-1$
+		} else {
+			if (contentType == Type.REFERENCE) {
+				// make reference installs relative to the install path
+				out.writeUTF(new FilePath(installPath)
+						.makeRelative(new FilePath(generation.getContent().getAbsolutePath())));
 			} else {
-				if (contentType == Type.REFERENCE) {
-					// make reference installs relative to the install path
-					out.writeUTF(new FilePath(installPath)
-							.makeRelative(new FilePath(generation.getContent().getAbsolutePath())));
-				} else {
-					// make normal installs relative to the storage area
-					out.writeUTF(Storage.getBundleFilePath(bundleInfo.getBundleId(), generation.getGenerationId()));
-				}
+				// make normal installs relative to the storage area
+				out.writeUTF(Storage.getBundleFilePath(bundleInfo.getBundleId(), generation.getGenerationId()));
 			}
-			out.writeLong(generation.getLastModified());
+		}
+		out.writeLong(generation.getLastModified());
 
-			Dictionary<String, String> headers = generation.getHeaders();
-			for (String headerKey : cachedHeaderKeys) {
-				String value = headers.get(headerKey);
-				if (value != null) {
-					out.writeUTF(value);
-				} else {
-					out.writeUTF(NUL);
-				}
+		Dictionary<String, String> headers = generation.getHeaders();
+		for (String headerKey : cachedHeaderKeys) {
+			String value = headers.get(headerKey);
+			if (value != null) {
+				out.writeUTF(value);
+			} else {
+				out.writeUTF(NUL);
 			}
-
-			out.writeBoolean(generation.isMRJar());
 		}
 
-		saveStorageHookData(out, generations);
+		out.writeBoolean(generation.isMRJar());
+	}
+
+	private void saveRequiredSources(DataOutputStream out, List<Generation> generations) throws IOException {
+		List<ModuleRevision> revisions = new ArrayList<>(generations.size());
+		for (Generation generation : generations) {
+			revisions.add(generation.getRevision());
+		}
+		requiredSourcesCache.save(out, revisions);
 	}
 
 	private void saveLongString(DataOutputStream out, String value) throws IOException {
@@ -1529,74 +1718,85 @@ public class Storage {
 		List<Generation> generations = new ArrayList<>(numInfos);
 		Type[] contentTypes = Type.values();
 		for (int i = 0; i < numInfos; i++) {
-			long infoId = in.readLong();
-			String infoLocation = ObjectPool.intern(in.readUTF());
-			long nextGenId = in.readLong();
-			long generationId = in.readLong();
-			boolean isDirectory = in.readBoolean();
-
-			Type contentType = Type.DEFAULT;
-			if (version >= CONTENT_TYPE_VERSION) {
-				contentType = contentTypes[in.readInt()];
-			} else {
-				if (in.readBoolean()) {
-					contentType = Type.REFERENCE;
-				}
+			Generation generation = loadGeneration(in, version, storedCachedHeaderKeys, contentTypes);
+			result.put(generation.getBundleInfo().getBundleId(), generation);
+			generations.add(generation);
+		}
+
+		connectPersistentBundles(generations);
+		loadStorageHookData(generations, in);
+		if (version >= REQUIRED_SOURCES_VERSION) {
+			requiredSourcesCache.load(in);
+		}
+		if (version >= JOURNAL_VERSION) {
+			loadedFrameworkInfoId = in.readLong();
+		}
+		return result;
+	}
+
+	private Generation loadGeneration(DataInputStream in, int version, List<String> storedCachedHeaderKeys,
+			Type[] contentTypes) throws IOException {
+		long infoId = in.readLong();
+		String infoLocation = ObjectPool.intern(in.readUTF());
+		long nextGenId = in.readLong();
+		long generationId = in.readLong();
+		boolean isDirectory = in.readBoolean();
+
+		Type contentType = Type.DEFAULT;
+		if (version >= CONTENT_TYPE_VERSION) {
+			contentType = contentTypes[in.readInt()];
+		} else {
+			if (in.readBoolean()) {
+				contentType = Type.REFERENCE;
 			}
+		}
 
-			boolean hasPackageInfo = in.readBoolean();
-			String contentPath = in.readUTF();
-			long lastModified = in.readLong();
+		boolean hasPackageInfo = in.readBoolean();
+		String contentPath = in.readUTF();
+		long lastModified = in.readLong();
 
-			Map<String, String> cachedHeaders = new HashMap<>(storedCachedHeaderKeys.size());
-			for (String headerKey : storedCachedHeaderKeys) {
-				String value = in.readUTF();
-				if (NUL.equals(value)) {
-					value = null;
-				} else {
-					value = ObjectPool.intern(value);
-				}
-				cachedHeaders.put(headerKey, value);
-			}
-			boolean isMRJar = (version >= MR_JAR_VERSION) ? in.readBoolean() : false;
-
-			File content = null;
-			if (contentType != Type.CONNECT) {
-				if (infoId == 0) {
-					content = getSystemContent();
-					isDirectory = content != null ? content.isDirectory() : false;
-					// Note that we do not do any checking for absolute paths with
-					// the system bundle. We always take the content as discovered
-					// by getSystemContent()
-				} else {
-					content = new File(contentPath);
-					if (!content.isAbsolute()) {
-						// make sure it has the absolute location instead
-						switch (contentType) {
-						case REFERENCE:
-							// reference installs are relative to the installPath
-							content = new File(installPath, contentPath);
-							break;
-						case DEFAULT:
-							// normal installs are relative to the storage area
-							content = getFile(contentPath, true);
-							break;
-						default:
-							throw new IllegalArgumentException("Unknown type: " + contentType); //$NON-NLS-1$
-						}
+		Map<String, String> cachedHeaders = new HashMap<>(storedCachedHeaderKeys.size());
+		for (String headerKey : storedCachedHeaderKeys) {
+			String value = in.readUTF();
+			if (NUL.equals(value)) {
+				value = null;
+			} else {
+				value = ObjectPool.intern(value);
+			}
+			cachedHeaders.put(headerKey, value);
+		}
+		boolean isMRJar = (version >= MR_JAR_VERSION) ? in.readBoolean() : false;
+
+		File content = null;
+		if (contentType != Type.CONNECT) {
+			if (infoId == 0) {
+				content = getSystemContent();
+				isDirectory = content != null ? content.isDirectory() : false;
+				// Note that we do not do any checking for absolute paths with
+				// the system bundle. We always take the content as discovered
+				// by getSystemContent()
+			} else {
+				content = new File(contentPath);
+				if (!content.isAbsolute()) {
+					// make sure it has the absolute location instead
+					switch (contentType) {
+					case REFERENCE:
+						// reference installs are relative to the installPath
+						content = new File(installPath, contentPath);
+						break;
+					case DEFAULT:
+						// normal installs are relative to the storage area
+						content = getFile(contentPath, true);
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown type: " + contentType); //$NON-NLS-1$
 					}
 				}
 			}
-			BundleInfo info = new BundleInfo(this, infoId, infoLocation, nextGenId);
-			Generation generation = info.restoreGeneration(generationId, content, isDirectory, contentType,
-					hasPackageInfo, cachedHeaders, lastModified, isMRJar);
-			result.put(infoId, generation);
-			generations.add(generation);
 		}
-
-		connectPersistentBundles(generations);
-		loadStorageHookData(generations, in);
-		return result;
+		BundleInfo info = new BundleInfo(this, infoId, infoLocation, nextGenId);
+		return info.restoreGeneration(generationId, content, isDirectory, contentType, hasPackageInfo, cachedHeaders,
+				lastModified, isMRJar);
 	}
 
 	private void connectPersistentBundles(List<Generation> generations) {
@@ -2309,6 +2509,8 @@ public class Storage {
 		InputStream storageStream = null;
 		try {
 			storageStream = storageManager.getInputStream(FRAMEWORK_INFO);
+			File infoFile = storageStream == null ? null : storageManager.lookup(FRAMEWORK_INFO, false);
+			frameworkInfoSize = infoFile == null ? 0 : infoFile.length();
 		} catch (IOException ex) {
 			if (getConfiguration().getDebug().DEBUG_STORAGE) {
 				Debug.println("Error reading framework.info: " + ex.getMessage()); //$NON-NLS-1$
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.storage;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append only file of the changes saved since the framework info was last
+ * written in full. The journal starts with its version and the id of the
+ * framework info the changes apply to. Each record is prefixed with its length
+ * and followed by its checksum so that a record which was only partially
+ * written, for example because the process was killed, is discarded along with
+ * anything after it.
+ * <p>
+ * This class is not thread safe, the storage only uses it while holding its
+ * save monitor.
+ */
+final class StorageJournal {
+	// must not start with the framework info name, the storage manager deletes those files
+	static final String JOURNAL_FILE = "framework.journal"; //$NON-NLS-1$
+	private static final int HEADER_LENGTH = 4 + 8;
+
+	private final File file;
+	private final int version;
+	private long id;
+	private long length;
+
+	StorageJournal(File root, int version) {
+		this.file = new File(root, JOURNAL_FILE);
+		this.version = version;
+	}
+
+	/**
+	 * Returns the id of the framework info the journal applies to.
+	 */
+	long getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the number of bytes of the records in the journal.
+	 */
+	long length() {
+		return length;
+	}
+
+	/**
+	 * Reads the records of the journal for the framework info with the specified
+	 * id. A journal for another framework info is deleted. Any invalid data after
+	 * the last valid record is truncated so that new records can be appended.
+	 *
+	 * @param frameworkInfoId the id of the framework info
+	 * @param readOnly        true if the journal must not be modified
+	 * @return the records of the journal
+	 * @throws IOException if an error occurs reading the journal
+	 */
+	List<byte[]> read(long frameworkInfoId, boolean readOnly) throws IOException {
+		this.id = frameworkInfoId;
+		this.length = 0;
+		if (!file.isFile()) {
+			return Collections.emptyList();
+		}
+		List<byte[]> records = new ArrayList<>();
+		long valid = HEADER_LENGTH;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != version || in.readLong() != frameworkInfoId) {
+				valid = 0;
+			} else {
+				CRC32 crc = new CRC32();
+				while (true) {
+					int recordLength = in.readInt();
+					if (recordLength < 0 || recordLength > file.length() - valid) {
+						break;
+					}
+					byte[] record = new byte[recordLength];
+					in.readFully(record);
+					crc.reset();
+					crc.update(record, 0, recordLength);
+					if (in.readLong() != crc.getValue()) {
+						break;
+					}
+					records.add(record);
+					valid += 4 + recordLength + 8;
+				}
+			}
+		} catch (EOFException e) {
+			// the last record is incomplete
+		}
+		if (readOnly) {
+			return records;
+		}
+		if (valid <= HEADER_LENGTH) {
+			delete();
+		} else if (valid < file.length()) {
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) { //$NON-NLS-1$
+				raf.setLength(valid);
+			}
+		}
+		length = valid <= HEADER_LENGTH ? 0 : valid - HEADER_LENGTH;
+		return records;
+	}
+
+	/**
+	 * Appends a record to the journal and forces it to the disk.
+	 *
+	 * @param record the record
+	 * @throws IOException if an error occurs writing the journal
+	 */
+	void append(byte[] record) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(record, 0, record.length);
+		boolean create = length == 0;
+		try (FileOutputStream fos = new FileOutputStream(file, !create)) {
+			DataOutputStream out = new DataOutputStream(fos);
+			if (create) {
+				out.writeInt(version);
+				out.writeLong(id);
+			}
+			out.writeInt(record.length);
+			out.write(record);
+			out.writeLong(crc.getValue());
+			out.flush();
+			fos.getFD().sync();
+		} catch (IOException e) {
+			// the journal may now end with a partial record; start over with the next full save
+			id = 0;
+			throw e;
+		}
+		length += 4 + record.length + 8;
+	}
+
+	/**
+	 * Starts a new empty journal for the framework info with the specified id.
+	 *
+	 * @param frameworkInfoId the id of the framework info
+	 */
+	void reset(long frameworkInfoId) {
+		delete();
+		this.id = frameworkInfoId;
+	}
+
+	/**
+	 * Stops appending to this journal until the next {@link #reset(long) reset},
+	 * used when the in memory state no longer matches the saved framework info.
+	 */
+	void invalidate() {
+		id = 0;
+	}
+
+	private void delete() {
+		length = 0;
+		if (file.exists() && !file.delete()) {
+			// make sure the records are never used again
+			id = 0;
+		}
+	}
+}
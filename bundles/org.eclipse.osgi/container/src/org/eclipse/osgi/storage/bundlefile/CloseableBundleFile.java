@@ -174,7 +174,7 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 			return null;
 		}
 		try {
-			for (String path : getPaths()) {
+			for (String path : getPaths(dirName)) {
 				if (path.startsWith(dirName) && !path.endsWith("/")) //$NON-NLS-1$
 					getFile(path, false);
 			}
@@ -186,6 +186,19 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 
 	protected abstract Iterable<String> getPaths();
 
+	/**
+	 * Returns the paths of the bundle file which may start with the specified
+	 * prefix. The returned paths may include paths that do not start with the
+	 * prefix; callers must filter them. The default implementation returns all
+	 * the paths.
+	 * 
+	 * @param prefix the prefix of the paths of interest
+	 * @return the paths which may start with the prefix
+	 */
+	protected Iterable<String> getPaths(String prefix) {
+		return getPaths();
+	}
+
 	private File getExtractFile(String entryName) {
 		if (generation == null)
 			return null;
@@ -269,7 +282,7 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 			if (dir.length() > 0 && dir.charAt(dir.length() - 1) != '/')
 				dir = dir + '/';
 
-			for (String entry : getPaths()) {
+			for (String entry : getPaths(dir)) {
 				if (entry.startsWith(dir)) {
 					return true;
 				}
@@ -318,7 +331,7 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 
 			LinkedHashSet<String> result = new LinkedHashSet<>();
 			// Get all entries and add the ones of interest.
-			for (String entryPath : getPaths()) {
+			for (String entryPath : getPaths(path)) {
 				// Is the entry of possible interest? Note that
 				// string.startsWith("") == true.
 				if (entryPath.startsWith(path)) {
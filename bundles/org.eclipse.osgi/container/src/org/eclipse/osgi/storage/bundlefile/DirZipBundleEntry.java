@@ -19,22 +19,26 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 /**
- * Represents a directory entry in a ZipBundleFile. This object is used to
- * reference a directory entry in a ZipBundleFile when the directory entries are
- * not included in the zip file.
+ * Represents a directory entry in a ZipBundleFile or MappedZipBundleFile. This
+ * object is used to reference a directory entry in a zip bundle file when the
+ * directory entries are not included in the zip file.
  */
 public class DirZipBundleEntry extends BundleEntry {
 
 	/**
 	 * ZipBundleFile for this entry.
 	 */
-	private ZipBundleFile bundleFile;
+	private CloseableBundleFile<?> bundleFile;
 	/**
 	 * The name for this entry
 	 */
 	String name;
 
 	public DirZipBundleEntry(ZipBundleFile bundleFile, String name) {
+		this((CloseableBundleFile<?>) bundleFile, name);
+	}
+
+	DirZipBundleEntry(CloseableBundleFile<?> bundleFile, String name) {
 		this.name = (name.length() > 0 && name.charAt(0) == '/') ? name.substring(1) : name;
 		this.bundleFile = bundleFile;
 	}
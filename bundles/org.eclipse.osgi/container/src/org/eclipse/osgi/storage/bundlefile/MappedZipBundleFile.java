@@ -0,0 +1,478 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.storage.bundlefile;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import org.eclipse.osgi.internal.debug.Debug;
+import org.eclipse.osgi.internal.messages.Msg;
+import org.eclipse.osgi.storage.BundleInfo;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * A BundleFile that memory maps a zip file. The central directory of the zip
+ * file is parsed once into a sorted index of the entry names when the bundle
+ * file is opened. Entry lookups are binary searches of the index. The input
+ * streams of entries read, or inflate, their content from the mapped file
+ * without an intermediate file buffer; {@link BundleEntry#getBytes()} still
+ * copies the content into a new array.
+ * <p>
+ * The file is not kept open once it is mapped, so a mapped bundle file does not
+ * count against the limit of open bundle files. The file must not be modified
+ * while it is mapped, so only the copies of bundles owned by the storage are
+ * mapped. A mapping is only released once it is garbage collected; if the
+ * storage cannot delete a mapped file it is deleted the next time the storage
+ * is compacted. Zip files larger than 2GB and zip files using the ZIP64 format
+ * are not supported; {@link #open()} fails for them, and the storage reads them
+ * with a {@link ZipBundleFile} instead.
+ */
+public class MappedZipBundleFile extends CloseableBundleFile<MappedZipBundleFile.MappedZipBundleEntry> {
+	private static final int LOCSIG = 0x04034b50;
+	private static final int CENSIG = 0x02014b50;
+	private static final int ENDSIG = 0x06054b50;
+	private static final int LOCHDR = 30;
+	private static final int CENHDR = 46;
+	private static final int ENDHDR = 22;
+
+	/**
+	 * The index of the mapped zip file; {@code null} when closed
+	 */
+	volatile Index index;
+
+	public MappedZipBundleFile(File basefile, BundleInfo.Generation generation, Debug debug) throws IOException {
+		// no MRU list; a mapped file does not hold a file descriptor
+		super(basefile, generation, null, debug);
+		if (!BundleFile.secureAction.exists(basefile))
+			throw new IOException(NLS.bind(Msg.ADAPTER_FILEEXIST_EXCEPTION, basefile));
+	}
+
+	@Override
+	protected void doOpen() throws IOException {
+		ByteBuffer buffer;
+		try (RandomAccessFile file = new RandomAccessFile(basefile, "r")) { //$NON-NLS-1$
+			FileChannel channel = file.getChannel();
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new ZipException("Zip file is too large to map: " + basefile); //$NON-NLS-1$
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		index = new Index(buffer);
+	}
+
+	@Override
+	protected BundleEntry findEntry(String path) {
+		if (path.length() > 0 && path.charAt(0) == '/')
+			path = path.substring(1);
+		Index current = index;
+		int i = current.find(path);
+		if (i < 0 && path.length() > 0 && path.charAt(path.length() - 1) != '/') {
+			// like ZipFile.getEntry, find directory entries without the trailing slash
+			i = current.find(path + '/');
+		}
+		if (i >= 0 && current.getSize(i) == 0 && path.length() > 0 && path.charAt(path.length() - 1) != '/') {
+			// work around the directory bug see bug 83542
+			int dir = current.find(path + '/');
+			if (dir >= 0)
+				i = dir;
+		}
+		if (i < 0) {
+			if (path.length() == 0 || path.charAt(path.length() - 1) == '/') {
+				// this is a directory request lets see if any entries exist in this directory
+				if (containsDir(path))
+					return new DirZipBundleEntry(this, path);
+			}
+			return null;
+		}
+		return new MappedZipBundleEntry(this, current, i);
+	}
+
+	@Override
+	protected void doClose() throws IOException {
+		// nothing to close; the mapping is released when it is no longer referenced
+	}
+
+	@Override
+	protected void postClose() {
+		index = null;
+	}
+
+	@Override
+	protected InputStream doGetInputStream(MappedZipBundleEntry entry) throws IOException {
+		return entry.openStream();
+	}
+
+	@Override
+	protected Iterable<String> getPaths() {
+		return Collections.unmodifiableList(Arrays.asList(index.names));
+	}
+
+	@Override
+	protected Iterable<String> getPaths(String prefix) {
+		if (prefix.length() > 0 && prefix.charAt(0) == '/')
+			prefix = prefix.substring(1);
+		// all the names starting with the prefix follow its insertion point
+		String[] names = index.names;
+		int from = Arrays.binarySearch(names, prefix);
+		if (from < 0)
+			from = -(from + 1);
+		int to = from;
+		while (to < names.length && names[to].startsWith(prefix))
+			to++;
+		List<String> result = Arrays.asList(names).subList(from, to);
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * The sorted index of the central directory of a mapped zip file.
+	 */
+	static final class Index {
+		// the fields of an entry in the info array
+		private static final int METHOD = 0;
+		private static final int TIME = 1;
+		private static final int COMPRESSED_SIZE = 2;
+		private static final int SIZE = 3;
+		private static final int LOCAL_OFFSET = 4;
+		private static final int INFO_LENGTH = 5;
+
+		final ByteBuffer buffer;
+		final String[] names;
+		private final int[] info;
+
+		Index(ByteBuffer buffer) throws ZipException {
+			this.buffer = buffer;
+			int end = findEnd(buffer);
+			int total = buffer.getShort(end + 10) & 0xffff;
+			long centralOffset = buffer.getInt(end + 16) & 0xffffffffL;
+			if (total == 0xffff || centralOffset == 0xffffffffL) {
+				throw new ZipException("ZIP64 is not supported"); //$NON-NLS-1$
+			}
+			String[] unsortedNames = new String[total];
+			int[] unsortedInfo = new int[total * INFO_LENGTH];
+			ByteBuffer names = buffer.duplicate();
+			int pos = (int) centralOffset;
+			for (int i = 0; i < total; i++) {
+				if (pos + CENHDR > buffer.limit() || buffer.getInt(pos) != CENSIG) {
+					throw new ZipException("Invalid central directory header"); //$NON-NLS-1$
+				}
+				int nameLength = buffer.getShort(pos + 28) & 0xffff;
+				int extraLength = buffer.getShort(pos + 30) & 0xffff;
+				int commentLength = buffer.getShort(pos + 32) & 0xffff;
+				int compressedSize = buffer.getInt(pos + 20);
+				int size = buffer.getInt(pos + 24);
+				int localOffset = buffer.getInt(pos + 42);
+				if (compressedSize < 0 || size < 0 || localOffset < 0) {
+					// sizes and offsets larger than 2GB are only possible with ZIP64
+					throw new ZipException("ZIP64 is not supported"); //$NON-NLS-1$
+				}
+				byte[] name = new byte[nameLength];
+				names.position(pos + CENHDR);
+				names.get(name);
+				unsortedNames[i] = new String(name, StandardCharsets.UTF_8);
+				int info = i * INFO_LENGTH;
+				unsortedInfo[info + METHOD] = buffer.getShort(pos + 10) & 0xffff;
+				unsortedInfo[info + TIME] = buffer.getInt(pos + 12);
+				unsortedInfo[info + COMPRESSED_SIZE] = compressedSize;
+				unsortedInfo[info + SIZE] = size;
+				unsortedInfo[info + LOCAL_OFFSET] = localOffset;
+				pos += CENHDR + nameLength + extraLength + commentLength;
+			}
+
+			Integer[] order = new Integer[total];
+			for (int i = 0; i < total; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (i1, i2) -> unsortedNames[i1].compareTo(unsortedNames[i2]));
+			this.names = new String[total];
+			this.info = new int[total * INFO_LENGTH];
+			for (int i = 0; i < total; i++) {
+				this.names[i] = unsortedNames[order[i]];
+				System.arraycopy(unsortedInfo, order[i] * INFO_LENGTH, this.info, i * INFO_LENGTH, INFO_LENGTH);
+			}
+		}
+
+		private static int findEnd(ByteBuffer buffer) throws ZipException {
+			// the end header is followed by a comment of at most 0xffff bytes
+			int last = buffer.limit() - ENDHDR;
+			for (int pos = last; pos >= 0 && pos >= last - 0xffff; pos--) {
+				if (buffer.getInt(pos) == ENDSIG) {
+					return pos;
+				}
+			}
+			throw new ZipException("Zip END header not found"); //$NON-NLS-1$
+		}
+
+		int find(String name) {
+			return Arrays.binarySearch(names, name);
+		}
+
+		int getMethod(int i) {
+			return info[i * INFO_LENGTH + METHOD];
+		}
+
+		int getSize(int i) {
+			return info[i * INFO_LENGTH + SIZE];
+		}
+
+		long getTime(int i) {
+			int time = info[i * INFO_LENGTH + TIME];
+			try {
+				return LocalDateTime.of(((time >> 25) & 0x7f) + 1980, (time >> 21) & 0x0f, (time >> 16) & 0x1f,
+						(time >> 11) & 0x1f, (time >> 5) & 0x3f, (time << 1) & 0x3e).atZone(ZoneId.systemDefault())
+						.toInstant().toEpochMilli();
+			} catch (DateTimeException e) {
+				return -1;
+			}
+		}
+
+		/**
+		 * Returns a buffer containing the (possibly compressed) data of the entry.
+		 */
+		ByteBuffer getData(int i) throws ZipException {
+			int localOffset = info[i * INFO_LENGTH + LOCAL_OFFSET];
+			if (localOffset + LOCHDR > buffer.limit() || buffer.getInt(localOffset) != LOCSIG) {
+				throw new ZipException("Invalid local header: " + names[i]); //$NON-NLS-1$
+			}
+			int start = localOffset + LOCHDR + (buffer.getShort(localOffset + 26) & 0xffff)
+					+ (buffer.getShort(localOffset + 28) & 0xffff);
+			long end = (long) start + info[i * INFO_LENGTH + COMPRESSED_SIZE];
+			if (end > buffer.limit()) {
+				throw new ZipException("Invalid entry size: " + names[i]); //$NON-NLS-1$
+			}
+			ByteBuffer data = buffer.duplicate();
+			data.limit((int) end);
+			data.position(start);
+			return data.slice();
+		}
+	}
+
+	/**
+	 * A BundleEntry of a MappedZipBundleFile.
+	 */
+	public static class MappedZipBundleEntry extends BundleEntry {
+		private final MappedZipBundleFile bundleFile;
+		private final Index index;
+		private final int i;
+
+		MappedZipBundleEntry(MappedZipBundleFile bundleFile, Index index, int i) {
+			this.bundleFile = bundleFile;
+			this.index = index;
+			this.i = i;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return bundleFile.getInputStream(this);
+		}
+
+		InputStream openStream() throws IOException {
+			ByteBuffer data = index.getData(i);
+			switch (index.getMethod(i)) {
+			case ZipEntry.STORED:
+				return new ByteBufferInputStream(data);
+			case ZipEntry.DEFLATED:
+				return new InflaterByteBufferInputStream(data);
+			default:
+				throw new ZipException("Unsupported compression method: " + index.getMethod(i)); //$NON-NLS-1$
+			}
+		}
+
+		@Override
+		public byte[] getBytes() throws IOException {
+			if (index.getMethod(i) == ZipEntry.STORED) {
+				// a single bulk copy from the mapped file; the result must be a new array
+				ByteBuffer data = index.getData(i);
+				byte[] result = new byte[data.remaining()];
+				data.get(result);
+				return result;
+			}
+			return super.getBytes();
+		}
+
+		@Override
+		public long getSize() {
+			return index.getSize(i);
+		}
+
+		@Override
+		public String getName() {
+			return index.names[i];
+		}
+
+		@Override
+		public long getTime() {
+			return index.getTime(i);
+		}
+
+		@SuppressWarnings("deprecation")
+		@Override
+		public URL getLocalURL() {
+			try {
+				return new URL("jar:" + bundleFile.basefile.toURL() + "!/" + getName()); //$NON-NLS-1$//$NON-NLS-2$
+			} catch (MalformedURLException e) {
+				// This can not happen.
+				return null;
+			}
+		}
+
+		@SuppressWarnings("deprecation")
+		@Override
+		public URL getFileURL() {
+			try {
+				File file = bundleFile.getFile(getName(), false);
+				if (file != null)
+					return file.toURL();
+			} catch (MalformedURLException e) {
+				// This can not happen.
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * An input stream reading the remaining content of a buffer.
+	 */
+	static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
+	/**
+	 * An input stream inflating the remaining deflated content of a buffer.
+	 */
+	static class InflaterByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+		private final Inflater inflater = new Inflater(true);
+		private final byte[] input = new byte[BundleEntry.BUF_SIZE];
+		private final byte[] single = new byte[1];
+		private boolean dummyByteAdded;
+		private boolean closed;
+
+		InflaterByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (closed) {
+				throw new IOException("Stream closed"); //$NON-NLS-1$
+			}
+			if (len == 0) {
+				return 0;
+			}
+			try {
+				int n;
+				while ((n = inflater.inflate(b, off, len)) == 0) {
+					if (inflater.finished() || inflater.needsDictionary()) {
+						return -1;
+					}
+					if (inflater.needsInput()) {
+						fill();
+					}
+				}
+				return n;
+			} catch (DataFormatException e) {
+				String message = e.getMessage();
+				throw new ZipException(message != null ? message : "Invalid ZLIB data format"); //$NON-NLS-1$
+			}
+		}
+
+		private void fill() throws EOFException {
+			int n = Math.min(input.length, buffer.remaining());
+			if (n > 0) {
+				buffer.get(input, 0, n);
+				inflater.setInput(input, 0, n);
+			} else if (!dummyByteAdded) {
+				// the inflater may need an extra dummy byte when no zlib header is used
+				dummyByteAdded = true;
+				input[0] = 0;
+				inflater.setInput(input, 0, 1);
+			} else {
+				throw new EOFException("Unexpected end of ZLIB input stream"); //$NON-NLS-1$
+			}
+		}
+
+		@Override
+		public int available() {
+			return closed || inflater.finished() ? 0 : 1;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				inflater.end();
+			}
+		}
+	}
+}
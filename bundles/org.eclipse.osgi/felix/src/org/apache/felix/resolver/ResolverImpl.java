@@ -18,11 +18,14 @@
  */
 package org.apache.felix.resolver;
 
+import java.io.IOException;
 import java.security.*;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.apache.felix.resolver.reason.ReasonException;
 import org.apache.felix.resolver.util.ArrayMap;
@@ -45,6 +48,14 @@ public class ResolverImpl implements Resolver
 
     private final Executor m_executor;
 
+    // Package spaces of resolved resources kept between resolves, may be null
+    private final PackageSpaceCache m_packageSpaces;
+
+    // Number of resources each parallel task takes at once
+    private final int m_granularity;
+
+    public static final int DEFAULT_GRANULARITY = 4;
+
     enum PermutationType {
         USES,
         IMPORT,
@@ -358,13 +369,53 @@ public class ResolverImpl implements Resolver
         this.m_logger = logger;
         this.m_parallelism = parallelism;
         this.m_executor = null;
+        this.m_packageSpaces = null;
+        this.m_granularity = DEFAULT_GRANULARITY;
     }
 
     public ResolverImpl(Logger logger, Executor executor)
+    {
+        this(logger, executor, null);
+    }
+
+    /**
+     * Creates a resolver which reuses the package spaces of resolved resources
+     * calculated by previous resolves. The package space of a resource
+     * requiring a bundle also depends on the capabilities of the wiring of the
+     * required bundle, so the cache must be cleared when the capabilities of a
+     * wiring change.
+     *
+     * @param logger the logger
+     * @param executor the executor used to calculate package spaces in parallel
+     * @param packageSpaces the package spaces of resolved resources, or
+     *        {@code null} to calculate them for each resolve
+     */
+    public ResolverImpl(Logger logger, Executor executor, PackageSpaceCache packageSpaces)
+    {
+        this(logger, executor, packageSpaces, DEFAULT_GRANULARITY);
+    }
+
+    /**
+     * Creates a resolver which reuses the package spaces of resolved resources
+     * calculated by previous resolves and uses the specified granularity for
+     * the work done in parallel. Each parallel task takes the specified number
+     * of resources at once and takes more until there are none left.
+     *
+     * @param logger the logger
+     * @param executor the executor used to calculate and check package spaces
+     *        in parallel
+     * @param packageSpaces the package spaces of resolved resources, or
+     *        {@code null} to calculate them for each resolve
+     * @param granularity the number of resources a parallel task takes at once
+     * @see #ResolverImpl(Logger, Executor, PackageSpaceCache)
+     */
+    public ResolverImpl(Logger logger, Executor executor, PackageSpaceCache packageSpaces, int granularity)
     {
         this.m_logger = logger;
         this.m_parallelism = -1;
         this.m_executor = executor;
+        this.m_packageSpaces = packageSpaces;
+        this.m_granularity = Math.max(1, granularity);
     }
 
     public Map<Resource, List<Wire>> resolve(ResolveContext rc) throws ResolutionException
@@ -612,7 +663,13 @@ public class ResolverImpl implements Resolver
         // Calculate package spaces
         Map<Resource, Packages> resourcePkgMap =
             calculatePackageSpaces(session, allCandidates, allhosts.values());
+        if (session.isCancelled()) {
+            return null;
+        }
         ResolutionError error = null;
+        // Parallel find the package spaces without conflicts; only the others
+        // need to be checked in order to create the permutations to try next
+        Set<Resource> consistent = getConsistentPackageSpaces(session, resourcePkgMap);
         // Check package consistency
         Map<Resource, Object> resultCache =
                 new OpenHashMap<Resource, Object>(resourcePkgMap.size());
@@ -620,7 +677,7 @@ public class ResolverImpl implements Resolver
         {
             rethrow = checkPackageSpaceConsistency(
                     session, entry.getValue(),
-                    allCandidates, session.isDynamic(), resourcePkgMap, resultCache);
+                    allCandidates, session.isDynamic(), resourcePkgMap, resultCache, consistent);
             if (session.isCancelled()) {
                 return null;
             }
@@ -1165,35 +1222,50 @@ public class ResolverImpl implements Resolver
             executor.await();
         }
 
-        // Parallel get all exported packages
+        // Reuse the package spaces of resolved resources calculated by previous
+        // resolves; they only depend on the wirings, which have not changed.
         final OpenHashMap<Resource, Packages> allPackages = new OpenHashMap<Resource, Packages>(allCandidates.getNbResources());
-        for (final Resource resource : allWireCandidates.keySet())
+        final Set<Resource> reused = new HashSet<Resource>();
+        for (Resource resource : allWireCandidates.keySet())
         {
-            final Packages packages = new Packages(resource);
-            allPackages.put(resource, packages);
-            executor.execute(new Runnable()
+            Wiring wiring = getReusableWiring(session, resource);
+            PackageSpace packageSpace = wiring == null ? null : m_packageSpaces.get(resource, wiring);
+            if (packageSpace != null)
             {
-                public void run()
-                {
-                    calculateExportedPackages(session, allCandidates, resource,
-                        packages.m_exportedPkgs, packages.m_substitePkgs);
-                }
-            });
+                allPackages.put(resource, packageSpace.m_packages);
+                reused.add(resource);
+            }
         }
-        executor.await();
 
-        // Parallel compute package lists
-        for (final Resource resource : allWireCandidates.keySet())
+        final List<Resource> calculated = new ArrayList<Resource>(allWireCandidates.size());
+        for (Resource resource : allWireCandidates.keySet())
         {
-            executor.execute(new Runnable()
+            if (!reused.contains(resource))
             {
-                public void run()
-                {
-                    getPackages(session, allCandidates, allWireCandidates, allPackages, resource, allPackages.get(resource));
-                }
-            });
+                calculated.add(resource);
+                allPackages.put(resource, new Packages(resource));
+            }
         }
-        executor.await();
+
+        // Parallel get all exported packages
+        executor.executeAll(calculated, m_granularity, new Consumer<Resource>()
+        {
+            public void accept(Resource resource)
+            {
+                Packages packages = allPackages.get(resource);
+                calculateExportedPackages(session, allCandidates, resource,
+                    packages.m_exportedPkgs, packages.m_substitePkgs);
+            }
+        });
+
+        // Parallel compute package lists
+        executor.executeAll(calculated, m_granularity, new Consumer<Resource>()
+        {
+            public void accept(Resource resource)
+            {
+                getPackages(session, allCandidates, allWireCandidates, allPackages, resource, allPackages.get(resource));
+            }
+        });
 
         // Compute package sources
         // First, sequentially compute packages for resources
@@ -1203,46 +1275,62 @@ public class ResolverImpl implements Resolver
         {
             final Resource resource = entry.getKey();
             final Packages packages = entry.getValue();
-            if (!packages.m_requiredPkgs.isEmpty())
+            if (!packages.m_requiredPkgs.isEmpty() && !reused.contains(resource))
             {
                 getPackageSourcesInternal(session, allPackages, resource, packages);
             }
         }
         // Next, for all remaining resources, we can compute them
         // in parallel, as they won't refer to other resource packages
-        for (Map.Entry<Resource, Packages> entry : allPackages.fast())
+        List<Resource> remaining = new ArrayList<Resource>(calculated.size());
+        for (Resource resource : calculated)
         {
-            final Resource resource = entry.getKey();
-            final Packages packages = entry.getValue();
-            if (packages.m_sources.isEmpty())
+            if (allPackages.get(resource).m_sources.isEmpty())
             {
-                executor.execute(new Runnable()
-                {
-                    public void run()
-                    {
-                        getPackageSourcesInternal(session, allPackages, resource, packages);
-                    }
-                });
+                remaining.add(resource);
             }
         }
-        executor.await();
+        executor.executeAll(remaining, m_granularity, new Consumer<Resource>()
+        {
+            public void accept(Resource resource)
+            {
+                getPackageSourcesInternal(session, allPackages, resource, allPackages.get(resource));
+            }
+        });
 
         // Parallel compute uses
-        for (final Resource resource : allWireCandidates.keySet())
+        executor.executeAll(calculated, m_granularity, new Consumer<Resource>()
         {
-            executor.execute(new Runnable()
+            public void accept(Resource resource)
             {
-                public void run()
-                {
-                    computeUses(session, allWireCandidates, allPackages, resource);
-                }
-            });
+                computeUses(session, allWireCandidates, allPackages, resource);
+            }
+        });
+
+        // Keep the package spaces of resolved resources for later resolves
+        for (Map.Entry<Resource, Packages> entry : allPackages.fast())
+        {
+            Wiring wiring = reused.contains(entry.getKey()) ? null : getReusableWiring(session, entry.getKey());
+            if (wiring != null)
+            {
+                m_packageSpaces.put(entry.getKey(), wiring, new PackageSpace(entry.getValue()));
+            }
         }
-        executor.await();
 
         return allPackages;
     }
 
+    private Wiring getReusableWiring(ResolveSession session, Resource resource)
+    {
+        // The package space of a dynamically importing host includes
+        // the dynamic import and its uses constraints.
+        if (m_packageSpaces == null || resource.equals(session.getDynamicHost()))
+        {
+            return null;
+        }
+        return session.getContext().getWirings().get(resource);
+    }
+
     private static List<String> parseUses(String s) {
         int nb = 1;
         int l = s.length();
@@ -1314,13 +1402,103 @@ public class ResolverImpl implements Resolver
         }
     }
 
+    private Set<Resource> getConsistentPackageSpaces(
+        final ResolveSession session, final Map<Resource, Packages> resourcePkgMap)
+    {
+        List<Resource> resources = new ArrayList<Resource>(resourcePkgMap.size());
+        for (Resource resource : resourcePkgMap.keySet())
+        {
+            // The package spaces of resolved resources are only checked for
+            // the dynamically importing host.
+            if (resource.equals(session.getDynamicHost())
+                || !session.getContext().getWirings().containsKey(resource))
+            {
+                resources.add(resource);
+            }
+        }
+        final Set<Resource> consistent = Collections.newSetFromMap(new ConcurrentHashMap<Resource, Boolean>());
+        new EnhancedExecutor(session.getExecutor()).executeAll(resources, m_granularity, new Consumer<Resource>()
+        {
+            public void accept(Resource resource)
+            {
+                if (!session.isCancelled() && isPackageSpaceConsistent(resourcePkgMap.get(resource), resourcePkgMap))
+                {
+                    consistent.add(resource);
+                }
+            }
+        });
+        return consistent;
+    }
+
+    /**
+     * Checks the package space of a resource for conflicts without creating
+     * any permutation. The result is the same as the checks done by
+     * {@link #checkPackageSpaceConsistency} before checking the resources the
+     * resource depends on, except that a conflict which can be avoided by
+     * removing candidates of a multiple cardinality requirement is reported
+     * as a conflict.
+     */
+    private static boolean isPackageSpaceConsistent(Packages pkgs, Map<Resource, Packages> resourcePkgMap)
+    {
+        for (Entry<String, List<Blame>> entry : pkgs.m_importedPkgs.fast())
+        {
+            List<Blame> blames = entry.getValue();
+            for (int i = 1; i < blames.size(); i++)
+            {
+                if (!blames.get(0).m_cap.getResource().equals(blames.get(i).m_cap.getResource()))
+                {
+                    return false;
+                }
+            }
+        }
+        for (Entry<String, Blame> entry : pkgs.m_exportedPkgs.fast())
+        {
+            ArrayMap<Set<Capability>, UsedBlames> pkgBlames = pkgs.m_usedPkgs.get(entry.getKey());
+            if (pkgBlames != null)
+            {
+                for (UsedBlames usedBlames : pkgBlames.values())
+                {
+                    if (!isCompatible(entry.getValue(), usedBlames.m_caps, resourcePkgMap))
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        for (OpenHashMap<String, List<Blame>> pkgMap : Arrays.asList(pkgs.m_requiredPkgs, pkgs.m_importedPkgs))
+        {
+            for (Entry<String, List<Blame>> entry : pkgMap.fast())
+            {
+                ArrayMap<Set<Capability>, UsedBlames> pkgBlames = pkgs.m_usedPkgs.get(entry.getKey());
+                if (pkgBlames == null)
+                {
+                    continue;
+                }
+                // imported packages shadow the packages from required bundles
+                if (pkgMap == pkgs.m_requiredPkgs && pkgs.m_importedPkgs.containsKey(entry.getKey()))
+                {
+                    continue;
+                }
+                for (UsedBlames usedBlames : pkgBlames.values())
+                {
+                    if (!isCompatible(entry.getValue(), usedBlames.m_caps, resourcePkgMap))
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
     private ResolutionError checkPackageSpaceConsistency(
         ResolveSession session,
         Resource resource,
         Candidates allCandidates,
         boolean dynamic,
         Map<Resource, Packages> resourcePkgMap,
-        Map<Resource, Object> resultCache)
+        Map<Resource, Object> resultCache,
+        Set<Resource> consistent)
     {
         if (!dynamic && session.getContext().getWirings().containsKey(resource))
         {
@@ -1331,6 +1509,11 @@ public class ResolverImpl implements Resolver
         {
             return cache instanceof ResolutionError ? (ResolutionError) cache : null;
         }
+        if (consistent.contains(resource))
+        {
+            return checkDependencyPackageSpaceConsistency(
+                session, resource, allCandidates, resourcePkgMap, resultCache, consistent);
+        }
 
         Packages pkgs = resourcePkgMap.get(resource);
 
@@ -1507,6 +1690,18 @@ public class ResolverImpl implements Resolver
             }
         }
 
+        return checkDependencyPackageSpaceConsistency(
+            session, resource, allCandidates, resourcePkgMap, resultCache, consistent);
+    }
+
+    private ResolutionError checkDependencyPackageSpaceConsistency(
+        ResolveSession session,
+        Resource resource,
+        Candidates allCandidates,
+        Map<Resource, Packages> resourcePkgMap,
+        Map<Resource, Object> resultCache,
+        Set<Resource> consistent)
+    {
         resultCache.put(resource, Boolean.TRUE);
 
         // Now check the consistency of all resources on which the
@@ -1521,9 +1716,9 @@ public class ResolverImpl implements Resolver
             {
                 if (!resource.equals(cap.getResource()))
                 {
-                    rethrow = checkPackageSpaceConsistency(
+                    ResolutionError rethrow = checkPackageSpaceConsistency(
                             session, cap.getResource(),
-                            allCandidates, false, resourcePkgMap, resultCache);
+                            allCandidates, false, resourcePkgMap, resultCache, consistent);
                     if (session.isCancelled()) {
                         return null;
                     }
@@ -2155,6 +2350,315 @@ public class ResolverImpl implements Resolver
         }
     }
 
+    /**
+     * Keeps the package spaces of resolved resources between resolves. A
+     * package space is only valid for a wiring with the same capabilities and
+     * required wires as the wiring it was calculated from. Must be thread safe.
+     */
+    public interface PackageSpaceCache
+    {
+        /**
+         * Returns the package space kept for the resource if it was calculated
+         * from a wiring with the same capabilities and required wires as the
+         * specified wiring.
+         *
+         * @param resource the resolved resource
+         * @param wiring the current wiring of the resource
+         * @return the package space, or {@code null}
+         */
+        PackageSpace get(Resource resource, Wiring wiring);
+
+        /**
+         * Keeps the package space calculated for the resource.
+         *
+         * @param resource the resolved resource
+         * @param wiring the wiring the package space was calculated from
+         * @param packageSpace the package space
+         */
+        void put(Resource resource, Wiring wiring, PackageSpace packageSpace);
+    }
+
+    /**
+     * Writes the parts of a package space, the format is up to the
+     * implementation.
+     */
+    public interface PackageSpaceOutput
+    {
+        void writeInt(int value) throws IOException;
+
+        void writeString(String value) throws IOException;
+
+        void writeResource(Resource resource) throws IOException;
+
+        void writeCapability(Capability capability) throws IOException;
+
+        void writeRequirement(Requirement requirement) throws IOException;
+    }
+
+    /**
+     * Reads the parts of a package space written by a
+     * {@link PackageSpaceOutput}.
+     */
+    public interface PackageSpaceInput
+    {
+        int readInt() throws IOException;
+
+        String readString() throws IOException;
+
+        Resource readResource() throws IOException;
+
+        Capability readCapability() throws IOException;
+
+        Requirement readRequirement() throws IOException;
+    }
+
+    /**
+     * The package space calculated for a resolved resource. It can be written
+     * with {@link #write(PackageSpaceOutput)} and read back with
+     * {@link #read(Resource, PackageSpaceInput)}.
+     */
+    public static final class PackageSpace
+    {
+        private static final int DECLARED = 0;
+        private static final int WRAPPED = 1;
+
+        final Packages m_packages;
+
+        PackageSpace(Packages packages)
+        {
+            m_packages = packages;
+        }
+
+        public void write(PackageSpaceOutput out) throws IOException
+        {
+            writeBlameMap(m_packages.m_exportedPkgs, out);
+            writeBlameMap(m_packages.m_substitePkgs, out);
+            writeBlameListMap(m_packages.m_importedPkgs, out);
+            writeBlameListMap(m_packages.m_requiredPkgs, out);
+            out.writeInt(m_packages.m_usedPkgs.size());
+            for (Entry<String, ArrayMap<Set<Capability>, UsedBlames>> entry : m_packages.m_usedPkgs.fast())
+            {
+                out.writeString(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (UsedBlames usedBlames : entry.getValue().values())
+                {
+                    writeCapabilities(usedBlames.m_caps, out);
+                    writeBlames(usedBlames.m_blames, out);
+                    Map<Requirement, Set<Capability>> rootCauses = usedBlames.m_rootCauses;
+                    out.writeInt(rootCauses == null ? -1 : rootCauses.size());
+                    if (rootCauses != null)
+                    {
+                        for (Entry<Requirement, Set<Capability>> rootCause : rootCauses.entrySet())
+                        {
+                            writeRequirement(rootCause.getKey(), out);
+                            writeCapabilities(rootCause.getValue(), out);
+                        }
+                    }
+                }
+            }
+            out.writeInt(m_packages.m_sources.size());
+            for (Entry<Capability, Set<Capability>> entry : m_packages.m_sources.fast())
+            {
+                writeCapability(entry.getKey(), out);
+                writeCapabilities(entry.getValue(), out);
+            }
+        }
+
+        public static PackageSpace read(Resource resource, PackageSpaceInput in) throws IOException
+        {
+            Packages packages = new Packages(resource);
+            readBlameMap(packages.m_exportedPkgs, in);
+            readBlameMap(packages.m_substitePkgs, in);
+            readBlameListMap(packages.m_importedPkgs, in);
+            readBlameListMap(packages.m_requiredPkgs, in);
+            int numUsedPkgs = in.readInt();
+            for (int i = 0; i < numUsedPkgs; i++)
+            {
+                ArrayMap<Set<Capability>, UsedBlames> usedPkgBlames = packages.m_usedPkgs.getOrCompute(in.readString());
+                int numUsedBlames = in.readInt();
+                for (int j = 0; j < numUsedBlames; j++)
+                {
+                    UsedBlames usedBlames = usedPkgBlames.getOrCompute(readCapabilities(in));
+                    usedBlames.m_blames.addAll(readBlames(in));
+                    int numRootCauses = in.readInt();
+                    if (numRootCauses >= 0)
+                    {
+                        usedBlames.m_rootCauses = new HashMap<Requirement, Set<Capability>>();
+                        for (int k = 0; k < numRootCauses; k++)
+                        {
+                            usedBlames.m_rootCauses.put(readRequirement(in), readCapabilities(in));
+                        }
+                    }
+                }
+            }
+            int numSources = in.readInt();
+            for (int i = 0; i < numSources; i++)
+            {
+                packages.m_sources.put(readCapability(in), readCapabilities(in));
+            }
+            return new PackageSpace(packages);
+        }
+
+        private static void writeBlameMap(Map<String, Blame> blames, PackageSpaceOutput out) throws IOException
+        {
+            out.writeInt(blames.size());
+            for (Entry<String, Blame> entry : blames.entrySet())
+            {
+                out.writeString(entry.getKey());
+                writeBlame(entry.getValue(), out);
+            }
+        }
+
+        private static void writeBlameListMap(OpenHashMap<String, List<Blame>> blames, PackageSpaceOutput out)
+            throws IOException
+        {
+            out.writeInt(blames.size());
+            for (Entry<String, List<Blame>> entry : blames.fast())
+            {
+                out.writeString(entry.getKey());
+                writeBlames(entry.getValue(), out);
+            }
+        }
+
+        private static void writeBlames(List<Blame> blames, PackageSpaceOutput out) throws IOException
+        {
+            out.writeInt(blames.size());
+            for (Blame blame : blames)
+            {
+                writeBlame(blame, out);
+            }
+        }
+
+        private static void writeBlame(Blame blame, PackageSpaceOutput out) throws IOException
+        {
+            writeCapability(blame.m_cap, out);
+            out.writeInt(blame.m_reqs == null ? -1 : blame.m_reqs.size());
+            if (blame.m_reqs != null)
+            {
+                for (Requirement req : blame.m_reqs)
+                {
+                    writeRequirement(req, out);
+                }
+            }
+        }
+
+        private static void writeCapabilities(Set<Capability> caps, PackageSpaceOutput out) throws IOException
+        {
+            out.writeInt(caps.size());
+            for (Capability cap : caps)
+            {
+                writeCapability(cap, out);
+            }
+        }
+
+        private static void writeCapability(Capability cap, PackageSpaceOutput out) throws IOException
+        {
+            if (cap instanceof WrappedCapability)
+            {
+                out.writeInt(WRAPPED);
+                out.writeResource(cap.getResource());
+                out.writeCapability(((WrappedCapability) cap).getDeclaredCapability());
+            }
+            else
+            {
+                out.writeInt(DECLARED);
+                out.writeCapability(cap);
+            }
+        }
+
+        private static void writeRequirement(Requirement req, PackageSpaceOutput out) throws IOException
+        {
+            if (req instanceof WrappedRequirement)
+            {
+                out.writeInt(WRAPPED);
+                out.writeResource(req.getResource());
+                out.writeRequirement(((WrappedRequirement) req).getDeclaredRequirement());
+            }
+            else
+            {
+                out.writeInt(DECLARED);
+                out.writeRequirement(req);
+            }
+        }
+
+        private static void readBlameMap(Map<String, Blame> blames, PackageSpaceInput in) throws IOException
+        {
+            int num = in.readInt();
+            for (int i = 0; i < num; i++)
+            {
+                blames.put(in.readString(), readBlame(in));
+            }
+        }
+
+        private static void readBlameListMap(Map<String, List<Blame>> blames, PackageSpaceInput in)
+            throws IOException
+        {
+            int num = in.readInt();
+            for (int i = 0; i < num; i++)
+            {
+                blames.put(in.readString(), readBlames(in));
+            }
+        }
+
+        private static List<Blame> readBlames(PackageSpaceInput in) throws IOException
+        {
+            int num = in.readInt();
+            List<Blame> blames = new ArrayList<Blame>(num);
+            for (int i = 0; i < num; i++)
+            {
+                blames.add(readBlame(in));
+            }
+            return blames;
+        }
+
+        private static Blame readBlame(PackageSpaceInput in) throws IOException
+        {
+            Capability cap = readCapability(in);
+            int numReqs = in.readInt();
+            List<Requirement> reqs = null;
+            if (numReqs >= 0)
+            {
+                reqs = new ArrayList<Requirement>(numReqs);
+                for (int i = 0; i < numReqs; i++)
+                {
+                    reqs.add(readRequirement(in));
+                }
+            }
+            return new Blame(cap, reqs);
+        }
+
+        private static Set<Capability> readCapabilities(PackageSpaceInput in) throws IOException
+        {
+            int num = in.readInt();
+            Set<Capability> caps = new HashSet<Capability>(num);
+            for (int i = 0; i < num; i++)
+            {
+                caps.add(readCapability(in));
+            }
+            return caps;
+        }
+
+        private static Capability readCapability(PackageSpaceInput in) throws IOException
+        {
+            if (in.readInt() == WRAPPED)
+            {
+                Resource host = in.readResource();
+                return new WrappedCapability(host, in.readCapability());
+            }
+            return in.readCapability();
+        }
+
+        private static Requirement readRequirement(PackageSpaceInput in) throws IOException
+        {
+            if (in.readInt() == WRAPPED)
+            {
+                Resource host = in.readResource();
+                return new WrappedRequirement(host, in.readRequirement());
+            }
+            return in.readRequirement();
+        }
+    }
+
     private static class Blame
     {
         public final Capability m_cap;
@@ -2479,6 +2983,40 @@ public class ResolverImpl implements Resolver
             this.executor = executor;
         }
 
+        /**
+         * Performs the action for each of the elements in parallel and waits
+         * for all of them. Instead of a task for each element a task for each
+         * processor is executed which takes the next batch of elements until
+         * there are none left, so that a thread done with its elements takes
+         * on the remaining elements of the others.
+         */
+        public <T> void executeAll(final List<T> elements, final int granularity, final Consumer<T> action)
+        {
+            final AtomicInteger next = new AtomicInteger();
+            Runnable batches = new Runnable()
+            {
+                public void run()
+                {
+                    int start;
+                    while ((start = next.getAndAdd(granularity)) < elements.size())
+                    {
+                        int end = Math.min(start + granularity, elements.size());
+                        for (int i = start; i < end; i++)
+                        {
+                            action.accept(elements.get(i));
+                        }
+                    }
+                }
+            };
+            int tasks = Math.min(Runtime.getRuntime().availableProcessors(),
+                (elements.size() + granularity - 1) / granularity);
+            for (int i = 0; i < tasks; i++)
+            {
+                execute(batches);
+            }
+            await();
+        }
+
         public void execute(final Runnable runnable)
         {
             FutureTask<Void> task = new FutureTask<Void>(new Runnable()